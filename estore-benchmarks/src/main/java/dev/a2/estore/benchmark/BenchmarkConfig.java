@@ -0,0 +1,60 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Andrei Sidorov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.a2.estore.benchmark;
+
+import javax.jms.ConnectionFactory;
+import javax.jms.Destination;
+import javax.naming.NamingException;
+
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.mock.jndi.SimpleNamingContextBuilder;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * This class provides the configuration of the application context the benchmarks run in.
+ * It is the whole estore context, as in the integration tests, with the JMS resources
+ * of the application server replaced by mocks.
+ *
+ * @author Andrei Sidorov
+ */
+@Configuration
+@ComponentScan("dev.a2.estore")
+public class BenchmarkConfig {
+
+    /**
+     * Binds the JNDI resources the application looks up.
+     *
+     * @throws NamingException if the resources cannot be bound.
+     */
+    BenchmarkConfig() throws NamingException {
+        SimpleNamingContextBuilder builder = SimpleNamingContextBuilder.emptyActivatedContextBuilder();
+        builder.bind("java:/ConnectionFactory", mock(ConnectionFactory.class));
+        builder.bind("java:/jms/queue/MyQueue", mock(Destination.class));
+    }
+
+}
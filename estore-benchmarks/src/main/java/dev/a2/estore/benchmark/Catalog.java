@@ -0,0 +1,167 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Andrei Sidorov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.a2.estore.benchmark;
+
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+
+/**
+ * This class holds the application context started against an in-memory database
+ * filled with a generated catalog. The sizes of the catalog are benchmark parameters,
+ * e.g. '-p products=100000 -p orders=50000'.
+ *
+ * @author Andrei Sidorov
+ */
+@State(Scope.Benchmark)
+public class Catalog {
+
+    /**
+     * The number of products.
+     */
+    @Param({"1000", "10000"})
+    public int products;
+
+    /**
+     * The number of leaf categories.
+     */
+    @Param("50")
+    public int categories;
+
+    /**
+     * The number of attributes of every product.
+     */
+    @Param("5")
+    public int attributes;
+
+    /**
+     * The number of distinct values of every attribute.
+     */
+    @Param("10")
+    public int values;
+
+    /**
+     * The number of orders.
+     */
+    @Param("10000")
+    public int orders;
+
+    /**
+     * The number of products in every order.
+     */
+    @Param("3")
+    public int orderLines;
+
+    /**
+     * The application context.
+     */
+    private AnnotationConfigWebApplicationContext context;
+
+    /**
+     * Starts the application context and generates the catalog.
+     *
+     * @throws SQLException if the catalog cannot be generated.
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        context = startContext(BenchmarkConfig.class);
+        new CatalogGenerator(context.getBean(DataSource.class))
+                .generate(categories, products, attributes, values, orders, orderLines);
+        refreshIndexes(context);
+    }
+
+    /**
+     * Closes the application context.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * Returns a bean of the application context.
+     *
+     * @param type the type of the bean.
+     * @param <T> the type of the bean.
+     * @return the bean.
+     */
+    public <T> T getBean(final Class<T> type) {
+        return context.getBean(type);
+    }
+
+    /**
+     * Starts the application context with the given configuration classes.
+     *
+     * @param componentClasses the configuration classes.
+     * @return the started context.
+     */
+    static AnnotationConfigWebApplicationContext startContext(final Class<?>... componentClasses) {
+        AnnotationConfigWebApplicationContext context = new AnnotationConfigWebApplicationContext();
+        context.setServletContext(new MockServletContext());
+        context.register(componentClasses);
+        context.refresh();
+        return context;
+    }
+
+    /**
+     * Rebuilds the indexes, rankings and the revenue rollup which were built
+     * from an empty database when the context was started.
+     *
+     * @param context the context.
+     */
+    static void refreshIndexes(final AnnotationConfigWebApplicationContext context) {
+        context.publishEvent(new ContextRefreshedEvent(context));
+    }
+
+    /**
+     * Returns the id of the first folder.
+     *
+     * @return the id of the folder.
+     */
+    public Long getFolderId() {
+        return 1L;
+    }
+
+    /**
+     * Returns the id of the first leaf category.
+     *
+     * @return the id of the category.
+     */
+    public Long getCategoryId() {
+        return (long) CatalogGenerator.countFolders(categories) + 1;
+    }
+
+}
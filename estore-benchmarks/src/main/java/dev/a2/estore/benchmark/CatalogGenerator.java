@@ -0,0 +1,269 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Andrei Sidorov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.a2.estore.benchmark;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.Random;
+
+import javax.sql.DataSource;
+
+/**
+ * This class fills the database with a generated catalog: folders of leaf categories, products
+ * with attributes and orders of the user created by 'data.sql', spread over the last year.
+ * The random values are seeded, so the same sizes always produce the same catalog.
+ *
+ * @author Andrei Sidorov
+ */
+public final class CatalogGenerator {
+
+    /**
+     * The number of statements sent to the database in one batch.
+     */
+    private static final int BATCH_SIZE = 1000;
+
+    /**
+     * The number of leaf categories in a folder.
+     */
+    private static final int CATEGORIES_PER_FOLDER = 10;
+
+    /**
+     * The id of the user and of the address created by 'data.sql'.
+     */
+    private static final long CLIENT_ID = 1L;
+
+    /**
+     * The data source to fill.
+     */
+    private final DataSource dataSource;
+
+    /**
+     * The source of the generated values.
+     */
+    private final Random random = new Random(42);
+
+    /**
+     * Constructor.
+     *
+     * @param dataSource the data source to fill.
+     */
+    public CatalogGenerator(final DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * Returns the number of folders that hold the given number of leaf categories.
+     *
+     * @param categories the number of leaf categories.
+     * @return the number of folders.
+     */
+    public static int countFolders(final int categories) {
+        return (categories + CATEGORIES_PER_FOLDER - 1) / CATEGORIES_PER_FOLDER;
+    }
+
+    /**
+     * Generates the catalog in one transaction.
+     *
+     * @param categories the number of leaf categories.
+     * @param products the number of products.
+     * @param attributes the number of attributes of every product.
+     * @param values the number of distinct values of every attribute.
+     * @param orders the number of orders.
+     * @param orderLines the number of products in every order.
+     * @throws SQLException if the rows cannot be inserted.
+     */
+    public void generate(final int categories, final int products, final int attributes, final int values,
+                         final int orders, final int orderLines) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            insertCategories(connection, categories);
+            insertProducts(connection, categories, products);
+            insertAttributes(connection, products, attributes, values);
+            insertOrders(connection, products, orders, Math.min(orderLines, products));
+            connection.commit();
+        }
+    }
+
+    /**
+     * Inserts the folders with ids starting from 1 and then the leaf categories.
+     *
+     * @param connection the connection.
+     * @param categories the number of leaf categories.
+     * @throws SQLException if the rows cannot be inserted.
+     */
+    private void insertCategories(final Connection connection, final int categories) throws SQLException {
+        int folders = countFolders(categories);
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO categories (category_id, name, type, parentCategory_category_id) VALUES (?, ?, ?, ?)")) {
+            for (long id = 1; id <= folders + categories; id++) {
+                boolean isFolder = id <= folders;
+                statement.setLong(1, id);
+                statement.setString(2, (isFolder ? "Folder " : "Category ") + id);
+                statement.setString(3, isFolder ? "folder" : "category");
+                if (isFolder) {
+                    statement.setNull(4, Types.BIGINT);
+                } else {
+                    statement.setLong(4, (id - folders - 1) / CATEGORIES_PER_FOLDER + 1);
+                }
+                addBatch(statement, id);
+            }
+            statement.executeBatch();
+        }
+    }
+
+    /**
+     * Inserts the products spread evenly over the leaf categories.
+     *
+     * @param connection the connection.
+     * @param categories the number of leaf categories.
+     * @param products the number of products.
+     * @throws SQLException if the rows cannot be inserted.
+     */
+    private void insertProducts(final Connection connection, final int categories, final int products)
+            throws SQLException {
+        int folders = countFolders(categories);
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO products (product_id, name, selling_price, image_url, height, width, depth, weight, "
+                        + "quantity_in_stock, quantity_reserved, sale_count, category_id, measure_units_id) "
+                        + "VALUES (?, ?, ?, '/resources/img/no-image.png', 0.1, 0.1, 0.1, 0.1, ?, 0, ?, ?, 1)")) {
+            for (long id = 1; id <= products; id++) {
+                statement.setLong(1, id);
+                statement.setString(2, "Product " + id);
+                statement.setBigDecimal(3, BigDecimal.valueOf(100 + random.nextInt(100_000), 2));
+                statement.setInt(4, random.nextInt(1000));
+                statement.setLong(5, random.nextInt(1000));
+                statement.setLong(6, folders + 1 + (id - 1) % categories);
+                addBatch(statement, id);
+            }
+            statement.executeBatch();
+        }
+    }
+
+    /**
+     * Inserts the attributes and gives every product a random value of each of them.
+     *
+     * @param connection the connection.
+     * @param products the number of products.
+     * @param attributes the number of attributes.
+     * @param values the number of distinct values of every attribute.
+     * @throws SQLException if the rows cannot be inserted.
+     */
+    private void insertAttributes(final Connection connection, final int products, final int attributes,
+                                  final int values) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO attributes (attribute_id, name) VALUES (?, ?)")) {
+            for (long id = 1; id <= attributes; id++) {
+                statement.setLong(1, id);
+                statement.setString(2, "Attribute " + id);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO products_attributes (product_id, attribute_id, value) VALUES (?, ?, ?)")) {
+            long count = 0;
+            for (long productId = 1; productId <= products; productId++) {
+                for (long attributeId = 1; attributeId <= attributes; attributeId++) {
+                    statement.setLong(1, productId);
+                    statement.setLong(2, attributeId);
+                    statement.setString(3, "Value " + (random.nextInt(values) + 1));
+                    addBatch(statement, ++count);
+                }
+            }
+            statement.executeBatch();
+        }
+    }
+
+    /**
+     * Inserts the orders with distinct products in every order.
+     *
+     * @param connection the connection.
+     * @param products the number of products.
+     * @param orders the number of orders.
+     * @param orderLines the number of products in every order.
+     * @throws SQLException if the rows cannot be inserted.
+     */
+    private void insertOrders(final Connection connection, final int products, final int orders,
+                              final int orderLines) throws SQLException {
+        LocalDateTime now = LocalDateTime.now();
+        try (PreparedStatement orderStatement = connection.prepareStatement(
+                "INSERT INTO orders (order_id, creation_date_time, order_status, payment_method, payment_status, "
+                        + "shipping_method, total_purchasing_price, total_selling_price, address_id, user_id) "
+                        + "VALUES (?, ?, 1, 0, 0, 0, ?, ?, ?, ?)");
+             PreparedStatement lineStatement = connection.prepareStatement(
+                "INSERT INTO orders_products (selling_price, quantity, product_id, order_id) VALUES (?, ?, ?, ?)")) {
+            for (long id = 1; id <= orders; id++) {
+                BigDecimal totalSellingPrice = BigDecimal.ZERO;
+                int firstProduct = random.nextInt(products);
+                for (int line = 0; line < orderLines; line++) {
+                    BigDecimal sellingPrice = BigDecimal.valueOf(100 + random.nextInt(100_000), 2);
+                    int quantity = random.nextInt(10) + 1;
+                    totalSellingPrice = totalSellingPrice.add(sellingPrice.multiply(BigDecimal.valueOf(quantity)));
+                    lineStatement.setBigDecimal(1, sellingPrice);
+                    lineStatement.setInt(2, quantity);
+                    lineStatement.setLong(3, (firstProduct + line) % products + 1);
+                    lineStatement.setLong(4, id);
+                    lineStatement.addBatch();
+                }
+                orderStatement.setLong(1, id);
+                orderStatement.setTimestamp(2, Timestamp.valueOf(now.minusMinutes(random.nextInt(365 * 24 * 60))));
+                orderStatement.setBigDecimal(3, totalSellingPrice.multiply(new BigDecimal("0.7"))
+                        .setScale(2, BigDecimal.ROUND_HALF_EVEN));
+                orderStatement.setBigDecimal(4, totalSellingPrice);
+                orderStatement.setLong(5, CLIENT_ID);
+                orderStatement.setLong(6, CLIENT_ID);
+                orderStatement.addBatch();
+                if (id % BATCH_SIZE == 0) {
+                    // The lines refer to the orders, so the orders go first.
+                    orderStatement.executeBatch();
+                    lineStatement.executeBatch();
+                }
+            }
+            orderStatement.executeBatch();
+            lineStatement.executeBatch();
+        }
+    }
+
+    /**
+     * Adds a statement to the batch and sends the batch when it is full.
+     *
+     * @param statement the statement.
+     * @param count the number of statements added so far including this one.
+     * @throws SQLException if the batch cannot be executed.
+     */
+    private static void addBatch(final PreparedStatement statement, final long count) throws SQLException {
+        statement.addBatch();
+        if (count % BATCH_SIZE == 0) {
+            statement.executeBatch();
+        }
+    }
+
+}
@@ -0,0 +1,158 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Andrei Sidorov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.a2.estore.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import dev.a2.estore.model.Category;
+import dev.a2.estore.service.CategoryService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This class benchmarks the lookups of the leaf categories under a folder.
+ *
+ * @author Andrei Sidorov
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CategoryServiceBenchmark {
+
+    /**
+     * The category service.
+     */
+    private CategoryService categoryService;
+
+    /**
+     * Takes the category service from the catalog.
+     *
+     * @param catalog the catalog.
+     */
+    @Setup(Level.Trial)
+    public void setUp(final Catalog catalog) {
+        categoryService = catalog.getBean(CategoryService.class);
+    }
+
+    /**
+     * Collects the ids of the leaf categories of a tree kept in memory.
+     *
+     * @param treeState the tree.
+     * @return the ids.
+     */
+    @Benchmark
+    public List<Long> getSubCategoriesIds(final TreeState treeState) {
+        return categoryService.getSubCategoriesIds(treeState.topLevelCategories);
+    }
+
+    /**
+     * Collects the ids of the leaf categories under a folder of the catalog.
+     *
+     * @param catalog the catalog.
+     * @return the ids.
+     */
+    @Benchmark
+    public List<Long> getLeafCategoriesIds(final Catalog catalog) {
+        return categoryService.getLeafCategoriesIds(catalog.getFolderId());
+    }
+
+    /**
+     * This class holds a tree of categories with a configurable shape.
+     */
+    @State(Scope.Benchmark)
+    public static class TreeState {
+
+        /**
+         * The number of levels of folders.
+         */
+        @Param({"2", "4"})
+        public int depth;
+
+        /**
+         * The number of children of every folder.
+         */
+        @Param("10")
+        public int width;
+
+        /**
+         * The top level of the tree.
+         */
+        private List<Category> topLevelCategories;
+
+        /**
+         * The id of the next category.
+         */
+        private long nextId;
+
+        /**
+         * Builds the tree.
+         */
+        @Setup(Level.Trial)
+        public void setUp() {
+            nextId = 1;
+            topLevelCategories = createLevel(depth);
+        }
+
+        /**
+         * Builds a level of the tree.
+         *
+         * @param levels the number of levels of folders below and including this one.
+         * @return the categories of the level.
+         */
+        private List<Category> createLevel(final int levels) {
+            List<Category> level = new ArrayList<>();
+            for (int i = 0; i < width; i++) {
+                Category category = new Category();
+                category.setId(nextId++);
+                category.setName("Category " + category.getId());
+                if (levels == 0) {
+                    category.setType("category");
+                } else {
+                    category.setType("folder");
+                    category.setSubCategories(createLevel(levels - 1));
+                }
+                level.add(category);
+            }
+            return level;
+        }
+    }
+
+}
@@ -0,0 +1,463 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Andrei Sidorov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.a2.estore.benchmark;
+
+import java.io.PrintStream;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.sql.DataSource;
+
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * This class drives concurrent checkouts through the controllers of the whole application:
+ * adding products to the cart, '/checkout/reserve' and '/checkout', against the in-memory database,
+ * with payment, email and JMS replaced by CheckoutStubs. All virtual users compete for a small set
+ * of hot products, so the run reports reservation conflicts and lock failures along with throughput
+ * and latency percentiles, and finally checks that no unit of stock was lost or sold twice.
+ *
+ * The load is configured with system properties:
+ * 'load.users' (16), 'load.checkouts' per user (50), 'load.products' (1000), 'load.hot.products' (10),
+ * 'load.cart.lines' (3), 'load.stock' per product (100) and 'load.payment.latency.ms' (0).
+ * Application properties such as 'product.reserve.strategy' can be overridden the same way.
+ * Run with 'java -Dload.users=64 -cp estore-benchmarks/target/benchmarks.jar
+ * dev.a2.estore.benchmark.CheckoutLoadTest'.
+ *
+ * @author Andrei Sidorov
+ */
+public final class CheckoutLoadTest {
+
+    /**
+     * The email of the client created by 'data.sql'.
+     */
+    private static final String CLIENT_EMAIL = "client@mail.dev";
+
+    /**
+     * The id of the address of the client created by 'data.sql'.
+     */
+    private static final String CLIENT_ADDRESS_ID = "1";
+
+    /**
+     * The outcomes of a checkout.
+     */
+    enum Outcome {
+
+        /**
+         * The order has been placed.
+         */
+        PURCHASED,
+
+        /**
+         * A product was refused when added to the cart because its stock ran out.
+         */
+        OUT_OF_STOCK,
+
+        /**
+         * The products could not be reserved because others had reserved them first.
+         */
+        RESERVE_CONFLICT,
+
+        /**
+         * The reserve was gone when the order was being placed.
+         */
+        RESERVE_LOST,
+
+        /**
+         * A request failed because of a deadlock or a lock timeout.
+         */
+        LOCK_FAILURE,
+
+        /**
+         * A request failed for any other reason.
+         */
+        ERROR
+    }
+
+    /**
+     * The application context.
+     */
+    private final AnnotationConfigWebApplicationContext context;
+
+    /**
+     * The number of hot products every cart is filled from.
+     */
+    private final int hotProducts;
+
+    /**
+     * The number of products in every cart.
+     */
+    private final int cartLines;
+
+    /**
+     * The number of checkouts with each outcome.
+     */
+    private final Map<Outcome, LongAdder> outcomes = new EnumMap<>(Outcome.class);
+
+    /**
+     * The latencies in nanoseconds mapped by the names of the steps.
+     */
+    private final Map<String, Queue<Long>> latencies = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param context the started application context.
+     * @param hotProducts the number of hot products every cart is filled from.
+     * @param cartLines the number of products in every cart.
+     */
+    CheckoutLoadTest(final AnnotationConfigWebApplicationContext context, final int hotProducts,
+                     final int cartLines) {
+        this.context = context;
+        this.hotProducts = hotProducts;
+        this.cartLines = Math.min(cartLines, hotProducts);
+        for (Outcome outcome : Outcome.values()) {
+            outcomes.put(outcome, new LongAdder());
+        }
+    }
+
+    /**
+     * Starts the application, generates the catalog, runs the load and prints the report.
+     *
+     * @param args not used.
+     * @throws Exception if the application cannot be started or the load cannot be run.
+     */
+    public static void main(final String[] args) throws Exception {
+        int users = Integer.getInteger("load.users", 16);
+        int checkouts = Integer.getInteger("load.checkouts", 50);
+        int products = Integer.getInteger("load.products", 1000);
+        int hotProducts = Math.min(Integer.getInteger("load.hot.products", 10), products);
+        int cartLines = Integer.getInteger("load.cart.lines", 3);
+        int stock = Integer.getInteger("load.stock", 100);
+
+        AnnotationConfigWebApplicationContext context =
+                Catalog.startContext(BenchmarkConfig.class, CheckoutStubs.class);
+        try {
+            DataSource dataSource = context.getBean(DataSource.class);
+            new CatalogGenerator(dataSource).generate(50, products, 5, 10, 0, 0);
+            setStock(dataSource, stock);
+            Catalog.refreshIndexes(context);
+
+            CheckoutLoadTest loadTest = new CheckoutLoadTest(context, hotProducts, cartLines);
+            long elapsed = loadTest.run(users, checkouts);
+            PrintStream out = System.out;
+            out.printf("Checkout load: %d users x %d checkouts, %d hot products, %d products per cart%n",
+                    users, checkouts, hotProducts, loadTest.cartLines);
+            loadTest.printReport(out, elapsed);
+            loadTest.printStockCheck(out, dataSource, stock);
+        } finally {
+            context.close();
+        }
+    }
+
+    /**
+     * Runs the checkouts of all virtual users at once.
+     *
+     * @param users the number of concurrent users.
+     * @param checkouts the number of checkouts of every user.
+     * @return the duration of the run in nanoseconds.
+     * @throws Exception if a user thread fails.
+     */
+    long run(final int users, final int checkouts) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(users);
+        CountDownLatch startSignal = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int user = 0; user < users; user++) {
+            long seed = user;
+            futures.add(executor.submit(() -> {
+                startSignal.await();
+                runUser(new Random(seed), checkouts);
+                return null;
+            }));
+        }
+        long start = System.nanoTime();
+        startSignal.countDown();
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * Runs the checkouts of one virtual user one after another.
+     *
+     * @param random the source of the products and quantities of the user.
+     * @param checkouts the number of checkouts.
+     */
+    private void runUser(final Random random, final int checkouts) {
+        MockMvc mockMvc = MockMvcBuilders
+                .webAppContextSetup(context)
+                .defaultRequest(get("/").with(user(CLIENT_EMAIL).roles("CLIENT")))
+                .apply(springSecurity())
+                .build();
+        for (int i = 0; i < checkouts; i++) {
+            long start = System.nanoTime();
+            Outcome outcome;
+            try {
+                outcome = checkout(mockMvc, random);
+            } catch (Exception e) {
+                outcome = isLockFailure(e) ? Outcome.LOCK_FAILURE : Outcome.ERROR;
+            }
+            outcomes.get(outcome).increment();
+            if (outcome == Outcome.PURCHASED) {
+                time("checkout flow", start);
+            }
+        }
+    }
+
+    /**
+     * Goes through one checkout in a new session.
+     *
+     * @param mockMvc the client of the application.
+     * @param random the source of the products and quantities.
+     * @return the outcome.
+     * @throws Exception if a request cannot be performed.
+     */
+    private Outcome checkout(final MockMvc mockMvc, final Random random) throws Exception {
+        MockHttpSession session = new MockHttpSession();
+
+        List<Long> productsIds = new ArrayList<>();
+        for (long id = 1; id <= hotProducts; id++) {
+            productsIds.add(id);
+        }
+        Collections.shuffle(productsIds, random);
+        for (Long productId : productsIds.subList(0, cartLines)) {
+            long start = System.nanoTime();
+            MvcResult result = mockMvc.perform(post("/order/product/add")
+                    .session(session)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"productId\":" + productId + ",\"quantity\":" + (random.nextInt(3) + 1) + "}"))
+                    .andReturn();
+            time("add to cart", start);
+            Outcome failure = getFailure(result);
+            if (failure != null) {
+                return failure;
+            }
+            if (result.getResponse().getStatus() == 400) {
+                return Outcome.OUT_OF_STOCK;
+            }
+        }
+
+        long start = System.nanoTime();
+        MvcResult result = mockMvc.perform(get("/checkout/reserve").session(session)).andReturn();
+        time("reserve", start);
+        Outcome failure = getFailure(result);
+        if (failure != null) {
+            return failure;
+        }
+        if ("/order".equals(result.getResponse().getRedirectedUrl())) {
+            return Outcome.RESERVE_CONFLICT;
+        }
+
+        start = System.nanoTime();
+        result = mockMvc.perform(post("/checkout")
+                .session(session)
+                .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                .param("paymentMethod", "CARD")
+                .param("shippingMethod", "STANDARD")
+                .param("addressId", CLIENT_ADDRESS_ID)
+                .param("cardNumber", "4111111111111111")
+                .param("nameOnCard", "Client Lastname")
+                .param("expirationMonth", "12")
+                .param("expirationYear", "2030")
+                .param("CVV", "123"))
+                .andReturn();
+        time("checkout", start);
+        failure = getFailure(result);
+        if (failure != null) {
+            return failure;
+        }
+        return "/message".equals(result.getResponse().getRedirectedUrl()) ? Outcome.PURCHASED : Outcome.RESERVE_LOST;
+    }
+
+    /**
+     * Returns the outcome of a request that failed with an exception handled by the application.
+     *
+     * @param result the result of the request.
+     * @return the outcome or null if the request has not failed.
+     */
+    private static Outcome getFailure(final MvcResult result) {
+        Exception exception = result.getResolvedException();
+        if (exception == null) {
+            return null;
+        }
+        return isLockFailure(exception) ? Outcome.LOCK_FAILURE : Outcome.ERROR;
+    }
+
+    /**
+     * Checks whether an exception was caused by a deadlock or a lock timeout.
+     *
+     * @param exception the exception.
+     * @return true if a lock could not be acquired.
+     */
+    private static boolean isLockFailure(final Throwable exception) {
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            if (cause.getClass().getSimpleName().toLowerCase().contains("lock")) {
+                return true;
+            }
+            if (cause instanceof SQLException) {
+                String state = ((SQLException) cause).getSQLState();
+                if ("40001".equals(state) || "40P01".equals(state) || "HYT00".equals(state)) {
+                    return true;
+                }
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Records the latency of a step.
+     *
+     * @param step the name of the step.
+     * @param start the time when the step started in nanoseconds.
+     */
+    private void time(final String step, final long start) {
+        latencies.computeIfAbsent(step, name -> new ConcurrentLinkedQueue<>()).add(System.nanoTime() - start);
+    }
+
+    /**
+     * Prints the throughput, the outcomes and the latency percentiles of the steps.
+     *
+     * @param out the stream to print to.
+     * @param elapsedNanos the duration of the run in nanoseconds.
+     */
+    void printReport(final PrintStream out, final long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        long attempts = outcomes.values().stream().mapToLong(LongAdder::sum).sum();
+        long purchased = outcomes.get(Outcome.PURCHASED).sum();
+        out.printf("Duration: %.2f s, attempts: %d (%.1f/s), orders placed: %d (%.1f/s)%n",
+                seconds, attempts, attempts / seconds, purchased, purchased / seconds);
+        outcomes.forEach((outcome, count) -> out.printf("  %-16s %d%n", outcome, count.sum()));
+
+        out.printf("%-16s %8s %8s %8s %8s %8s%n", "Latency, ms", "count", "p50", "p90", "p99", "max");
+        new TreeMap<>(latencies).forEach((step, samples) -> {
+            List<Long> sorted = new ArrayList<>(samples);
+            Collections.sort(sorted);
+            out.printf("%-16s %8d %8.1f %8.1f %8.1f %8.1f%n", step, sorted.size(),
+                    percentile(sorted, 0.5), percentile(sorted, 0.9), percentile(sorted, 0.99),
+                    percentile(sorted, 1.0));
+        });
+    }
+
+    /**
+     * Checks that every unit of stock of the hot products is either still in stock, reserved or sold once.
+     *
+     * @param out the stream to print to.
+     * @param dataSource the data source.
+     * @param stock the initial stock of every product.
+     * @throws SQLException if the products cannot be read.
+     */
+    void printStockCheck(final PrintStream out, final DataSource dataSource, final int stock) throws SQLException {
+        long mismatches = 0;
+        long reserved = 0;
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                     "SELECT p.quantity_in_stock, p.quantity_reserved, "
+                             + "(SELECT COALESCE(SUM(op.quantity), 0) FROM orders_products op "
+                             + "WHERE op.product_id = p.product_id) "
+                             + "FROM products p WHERE p.product_id <= ?")) {
+            statement.setLong(1, hotProducts);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    long inStock = resultSet.getLong(1);
+                    long inReserve = resultSet.getLong(2);
+                    long sold = resultSet.getLong(3);
+                    reserved += inReserve;
+                    if (inStock < 0 || inReserve < 0 || inStock + inReserve + sold != stock) {
+                        mismatches++;
+                    }
+                }
+            }
+        }
+        out.printf("Stock check: %d hot products with lost or oversold units, %d units still reserved%n",
+                mismatches, reserved);
+    }
+
+    /**
+     * Returns a percentile of sorted latencies.
+     *
+     * @param sorted the latencies in nanoseconds in ascending order.
+     * @param quantile the quantile from 0 to 1.
+     * @return the latency in milliseconds.
+     */
+    private static double percentile(final List<Long> sorted, final double quantile) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.size()) - 1;
+        return sorted.get(Math.max(index, 0)) / 1e6;
+    }
+
+    /**
+     * Sets the same stock for every product.
+     *
+     * @param dataSource the data source.
+     * @param stock the stock.
+     * @throws SQLException if the products cannot be updated.
+     */
+    private static void setStock(final DataSource dataSource, final int stock) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.executeUpdate("UPDATE products SET quantity_in_stock = " + stock + ", quantity_reserved = 0");
+        }
+    }
+
+}
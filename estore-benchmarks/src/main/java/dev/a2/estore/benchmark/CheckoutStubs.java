@@ -0,0 +1,87 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Andrei Sidorov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.a2.estore.benchmark;
+
+import dev.a2.estore.service.EmailService;
+import dev.a2.estore.service.JmsService;
+import dev.a2.estore.service.PaymentService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+
+/**
+ * This class provides in-process stand-ins for the services that leave the application during checkout.
+ * It is not a @Configuration on purpose: component scanning must not pick it up for the benchmarks,
+ * the load test registers it explicitly.
+ *
+ * @author Andrei Sidorov
+ */
+public class CheckoutStubs {
+
+    /**
+     * Provides a payment service that always charges the card after a configurable delay.
+     *
+     * @param latencyMillis the time a payment takes in milliseconds.
+     * @return the payment service.
+     */
+    @Bean
+    @Primary
+    public PaymentService paymentServiceStub(final @Value("${load.payment.latency.ms:0}") long latencyMillis) {
+        return (order, checkoutDto) -> {
+            if (latencyMillis > 0) {
+                try {
+                    Thread.sleep(latencyMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return true;
+        };
+    }
+
+    /**
+     * Provides an email service that sends nothing.
+     *
+     * @return the email service.
+     */
+    @Bean
+    @Primary
+    public EmailService emailServiceStub() {
+        return (to, subject, file) -> file.delete();
+    }
+
+    /**
+     * Provides a JMS service that sends nothing.
+     *
+     * @return the JMS service.
+     */
+    @Bean
+    @Primary
+    public JmsService jmsServiceStub() {
+        return topTenProducts -> { };
+    }
+
+}
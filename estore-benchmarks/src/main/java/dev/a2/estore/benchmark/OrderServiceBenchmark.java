@@ -0,0 +1,176 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Andrei Sidorov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.a2.estore.benchmark;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import dev.a2.estore.dto.RevenuePeriodDto;
+import dev.a2.estore.model.Order;
+import dev.a2.estore.model.OrderProduct;
+import dev.a2.estore.model.Product;
+import dev.a2.estore.service.OrderService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This class benchmarks the revenue reports and the calculation of the price of an order.
+ *
+ * @author Andrei Sidorov
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderServiceBenchmark {
+
+    /**
+     * The order service.
+     */
+    private OrderService orderService;
+
+    /**
+     * The last year.
+     */
+    private RevenuePeriodDto year;
+
+    /**
+     * The last twelve weeks.
+     */
+    private RevenuePeriodDto weeks;
+
+    /**
+     * Takes the order service from the catalog and prepares the report periods.
+     *
+     * @param catalog the catalog.
+     */
+    @Setup(Level.Trial)
+    public void setUp(final Catalog catalog) {
+        orderService = catalog.getBean(OrderService.class);
+        LocalDate today = LocalDate.now();
+        year = new RevenuePeriodDto();
+        year.setStart(today.minusYears(1));
+        year.setEnd(today);
+        weeks = new RevenuePeriodDto();
+        weeks.setStart(today.minusWeeks(12));
+        weeks.setEnd(today);
+    }
+
+    /**
+     * Gets the monthly revenues of the last year.
+     *
+     * @return the revenues.
+     */
+    @Benchmark
+    public Map<YearMonth, BigDecimal> getMonthlyRevenues() {
+        return orderService.getMonthlyRevenues(year);
+    }
+
+    /**
+     * Gets the weekly revenues of the last twelve weeks.
+     *
+     * @return the revenues.
+     */
+    @Benchmark
+    public Map<LocalDate, BigDecimal> getWeeklyRevenues() {
+        return orderService.getWeeklyRevenues(weeks);
+    }
+
+    /**
+     * Calculates the price of an order kept in memory.
+     *
+     * @param orderState the order.
+     * @return the price.
+     */
+    @Benchmark
+    public BigDecimal calculateOrderPrice(final OrderState orderState) {
+        return orderState.order.calculateOrderPrice();
+    }
+
+    /**
+     * This class holds an order with a configurable number of products.
+     */
+    @State(Scope.Benchmark)
+    public static class OrderState {
+
+        /**
+         * The number of products in the order.
+         */
+        @Param({"10", "100"})
+        public int orderLines;
+
+        /**
+         * The order.
+         */
+        private Order order;
+
+        /**
+         * Builds the order.
+         */
+        @Setup(Level.Trial)
+        public void setUp() {
+            order = createOrder(orderLines);
+        }
+    }
+
+    /**
+     * Builds an order kept in memory.
+     *
+     * @param orderLines the number of products in the order.
+     * @return the order.
+     */
+    static Order createOrder(final int orderLines) {
+        Order order = new Order();
+        order.setId(1L);
+        for (long id = 1; id <= orderLines; id++) {
+            Product product = new Product();
+            product.setId(id);
+            product.setName("Product " + id);
+            product.setSellingPrice(BigDecimal.valueOf(100 + id * 7, 2));
+            OrderProduct orderProduct = new OrderProduct(order, product, (int) (id % 10) + 1);
+            orderProduct.setSellingPrice(product.getSellingPrice());
+            order.getOrderProducts().add(orderProduct);
+        }
+        order.setTotalSellingPrice(order.calculateOrderPrice());
+        return order;
+    }
+
+}
@@ -0,0 +1,124 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Andrei Sidorov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.a2.estore.benchmark;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import dev.a2.estore.model.Address;
+import dev.a2.estore.model.Country;
+import dev.a2.estore.model.Order;
+import dev.a2.estore.model.User;
+import dev.a2.estore.service.PdfService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This class benchmarks the creation of an invoice. The order is kept in memory,
+ * so only the rendering of the PDF file is measured.
+ *
+ * @author Andrei Sidorov
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PdfServiceBenchmark {
+
+    /**
+     * The number of products in the order.
+     */
+    @Param({"10", "100"})
+    public int orderLines;
+
+    /**
+     * The PDF service.
+     */
+    private PdfService pdfService;
+
+    /**
+     * The order.
+     */
+    private Order order;
+
+    /**
+     * Takes the PDF service from the catalog and builds the order.
+     *
+     * @param catalog the catalog.
+     */
+    @Setup(Level.Trial)
+    public void setUp(final Catalog catalog) {
+        pdfService = catalog.getBean(PdfService.class);
+
+        Country country = new Country();
+        country.setName("United States");
+        Address address = new Address();
+        address.setCountry(country);
+        address.setCity("City");
+        address.setStreet("Street");
+        address.setPostalCode("Postal code");
+        address.setHouse("1");
+        address.setApartment("1");
+        List<Address> addresses = new ArrayList<>();
+        addresses.add(address);
+        User user = new User();
+        user.setFirstName("Client");
+        user.setLastName("Lastname");
+        user.setAddresses(addresses);
+
+        order = OrderServiceBenchmark.createOrder(orderLines);
+        order.setUser(user);
+    }
+
+    /**
+     * Creates the invoice of the order and deletes its file.
+     *
+     * @return the length of the file.
+     * @throws Exception if the invoice cannot be created.
+     */
+    @Benchmark
+    public long createInvoice() throws Exception {
+        File file = pdfService.createInvoice(order);
+        long length = file.length();
+        file.delete();
+        return length;
+    }
+
+}
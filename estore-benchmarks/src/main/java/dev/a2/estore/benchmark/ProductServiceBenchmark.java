@@ -0,0 +1,115 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Andrei Sidorov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.a2.estore.benchmark;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import dev.a2.estore.model.Product;
+import dev.a2.estore.service.ProductService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This class benchmarks the product search and the top-selling products.
+ *
+ * @author Andrei Sidorov
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductServiceBenchmark {
+
+    /**
+     * The product service.
+     */
+    private ProductService productService;
+
+    /**
+     * Takes the product service from the catalog.
+     *
+     * @param catalog the catalog.
+     */
+    @Setup(Level.Trial)
+    public void setUp(final Catalog catalog) {
+        productService = catalog.getBean(ProductService.class);
+    }
+
+    /**
+     * Finds the products of a folder by the values of two attributes.
+     *
+     * @param catalog the catalog.
+     * @return the found products.
+     */
+    @Benchmark
+    public List<Product> findByCriteriaWithAttributes(final Catalog catalog) {
+        Map<String, String> criteria = new HashMap<>();
+        criteria.put("input", "");
+        criteria.put("categoryId", catalog.getFolderId().toString());
+        criteria.put("Attribute 1", "Value 1");
+        criteria.put("Attribute 2", "Value 2");
+        return productService.findByCriteria(criteria);
+    }
+
+    /**
+     * Finds the products of a category by a part of their names.
+     *
+     * @param catalog the catalog.
+     * @return the found products.
+     */
+    @Benchmark
+    public List<Product> findByCriteriaWithInput(final Catalog catalog) {
+        Map<String, String> criteria = new HashMap<>();
+        criteria.put("input", "Product 1");
+        criteria.put("categoryId", catalog.getCategoryId().toString());
+        return productService.findByCriteria(criteria);
+    }
+
+    /**
+     * Gets the ten top-selling products.
+     *
+     * @return the products.
+     */
+    @Benchmark
+    public List<Product> getTopSellingProducts() {
+        return productService.getTopSellingProducts(10);
+    }
+
+}
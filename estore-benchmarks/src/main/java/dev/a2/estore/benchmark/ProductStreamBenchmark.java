@@ -0,0 +1,157 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Andrei Sidorov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.a2.estore.benchmark;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.a2.estore.service.ProductService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This class compares the memory a response with all products takes when the products are streamed
+ * and when they are loaded into a list before they are serialized. Every iteration writes one response
+ * and prints the peak heap usage of the iteration, e.g. with '-p products=500000 -prof gc'.
+ * The catalog itself stays in the heap of the in-memory database, so only the difference
+ * between the two benchmarks is the memory a response takes.
+ *
+ * @author Andrei Sidorov
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class ProductStreamBenchmark {
+
+    /**
+     * The product service.
+     */
+    private ProductService productService;
+
+    /**
+     * The object mapper that serializes lists the way the REST controllers do.
+     */
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * Takes the product service from the catalog.
+     *
+     * @param catalog the catalog.
+     */
+    @Setup(Level.Trial)
+    public void setUp(final Catalog catalog) {
+        productService = catalog.getBean(ProductService.class);
+    }
+
+    /**
+     * Collects the garbage of the previous iteration and resets the peak heap usage.
+     */
+    @Setup(Level.Iteration)
+    public void resetPeakHeapUsage() {
+        System.gc();
+        ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .forEach(MemoryPoolMXBean::resetPeakUsage);
+    }
+
+    /**
+     * Prints the peak heap usage of an iteration.
+     */
+    @TearDown(Level.Iteration)
+    public void printPeakHeapUsage() {
+        long peak = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .mapToLong(pool -> pool.getPeakUsage().getUsed())
+                .sum();
+        System.out.println("Peak heap usage: " + peak / (1024 * 1024) + " MB");
+    }
+
+    /**
+     * Streams all products.
+     *
+     * @return the number of written bytes.
+     * @throws IOException if the products cannot be written.
+     */
+    @Benchmark
+    public long streamProducts() throws IOException {
+        CountingOutputStream outputStream = new CountingOutputStream();
+        productService.writeProducts(null, outputStream);
+        return outputStream.count;
+    }
+
+    /**
+     * Loads all products into a list and serializes it.
+     *
+     * @return the number of written bytes.
+     * @throws IOException if the products cannot be written.
+     */
+    @Benchmark
+    public long serializeProductList() throws IOException {
+        CountingOutputStream outputStream = new CountingOutputStream();
+        objectMapper.writeValue(outputStream, productService.getAllProducts());
+        return outputStream.count;
+    }
+
+    /**
+     * An output stream that only counts written bytes.
+     */
+    private static final class CountingOutputStream extends OutputStream {
+
+        /**
+         * The number of written bytes.
+         */
+        private long count;
+
+        @Override
+        public void write(final int b) {
+            count++;
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) {
+            count += len;
+        }
+    }
+
+}
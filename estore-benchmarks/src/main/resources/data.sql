@@ -0,0 +1,23 @@
+-- The rows every catalog needs. Categories, products, attributes and orders are generated by CatalogGenerator.
+
+-- CREATING COUNTRIES
+INSERT INTO countries (country_id, name) VALUES (1, 'United States');
+
+-- CREATING ROLES
+INSERT INTO roles (role_id, name) VALUES (1, 'ROLE_ADMIN');
+INSERT INTO roles (role_id, name) VALUES (2, 'ROLE_MANAGER');
+INSERT INTO roles (role_id, name) VALUES (3, 'ROLE_CLIENT');
+
+-- CREATING USERS
+-- client
+INSERT INTO users (user_id, first_name, last_name, date_of_birth, email, password)
+  VALUES (1, 'Client', 'Lastname', '2000-01-01', 'client@mail.dev',
+          '$2a$10$HjaSqK6GJxQi9OoxTKlTu.QrxJb6roOUL3FBFgMi7ENSylC29Gr7q');
+
+INSERT INTO users_roles (user_id, role_id) VALUES (1, 3);
+
+INSERT INTO addresses (address_id, country_id, city, street, postalCode, house, apartment, user_id)
+  VALUES (1, 1, 'City', 'Street', 'Postal code', '1', '1', 1);
+
+-- CREATING MEASURE UNITS
+INSERT INTO measure_units (measure_units_id, name) VALUES (1, 'pieces');
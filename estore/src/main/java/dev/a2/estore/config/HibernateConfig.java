@@ -27,6 +27,7 @@ import org.apache.commons.dbcp.BasicDataSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
 import org.springframework.context.annotation.PropertySource;
 import org.springframework.core.env.Environment;
 import org.springframework.core.io.ClassPathResource;
@@ -47,6 +48,7 @@ import java.util.Properties;
  */
 @Configuration
 @EnableTransactionManagement
+@EnableAspectJAutoProxy
 @PropertySource("classpath:database.properties")
 public class HibernateConfig {
 
@@ -115,6 +117,19 @@ public class HibernateConfig {
         Properties hibernateProperties = new Properties();
         hibernateProperties.setProperty("hibernate.hbm2ddl.auto", env.getProperty("hibernate.hbm2ddl.auto"));
         hibernateProperties.setProperty("hibernate.dialect", env.getProperty("hibernate.dialect"));
+        hibernateProperties.setProperty("hibernate.jdbc.batch_size", env.getProperty("hibernate.jdbc.batch_size"));
+        hibernateProperties.setProperty("hibernate.order_updates", env.getProperty("hibernate.order_updates"));
+        hibernateProperties.setProperty("hibernate.query.in_clause_parameter_padding",
+                env.getProperty("hibernate.query.in_clause_parameter_padding"));
+        hibernateProperties.setProperty("hibernate.cache.use_second_level_cache",
+                env.getProperty("hibernate.cache.use_second_level_cache"));
+        hibernateProperties.setProperty("hibernate.cache.use_query_cache",
+                env.getProperty("hibernate.cache.use_query_cache"));
+        hibernateProperties.setProperty("hibernate.cache.region.factory_class",
+                env.getProperty("hibernate.cache.region.factory_class"));
+        hibernateProperties.setProperty("hibernate.javax.cache.provider", env.getProperty("hibernate.javax.cache.provider"));
+        hibernateProperties.setProperty("hibernate.javax.cache.uri", env.getProperty("hibernate.javax.cache.uri"));
+        hibernateProperties.setProperty("hibernate.generate_statistics", env.getProperty("hibernate.generate_statistics"));
         return hibernateProperties;
     }
 
@@ -70,7 +70,7 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
                             "/favicon.ico",
                             "/api/**")
                 .permitAll()
-                    .antMatchers("/users/**")
+                    .antMatchers("/users/**", "/admin/**")
                 .hasAuthority("ROLE_ADMIN")
                     .antMatchers(
                             "/product/**",
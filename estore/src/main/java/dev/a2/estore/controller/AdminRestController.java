@@ -0,0 +1,123 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Andrei Sidorov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.a2.estore.controller;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import dev.a2.estore.service.CacheService;
+import dev.a2.estore.service.MetricsService;
+import dev.a2.estore.service.ReservationService;
+import dev.a2.estore.service.ReservationTimer;
+import dev.a2.estore.service.SaleCountService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * This class provides rest mapping for administration requests.
+ *
+ * @author Andrei Sidorov
+ */
+@RestController
+public class AdminRestController {
+
+    /**
+     * Injects bean SaleCountService.
+     */
+    @Autowired
+    private SaleCountService saleCountService;
+
+    /**
+     * Injects bean ReservationTimer.
+     */
+    @Autowired
+    private ReservationTimer reservationTimer;
+
+    /**
+     * Injects bean ReservationService.
+     */
+    @Autowired
+    private ReservationService reservationService;
+
+    /**
+     * Injects bean CacheService.
+     */
+    @Autowired
+    private CacheService cacheService;
+
+    /**
+     * Injects bean MetricsService.
+     */
+    @Autowired
+    private MetricsService metricsService;
+
+    /**
+     * Sends the runtime metrics of the application.
+     *
+     * @return the metrics mapped by their names.
+     */
+    @GetMapping("/admin/metrics")
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("saleCount.pendingDeltas", saleCountService.getPendingDeltas());
+        metrics.put("reservations.live", reservationTimer.getLiveReservations());
+        metrics.put("reservations.stored", reservationService.countLive());
+        return metrics;
+    }
+
+    /**
+     * Sends the hit and miss counts of the second-level cache.
+     *
+     * @return the counts mapped by the names of cache regions.
+     */
+    @GetMapping("/admin/cache")
+    public Map<String, Map<String, Long>> getCacheStatistics() {
+        return cacheService.getStatistics();
+    }
+
+    /**
+     * Sends the latency percentiles and row counts of DAO queries, Hibernate statistics
+     * and hit ratios of the second-level cache.
+     *
+     * @return the metrics grouped by their sources.
+     */
+    @GetMapping("/admin/metrics/queries")
+    public Map<String, Object> getQueryMetrics() {
+        return metricsService.getMetrics();
+    }
+
+    /**
+     * Sends the same metrics in the Prometheus text exposition format.
+     *
+     * @return the metrics as text.
+     */
+    @GetMapping(value = "/admin/metrics/prometheus", produces = "text/plain; version=0.0.4; charset=utf-8")
+    public String getPrometheusMetrics() {
+        return metricsService.getPrometheusMetrics();
+    }
+
+}
@@ -26,7 +26,10 @@
 package dev.a2.estore.controller;
 
 import dev.a2.estore.exception.CategoryDeleteException;
+import dev.a2.estore.exception.InvalidCursorException;
 import dev.a2.estore.exception.MeasureUnitsDeleteException;
+import dev.a2.estore.exception.PriceListImportException;
+import dev.a2.estore.exception.PriceListImportJobNotFoundException;
 import org.apache.log4j.Logger;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -66,12 +69,27 @@ public class ExceptionRestController {
                        ConstraintViolationException.class,
                        MissingServletRequestParameterException.class,
                        CategoryDeleteException.class,
-                       MeasureUnitsDeleteException.class})
+                       MeasureUnitsDeleteException.class,
+                       InvalidCursorException.class,
+                       PriceListImportException.class})
     public ResponseEntity<String> handleMethodArgumentNotValid(final HttpServletRequest request, final Exception e)   {
         logger.error("Request: " + request.getRequestURL() + " raised " + e);
         return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
     }
 
+    /**
+     * Intercepts exceptions about missing price-list import jobs and returns response with status 404.
+     *
+     * @param request the http request.
+     * @param e the exception.
+     * @return the response entity with error message and status 404.
+     */
+    @ExceptionHandler(PriceListImportJobNotFoundException.class)
+    public ResponseEntity<String> handleNotFound(final HttpServletRequest request, final Exception e)   {
+        logger.error("Request: " + request.getRequestURL() + " raised " + e);
+        return new ResponseEntity<>(e.getMessage(), HttpStatus.NOT_FOUND);
+    }
+
     /**
      * Intercepts the other exceptions and generates response with status 500.
      *
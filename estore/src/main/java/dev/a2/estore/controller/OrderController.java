@@ -24,34 +24,28 @@
 
 package dev.a2.estore.controller;
 
-import java.io.File;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.Year;
 import java.util.List;
 import java.util.Locale;
 import java.util.TimeZone;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
-import javax.mail.MessagingException;
 import javax.servlet.http.HttpSession;
 import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
 
 import dev.a2.estore.dto.CheckoutDto;
+import dev.a2.estore.dto.OrderPageDto;
 import dev.a2.estore.dto.ProductQuantityDto;
 import dev.a2.estore.dto.RevenuePeriodDto;
 import dev.a2.estore.dto.SearchOrdersDto;
 import dev.a2.estore.exception.PaymentException;
 import dev.a2.estore.exception.ProductReserveException;
 import dev.a2.estore.model.Address;
-import dev.a2.estore.model.CompanyInfo;
 import dev.a2.estore.model.Order;
 import dev.a2.estore.model.OrderProduct;
 import dev.a2.estore.model.OrderStatus;
@@ -85,7 +79,7 @@ import org.springframework.web.servlet.mvc.support.RedirectAttributes;
  */
 @Controller
 @Validated
-@SessionAttributes({"order", "executorService"})
+@SessionAttributes("order")
 public class OrderController {
 
     /**
@@ -136,22 +130,22 @@ public class OrderController {
     private JmsService jmsService;
 
     /**
-     * Injects bean EmailService.
+     * Injects bean InvoiceQueue.
      */
     @Autowired
-    private EmailService emailService;
+    private InvoiceQueue invoiceQueue;
 
     /**
-     * Injects bean PdfService.
+     * Injects bean ReservationService.
      */
     @Autowired
-    private PdfService pdfService;
+    private ReservationService reservationService;
 
     /**
-     * Injects bean CompanyInfo.
+     * Injects bean ReservationTimer.
      */
     @Autowired
-    private CompanyInfo companyInfo;
+    private ReservationTimer reservationTimer;
 
     /**
      * Product reserve time in seconds before checkout. Specified in 'application.aproperties'.
@@ -169,16 +163,6 @@ public class OrderController {
         return new Order();
     }
 
-    /**
-     * Initializes the executor for the product reserve timer.
-     *
-     * @return the executor.
-     */
-    @ModelAttribute("executorService")
-    public ScheduledExecutorService initScheduler() {
-        return Executors.newSingleThreadScheduledExecutor();
-    }
-
     /**
      * The maximum products in the list of top-selling-products.
      */
@@ -210,13 +194,12 @@ public class OrderController {
     public String showCart(final Model model,
                            final HttpSession session,
                            final @SessionAttribute("order") Order order) {
-        Future timerTask = (Future) session.getAttribute("timerTask");
+        String reservationId = (String) session.getAttribute("reservationId");
         List<OrderProduct> orderProducts = order.getOrderProducts();
 
         // Unreserves products if the products were reserved.
-        if (timerTask != null && !timerTask.isDone()) {
-            productService.unreserveProducts(orderProducts);
-            timerTask.cancel(true);
+        if (reservationService.release(reservationId)) {
+            reservationTimer.cancel(reservationId);
             logger.info("Products have been unreserved.");
         }
 
@@ -250,7 +233,6 @@ public class OrderController {
      *
      * @param model the model.
      * @param order the user order.
-     * @param executorService the executor service for running the product reserve timer.
      * @param session the user session.
      * @param redirectAttributes the attributes for flash messages.
      * @return view 'reserve'.
@@ -258,20 +240,19 @@ public class OrderController {
     @GetMapping("/checkout/reserve")
     public String checkout(final Model model,
                            final @SessionAttribute("order") Order order,
-                           final @SessionAttribute("executorService") ScheduledExecutorService executorService,
                            final HttpSession session,
                            final RedirectAttributes redirectAttributes) {
         if (order.getOrderProducts().isEmpty()) {
             return "redirect:/home";
         }
         List<OrderProduct> orderProducts = order.getOrderProducts();
-        Future timerTask = (Future) session.getAttribute("timerTask");
+        String reservationId = (String) session.getAttribute("reservationId");
         LocalDateTime startTime = (LocalDateTime) session.getAttribute("startTime");
 
         // Reserves products.
-        if (timerTask == null || timerTask.isDone()) {
+        if (!reservationService.isLive(reservationId)) {
             try {
-                productService.reserveProducts(orderProducts);
+                reservationId = reservationService.reserve(orderProducts, productReserveTime);
                 logger.info("Products have been reserved.");
             } catch (ProductReserveException e) {
                 String error = messageSource.getMessage("product.reserve.failure", null, Locale.US);
@@ -280,14 +261,17 @@ public class OrderController {
             }
 
             // Sets the task to unreserve products for the timer when the product reserve time runs out.
+            // The sweeper of stored reserves releases them as well if this node goes down before.
+            String newReservationId = reservationId;
             Runnable unreserveProducts = () -> {
-                productService.unreserveProducts(orderProducts);
-                logger.info("Time for completing purchase has run out.");
+                if (reservationService.release(newReservationId)) {
+                    logger.info("Time for completing purchase has run out.");
+                }
             };
 
             // Initializes the timer.
-            timerTask = executorService.schedule(unreserveProducts, productReserveTime, TimeUnit.SECONDS);
-            session.setAttribute("timerTask", timerTask);
+            reservationTimer.start(reservationId, unreserveProducts, productReserveTime);
+            session.setAttribute("reservationId", reservationId);
             startTime = LocalDateTime.now();
             session.setAttribute("startTime", startTime);
         }
@@ -353,7 +337,7 @@ public class OrderController {
      * Buys products.
      *
      * @param order the user order.
-     * @param timerTask the timer task.
+     * @param reservationId the id of the product reserve.
      * @param checkoutDto the dto with payment and shipping information.
      * @param startTime the time when products were reserved.
      * @param authentication the current user credentials.
@@ -362,7 +346,7 @@ public class OrderController {
      */
     @PostMapping("/checkout")
     public String buyProducts(final @SessionAttribute("order") Order order,
-                              final @SessionAttribute("timerTask") Future timerTask,
+                              final @SessionAttribute("reservationId") String reservationId,
                               final @ModelAttribute("checkoutDto") @Validated CheckoutDto checkoutDto,
                               final @SessionAttribute("startTime") LocalDateTime startTime,
                               final SessionStatus sessionStatus,
@@ -374,7 +358,7 @@ public class OrderController {
         Long secondsPassed = timePassed.getSeconds() < productReserveTime ? timePassed.getSeconds() : productReserveTime;
 
         // checking that reserve time is not run out
-        if (secondsPassed.equals(productReserveTime)) {
+        if (secondsPassed.equals(productReserveTime) || !reservationService.isLive(reservationId)) {
             String error = messageSource.getMessage("product.reserve.ended", null, Locale.US);
             redirectAttributes.addFlashAttribute("error", error);
             return "redirect:/order";
@@ -386,6 +370,8 @@ public class OrderController {
                 order.setPaymentMethod(PaymentMethod.CARD);
                 order.setPaymentStatus(PaymentStatus.PAID);
             } catch (PaymentException e) {
+                reservationTimer.cancel(reservationId);
+                reservationService.release(reservationId);
                 String error = messageSource.getMessage("product.payment.failure", null, Locale.US);
                 redirectAttributes.addFlashAttribute("error", error);
                 return "redirect:/order";
@@ -394,9 +380,6 @@ public class OrderController {
             order.setPaymentMethod(PaymentMethod.CASH);
             order.setPaymentStatus(PaymentStatus.AWAITING_PAYMENT);
         }
-        productService.buyProducts(order.getOrderProducts());
-        timerTask.cancel(true);
-
 
         Address address = user
                 .getAddresses()
@@ -409,19 +392,17 @@ public class OrderController {
         order.setShippingMethod(checkoutDto.getShippingMethod());
         order.setCreationDateTime(LocalDateTime.now());
         order.setUser(user);
-        orderService.save(order);
-
-        // creating and sending an order invoice to a user email
-        try {
-            File invoicePdfFile = pdfService.createInvoice(order);
-            String subject = "Invoice from " + companyInfo.getName() + " INV" + order.getId();
-
-            emailService.sendInvoice(user.getEmail(), subject, invoicePdfFile);
-        } catch (MessagingException e) {
-            logger.error("Invoice sending failed", e);
-        } catch (Exception e1) {
-            logger.error("Invoice creation failed", e1);
+
+        // the reserve is claimed, its products are sold and the order is saved in one transaction
+        if (!orderService.checkout(order, reservationId)) {
+            String error = messageSource.getMessage("product.reserve.ended", null, Locale.US);
+            redirectAttributes.addFlashAttribute("error", error);
+            return "redirect:/order";
         }
+        reservationTimer.cancel(reservationId);
+
+        // an order invoice is created and sent to a user email in the background
+        invoiceQueue.enqueue(order, user.getEmail());
 
         // Sends the updated list of top-selling-products to the billboard application.
         jmsService.send(productService.getTopSellingProducts(topProductsLength));
@@ -457,7 +438,9 @@ public class OrderController {
                                  final Authentication authentication) {
         SearchOrdersDto searchOrdersDto = new SearchOrdersDto();
         searchOrdersDto.setUserEmail(authentication.getName());
-        model.addAttribute("orders", orderService.findOrdersByCriteria(searchOrdersDto));
+        OrderPageDto orderPage = orderService.findOrdersByCriteria(searchOrdersDto);
+        model.addAttribute("orders", orderPage.getOrders());
+        model.addAttribute("hasNextPage", orderPage.isHasNextPage());
         model.addAttribute("searchOrdersDto", searchOrdersDto);
         model.addAttribute("orderStatuses", OrderStatus.values());
         return "my-orders";
@@ -477,7 +460,9 @@ public class OrderController {
                                  final SearchOrdersDto searchOrdersDto) {
         logger.info("A find orders request " + searchOrdersDto);
         searchOrdersDto.setUserEmail(authentication.getName());
-        model.addAttribute("orders", orderService.findOrdersByCriteria(searchOrdersDto));
+        OrderPageDto orderPage = orderService.findOrdersByCriteria(searchOrdersDto);
+        model.addAttribute("orders", orderPage.getOrders());
+        model.addAttribute("hasNextPage", orderPage.isHasNextPage());
         model.addAttribute("orderStatuses", OrderStatus.values());
         model.addAttribute("searchOrdersDto", searchOrdersDto);
         return "my-orders";
@@ -507,7 +492,9 @@ public class OrderController {
     @GetMapping("/orders")
     public String showAllOrders(final Model model) {
         SearchOrdersDto searchOrdersDto = new SearchOrdersDto();
-        model.addAttribute("orders", orderService.findOrdersByCriteria(searchOrdersDto));
+        OrderPageDto orderPage = orderService.findOrdersByCriteria(searchOrdersDto);
+        model.addAttribute("orders", orderPage.getOrders());
+        model.addAttribute("hasNextPage", orderPage.isHasNextPage());
         model.addAttribute("orderStatuses", OrderStatus.values());
         model.addAttribute("searchOrdersDto", searchOrdersDto);
         return "orders";
@@ -526,7 +513,9 @@ public class OrderController {
                              final @Validated SearchOrdersDto searchOrdersDto,
                              final BindingResult result) {
         logger.info("A find orders request " + searchOrdersDto);
-        model.addAttribute("orders", orderService.findOrdersByCriteria(searchOrdersDto));
+        OrderPageDto orderPage = orderService.findOrdersByCriteria(searchOrdersDto);
+        model.addAttribute("orders", orderPage.getOrders());
+        model.addAttribute("hasNextPage", orderPage.isHasNextPage());
         model.addAttribute("orderStatuses", OrderStatus.values());
         model.addAttribute("searchOrdersDto", searchOrdersDto);
         return "orders";
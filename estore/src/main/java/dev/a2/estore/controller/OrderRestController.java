@@ -25,6 +25,7 @@
 
 package dev.a2.estore.controller;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -41,6 +42,7 @@ import dev.a2.estore.service.ProductService;
 import org.apache.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -52,6 +54,7 @@ import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.SessionAttribute;
 import org.springframework.web.bind.annotation.SessionAttributes;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
@@ -157,59 +160,31 @@ public class OrderRestController {
     }
 
     /**
-     * Sends the details of a requested order to a user.
+     * Streams the details of a requested order to a user.
      *
      * @param  orderId an order id.
-     * @return an order details.
+     * @param response the http response the details are written to.
+     * @throws IOException if the response cannot be written.
      */
     @GetMapping("/my-orders/{orderId}")
-    public List<Map<String, String>> sendUserOrderDetails(final @PathVariable
-                                                                @NotNull
-                                                                @Min(1)
-                                                                @Max(Long.MAX_VALUE) Long orderId) {
-        List<OrderProduct> orderProducts = orderService.getOrderProducts(orderId);
-        List<Map<String, String>> products = new ArrayList<>();
-
-        for (OrderProduct orderProduct : orderProducts) {
-            Map<String, String> productProperties = new HashMap<>();
-            productProperties.put("id", orderProduct.getProduct().getId().toString());
-            productProperties.put("name", orderProduct.getProduct().getName());
-            productProperties.put("imageUrl", orderProduct.getProduct().getImageUrl());
-            productProperties.put("price", orderProduct.getSellingPrice().toString());
-            productProperties.put("quantity", orderProduct.getQuantity().toString());
-            productProperties.put("units", orderProduct.getProduct().getMeasureUnits().getName());
-            productProperties.put("amount", orderProduct.calculateTotalSellingPrice().toString());
-            products.add(productProperties);
-        }
-        return products;
+    public void sendUserOrderDetails(final @PathVariable @NotNull @Min(1) @Max(Long.MAX_VALUE) Long orderId,
+                                     final HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_UTF8_VALUE);
+        orderService.writeOrderProducts(orderId, response.getOutputStream());
     }
 
     /**
-     * Sends the details of a requested order to a manager.
+     * Streams the details of a requested order to a manager.
      *
      * @param orderId an order id.
-     * @return an order details.
+     * @param response the http response the details are written to.
+     * @throws IOException if the response cannot be written.
      */
     @GetMapping("/orders/{orderId}")
-    public List<Map<String, String>> sendOrderDetails(final @PathVariable
-                                                            @NotNull
-                                                            @Min(1)
-                                                            @Max(Long.MAX_VALUE) Long orderId) {
-        List<OrderProduct> orderProducts = orderService.getOrderProducts(orderId);
-        List<Map<String, String>> products = new ArrayList<>();
-
-        for (OrderProduct orderProduct : orderProducts) {
-            Map<String, String> productProperties = new HashMap<>();
-            productProperties.put("id", orderProduct.getProduct().getId().toString());
-            productProperties.put("name", orderProduct.getProduct().getName());
-            productProperties.put("imageUrl", orderProduct.getProduct().getImageUrl());
-            productProperties.put("price", orderProduct.getSellingPrice().toString());
-            productProperties.put("quantity", orderProduct.getQuantity().toString());
-            productProperties.put("units", orderProduct.getProduct().getMeasureUnits().getName());
-            productProperties.put("amount", orderProduct.calculateTotalSellingPrice().toString());
-            products.add(productProperties);
-        }
-        return products;
+    public void sendOrderDetails(final @PathVariable @NotNull @Min(1) @Max(Long.MAX_VALUE) Long orderId,
+                                 final HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_UTF8_VALUE);
+        orderService.writeOrderProducts(orderId, response.getOutputStream());
     }
 
     /**
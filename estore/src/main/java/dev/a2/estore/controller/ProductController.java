@@ -24,15 +24,16 @@
 
 package dev.a2.estore.controller;
 
-import java.io.File;
-import java.io.FileInputStream;
+import java.io.IOException;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.zip.GZIPOutputStream;
 
 import dev.a2.estore.dto.AttributeDto;
 import dev.a2.estore.dto.ImageDto;
 import dev.a2.estore.dto.PriceListDto;
+import dev.a2.estore.dto.PriceListImportJobDto;
 import dev.a2.estore.dto.ProductDto;
 import dev.a2.estore.exception.PriceListExportException;
 import dev.a2.estore.exception.ProductNotFoundException;
@@ -41,16 +42,13 @@ import dev.a2.estore.model.Product;
 import dev.a2.estore.service.AttributeService;
 import dev.a2.estore.service.CategoryService;
 import dev.a2.estore.service.MeasureUnitsService;
+import dev.a2.estore.service.PriceListImportJobService;
 import dev.a2.estore.service.ProductService;
 import org.apache.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.MessageSource;
-import org.springframework.core.io.InputStreamResource;
 import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
@@ -59,10 +57,12 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.SessionAttributes;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
@@ -81,12 +81,23 @@ public class ProductController {
      */
     private static final Logger logger = Logger.getLogger(ProductController.class);
 
+    /**
+     * The buffer size of a gzip-compressed price-list export.
+     */
+    private static final int GZIP_BUFFER_SIZE = 8192;
+
     /**
      * Injects bean ProductService.
      */
     @Autowired
     private ProductService  productService;
 
+    /**
+     * Injects bean PriceListImportJobService.
+     */
+    @Autowired
+    private PriceListImportJobService priceListImportJobService;
+
     /**
      * Injects bean CategoryService.
      */
@@ -173,23 +184,32 @@ public class ProductController {
     }
 
     /**
-     * Exports the price list of the application.
+     * Exports the price list of the application by streaming it into the response,
+     * compressed with gzip when the client accepts it.
      *
-     * @return the response entity with the price list.
+     * @param acceptEncoding the Accept-Encoding header of the request.
+     * @param response the http response the price list is written to.
      */
     @GetMapping("/product/price-list/export")
-    public ResponseEntity<InputStreamResource>  downloadCSV() {
+    public void downloadCSV(final @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false)
+                                    String acceptEncoding,
+                            final HttpServletResponse response) {
         try {
             String fileName = "estore-price-list.csv";
-            File priceList = productService.createPriceListFile(fileName);
-            HttpHeaders respHeaders = new HttpHeaders();
-            MediaType mediaType = new MediaType("text", "csv");
-            respHeaders.setContentType(mediaType);
-            respHeaders.setContentDispositionFormData("attachment", fileName);
-            InputStreamResource isr = new InputStreamResource(new FileInputStream(priceList));
+            response.setContentType("text/csv; charset=utf-8");
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"");
+            response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+                response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+                GZIPOutputStream gzip = new GZIPOutputStream(response.getOutputStream(), GZIP_BUFFER_SIZE);
+                productService.writePriceList(gzip);
+                gzip.finish();
+            } else {
+                productService.writePriceList(response.getOutputStream());
+            }
+            response.flushBuffer();
             logger.info("Price-list has been exported.");
-            return new ResponseEntity<>(isr, respHeaders, HttpStatus.OK);
-        } catch (Exception e) {
+        } catch (IOException e) {
             throw new PriceListExportException();
         }
     }
@@ -227,16 +247,18 @@ public class ProductController {
             return "redirect:/product/price-list/import";
         }
 
+        PriceListImportJobDto job;
         try {
-            productService.processPriceListFile(priceListDto);
+            job = priceListImportJobService.submit(priceListDto.getPriceList());
         } catch (Exception e) {
             String error = e.getMessage();
             redirectAttributes.addFlashAttribute("error", error);
             return "redirect:/product/price-list/import";
         }
-        logger.info("Price-list has been imported.");
-        String message = messageSource.getMessage("product.price-list.import.success", null, Locale.US);
+        logger.info("Price-list import job '" + job.getId() + "' has been submitted.");
+        String message = messageSource.getMessage("product.price-list.import.started", null, Locale.US);
         redirectAttributes.addFlashAttribute("message", message);
+        redirectAttributes.addFlashAttribute("jobId", job.getId());
         return "redirect:/product/price-list/import";
     }
 
@@ -26,30 +26,39 @@
 package dev.a2.estore.controller;
 
 import dev.a2.estore.dto.CategoryDto;
+import dev.a2.estore.dto.PriceListImportJobDto;
+import dev.a2.estore.dto.ProductPageDto;
+import dev.a2.estore.exception.PriceListImportJobNotFoundException;
 import dev.a2.estore.model.Attribute;
 import dev.a2.estore.model.Product;
 import dev.a2.estore.service.AttributeService;
 import dev.a2.estore.service.CategoryService;
 import dev.a2.estore.service.MeasureUnitsService;
+import dev.a2.estore.service.PriceListImportJobService;
 import dev.a2.estore.service.ProductService;
 import org.apache.log4j.Logger;
 import org.hibernate.validator.constraints.NotEmpty;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -94,6 +103,12 @@ public class ProductRestController {
     @Autowired
     private MeasureUnitsService measureUnitsService;
 
+    /**
+     * Injects bean PriceListImportJobService.
+     */
+    @Autowired
+    private PriceListImportJobService priceListImportJobService;
+
     /**
      * The maximum products in the list of top-selling-products.
      */
@@ -101,25 +116,51 @@ public class ProductRestController {
     private int topProductsLength;
 
     /**
-     * Sends all products.
+     * Sends a page of all products.
      *
-     * @return the list of products.
+     * @param cursor the cursor of the page or null for the first page.
+     * @param size the maximum number of products in the page.
+     * @return the page of products.
      */
     @GetMapping("/products")
-    public List<Product> sendProducts() {
-        return productService.getAllProducts();
+    public ProductPageDto sendProducts(final @RequestParam(value = "cursor", required = false) String cursor,
+                                       final @RequestParam(value = "size", defaultValue = "${products.page.size}")
+                                       @Min(1) @Max(500) int size) {
+        return productService.getProductsPage(null, cursor, size);
     }
 
     /**
-     * Sends products filtered by a category.
+     * Sends a page of products filtered by a category.
      *
      * @param categoryId the id of a product category.
-     * @return the list of products.
+     * @param cursor the cursor of the page or null for the first page.
+     * @param size the maximum number of products in the page.
+     * @return the page of products.
      */
     @GetMapping("/products/category")
-    public List<Product> filterProductsByCategoryApi(final @RequestParam("id")
-                                                           @NotNull @Min(1) @Max(Long.MAX_VALUE) Long categoryId) {
-        return productService.getProductsByCategory(categoryId);
+    public ProductPageDto filterProductsByCategoryApi(final @RequestParam("id")
+                                                            @NotNull @Min(1) @Max(Long.MAX_VALUE) Long categoryId,
+                                                      final @RequestParam(value = "cursor", required = false)
+                                                            String cursor,
+                                                      final @RequestParam(value = "size",
+                                                              defaultValue = "${products.page.size}")
+                                                            @Min(1) @Max(500) int size) {
+        return productService.getProductsPage(categoryId, cursor, size);
+    }
+
+    /**
+     * Streams all products or the products of a category in one response without loading them into memory.
+     *
+     * @param categoryId the id of a product category or null for all products.
+     * @param response the http response the products are written to.
+     * @throws IOException if the response cannot be written.
+     */
+    @GetMapping("/products/stream")
+    public void streamProducts(final @RequestParam(value = "id", required = false)
+                               @Min(1) @Max(Long.MAX_VALUE) Long categoryId,
+                               final HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_UTF8_VALUE);
+        productService.writeProducts(categoryId, response.getOutputStream());
     }
 
     /**
@@ -231,6 +272,58 @@ public class ProductRestController {
         logger.info("Measure units have been renamed.");
     }
 
+    /**
+     * Submits a job that imports an uploaded price list in the background.
+     *
+     * @param priceList the uploaded price list in the csv format.
+     * @return the submitted job.
+     * @throws IOException if the price list cannot be stored.
+     */
+    @PostMapping("/product/price-list/imports")
+    public PriceListImportJobDto submitPriceListImport(final @RequestParam("priceList") MultipartFile priceList)
+            throws IOException {
+        logger.info("A price-list import job request: " + priceList.getOriginalFilename());
+        return priceListImportJobService.submit(priceList);
+    }
+
+    /**
+     * Sends the progress of kept price-list import jobs.
+     *
+     * @return the list of jobs.
+     */
+    @GetMapping("/product/price-list/imports")
+    public List<PriceListImportJobDto> sendPriceListImports() {
+        return priceListImportJobService.getJobs();
+    }
+
+    /**
+     * Sends the progress of a price-list import job.
+     *
+     * @param jobId the id of the job.
+     * @return the job.
+     */
+    @GetMapping("/product/price-list/imports/{jobId}")
+    public PriceListImportJobDto sendPriceListImport(final @PathVariable String jobId) {
+        PriceListImportJobDto job = priceListImportJobService.getJob(jobId);
+        if (job == null) {
+            throw new PriceListImportJobNotFoundException("Price-list import job is not found.");
+        }
+        return job;
+    }
+
+    /**
+     * Cancels a price-list import job.
+     *
+     * @param jobId the id of the job.
+     * @return the job.
+     */
+    @DeleteMapping("/product/price-list/imports/{jobId}")
+    public PriceListImportJobDto cancelPriceListImport(final @PathVariable String jobId) {
+        logger.info("A price-list import job cancel request: " + jobId);
+        priceListImportJobService.cancel(jobId);
+        return sendPriceListImport(jobId);
+    }
+
     /**
      * Sends the list of top-ten-selling products.
      *
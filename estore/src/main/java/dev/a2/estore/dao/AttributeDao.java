@@ -100,4 +100,11 @@ public interface AttributeDao {
      */
     List<ProductAttribute> getAttributeValues(Long attributeId, List<Long> categoriesIds);
 
+    /**
+     * Finds values of attributes of all products.
+     *
+     * @return the list of rows with a product id, an attribute id, an attribute name and a value.
+     */
+    List<Object[]> getProductAttributeValues();
+
 }
@@ -66,10 +66,9 @@ public class AttributeDaoImpl implements AttributeDao {
                 .createQuery("FROM Attribute a WHERE a.name = :name");
         query.setParameter("name", attributeName);
         try {
-            logger.info("Fetched by name '" + attributeName + "' " + query.getSingleResult());
             return query.getSingleResult();
         } catch (NoResultException e) {
-            logger.info("No attribute with name '" + attributeName + "' has been found.");
+            logger.debug("No attribute with name '" + attributeName + "' has been found.");
             return null;
         }
     }
@@ -98,9 +97,7 @@ public class AttributeDaoImpl implements AttributeDao {
 
     @Override
     public Attribute findById(final Long attributeId) {
-        Attribute attribute =  sessionFactory.getCurrentSession().get(Attribute.class, attributeId);
-        logger.info("Fetched by attribute id '" + attributeId + "' " + attribute);
-        return attribute;
+        return sessionFactory.getCurrentSession().get(Attribute.class, attributeId);
     }
 
     @Override
@@ -131,4 +128,15 @@ public class AttributeDaoImpl implements AttributeDao {
         return query.getResultList();
     }
 
+    @Override
+    public List<Object[]> getProductAttributeValues() {
+        @SuppressWarnings("unchecked")
+        TypedQuery<Object[]> query = sessionFactory
+                .getCurrentSession()
+                .createQuery("SELECT pa.pk.product.id, a.id, a.name, pa.value " +
+                                        "FROM ProductAttribute pa " +
+                                        "JOIN pa.pk.attribute a");
+        return query.getResultList();
+    }
+
 }
@@ -64,6 +64,13 @@ public interface CategoryDao {
      */
     List<Category> getTopLevelCategories();
 
+    /**
+     * Finds ids, types and parents' ids of all categories.
+     *
+     * @return the list of rows with a category id, a category type and a parent category id.
+     */
+    List<Object[]> getCategoryTree();
+
     /**
      * Deletes a category.
      *
@@ -78,4 +85,10 @@ public interface CategoryDao {
      */
     void update(Category category);
 
+    /**
+     * Evicts categories and the category tree from the second-level cache.
+     * The cached sub-categories of a parent are not updated when a child category is saved or deleted.
+     */
+    void evictCache();
+
 }
@@ -26,6 +26,7 @@ package dev.a2.estore.dao;
 
 import dev.a2.estore.model.Category;
 import org.apache.log4j.Logger;
+import org.hibernate.Cache;
 import org.hibernate.SessionFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
@@ -61,24 +62,30 @@ public class CategoryDaoImpl implements CategoryDao {
     public List<Category> getAllCategories() {
         @SuppressWarnings("unchecked")
         TypedQuery<Category> query = sessionFactory.getCurrentSession()
-                .createQuery("FROM Category pc WHERE pc.type = 'category'");
-        logger.info("Fetched all " + query.getResultList());
+                .createQuery("FROM Category pc WHERE pc.type = 'category'")
+                .setCacheable(true);
         return query.getResultList();
     }
 
     @Override
     public Category findById(final Long categoryId) {
-        Category category = sessionFactory.getCurrentSession().get(Category.class, categoryId);
-        logger.info("Fetched by id '" + categoryId + "' " + category);
-        return category;
+        return sessionFactory.getCurrentSession().get(Category.class, categoryId);
     }
 
     @Override
     public List<Category> getTopLevelCategories() {
         @SuppressWarnings("unchecked")
         TypedQuery<Category> query = sessionFactory.getCurrentSession()
-                .createQuery("FROM Category pc WHERE pc.parentCategory IS NULL");
-        logger.info("Fetched top level categories " + query.getResultList());
+                .createQuery("FROM Category pc WHERE pc.parentCategory IS NULL")
+                .setCacheable(true);
+        return query.getResultList();
+    }
+
+    @Override
+    public List<Object[]> getCategoryTree() {
+        @SuppressWarnings("unchecked")
+        TypedQuery<Object[]> query = sessionFactory.getCurrentSession()
+                .createQuery("SELECT c.id, c.type, p.id FROM Category c LEFT JOIN c.parentCategory p");
         return query.getResultList();
     }
 
@@ -92,4 +99,13 @@ public class CategoryDaoImpl implements CategoryDao {
         sessionFactory.getCurrentSession().update(category);
     }
 
+    @Override
+    public void evictCache() {
+        Cache cache = sessionFactory.getCache();
+        cache.evictEntityData(Category.class);
+        cache.evictCollectionData(Category.class.getName() + ".subCategories");
+        cache.evictDefaultQueryRegion();
+        logger.info("Evicted cached categories");
+    }
+
 }
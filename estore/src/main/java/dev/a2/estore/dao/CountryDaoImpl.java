@@ -25,7 +25,6 @@
 package dev.a2.estore.dao;
 
 import dev.a2.estore.model.Country;
-import org.apache.log4j.Logger;
 import org.hibernate.SessionFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
@@ -41,11 +40,6 @@ import java.util.List;
 @Repository
 public class CountryDaoImpl implements CountryDao {
 
-    /**
-     * Initializes logger for this class.
-     */
-    private static final Logger logger = Logger.getLogger(CountryDao.class);
-
     /**
      * Injects bean SessionFactory.
      */
@@ -54,16 +48,15 @@ public class CountryDaoImpl implements CountryDao {
 
     @Override
     public Country findById(final Long countryId) {
-        Country country = sessionFactory.getCurrentSession().get(Country.class, countryId);
-        logger.info("Fetched by id '" + countryId + "' " + country);
-        return country;
+        return sessionFactory.getCurrentSession().get(Country.class, countryId);
     }
 
     @Override
     public List<Country> getAllCountries() {
         @SuppressWarnings("unchecked")
-        TypedQuery<Country> query = sessionFactory.getCurrentSession().createQuery("FROM Country");
-        logger.info("Fetched all " + query.getResultList());
+        TypedQuery<Country> query = sessionFactory.getCurrentSession()
+                .createQuery("FROM Country")
+                .setCacheable(true);
         return query.getResultList();
     }
 
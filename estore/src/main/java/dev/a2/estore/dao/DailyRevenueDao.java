@@ -0,0 +1,118 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Andrei Sidorov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package dev.a2.estore.dao;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import dev.a2.estore.model.DailyRevenue;
+import dev.a2.estore.model.PendingRevenue;
+
+/**
+ * This interface provides methods to manipulate the daily revenue entity.
+ *
+ * @author Andrei Sidorov
+ */
+public interface DailyRevenueDao {
+
+    /**
+     * Saves a daily revenue.
+     *
+     * @param dailyRevenue the daily revenue that needs to be saved.
+     */
+    void save(DailyRevenue dailyRevenue);
+
+    /**
+     * Finds the daily revenue of a day.
+     *
+     * @param revenueDate the day.
+     * @return the daily revenue or null if there is no row for the day yet.
+     */
+    DailyRevenue findByDate(LocalDate revenueDate);
+
+    /**
+     * Adds sums to the row of a day by a single update, so concurrent orders do not overwrite each other.
+     *
+     * @param revenueDate the day.
+     * @param revenue the selling price that needs to be added.
+     * @param cost the purchasing price that needs to be added.
+     * @param orderCount the number of orders that needs to be added.
+     * @return the number of updated rows, 0 if there is no row for the day yet.
+     */
+    int addToDay(LocalDate revenueDate, BigDecimal revenue, BigDecimal cost, long orderCount);
+
+    /**
+     * Finds the daily revenues of a time period.
+     *
+     * @param startDate the first day of the period.
+     * @param endDate the last day of the period.
+     * @return the list of daily revenues ordered by day.
+     */
+    List<DailyRevenue> findByPeriod(LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Counts the stored daily revenues.
+     *
+     * @return the number of daily revenues.
+     */
+    long count();
+
+    /**
+     * Sums all stored orders by the day they were created on.
+     *
+     * @return the list of daily revenues calculated from the orders.
+     */
+    List<DailyRevenue> sumOrdersByDay();
+
+    /**
+     * Saves the sums of an order that have not been added to its daily revenue yet.
+     *
+     * @param pendingRevenue the sums of an order.
+     */
+    void savePending(PendingRevenue pendingRevenue);
+
+    /**
+     * Finds the oldest sums of orders that have not been added to daily revenues yet and locks them,
+     * so concurrent flushes do not add them twice.
+     *
+     * @param limit the maximum number of the sums.
+     * @return the list of sums ordered by the ids of orders.
+     */
+    List<PendingRevenue> findPendingForUpdate(int limit);
+
+    /**
+     * Deletes the sums of orders that have been added to daily revenues.
+     *
+     * @param ordersIds the ids of the orders.
+     */
+    void deletePending(List<Long> ordersIds);
+
+    /**
+     * Deletes the sums of all orders, e.g. after the daily revenues have been filled from the orders.
+     */
+    void deleteAllPending();
+
+}
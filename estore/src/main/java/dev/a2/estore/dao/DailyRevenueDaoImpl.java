@@ -0,0 +1,156 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Andrei Sidorov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package dev.a2.estore.dao;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import dev.a2.estore.model.DailyRevenue;
+import dev.a2.estore.model.PendingRevenue;
+import org.apache.log4j.Logger;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.LockModeType;
+
+/**
+ * This class provides implementation for DailyRevenueDao interface.
+ *
+ * @author Andrei Sidorov
+ */
+@Repository
+public class DailyRevenueDaoImpl implements DailyRevenueDao {
+
+    /**
+     * Initializes logger for this class.
+     */
+    private static final Logger logger = Logger.getLogger(DailyRevenueDao.class);
+
+    /**
+     * Injects bean SessionFactory.
+     */
+    @Autowired
+    private SessionFactory sessionFactory;
+
+    @Override
+    public void save(final DailyRevenue dailyRevenue) {
+        sessionFactory.getCurrentSession().save(dailyRevenue);
+        logger.info("Saved " + dailyRevenue);
+    }
+
+    @Override
+    public DailyRevenue findByDate(final LocalDate revenueDate) {
+        return sessionFactory.getCurrentSession().get(DailyRevenue.class, revenueDate);
+    }
+
+    @Override
+    public int addToDay(final LocalDate revenueDate, final BigDecimal revenue,
+                        final BigDecimal cost, final long orderCount) {
+        return sessionFactory.getCurrentSession()
+                .createQuery("UPDATE DailyRevenue d " +
+                                        "SET d.revenue = d.revenue + :revenue, " +
+                                        "d.cost = d.cost + :cost, " +
+                                        "d.orderCount = d.orderCount + :orderCount " +
+                                        "WHERE d.revenueDate = :revenueDate")
+                .setParameter("revenue", revenue)
+                .setParameter("cost", cost)
+                .setParameter("orderCount", orderCount)
+                .setParameter("revenueDate", revenueDate)
+                .executeUpdate();
+    }
+
+    @Override
+    public List<DailyRevenue> findByPeriod(final LocalDate startDate, final LocalDate endDate) {
+        return sessionFactory.getCurrentSession()
+                .createQuery("FROM DailyRevenue d " +
+                                        "WHERE d.revenueDate BETWEEN :startDate AND :endDate " +
+                                        "ORDER BY d.revenueDate", DailyRevenue.class)
+                .setParameter("startDate", startDate)
+                .setParameter("endDate", endDate)
+                .getResultList();
+    }
+
+    @Override
+    public long count() {
+        return sessionFactory.getCurrentSession()
+                .createQuery("SELECT COUNT(d) FROM DailyRevenue d", Long.class)
+                .getSingleResult();
+    }
+
+    @Override
+    public List<DailyRevenue> sumOrdersByDay() {
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = sessionFactory.getCurrentSession()
+                .createNativeQuery("SELECT CAST(creation_date_time AS DATE), " +
+                                        "SUM(total_selling_price), SUM(total_purchasing_price), COUNT(*) " +
+                                        "FROM orders " +
+                                        "WHERE creation_date_time IS NOT NULL " +
+                                        "GROUP BY CAST(creation_date_time AS DATE)")
+                .getResultList();
+        List<DailyRevenue> dailyRevenues = new ArrayList<>();
+        for (Object[] row : rows) {
+            dailyRevenues.add(new DailyRevenue(((Date) row[0]).toLocalDate(),
+                    row[1] == null ? BigDecimal.ZERO : (BigDecimal) row[1],
+                    row[2] == null ? BigDecimal.ZERO : (BigDecimal) row[2],
+                    ((Number) row[3]).longValue()));
+        }
+        return dailyRevenues;
+    }
+
+    @Override
+    public void savePending(final PendingRevenue pendingRevenue) {
+        sessionFactory.getCurrentSession().save(pendingRevenue);
+    }
+
+    @Override
+    public List<PendingRevenue> findPendingForUpdate(final int limit) {
+        return sessionFactory.getCurrentSession()
+                .createQuery("FROM PendingRevenue p ORDER BY p.orderId", PendingRevenue.class)
+                .setMaxResults(limit)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .getResultList();
+    }
+
+    @Override
+    public void deletePending(final List<Long> ordersIds) {
+        sessionFactory.getCurrentSession()
+                .createQuery("DELETE FROM PendingRevenue p WHERE p.orderId IN :ordersIds")
+                .setParameter("ordersIds", ordersIds)
+                .executeUpdate();
+    }
+
+    @Override
+    public void deleteAllPending() {
+        int deleted = sessionFactory.getCurrentSession()
+                .createQuery("DELETE FROM PendingRevenue")
+                .executeUpdate();
+        logger.info("Deleted " + deleted + " pending revenues");
+    }
+
+}
@@ -71,4 +71,9 @@ public interface MeasureUnitsDao {
      */
     void update(MeasureUnits measureUnits);
 
+    /**
+     * Evicts measure units from the second-level cache.
+     */
+    void evictCache();
+
 }
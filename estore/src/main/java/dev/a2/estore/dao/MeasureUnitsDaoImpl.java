@@ -60,16 +60,15 @@ public class MeasureUnitsDaoImpl implements MeasureUnitsDao {
     @Override
     public List<MeasureUnits> getAllMeasureUnits() {
         @SuppressWarnings("unchecked")
-        TypedQuery<MeasureUnits> query = sessionFactory.getCurrentSession().createQuery("FROM MeasureUnits");
-        logger.info("Fetched all " + query.getResultList());
+        TypedQuery<MeasureUnits> query = sessionFactory.getCurrentSession()
+                .createQuery("FROM MeasureUnits")
+                .setCacheable(true);
         return query.getResultList();
     }
 
     @Override
     public MeasureUnits findById(final Long measureUnitsId) {
-        MeasureUnits measureUnits = sessionFactory.getCurrentSession().get(MeasureUnits.class, measureUnitsId);
-        logger.info("Fetched by id '" + measureUnitsId + "' " + measureUnits);
-        return measureUnits;
+        return sessionFactory.getCurrentSession().get(MeasureUnits.class, measureUnitsId);
     }
 
     @Override
@@ -82,5 +81,12 @@ public class MeasureUnitsDaoImpl implements MeasureUnitsDao {
         sessionFactory.getCurrentSession().update(measureUnits);
     }
 
+    @Override
+    public void evictCache() {
+        sessionFactory.getCache().evictEntityData(MeasureUnits.class);
+        sessionFactory.getCache().evictDefaultQueryRegion();
+        logger.info("Evicted cached measure units");
+    }
+
 }
 
@@ -27,6 +27,7 @@ package dev.a2.estore.dao;
 import dev.a2.estore.dto.SearchOrdersDto;
 import dev.a2.estore.model.Order;
 import dev.a2.estore.model.OrderProduct;
+import org.hibernate.ScrollableResults;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -53,12 +54,15 @@ public interface OrderDao {
     List<Order> getAllOrders();
 
     /**
-     * Finds orders by criteria.
+     * Finds a page of orders by criteria sorted by the column and in the direction given in the criteria.
+     * Orders with equal values in the sort column are sorted by id in the same direction.
      *
-     * @param searchOrdersDto the dto that contains search criteria.
+     * @param searchOrdersDto the dto that contains search criteria, sorting and the page number.
+     * @param pageSize the number of orders in a page.
+     * @param limit the maximum number of orders returned starting from the page.
      * @return the list of orders.
      */
-    List<Order> findOrdersByCriteria(SearchOrdersDto searchOrdersDto);
+    List<Order> findOrdersByCriteria(SearchOrdersDto searchOrdersDto, int pageSize, int limit);
 
     /**
      * Finds an order by its id.
@@ -76,6 +80,27 @@ public interface OrderDao {
      */
     List<OrderProduct> getOrderProducts(Long orderId);
 
+    /**
+     * Opens a forward-only cursor over the products of an order. A row holds the product id, name,
+     * image URL and current selling price, the order selling price, the quantity and the measure units name.
+     * The cursor must be closed by the caller within the same transaction.
+     *
+     * @param orderId the id of the order.
+     * @param fetchSize the number of rows fetched from a database at a time.
+     * @return the cursor over the order product rows.
+     */
+    ScrollableResults scrollOrderProductRows(Long orderId, int fetchSize);
+
+    /**
+     * Sums the total purchasing prices of the orders of every user who has orders
+     * by a single aggregate query.
+     *
+     * @param limit the maximum number of rows.
+     * @return the list of rows with a user id, a first name, a last name and a sum of orders
+     *         in the descending order of the sums.
+     */
+    List<Object[]> getOrdersSums(int limit);
+
     /**
      * Finds orders by their user id.
      *
@@ -24,10 +24,13 @@
 
 package dev.a2.estore.dao;
 
+import dev.a2.estore.dto.OrdersColumn;
 import dev.a2.estore.dto.SearchOrdersDto;
+import dev.a2.estore.dto.SortDirection;
 import dev.a2.estore.model.Order;
 import dev.a2.estore.model.OrderProduct;
-import org.apache.log4j.Logger;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
 import org.hibernate.SessionFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
@@ -35,7 +38,9 @@ import org.springframework.stereotype.Repository;
 import javax.persistence.TypedQuery;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * This class provides implementation for OrderDao interface.
@@ -66,50 +71,87 @@ public class OrderDaoImpl implements OrderDao {
         TypedQuery<Order> query = sessionFactory
                 .getCurrentSession()
                 .createQuery("FROM Order o ORDER BY o.creationDateTime DESC");
-        logger.info("Fetched all " + query.getResultList());
         return query.getResultList();
     }
 
     @Override
-    public List<Order> findOrdersByCriteria(final SearchOrdersDto searchOrdersDto) {
-        LocalDateTime startDateTime = null;
-        LocalDateTime endDateTime = null;
-
+    public List<Order> findOrdersByCriteria(final SearchOrdersDto searchOrdersDto,
+                                            final int pageSize,
+                                            final int limit) {
+        StringBuilder hql = new StringBuilder("FROM Order o JOIN FETCH o.user user WHERE 1 = 1");
+        Map<String, Object> parameters = new HashMap<>();
+
+        if (searchOrdersDto.getOrderId() != null) {
+            hql.append(" AND o.id = :id");
+            parameters.put("id", searchOrdersDto.getOrderId());
+        }
         if (searchOrdersDto.getStartDate() != null) {
-            startDateTime = searchOrdersDto.getStartDate().atStartOfDay();
+            hql.append(" AND o.creationDateTime >= :startDateTime");
+            parameters.put("startDateTime", searchOrdersDto.getStartDate().atStartOfDay());
         }
-
         if (searchOrdersDto.getEndDate() != null) {
-            endDateTime = searchOrdersDto.getEndDate().atTime(LocalTime.MAX);
+            hql.append(" AND o.creationDateTime <= :endDateTime");
+            parameters.put("endDateTime", searchOrdersDto.getEndDate().atTime(LocalTime.MAX));
         }
-        @SuppressWarnings("unchecked")
+        if (searchOrdersDto.getUserEmail() != null && !searchOrdersDto.getUserEmail().isEmpty()) {
+            hql.append(" AND user.email = :email");
+            parameters.put("email", searchOrdersDto.getUserEmail());
+        }
+        if (searchOrdersDto.getMinPrice() != null) {
+            hql.append(" AND o.totalSellingPrice >= :minPrice");
+            parameters.put("minPrice", searchOrdersDto.getMinPrice());
+        }
+        if (searchOrdersDto.getMaxPrice() != null) {
+            hql.append(" AND o.totalSellingPrice <= :maxPrice");
+            parameters.put("maxPrice", searchOrdersDto.getMaxPrice());
+        }
+        if (searchOrdersDto.getOrderStatus() != null) {
+            hql.append(" AND o.orderStatus = :status");
+            parameters.put("status", searchOrdersDto.getOrderStatus());
+        }
+
+        String direction = searchOrdersDto.getSortDirection() == SortDirection.ASC ? " ASC" : " DESC";
+        String sortProperty = getSortProperty(searchOrdersDto.getSortBy());
+        hql.append(" ORDER BY ").append(sortProperty).append(direction);
+        if (!sortProperty.equals("o.id")) {
+            hql.append(", o.id").append(direction);
+        }
+
         TypedQuery<Order> query = sessionFactory
                 .getCurrentSession()
-                .createQuery("FROM Order o JOIN FETCH o.user user " +
-                                        "WHERE (:id is null or o.id = :id) " +
-                                        "AND (:startDateTime is null or o.creationDateTime >= :startDateTime) " +
-                                        "AND (:endDateTime is null or o.creationDateTime <= :endDateTime) " +
-                                        "AND (:email is null or :email is '' or user.email = :email) " +
-                                        "AND (:minPrice is null or o.totalSellingPrice >= :minPrice) " +
-                                        "AND (:maxPrice is null or o.totalSellingPrice <= :maxPrice) " +
-                                        "AND (:status is null  or o.orderStatus = :status) " +
-                                        "ORDER BY o.id DESC");
-        query.setParameter("id", searchOrdersDto.getOrderId());
-        query.setParameter("startDateTime", startDateTime);
-        query.setParameter("endDateTime", endDateTime);
-        query.setParameter("email", searchOrdersDto.getUserEmail());
-        query.setParameter("minPrice", searchOrdersDto.getMinPrice());
-        query.setParameter("maxPrice", searchOrdersDto.getMaxPrice());
-        query.setParameter("status", searchOrdersDto.getOrderStatus());
-        logger.info("Fetched by critera " + searchOrdersDto + " result: " + query.getResultList());
+                .createQuery(hql.toString(), Order.class)
+                .setFirstResult((int) Math.min((long) Math.max(searchOrdersDto.getPage() - 1, 0) * pageSize,
+                        Integer.MAX_VALUE))
+                .setMaxResults(limit);
+        parameters.forEach(query::setParameter);
         return query.getResultList();
     }
 
+    /**
+     * Maps a sortable column of the orders page to the property used in the ORDER BY clause.
+     *
+     * @param column the column.
+     * @return the property of an order or its user.
+     */
+    private String getSortProperty(final OrdersColumn column) {
+        if (column == null) {
+            return "o.id";
+        }
+        switch (column) {
+            case DATE:
+                return "o.creationDateTime";
+            case EMAIL:
+                return "user.email";
+            case PRICE:
+                return "o.totalSellingPrice";
+            default:
+                return "o.id";
+        }
+    }
+
     @Override
     public Order findById(final Long orderId) {
-        Order order =  sessionFactory.getCurrentSession().get(Order.class, orderId);
-        logger.info("Fetched by order id '" + orderId + "' " + order);
-        return order;
+        return sessionFactory.getCurrentSession().get(Order.class, orderId);
     }
 
     @Override
@@ -123,6 +165,31 @@ public class OrderDaoImpl implements OrderDao {
         return query.getResultList();
     }
 
+    @Override
+    public ScrollableResults scrollOrderProductRows(final Long orderId, final int fetchSize) {
+        return sessionFactory
+                .getCurrentSession()
+                .createQuery("SELECT p.id, p.name, p.imageUrl, p.sellingPrice, op.sellingPrice, op.quantity, mu.name " +
+                                        "FROM OrderProduct op JOIN op.pk.product p LEFT JOIN p.measureUnits mu " +
+                                        "WHERE op.pk.order.id = :id")
+                .setParameter("id", orderId)
+                .setReadOnly(true)
+                .setFetchSize(fetchSize)
+                .scroll(ScrollMode.FORWARD_ONLY);
+    }
+
+    @Override
+    public List<Object[]> getOrdersSums(final int limit) {
+        return sessionFactory
+                .getCurrentSession()
+                .createQuery("SELECT u.id, u.firstName, u.lastName, SUM(o.totalPurchasingPrice) " +
+                                        "FROM Order o JOIN o.user u " +
+                                        "GROUP BY u.id, u.firstName, u.lastName " +
+                                        "ORDER BY SUM(o.totalPurchasingPrice) DESC, u.id", Object[].class)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
     @Override
     public List<Order> getAllUserOrders(final Long userId) {
         @SuppressWarnings("unchecked")
@@ -132,7 +199,6 @@ public class OrderDaoImpl implements OrderDao {
                                         "WHERE o.user.id = :id " +
                                         "ORDER BY o.creationDateTime DESC");
         query.setParameter("id", userId);
-        logger.info("Fetched by user id '" + userId + "' " + query.getResultList());
         return query.getResultList();
     }
 
@@ -153,8 +219,6 @@ public class OrderDaoImpl implements OrderDao {
                                         "ORDER BY o.creationDateTime DESC");
         query.setParameter("startDateTime", startDateTime);
         query.setParameter("endDateTime", endDateTime);
-        logger.info("Fetched by time period from '" + startDateTime + "' to" + endDateTime + " " +
-                query.getResultList());
         return query.getResultList();
     }
 
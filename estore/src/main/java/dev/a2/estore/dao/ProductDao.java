@@ -25,9 +25,13 @@
 
 package dev.a2.estore.dao;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
+import dev.a2.estore.dto.ProductCursor;
 import dev.a2.estore.model.Product;
+import org.hibernate.ScrollableResults;
 
 /**
  * This interface provides methods to manipulate the product entity.
@@ -58,6 +62,40 @@ public interface ProductDao {
      */
     List<Product> getAllProducts();
 
+    /**
+     * Finds a page of products ordered by quantity in stock descending with unknown quantities last
+     * and then by id.
+     *
+     * @param categoriesIds the ids of categories the products belong to or null for all products.
+     * @param after the position of the last product of the previous page or null for the first page.
+     * @param limit the maximum number of products.
+     * @return the list of products.
+     */
+    List<Product> getProductsPage(Collection<Long> categoriesIds, ProductCursor after, int limit);
+
+    /**
+     * Opens a forward-only cursor over the product fields that are sent to clients, ordered like the product
+     * listing. A row holds the id, name, selling price, weight, height, width, depth, quantity in stock,
+     * quantity reserved, image URL, sale count, measure units id and measure units name of a product.
+     * The cursor must be closed by the caller within the same transaction.
+     *
+     * @param categoriesIds the ids of categories the products belong to or null for all products.
+     * @param fetchSize the number of rows fetched from a database at a time.
+     * @return the cursor over the product rows.
+     */
+    ScrollableResults scrollProductRows(Collection<Long> categoriesIds, int fetchSize);
+
+    /**
+     * Opens a forward-only cursor over the price-list fields of all products ordered by id. A row holds
+     * the id, name, recent purchasing price, selling price, weight, height, width, depth, quantity in stock,
+     * image URL, measure units id and category id of a product. The cursor must be closed by the caller
+     * within the same transaction.
+     *
+     * @param fetchSize the number of rows fetched from a database at a time.
+     * @return the cursor over the price-list rows.
+     */
+    ScrollableResults scrollPriceListRows(int fetchSize);
+
     /**
      * Updates a product.
      *
@@ -107,20 +145,29 @@ public interface ProductDao {
     void deleteProductAttribute(Long productId, Long attributeId);
 
     /**
-     * Reserves products.
+     * Reserves several products at once using the configured {@link ReserveStrategy}.
+     * The rows of products are locked in the ascending order of ids,
+     * so concurrent reservations of overlapping carts do not deadlock.
+     *
+     * @param quantities the quantities that need to be reserved mapped by products' ids.
+     * @throws dev.a2.estore.exception.ProductReserveException if any of the quantities is not available,
+     *         in which case none of the products is reserved.
+     */
+    void reserveProducts(Map<Long, Integer> quantities);
+
+    /**
+     * Unreserves several products at once.
      *
-     * @param productId the id of the product that needs to be reserved.
-     * @param quantity the quantity that needs to be reserved.
+     * @param quantities the quantities that need to be unreserved mapped by products' ids.
      */
-    void reserveProductWithLocking(Long productId, Integer quantity);
+    void unreserveProducts(Map<Long, Integer> quantities);
 
     /**
-     * Unreserves products.
+     * Removes sold quantities from the reserve of products.
      *
-     * @param productId the id of the product that needs to be unreserved.
-     * @param quantity the quantity that needs to be unreserved.
+     * @param quantities the sold quantities mapped by products' ids.
      */
-    void unreserveProductWithLocking(Long productId, Integer quantity);
+    void sellReservedProducts(Map<Long, Integer> quantities);
 
     /**
      * Finds products by a measure units id.
@@ -130,7 +177,69 @@ public interface ProductDao {
      */
     List<Product> findProductsByMeasureUnitsId(Long measureUnitsId);
 
+    /**
+     * Finds products by their ids.
+     *
+     * @param productsIds the ids of products that need to be found.
+     * @return the list of products ordered by quantity in stock.
+     */
+    List<Product> findByIds(Collection<Long> productsIds);
+
+    /**
+     * Finds the quantities in stock of products without loading the products.
+     * The ids are bound in chunks, so any number of ids can be passed.
+     *
+     * @param productsIds the ids of products.
+     * @return the list of rows with a product id and a quantity in stock.
+     */
+    List<Object[]> getStocks(List<Long> productsIds);
 
+    /**
+     * Finds ids, names and categories' ids of all products.
+     *
+     * @return the list of rows with a product id, a product name and a category id.
+     */
+    List<Object[]> getProductNames();
+
+    /**
+     * Finds sale counts of all sold products.
+     *
+     * @return the list of rows with a product id, a name, an image url, a selling price and a sale count.
+     */
+    List<Object[]> getSaleCounts();
+
+    /**
+     * Adds sales to the sale counts of products in one batch.
+     *
+     * @param saleCounts the numbers of sales mapped by products' ids.
+     */
+    void addSaleCounts(Map<Long, Long> saleCounts);
+
+    /**
+     * Finds the state of products that a price-list import compares imported rows with.
+     *
+     * @param productsIds the ids of products.
+     * @return the list of rows with a product id, a recent purchasing price, an image url, a name,
+     * a selling price, a weight, a height, a width, a depth, a quantity in stock, a measure units id
+     * and a category id.
+     */
+    List<Object[]> getPriceListState(Collection<Long> productsIds);
+
+    /**
+     * Inserts new products with their purchasing prices in JDBC batches and sets the generated ids
+     * to the products.
+     *
+     * @param products the products that need to be inserted.
+     */
+    void insertProducts(List<Product> products);
+
+    /**
+     * Updates the price-list fields of products in JDBC batches and inserts their purchasing prices
+     * that have no id yet. An image url is kept if a product has none.
+     *
+     * @param products the products that need to be updated.
+     */
+    void updateProducts(List<Product> products);
 
 }
 
@@ -25,16 +25,33 @@
 
 package dev.a2.estore.dao;
 
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
+import dev.a2.estore.dto.ProductCursor;
 import dev.a2.estore.exception.ProductReserveException;
+import dev.a2.estore.model.Price;
 import dev.a2.estore.model.Product;
 import dev.a2.estore.model.ProductAttribute;
+import dev.a2.estore.util.TransactionCallbacks;
 import org.apache.log4j.Logger;
-import org.hibernate.LockMode;
-import org.hibernate.Session;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
 import org.hibernate.SessionFactory;
+import org.hibernate.query.Query;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -53,12 +70,23 @@ public class ProductDaoImpl implements ProductDao {
      */
     private static final Logger logger = Logger.getLogger(ProductDao.class);
 
+    /**
+     * The maximum number of ids bound to one IN clause.
+     */
+    private static final int IN_CLAUSE_SIZE = 1000;
+
     /**
      * Injects bean SessionFactory.
      */
     @Autowired
     private SessionFactory sessionFactory;
 
+    /**
+     * The strategy of reserving products specified in the application properties.
+     */
+    @Value("${product.reserve.strategy}")
+    private ReserveStrategy reserveStrategy;
+
     @Override
     public void save(final Product product) {
         sessionFactory.getCurrentSession().save(product);
@@ -66,9 +94,7 @@ public class ProductDaoImpl implements ProductDao {
 
     @Override
     public Product findById(final Long productId) {
-        Product product =  sessionFactory.getCurrentSession().get(Product.class, productId);
-        logger.info("Fetched by id '" + productId + "' " + product);
-        return product;
+        return sessionFactory.getCurrentSession().get(Product.class, productId);
     }
 
     @Override
@@ -78,10 +104,78 @@ public class ProductDaoImpl implements ProductDao {
                 .getCurrentSession()
                 .createQuery("FROM Product " +
                                         "ORDER BY quantityInStock DESC");
-        logger.info("Fetched all " + query.getResultList());
         return query.getResultList();
     }
 
+    @Override
+    public List<Product> getProductsPage(final Collection<Long> categoriesIds,
+                                         final ProductCursor after,
+                                         final int limit) {
+        StringBuilder hql = new StringBuilder("FROM Product p WHERE 1 = 1");
+        if (categoriesIds != null) {
+            hql.append(" AND p.category.id IN (:categoriesIds)");
+        }
+        if (after != null && after.getQuantityInStock() == null) {
+            hql.append(" AND p.quantityInStock IS NULL AND p.id > :id");
+        } else if (after != null) {
+            hql.append(" AND (p.quantityInStock < :quantity OR (p.quantityInStock = :quantity AND p.id > :id)"
+                    + " OR p.quantityInStock IS NULL)");
+        }
+        // MySQL and H2 put nulls last in a descending order, an explicit NULLS LAST would prevent the index seek
+        hql.append(" ORDER BY p.quantityInStock DESC, p.id ASC");
+
+        TypedQuery<Product> query = sessionFactory.getCurrentSession()
+                .createQuery(hql.toString(), Product.class)
+                .setMaxResults(limit);
+        if (categoriesIds != null) {
+            query.setParameter("categoriesIds", categoriesIds);
+        }
+        if (after != null) {
+            if (after.getQuantityInStock() != null) {
+                query.setParameter("quantity", after.getQuantityInStock());
+            }
+            query.setParameter("id", after.getId());
+        }
+        return query.getResultList();
+    }
+
+    @Override
+    public ScrollableResults scrollProductRows(final Collection<Long> categoriesIds, final int fetchSize) {
+        StringBuilder hql = new StringBuilder("SELECT p.id, p.name, p.sellingPrice, p.weight, p.height, " +
+                "p.width, p.depth, p.quantityInStock, p.quantityReserved, p.imageUrl, p.saleCount, mu.id, mu.name " +
+                "FROM Product p LEFT JOIN p.measureUnits mu");
+        if (categoriesIds != null) {
+            hql.append(" WHERE p.category.id IN (:categoriesIds)");
+        }
+        hql.append(" ORDER BY p.quantityInStock DESC, p.id ASC");
+
+        Query<?> query = sessionFactory.getCurrentSession()
+                .createQuery(hql.toString())
+                .setReadOnly(true)
+                .setCacheable(false)
+                .setFetchSize(fetchSize);
+        if (categoriesIds != null) {
+            query.setParameter("categoriesIds", categoriesIds);
+        }
+        return query.scroll(ScrollMode.FORWARD_ONLY);
+    }
+
+    @Override
+    public ScrollableResults scrollPriceListRows(final int fetchSize) {
+        return sessionFactory.getCurrentSession()
+                .createQuery("SELECT p.id, p.name, pp.price, p.sellingPrice, p.weight, p.height, p.width, " +
+                                     "p.depth, p.quantityInStock, p.imageUrl, mu.id, c.id " +
+                             "FROM Product p JOIN p.purchasingPrices pp " +
+                             "LEFT JOIN p.measureUnits mu LEFT JOIN p.category c " +
+                             "WHERE pp.id = (SELECT MAX(pp2.id) FROM Product p2 JOIN p2.purchasingPrices pp2 " +
+                                            "WHERE p2.id = p.id) " +
+                             "ORDER BY p.id ASC")
+                .setReadOnly(true)
+                .setCacheable(false)
+                .setFetchSize(fetchSize)
+                .scroll(ScrollMode.FORWARD_ONLY);
+    }
+
     @Override
     public void update(final Product product) {
         sessionFactory.getCurrentSession().update(product);
@@ -96,7 +190,6 @@ public class ProductDaoImpl implements ProductDao {
                                         "WHERE p.category.id =:id " +
                                         "ORDER BY quantityInStock DESC");
         query.setParameter("id", categoryId);
-        logger.info("Fetched by category id " + categoryId + "' " + query.getResultList());
         return query.getResultList();
     }
 
@@ -109,7 +202,6 @@ public class ProductDaoImpl implements ProductDao {
                                         "WHERE p.category.id IN (:categoriesIds) " +
                                         "ORDER BY quantityInStock DESC");
         query.setParameter("categoriesIds", categoriesIds);
-        logger.info("Fetched by categories ids '" + categoriesIds + "' " + query.getResultList());
         return query.getResultList();
     }
 
@@ -122,7 +214,6 @@ public class ProductDaoImpl implements ProductDao {
                         "WHERE p.name LIKE concat('%', ?1, '%') " +
                         "ORDER BY quantityInStock DESC");
         query.setParameter(1, input);
-        logger.info("Fetched by partial name '" + input + " result: " + query.getResultList());
         return query.getResultList();
     }
 
@@ -137,8 +228,6 @@ public class ProductDaoImpl implements ProductDao {
                         "ORDER BY quantityInStock DESC");
         query.setParameter(1, input);
         query.setParameter("categoriesIds", categoriesIds);
-        logger.info("Fetched by partial name '" + input + "' and category id '" + categoriesIds + "' " +
-                query.getResultList());
         return query.getResultList();
     }
 
@@ -160,28 +249,125 @@ public class ProductDaoImpl implements ProductDao {
 
     @Transactional
     @Override
-    public void reserveProductWithLocking(final Long productId, final Integer quantity) {
-        final Session session = sessionFactory.getCurrentSession();
-        final Product product = session.get(Product.class, productId, LockMode.PESSIMISTIC_WRITE);
-        Integer availableQuantity = product.getQuantityInStock();
-
-        if (quantity <= availableQuantity) {
-            product.setQuantityInStock(availableQuantity - quantity);
-            product.setQuantityReserved(product.getQuantityReserved() + quantity);
-        } else {
-            throw new ProductReserveException("Requested amount is not available.");
+    public void reserveProducts(final Map<Long, Integer> quantities) {
+        if (quantities.isEmpty()) {
+            return;
+        }
+        if (reserveStrategy == ReserveStrategy.CONDITIONAL) {
+            sessionFactory.getCurrentSession().doWork(connection -> reserveConditionally(connection, quantities));
+            evictAfterCompletion(quantities.keySet());
+            logger.info("Reserved conditionally " + quantities);
+            return;
         }
+        sessionFactory.getCurrentSession().doWork(connection -> {
+            String placeholders = String.join(",", Collections.nCopies(quantities.size(), "?"));
+            Map<Long, Integer> availableQuantities = new HashMap<>();
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "SELECT product_id, quantity_in_stock FROM products " +
+                            "WHERE product_id IN (" + placeholders + ") " +
+                            "ORDER BY product_id FOR UPDATE")) {
+                int index = 1;
+                for (Long productId : quantities.keySet()) {
+                    statement.setLong(index++, productId);
+                }
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        availableQuantities.put(resultSet.getLong(1), resultSet.getInt(2));
+                    }
+                }
+            }
+
+            for (Map.Entry<Long, Integer> quantity : quantities.entrySet()) {
+                Integer availableQuantity = availableQuantities.get(quantity.getKey());
+                if (availableQuantity == null || quantity.getValue() > availableQuantity) {
+                    throw new ProductReserveException("Requested amount is not available.");
+                }
+            }
+            moveToReserve(connection, quantities, 1);
+        });
+        evictAfterCompletion(quantities.keySet());
+        logger.info("Reserved " + quantities);
     }
 
     @Transactional
     @Override
-    public void unreserveProductWithLocking(final Long productId, final Integer quantity) {
-        final Session session = sessionFactory.getCurrentSession();
-        final Product product = session.get(Product.class, productId, LockMode.PESSIMISTIC_WRITE);
-        Integer availableQuantity = product.getQuantityInStock();
-        Integer reservedQuantity = product.getQuantityReserved();
-        product.setQuantityInStock(availableQuantity + quantity);
-        product.setQuantityReserved(reservedQuantity - quantity);
+    public void unreserveProducts(final Map<Long, Integer> quantities) {
+        sessionFactory.getCurrentSession().doWork(connection -> moveToReserve(connection, quantities, -1));
+        evictAfterCompletion(quantities.keySet());
+        logger.info("Unreserved " + quantities);
+    }
+
+    @Transactional
+    @Override
+    public void sellReservedProducts(final Map<Long, Integer> quantities) {
+        sessionFactory.getCurrentSession().doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "UPDATE products SET quantity_reserved = quantity_reserved - ? WHERE product_id = ?")) {
+                for (Map.Entry<Long, Integer> quantity : quantities.entrySet()) {
+                    statement.setInt(1, quantity.getValue());
+                    statement.setLong(2, quantity.getKey());
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        });
+        evictAfterCompletion(quantities.keySet());
+        logger.info("Sold reserved " + quantities);
+    }
+
+    /**
+     * Reserves products by updates that succeed only if available quantities are sufficient.
+     * If any of the updates changes no row, the exception rolls back the whole transaction.
+     *
+     * @param connection the JDBC connection.
+     * @param quantities the quantities mapped by products' ids in the ascending order of ids.
+     * @throws SQLException if the updates fail.
+     */
+    private void reserveConditionally(final Connection connection,
+                                      final Map<Long, Integer> quantities) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "UPDATE products SET quantity_in_stock = quantity_in_stock - ?, " +
+                        "quantity_reserved = quantity_reserved + ? " +
+                        "WHERE product_id = ? AND quantity_in_stock >= ?")) {
+            for (Map.Entry<Long, Integer> quantity : quantities.entrySet()) {
+                statement.setInt(1, quantity.getValue());
+                statement.setInt(2, quantity.getValue());
+                statement.setLong(3, quantity.getKey());
+                statement.setInt(4, quantity.getValue());
+                statement.addBatch();
+            }
+            for (int updatedRows : statement.executeBatch()) {
+                if (updatedRows == 0) {
+                    throw new ProductReserveException("Requested amount is not available.");
+                }
+            }
+        }
+    }
+
+    /**
+     * Moves quantities of products from stock to reserve or back in one batch of updates.
+     * The updates are executed in the order of the map, which is expected to be sorted by ids.
+     *
+     * @param connection the JDBC connection.
+     * @param quantities the quantities mapped by products' ids.
+     * @param sign 1 to move quantities to reserve, -1 to move them back to stock.
+     * @throws SQLException if the updates fail.
+     */
+    private void moveToReserve(final Connection connection,
+                               final Map<Long, Integer> quantities,
+                               final int sign) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "UPDATE products SET quantity_in_stock = quantity_in_stock - ?, " +
+                        "quantity_reserved = quantity_reserved + ? " +
+                        "WHERE product_id = ?")) {
+            for (Map.Entry<Long, Integer> quantity : quantities.entrySet()) {
+                statement.setInt(1, sign * quantity.getValue());
+                statement.setInt(2, sign * quantity.getValue());
+                statement.setLong(3, quantity.getKey());
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
     }
 
     @Override
@@ -192,11 +378,200 @@ public class ProductDaoImpl implements ProductDao {
                 .createQuery("FROM Product p " +
                                         "WHERE p.measureUnits.id =:id");
         query.setParameter("id", measureUnitsId);
-        logger.info("Fetched by measure units id '" + measureUnitsId + "' " + query.getResultList());
         return query.getResultList();
     }
 
+    @Override
+    public List<Product> findByIds(final Collection<Long> productsIds) {
+        @SuppressWarnings("unchecked")
+        TypedQuery<Product> query = sessionFactory
+                .getCurrentSession()
+                .createQuery("FROM Product p " +
+                                        "WHERE p.id IN (:ids) " +
+                                        "ORDER BY p.quantityInStock DESC");
+        query.setParameter("ids", productsIds);
+        return query.getResultList();
+    }
+
+    @Override
+    public List<Object[]> getStocks(final List<Long> productsIds) {
+        List<Object[]> stocks = new ArrayList<>(productsIds.size());
+        for (int from = 0; from < productsIds.size(); from += IN_CLAUSE_SIZE) {
+            List<Long> chunk = productsIds.subList(from, Math.min(from + IN_CLAUSE_SIZE, productsIds.size()));
+            @SuppressWarnings("unchecked")
+            TypedQuery<Object[]> query = sessionFactory
+                    .getCurrentSession()
+                    .createQuery("SELECT p.id, p.quantityInStock FROM Product p " +
+                                            "WHERE p.id IN (:ids)");
+            query.setParameter("ids", chunk);
+            stocks.addAll(query.getResultList());
+        }
+        return stocks;
+    }
+
+    @Override
+    public List<Object[]> getProductNames() {
+        @SuppressWarnings("unchecked")
+        TypedQuery<Object[]> query = sessionFactory
+                .getCurrentSession()
+                .createQuery("SELECT p.id, p.name, c.id FROM Product p " +
+                                        "LEFT JOIN p.category c");
+        return query.getResultList();
+    }
+
+    @Override
+    public List<Object[]> getSaleCounts() {
+        @SuppressWarnings("unchecked")
+        TypedQuery<Object[]> query = sessionFactory
+                .getCurrentSession()
+                .createQuery("SELECT p.id, p.name, p.imageUrl, p.sellingPrice, p.saleCount " +
+                                        "FROM Product p " +
+                                        "WHERE p.saleCount > 0");
+        return query.getResultList();
+    }
+
+    @Override
+    public void addSaleCounts(final Map<Long, Long> saleCounts) {
+        sessionFactory.getCurrentSession().doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "UPDATE products SET sale_count = sale_count + ? WHERE product_id = ?")) {
+                for (Map.Entry<Long, Long> saleCount : saleCounts.entrySet()) {
+                    statement.setLong(1, saleCount.getValue());
+                    statement.setLong(2, saleCount.getKey());
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        });
+        evictAfterCompletion(saleCounts.keySet());
+        logger.info("Added sale counts " + saleCounts);
+    }
+
+    @Override
+    public List<Object[]> getPriceListState(final Collection<Long> productsIds) {
+        @SuppressWarnings("unchecked")
+        TypedQuery<Object[]> query = sessionFactory
+                .getCurrentSession()
+                .createQuery("SELECT p.id, pp.price, p.imageUrl, p.name, p.sellingPrice, p.weight, " +
+                                        "p.height, p.width, p.depth, p.quantityInStock, mu.id, c.id " +
+                                        "FROM Product p JOIN p.purchasingPrices pp " +
+                                        "LEFT JOIN p.measureUnits mu LEFT JOIN p.category c " +
+                                        "WHERE p.id IN (:ids) " +
+                                        "AND pp.id = (SELECT MAX(pp2.id) FROM Product p2 " +
+                                                     "JOIN p2.purchasingPrices pp2 WHERE p2.id = p.id)");
+        query.setParameter("ids", productsIds);
+        return query.getResultList();
+    }
+
+    @Override
+    public void insertProducts(final List<Product> products) {
+        sessionFactory.getCurrentSession().doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "INSERT INTO products (name, selling_price, image_url, height, width, depth, weight, " +
+                            "quantity_in_stock, category_id, measure_units_id, quantity_reserved, sale_count) " +
+                            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0, 0)",
+                    Statement.RETURN_GENERATED_KEYS)) {
+                for (Product product : products) {
+                    setPriceListColumns(statement, product);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+                try (ResultSet generatedKeys = statement.getGeneratedKeys()) {
+                    for (Product product : products) {
+                        if (!generatedKeys.next()) {
+                            throw new SQLException("Ids of inserted products have not been returned.");
+                        }
+                        product.setId(generatedKeys.getLong(1));
+                    }
+                }
+            }
+            insertNewPrices(connection, products);
+        });
+        logger.info("Inserted " + products.size() + " products.");
+    }
+
+    @Override
+    public void updateProducts(final List<Product> products) {
+        sessionFactory.getCurrentSession().doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "UPDATE products SET name = ?, selling_price = ?, image_url = COALESCE(?, image_url), " +
+                            "height = ?, width = ?, depth = ?, weight = ?, quantity_in_stock = ?, " +
+                            "category_id = ?, measure_units_id = ? " +
+                            "WHERE product_id = ?")) {
+                for (Product product : products) {
+                    setPriceListColumns(statement, product);
+                    statement.setLong(11, product.getId());
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+            insertNewPrices(connection, products);
+        });
+        evictAfterCompletion(products.stream().map(Product::getId).collect(Collectors.toList()));
+        logger.info("Updated " + products.size() + " products.");
+    }
 
+    /**
+     * Sets the price-list fields of a product as the first ten parameters of a statement.
+     *
+     * @param statement the statement.
+     * @param product the product.
+     * @throws SQLException if a parameter cannot be set.
+     */
+    private void setPriceListColumns(final PreparedStatement statement, final Product product) throws SQLException {
+        statement.setString(1, product.getName());
+        statement.setBigDecimal(2, product.getSellingPrice());
+        statement.setString(3, product.getImageUrl());
+        statement.setDouble(4, product.getHeight());
+        statement.setDouble(5, product.getWidth());
+        statement.setDouble(6, product.getDepth());
+        statement.setDouble(7, product.getWeight());
+        statement.setInt(8, product.getQuantityInStock());
+        statement.setLong(9, product.getCategory().getId());
+        statement.setLong(10, product.getMeasureUnits().getId());
+    }
+
+    /**
+     * Inserts the purchasing prices without ids of products in one batch.
+     *
+     * @param connection the JDBC connection.
+     * @param products the products with ids.
+     * @throws SQLException if the inserts fail.
+     */
+    private void insertNewPrices(final Connection connection, final List<Product> products) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO prices (creation_date, price, product_id) VALUES (?, ?, ?)")) {
+            int batchSize = 0;
+            for (Product product : products) {
+                for (Price price : product.getPurchasingPrices()) {
+                    if (price.getId() == null) {
+                        statement.setDate(1, Date.valueOf(price.getCreationDate()));
+                        statement.setBigDecimal(2, price.getPrice());
+                        statement.setLong(3, product.getId());
+                        statement.addBatch();
+                        batchSize++;
+                    }
+                }
+            }
+            if (batchSize > 0) {
+                statement.executeBatch();
+            }
+        }
+    }
+
+    /**
+     * Evicts products updated by plain JDBC from the second-level cache, which Hibernate does not do itself.
+     * Products are evicted after the transaction completes, otherwise a concurrent reader
+     * could cache the state from before the commit again.
+     *
+     * @param productsIds the ids of the updated products.
+     */
+    private void evictAfterCompletion(final Collection<Long> productsIds) {
+        List<Long> ids = new ArrayList<>(productsIds);
+        Runnable evict = () -> ids.forEach(id -> sessionFactory.getCache().evictEntityData(Product.class, id));
+
+        TransactionCallbacks.afterCompletion(evict);
+    }
 
 }
 
@@ -0,0 +1,172 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Andrei Sidorov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.a2.estore.dao;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.log4j.Logger;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.hibernate.ScrollableResults;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * This class instruments every public method of the DAO implementations.
+ * Each call is timed once around the real execution, its rows are counted from the returned value
+ * and the result is recorded into the statistics of the query named after the DAO and the method.
+ * Calls are logged at DEBUG and calls slower than a threshold are logged at WARN.
+ *
+ * @author Andrei Sidorov
+ */
+@Aspect
+@Component
+public class QueryMonitor {
+
+    /**
+     * Initializes logger for this class.
+     */
+    private static final Logger logger = Logger.getLogger(QueryMonitor.class);
+
+    /**
+     * The duration in milliseconds above which a query is slow.
+     */
+    @Value("${dao.slow.query.ms}")
+    private long slowQueryMillis;
+
+    /**
+     * The statistics mapped by query names.
+     */
+    private final Map<String, QueryStatistics> statistics = new ConcurrentHashMap<>();
+
+    /**
+     * Times a call of a DAO method and records it.
+     *
+     * @param joinPoint the call.
+     * @return the value returned by the DAO method.
+     * @throws Throwable if the DAO method throws.
+     */
+    @Around("execution(public * dev.a2.estore.dao.*DaoImpl.*(..))")
+    public Object monitor(final ProceedingJoinPoint joinPoint) throws Throwable {
+        long start = System.nanoTime();
+        Object result = null;
+        boolean failed = true;
+        try {
+            result = joinPoint.proceed();
+            failed = false;
+            return result;
+        } finally {
+            record(getQueryName(joinPoint.getSignature()), System.nanoTime() - start,
+                    failed ? -1 : countRows(result), failed);
+        }
+    }
+
+    /**
+     * Returns the statistics of all queries executed so far.
+     *
+     * @return the statistics mapped by query names.
+     */
+    public Map<String, QueryStatistics> getStatistics() {
+        return Collections.unmodifiableMap(statistics);
+    }
+
+    /**
+     * Records one execution of a query and logs it.
+     *
+     * @param queryName the name of the query.
+     * @param nanos the latency of the execution in nanoseconds.
+     * @param rows the number of rows, or a negative number if unknown.
+     * @param failed shows whether the execution has thrown an exception.
+     */
+    void record(final String queryName, final long nanos, final long rows, final boolean failed) {
+        long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+        boolean slow = millis >= slowQueryMillis;
+        statistics.computeIfAbsent(queryName, name -> new QueryStatistics()).record(nanos, rows, slow);
+
+        if (slow) {
+            logger.warn("Slow query " + queryName + " took " + millis + " ms, rows: " + formatRows(rows, failed));
+        } else if (logger.isDebugEnabled()) {
+            logger.debug("Query " + queryName + " took " + millis + " ms, rows: " + formatRows(rows, failed));
+        }
+    }
+
+    /**
+     * Builds the name of a query from the DAO and the method, e.g. 'OrderDao.findById'.
+     *
+     * @param signature the signature of the DAO method.
+     * @return the name of the query.
+     */
+    private static String getQueryName(final Signature signature) {
+        String daoName = signature.getDeclaringType().getSimpleName();
+        if (daoName.endsWith("Impl")) {
+            daoName = daoName.substring(0, daoName.length() - "Impl".length());
+        }
+        return daoName + "." + signature.getName();
+    }
+
+    /**
+     * Counts the rows in a value returned by a DAO method without iterating over it.
+     *
+     * @param result the value.
+     * @return the number of rows, or -1 for a scrollable result that is read later.
+     */
+    private static long countRows(final Object result) {
+        if (result == null) {
+            return 0;
+        }
+        if (result instanceof Collection) {
+            return ((Collection<?>) result).size();
+        }
+        if (result instanceof Map) {
+            return ((Map<?, ?>) result).size();
+        }
+        if (result instanceof ScrollableResults) {
+            return -1;
+        }
+        return 1;
+    }
+
+    /**
+     * Formats the number of rows for logging.
+     *
+     * @param rows the number of rows.
+     * @param failed shows whether the execution has thrown an exception.
+     * @return the formatted number of rows.
+     */
+    private static String formatRows(final long rows, final boolean failed) {
+        if (failed) {
+            return "failed";
+        }
+        return rows < 0 ? "streamed" : String.valueOf(rows);
+    }
+
+}
@@ -0,0 +1,205 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Andrei Sidorov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.a2.estore.dao;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class accumulates the executions of one DAO query: how many times it ran,
+ * how many rows it returned and a histogram of its latency.
+ * The histogram has fixed buckets, so recording is lock-free and takes constant memory.
+ *
+ * @author Andrei Sidorov
+ */
+public final class QueryStatistics {
+
+    /**
+     * The upper bounds of the latency buckets in milliseconds. The last bucket is unbounded.
+     */
+    private static final long[] BUCKET_BOUNDS = {1, 2, 5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000};
+
+    /**
+     * The number of executions that fell into each latency bucket.
+     */
+    private final LongAdder[] buckets = new LongAdder[BUCKET_BOUNDS.length + 1];
+
+    /**
+     * The number of executions.
+     */
+    private final LongAdder count = new LongAdder();
+
+    /**
+     * The number of executions which were slow.
+     */
+    private final LongAdder slowCount = new LongAdder();
+
+    /**
+     * The number of rows returned by all executions.
+     */
+    private final LongAdder rows = new LongAdder();
+
+    /**
+     * The total latency of all executions in nanoseconds.
+     */
+    private final LongAdder totalNanos = new LongAdder();
+
+    /**
+     * The maximum latency in nanoseconds.
+     */
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Constructor.
+     */
+    public QueryStatistics() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records one execution of the query.
+     *
+     * @param nanos the latency of the execution in nanoseconds.
+     * @param rowCount the number of rows returned by the execution, or a negative number if unknown.
+     * @param slow shows whether the execution was slow.
+     */
+    public void record(final long nanos, final long rowCount, final boolean slow) {
+        long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+        int bucket = 0;
+        while (bucket < BUCKET_BOUNDS.length && millis >= BUCKET_BOUNDS[bucket]) {
+            bucket++;
+        }
+        buckets[bucket].increment();
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+        if (rowCount > 0) {
+            rows.add(rowCount);
+        }
+        if (slow) {
+            slowCount.increment();
+        }
+    }
+
+    /**
+     * Returns the number of executions.
+     *
+     * @return the number of executions.
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Returns the number of slow executions.
+     *
+     * @return the number of slow executions.
+     */
+    public long getSlowCount() {
+        return slowCount.sum();
+    }
+
+    /**
+     * Returns the number of rows returned by all executions.
+     *
+     * @return the number of rows.
+     */
+    public long getRows() {
+        return rows.sum();
+    }
+
+    /**
+     * Returns the total latency of all executions.
+     *
+     * @return the total latency in milliseconds.
+     */
+    public double getTotalMillis() {
+        return totalNanos.sum() / 1_000_000.0;
+    }
+
+    /**
+     * Returns the maximum latency.
+     *
+     * @return the maximum latency in milliseconds.
+     */
+    public double getMaxMillis() {
+        return maxNanos.get() / 1_000_000.0;
+    }
+
+    /**
+     * Returns the upper bound of the latency bucket that holds the given quantile of executions.
+     * If the quantile falls into the unbounded bucket the maximum latency is returned.
+     *
+     * @param quantile the quantile from 0 to 1, e.g. 0.99.
+     * @return the latency in milliseconds.
+     */
+    public double getPercentile(final double quantile) {
+        long[] counts = getBucketCounts();
+        long total = 0;
+        for (long bucketCount : counts) {
+            total += bucketCount;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(quantile * total);
+        long seen = 0;
+        for (int i = 0; i < BUCKET_BOUNDS.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return BUCKET_BOUNDS[i];
+            }
+        }
+        return getMaxMillis();
+    }
+
+    /**
+     * Returns the number of executions in each latency bucket.
+     * The last element counts the executions above the last bound.
+     *
+     * @return the counts of the buckets.
+     */
+    public long[] getBucketCounts() {
+        long[] counts = new long[buckets.length];
+        for (int i = 0; i < buckets.length; i++) {
+            counts[i] = buckets[i].sum();
+        }
+        return counts;
+    }
+
+    /**
+     * Returns the upper bounds of the latency buckets.
+     *
+     * @return the bounds in milliseconds.
+     */
+    public static long[] getBucketBounds() {
+        return BUCKET_BOUNDS.clone();
+    }
+
+}
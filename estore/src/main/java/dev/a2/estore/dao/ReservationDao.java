@@ -0,0 +1,88 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Andrei Sidorov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.a2.estore.dao;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import dev.a2.estore.model.Reservation;
+
+/**
+ * This interface provides methods to manipulate the reservation entity.
+ *
+ * @author Andrei Sidorov
+ */
+public interface ReservationDao {
+
+    /**
+     * Saves a reservation.
+     *
+     * @param reservation the reservation that needs to be saved.
+     */
+    void save(Reservation reservation);
+
+    /**
+     * Finds a reservation by its id.
+     *
+     * @param reservationId the id of the reservation that needs to be found.
+     * @return the reservation or null if there is no such reservation.
+     */
+    Reservation findById(String reservationId);
+
+    /**
+     * Finds a reservation by its id and locks it until the end of the current transaction.
+     * A reservation that was deleted while waiting for the lock is not found.
+     *
+     * @param reservationId the id of the reservation that needs to be found.
+     * @return the reservation or null if there is no such reservation.
+     */
+    Reservation findByIdForUpdate(String reservationId);
+
+    /**
+     * Finds the reservations that ran out and locks them until the end of the current transaction.
+     *
+     * @param now the current date and time.
+     * @param limit the maximum number of reservations.
+     * @return the list of reservations, the earliest first.
+     */
+    List<Reservation> findExpiredForUpdate(LocalDateTime now, int limit);
+
+    /**
+     * Counts the reservations that have not run out yet.
+     *
+     * @param now the current date and time.
+     * @return the number of live reservations.
+     */
+    long countLive(LocalDateTime now);
+
+    /**
+     * Deletes a reservation.
+     *
+     * @param reservation the reservation that needs to be deleted.
+     */
+    void delete(Reservation reservation);
+
+}
@@ -0,0 +1,101 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Andrei Sidorov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.a2.estore.dao;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import dev.a2.estore.model.Reservation;
+import org.apache.log4j.Logger;
+import org.hibernate.LockMode;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.LockModeType;
+import javax.persistence.TypedQuery;
+
+/**
+ * This class provides implementation for ReservationDao interface.
+ *
+ * @author Andrei Sidorov
+ */
+@Repository
+public class ReservationDaoImpl implements ReservationDao {
+
+    /**
+     * Initializes logger for this class.
+     */
+    private static final Logger logger = Logger.getLogger(ReservationDao.class);
+
+    /**
+     * Injects bean SessionFactory.
+     */
+    @Autowired
+    private SessionFactory sessionFactory;
+
+    @Override
+    public void save(final Reservation reservation) {
+        sessionFactory.getCurrentSession().save(reservation);
+        logger.info("Saved " + reservation);
+    }
+
+    @Override
+    public Reservation findById(final String reservationId) {
+        return sessionFactory.getCurrentSession().get(Reservation.class, reservationId);
+    }
+
+    @Override
+    public Reservation findByIdForUpdate(final String reservationId) {
+        return sessionFactory.getCurrentSession()
+                .get(Reservation.class, reservationId, LockMode.PESSIMISTIC_WRITE);
+    }
+
+    @Override
+    public List<Reservation> findExpiredForUpdate(final LocalDateTime now, final int limit) {
+        TypedQuery<Reservation> query = sessionFactory.getCurrentSession()
+                .createQuery("FROM Reservation r WHERE r.expiresAt <= :now ORDER BY r.expiresAt", Reservation.class)
+                .setParameter("now", now)
+                .setMaxResults(limit)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE);
+        return query.getResultList();
+    }
+
+    @Override
+    public long countLive(final LocalDateTime now) {
+        return sessionFactory.getCurrentSession()
+                .createQuery("SELECT COUNT(r) FROM Reservation r WHERE r.expiresAt > :now", Long.class)
+                .setParameter("now", now)
+                .getSingleResult();
+    }
+
+    @Override
+    public void delete(final Reservation reservation) {
+        sessionFactory.getCurrentSession().delete(reservation);
+        logger.info("Deleted " + reservation);
+    }
+
+}
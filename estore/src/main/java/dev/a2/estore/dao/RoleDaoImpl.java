@@ -66,19 +66,16 @@ public class RoleDaoImpl implements RoleDao {
         query.setParameter("name", roleName);
 
         try {
-            logger.info("Fetched " + query.getSingleResult());
             return query.getSingleResult();
         } catch (NoResultException e) {
-            logger.info("No role with name '" + roleName + "' has been found");
+            logger.debug("No role with name '" + roleName + "' has been found");
             return null;
         }
     }
 
     @Override
     public Role findById(final Long roleId) {
-        Role role =  sessionFactory.getCurrentSession().get(Role.class, roleId);
-        logger.info("Fetched by id '" + roleId + "' " + role);
-        return role;
+        return sessionFactory.getCurrentSession().get(Role.class, roleId);
     }
 
     @Override
@@ -87,7 +84,6 @@ public class RoleDaoImpl implements RoleDao {
         TypedQuery<Role> query = sessionFactory
                 .getCurrentSession()
                 .createQuery("FROM Role");
-        logger.info("Fetched all " + query.getResultList());
         return query.getResultList();
     }
 
@@ -48,26 +48,22 @@ public class UserDaoImpl implements UserDao {
                 .createQuery("FROM User u WHERE u.email = :email");
         query.setParameter("email", email);
         try {
-            logger.info("Fetched by email '" + email + "' " + query.getSingleResult());
             return query.getSingleResult();
         } catch (NoResultException e) {
-            logger.info("No user with email '" + email + "' has been found");
+            logger.debug("No user with email '" + email + "' has been found");
             return null;
         }
     }
 
     @Override
     public User findById(final Long id) {
-        User user =  sessionFactory.getCurrentSession().get(User.class, id);
-        logger.info("Fetched by id '" + id + "' " + user);
-        return user;
+        return sessionFactory.getCurrentSession().get(User.class, id);
     }
 
     @Override
     public List<User> getAllUsers() {
         @SuppressWarnings("unchecked")
         TypedQuery<User> query = sessionFactory.getCurrentSession().createQuery("FROM User");
-        logger.info("Fetched all " + query.getResultList());
         return query.getResultList();
     }
 
@@ -83,7 +79,6 @@ public class UserDaoImpl implements UserDao {
         query.setParameter("firstName", searchUsersDto.getFirstName());
         query.setParameter("lastName", searchUsersDto.getLastName());
         query.setParameter("email", searchUsersDto.getEmail());
-        logger.info("Fetched by critera " + searchUsersDto + " result: " + query.getResultList());
         return query.getResultList();
     }
 
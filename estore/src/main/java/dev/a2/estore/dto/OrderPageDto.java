@@ -0,0 +1,107 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Andrei Sidorov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package dev.a2.estore.dto;
+
+import java.util.List;
+
+import dev.a2.estore.model.Order;
+
+/**
+ * This class provides the dto of a page of found orders.
+ *
+ * @author Andrei Sidorov
+ */
+public class OrderPageDto {
+
+    /**
+     * The orders of a page.
+     */
+    private List<Order> orders;
+
+    /**
+     * The number of a page starting from 1.
+     */
+    private int page;
+
+    /**
+     * Whether there are more orders after this page.
+     */
+    private boolean hasNextPage;
+
+    /**
+     * Constructor.
+     */
+    public OrderPageDto() {
+        super();
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param orders the orders of a page.
+     * @param page the number of a page.
+     * @param hasNextPage whether there are more orders after this page.
+     */
+    public OrderPageDto(final List<Order> orders, final int page, final boolean hasNextPage) {
+        this.orders = orders;
+        this.page = page;
+        this.hasNextPage = hasNextPage;
+    }
+
+    /* Getters and setters. */
+
+    public List<Order> getOrders() {
+        return orders;
+    }
+
+    public void setOrders(List<Order> orders) {
+        this.orders = orders;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public void setPage(int page) {
+        this.page = page;
+    }
+
+    public boolean isHasNextPage() {
+        return hasNextPage;
+    }
+
+    public void setHasNextPage(boolean hasNextPage) {
+        this.hasNextPage = hasNextPage;
+    }
+
+    @Override
+    public String toString() {
+        return "OrderPageDto{" +
+                "orders=" + orders.size() +
+                ", page=" + page +
+                ", hasNextPage=" + hasNextPage +
+                '}';
+    }
+}
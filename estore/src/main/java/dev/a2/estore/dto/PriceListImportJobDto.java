@@ -0,0 +1,246 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Andrei Sidorov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package dev.a2.estore.dto;
+
+import java.util.List;
+
+/**
+ * This class provides the dto of the progress of a price-list import job.
+ *
+ * @author Andrei Sidorov
+ */
+public class PriceListImportJobDto {
+
+    /**
+     * The id of a job.
+     */
+    private String id;
+
+    /**
+     * The name of an imported file.
+     */
+    private String fileName;
+
+    /**
+     * The status of a job.
+     */
+    private PriceListImportStatus status;
+
+    /**
+     * The time a job was submitted in milliseconds since the epoch.
+     */
+    private long submittedAt;
+
+    /**
+     * The time a job started in milliseconds since the epoch or 0 if it has not started.
+     */
+    private long startedAt;
+
+    /**
+     * The time a job finished in milliseconds since the epoch or 0 if it has not finished.
+     */
+    private long finishedAt;
+
+    /**
+     * The number of processed rows.
+     */
+    private long rowsProcessed;
+
+    /**
+     * The number of created products.
+     */
+    private long created;
+
+    /**
+     * The number of updated products.
+     */
+    private long updated;
+
+    /**
+     * The number of products that have not been written because their rows have not changed.
+     */
+    private long unchanged;
+
+    /**
+     * The number of updated products whose purchasing price has changed.
+     */
+    private long pricesChanged;
+
+    /**
+     * The number of rows that have not been imported.
+     */
+    private long failed;
+
+    /**
+     * The number of rows processed per second since a job started.
+     */
+    private double rowsPerSecond;
+
+    /**
+     * The errors of rows that have not been imported, limited in number.
+     */
+    private List<String> errors;
+
+    /**
+     * The reason a job has failed.
+     */
+    private String error;
+
+    /* Getters and setters. */
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public PriceListImportStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(PriceListImportStatus status) {
+        this.status = status;
+    }
+
+    public long getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public void setSubmittedAt(long submittedAt) {
+        this.submittedAt = submittedAt;
+    }
+
+    public long getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(long startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public long getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(long finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public long getRowsProcessed() {
+        return rowsProcessed;
+    }
+
+    public void setRowsProcessed(long rowsProcessed) {
+        this.rowsProcessed = rowsProcessed;
+    }
+
+    public long getCreated() {
+        return created;
+    }
+
+    public void setCreated(long created) {
+        this.created = created;
+    }
+
+    public long getUpdated() {
+        return updated;
+    }
+
+    public void setUpdated(long updated) {
+        this.updated = updated;
+    }
+
+    public long getUnchanged() {
+        return unchanged;
+    }
+
+    public void setUnchanged(long unchanged) {
+        this.unchanged = unchanged;
+    }
+
+    public long getPricesChanged() {
+        return pricesChanged;
+    }
+
+    public void setPricesChanged(long pricesChanged) {
+        this.pricesChanged = pricesChanged;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public void setFailed(long failed) {
+        this.failed = failed;
+    }
+
+    public double getRowsPerSecond() {
+        return rowsPerSecond;
+    }
+
+    public void setRowsPerSecond(double rowsPerSecond) {
+        this.rowsPerSecond = rowsPerSecond;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<String> errors) {
+        this.errors = errors;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    @Override
+    public String toString() {
+        return "PriceListImportJobDto{" +
+                "id='" + id + '\'' +
+                ", fileName='" + fileName + '\'' +
+                ", status=" + status +
+                ", rowsProcessed=" + rowsProcessed +
+                ", created=" + created +
+                ", updated=" + updated +
+                ", unchanged=" + unchanged +
+                ", failed=" + failed +
+                '}';
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Andrei Sidorov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package dev.a2.estore.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class provides the dto of a price-list import result.
+ *
+ * @author Andrei Sidorov
+ */
+public class PriceListImportResultDto {
+
+    /**
+     * The number of created products.
+     */
+    private long created;
+
+    /**
+     * The number of updated products.
+     */
+    private long updated;
+
+    /**
+     * The number of products that have not been written because their rows have not changed.
+     */
+    private long unchanged;
+
+    /**
+     * The number of updated products whose purchasing price has changed.
+     */
+    private long pricesChanged;
+
+    /**
+     * The number of rows that have not been imported.
+     */
+    private long failed;
+
+    /**
+     * The errors of rows that have not been imported, limited in number.
+     */
+    private List<String> errors = new ArrayList<>();
+
+    /* Getters and setters. */
+
+    public long getCreated() {
+        return created;
+    }
+
+    public void setCreated(long created) {
+        this.created = created;
+    }
+
+    public long getUpdated() {
+        return updated;
+    }
+
+    public void setUpdated(long updated) {
+        this.updated = updated;
+    }
+
+    public long getUnchanged() {
+        return unchanged;
+    }
+
+    public void setUnchanged(long unchanged) {
+        this.unchanged = unchanged;
+    }
+
+    public long getPricesChanged() {
+        return pricesChanged;
+    }
+
+    public void setPricesChanged(long pricesChanged) {
+        this.pricesChanged = pricesChanged;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public void setFailed(long failed) {
+        this.failed = failed;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<String> errors) {
+        this.errors = errors;
+    }
+
+    @Override
+    public String toString() {
+        return "PriceListImportResultDto{" +
+                "created=" + created +
+                ", updated=" + updated +
+                ", unchanged=" + unchanged +
+                ", pricesChanged=" + pricesChanged +
+                ", failed=" + failed +
+                '}';
+    }
+}
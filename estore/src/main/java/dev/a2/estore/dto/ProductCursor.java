@@ -0,0 +1,123 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Andrei Sidorov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.a2.estore.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import dev.a2.estore.exception.InvalidCursorException;
+import dev.a2.estore.model.Product;
+
+/**
+ * This class provides the position of a product in the product listing, which is ordered by quantity in stock
+ * descending with unknown quantities last and then by id. A page starts right after the position, so it is found
+ * by an index seek no matter how far the listing has been scrolled. Clients get the position as an opaque string.
+ *
+ * @author Andrei Sidorov
+ */
+public final class ProductCursor {
+
+    /**
+     * The quantity in stock of the last product of a page, null if the quantity is unknown.
+     */
+    private final Integer quantityInStock;
+
+    /**
+     * The id of the last product of a page.
+     */
+    private final long id;
+
+    /**
+     * Constructor.
+     *
+     * @param quantityInStock the quantity in stock of the last product of a page or null if it is unknown.
+     * @param id the id of the last product of a page.
+     */
+    public ProductCursor(final Integer quantityInStock, final long id) {
+        this.quantityInStock = quantityInStock;
+        this.id = id;
+    }
+
+    /**
+     * Creates the cursor that points at a product.
+     *
+     * @param product the last product of a page.
+     * @return the cursor.
+     */
+    public static ProductCursor of(final Product product) {
+        return new ProductCursor(product.getQuantityInStock(), product.getId());
+    }
+
+    /**
+     * Encodes this cursor into a string that is safe to put into a url.
+     *
+     * @return the encoded cursor.
+     */
+    public String encode() {
+        // an unknown quantity is encoded as an empty string
+        String value = (quantityInStock == null ? "" : quantityInStock.toString()) + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor received from a client.
+     *
+     * @param cursor the encoded cursor.
+     * @return the cursor.
+     * @throws InvalidCursorException if the cursor has not been made by method encode.
+     */
+    public static ProductCursor decode(final String cursor) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = value.split(":");
+            if (parts.length != 2) {
+                throw new InvalidCursorException("Invalid cursor '" + cursor + "'");
+            }
+            Integer quantityInStock = parts[0].isEmpty() ? null : Integer.valueOf(parts[0]);
+            return new ProductCursor(quantityInStock, Long.parseLong(parts[1]));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Invalid cursor '" + cursor + "'", e);
+        }
+    }
+
+    /* Getters */
+
+    public Integer getQuantityInStock() {
+        return quantityInStock;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    @Override
+    public String toString() {
+        return "ProductCursor{" +
+                "quantityInStock=" + quantityInStock +
+                ", id=" + id +
+                '}';
+    }
+}
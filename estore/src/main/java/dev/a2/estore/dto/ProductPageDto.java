@@ -0,0 +1,92 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Andrei Sidorov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.a2.estore.dto;
+
+import java.util.List;
+
+import dev.a2.estore.model.Product;
+
+/**
+ * This class provides the dto of a page of the product listing.
+ *
+ * @author Andrei Sidorov
+ */
+public class ProductPageDto {
+
+    /**
+     * The products of a page.
+     */
+    private List<Product> products;
+
+    /**
+     * The cursor of the next page or null if this page is the last one.
+     */
+    private String nextCursor;
+
+    /**
+     * Constructor.
+     */
+    public ProductPageDto() {
+        super();
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param products the products of a page.
+     * @param nextCursor the cursor of the next page.
+     */
+    public ProductPageDto(final List<Product> products, final String nextCursor) {
+        this.products = products;
+        this.nextCursor = nextCursor;
+    }
+
+    /* Getters and setters. */
+
+    public List<Product> getProducts() {
+        return products;
+    }
+
+    public void setProducts(List<Product> products) {
+        this.products = products;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    @Override
+    public String toString() {
+        return "ProductPageDto{" +
+                "products=" + products.size() +
+                ", nextCursor='" + nextCursor + '\'' +
+                '}';
+    }
+}
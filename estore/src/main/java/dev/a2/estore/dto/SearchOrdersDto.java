@@ -91,6 +91,13 @@ public class SearchOrdersDto {
      */
     private SortDirection sortDirection = SortDirection.DESC;
 
+    /**
+     * The number of the requested page of orders starting from 1.
+     */
+    @Min(1)
+    @Max(Integer.MAX_VALUE)
+    private int page = 1;
+
     /* Getters and setters */
 
     public Long getOrderId() {
@@ -165,6 +172,14 @@ public class SearchOrdersDto {
         this.sortDirection = sortDirection;
     }
 
+    public int getPage() {
+        return page;
+    }
+
+    public void setPage(int page) {
+        this.page = page;
+    }
+
     @Override
     public String toString() {
         return "SearchOrdersDto{" +
@@ -177,6 +192,7 @@ public class SearchOrdersDto {
                 ", orderStatus=" + orderStatus +
                 ", sortBy=" + sortBy +
                 ", sortDirection=" + sortDirection +
+                ", page=" + page +
                 '}';
     }
 }
@@ -31,6 +31,7 @@ import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.Table;
 import javax.persistence.Transient;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 
@@ -64,6 +65,13 @@ public class Attribute {
     @Transient
     private Set<String> values;
 
+    /**
+     * The number of products mapped by values of a product attribute.
+     * Used to show how many products the filter will leave.
+     */
+    @Transient
+    private Map<String, Integer> valueCounts;
+
     /* Getters and setters */
 
     public Long getId() {
@@ -86,6 +94,14 @@ public class Attribute {
         this.values = values;
     }
 
+    public Map<String, Integer> getValueCounts() {
+        return valueCounts;
+    }
+
+    public void setValueCounts(Map<String, Integer> valueCounts) {
+        this.valueCounts = valueCounts;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
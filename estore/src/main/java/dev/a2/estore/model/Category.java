@@ -24,6 +24,7 @@
 
 package dev.a2.estore.model;
 
+import javax.persistence.Cacheable;
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
 import javax.persistence.Entity;
@@ -34,6 +35,10 @@ import javax.persistence.Id;
 import javax.persistence.ManyToOne;
 import javax.persistence.OneToMany;
 import javax.persistence.Table;
+
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import java.util.List;
 
 /**
@@ -43,6 +48,8 @@ import java.util.List;
  */
 @Entity
 @Table(name = "categories")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Category {
 
     /**
@@ -71,6 +78,7 @@ public class Category {
     @OneToMany(mappedBy = "parentCategory",
             fetch = FetchType.EAGER,
             orphanRemoval = true)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     private List<Category> subCategories;
 
     /**
@@ -0,0 +1,145 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Andrei Sidorov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package dev.a2.estore.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+/**
+ * This model represents the sums of the orders created on one day. The rows are kept up to date
+ * when orders are saved, so revenue reports add up a row per day instead of loading every order.
+ *
+ * @author Andrei Sidorov
+ */
+@Entity
+@Table(name = "daily_revenues")
+public class DailyRevenue {
+
+    /**
+     * The day the orders were created on.
+     */
+    @Id
+    @Column(name = "revenue_date", nullable = false)
+    private LocalDate revenueDate;
+
+    /**
+     * The sum of the total selling prices of the orders.
+     */
+    @Column(name = "revenue", nullable = false, precision = 19, scale = 2)
+    private BigDecimal revenue = BigDecimal.ZERO;
+
+    /**
+     * The sum of the total purchasing prices of the orders.
+     */
+    @Column(name = "cost", nullable = false, precision = 19, scale = 2)
+    private BigDecimal cost = BigDecimal.ZERO;
+
+    /**
+     * The number of the orders.
+     */
+    @Column(name = "order_count", nullable = false)
+    private long orderCount;
+
+    /**
+     * Constructor.
+     */
+    public DailyRevenue() {
+        super();
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param revenueDate the day the orders were created on.
+     * @param revenue the sum of the total selling prices of the orders.
+     * @param cost the sum of the total purchasing prices of the orders.
+     * @param orderCount the number of the orders.
+     */
+    public DailyRevenue(final LocalDate revenueDate, final BigDecimal revenue,
+                        final BigDecimal cost, final long orderCount) {
+        this.revenueDate = revenueDate;
+        this.revenue = revenue;
+        this.cost = cost;
+        this.orderCount = orderCount;
+    }
+
+    /**
+     * Calculates the profit of the day by subtracting the cost from the revenue.
+     *
+     * @return the profit.
+     */
+    public BigDecimal calculateProfit() {
+        return revenue.subtract(cost);
+    }
+
+    /* Getters and setters */
+
+    public LocalDate getRevenueDate() {
+        return revenueDate;
+    }
+
+    public void setRevenueDate(LocalDate revenueDate) {
+        this.revenueDate = revenueDate;
+    }
+
+    public BigDecimal getRevenue() {
+        return revenue;
+    }
+
+    public void setRevenue(BigDecimal revenue) {
+        this.revenue = revenue;
+    }
+
+    public BigDecimal getCost() {
+        return cost;
+    }
+
+    public void setCost(BigDecimal cost) {
+        this.cost = cost;
+    }
+
+    public long getOrderCount() {
+        return orderCount;
+    }
+
+    public void setOrderCount(long orderCount) {
+        this.orderCount = orderCount;
+    }
+
+    @Override
+    public String toString() {
+        return "DailyRevenue{" +
+                "revenueDate=" + revenueDate +
+                ", revenue=" + revenue +
+                ", cost=" + cost +
+                ", orderCount=" + orderCount +
+                '}';
+    }
+}
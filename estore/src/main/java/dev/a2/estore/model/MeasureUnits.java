@@ -24,6 +24,7 @@
 
 package dev.a2.estore.model;
 
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
@@ -31,6 +32,9 @@ import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.Table;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 /**
  * This model represents the units of measurement and used to measure the quantity of a product.
  *
@@ -38,6 +42,8 @@ import javax.persistence.Table;
  */
 @Entity
 @Table(name = "measure_units")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class MeasureUnits {
 
     /**
@@ -33,6 +33,7 @@ import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.persistence.OneToMany;
@@ -56,7 +57,10 @@ import java.util.List;
  * @author Andrei Sidorov
  */
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_created_id", columnList = "creation_date_time, order_id"),
+        @Index(name = "idx_orders_price_id", columnList = "total_selling_price, order_id"),
+        @Index(name = "idx_orders_user_created_id", columnList = "user_id, creation_date_time, order_id")})
 @JsonIdentityInfo(generator = ObjectIdGenerators.PropertyGenerator.class,
         property = "orderProducts")
 public class Order {
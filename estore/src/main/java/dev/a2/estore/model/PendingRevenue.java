@@ -0,0 +1,138 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Andrei Sidorov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.a2.estore.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+/**
+ * This model represents a saved order whose sums have not been added to its daily revenue yet.
+ * It is written in the transaction of the order and deleted by the transaction that adds it to the daily
+ * revenue, so the revenue of a committed order is never lost and never added twice.
+ *
+ * @author Andrei Sidorov
+ */
+@Entity
+@Table(name = "pending_revenues")
+public class PendingRevenue {
+
+    /**
+     * The id of the order.
+     */
+    @Id
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    /**
+     * The day the order was created on.
+     */
+    @Column(name = "revenue_date", nullable = false)
+    private LocalDate revenueDate;
+
+    /**
+     * The total selling price of the order.
+     */
+    @Column(name = "revenue", nullable = false, precision = 19, scale = 2)
+    private BigDecimal revenue = BigDecimal.ZERO;
+
+    /**
+     * The total purchasing price of the order.
+     */
+    @Column(name = "cost", nullable = false, precision = 19, scale = 2)
+    private BigDecimal cost = BigDecimal.ZERO;
+
+    /**
+     * Constructor.
+     */
+    public PendingRevenue() {
+        super();
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param orderId the id of the order.
+     * @param revenueDate the day the order was created on.
+     * @param revenue the total selling price of the order.
+     * @param cost the total purchasing price of the order.
+     */
+    public PendingRevenue(final Long orderId, final LocalDate revenueDate,
+                          final BigDecimal revenue, final BigDecimal cost) {
+        this.orderId = orderId;
+        this.revenueDate = revenueDate;
+        this.revenue = revenue;
+        this.cost = cost;
+    }
+
+    /* Getters and setters */
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(Long orderId) {
+        this.orderId = orderId;
+    }
+
+    public LocalDate getRevenueDate() {
+        return revenueDate;
+    }
+
+    public void setRevenueDate(LocalDate revenueDate) {
+        this.revenueDate = revenueDate;
+    }
+
+    public BigDecimal getRevenue() {
+        return revenue;
+    }
+
+    public void setRevenue(BigDecimal revenue) {
+        this.revenue = revenue;
+    }
+
+    public BigDecimal getCost() {
+        return cost;
+    }
+
+    public void setCost(BigDecimal cost) {
+        this.cost = cost;
+    }
+
+    @Override
+    public String toString() {
+        return "PendingRevenue{" +
+                "orderId=" + orderId +
+                ", revenueDate=" + revenueDate +
+                ", revenue=" + revenue +
+                ", cost=" + cost +
+                '}';
+    }
+}
@@ -26,6 +26,7 @@ package dev.a2.estore.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
+import javax.persistence.Cacheable;
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
 import javax.persistence.Entity;
@@ -33,10 +34,15 @@ import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.persistence.OneToMany;
 import javax.persistence.Table;
+
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import java.math.BigDecimal;
 import java.util.List;
 
@@ -46,7 +52,11 @@ import java.util.List;
  * @author Andrei Sidorov
  */
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+        @Index(name = "idx_products_stock_id", columnList = "quantity_in_stock, product_id"),
+        @Index(name = "idx_products_category_stock_id", columnList = "category_id, quantity_in_stock, product_id")})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Product {
 
     /**
@@ -143,8 +153,9 @@ public class Product {
 
     /**
      * The count of how many times a product has been sold.
+     * Not updatable through the entity, the sales are added by batch updates.
      */
-    @Column(name = "sale_count")
+    @Column(name = "sale_count", updatable = false)
     private Long saleCount;
 
     /**
@@ -0,0 +1,114 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Andrei Sidorov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.a2.estore.model;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.persistence.CollectionTable;
+import javax.persistence.Column;
+import javax.persistence.ElementCollection;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.JoinColumn;
+import javax.persistence.MapKeyColumn;
+import javax.persistence.Table;
+
+import org.hibernate.annotations.BatchSize;
+
+/**
+ * This model represents a reserve of the products of a cart. A reserve is stored until it is
+ * completed by a checkout or released, so products reserved by any application node can be released
+ * when the reserve time runs out, even after the node has been restarted.
+ *
+ * @author Andrei Sidorov
+ */
+@Entity
+@Table(name = "reservations",
+        indexes = @Index(name = "idx_reservations_expires_at", columnList = "expires_at"))
+public class Reservation {
+
+    /**
+     * The id of a reserve. Generated by the application.
+     */
+    @Id
+    @Column(name = "reservation_id", length = 36, unique = true, nullable = false)
+    private String id;
+
+    /**
+     * The date and time when a reserve runs out.
+     */
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    /**
+     * The reserved quantities mapped by products' ids.
+     */
+    @ElementCollection
+    @CollectionTable(name = "reservations_products", joinColumns = @JoinColumn(name = "reservation_id"))
+    @MapKeyColumn(name = "product_id")
+    @Column(name = "quantity", nullable = false)
+    @BatchSize(size = 100)
+    private Map<Long, Integer> quantities = new HashMap<>();
+
+    /* Getters and setters */
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    public Map<Long, Integer> getQuantities() {
+        return quantities;
+    }
+
+    public void setQuantities(Map<Long, Integer> quantities) {
+        this.quantities = quantities;
+    }
+
+    @Override
+    public String toString() {
+        return "Reservation{" +
+                "id='" + id + '\'' +
+                ", expiresAt=" + expiresAt +
+                ", quantities=" + quantities +
+                '}';
+    }
+
+}
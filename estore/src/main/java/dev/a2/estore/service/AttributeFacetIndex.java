@@ -0,0 +1,103 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Andrei Sidorov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.a2.estore.service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import dev.a2.estore.model.Attribute;
+
+/**
+ * This interface provides an in-memory index of product attributes' values
+ * grouped by categories. It is used to build the product filter.
+ *
+ * @author Andrei Sidorov
+ */
+public interface AttributeFacetIndex {
+
+    /**
+     * Rebuilds the index from the product attributes stored in a database.
+     */
+    void rebuild();
+
+    /**
+     * Checks whether the index has been built and can answer requests.
+     *
+     * @return true if the index is ready.
+     */
+    boolean isReady();
+
+    /**
+     * Finds attributes of products of categories together with their values
+     * and the number of products that have each value.
+     *
+     * @param categoriesIds the ids of categories.
+     * @return the set of attributes with values.
+     */
+    Set<Attribute> getAttributes(Collection<Long> categoriesIds);
+
+    /**
+     * Filters products by values of their attributes. A product passes the filter if it has attributes
+     * and none of them has a value other than the one chosen in the criteria. The value 'All' matches any value.
+     *
+     * @param criteria the chosen values mapped by attributes' names.
+     * @param categoriesIds the ids of categories to filter in, or null to filter in all categories.
+     * @param productsIds the ids of products to filter, or null to filter all products.
+     * @return the list of ids of products that pass the filter.
+     */
+    List<Long> filter(Map<String, String> criteria, Collection<Long> categoriesIds, Collection<Long> productsIds);
+
+    /**
+     * Sets the value of a product attribute. An attribute that the product did not have is added to it.
+     * When called inside a transaction the index is changed only after the transaction commits.
+     *
+     * @param productId the id of a product.
+     * @param attribute the attribute.
+     * @param value the value of the attribute, may be null.
+     */
+    void putAttribute(Long productId, Attribute attribute, String value);
+
+    /**
+     * Removes an attribute from a product.
+     * When called inside a transaction the index is changed only after the transaction commits.
+     *
+     * @param productId the id of a product.
+     * @param attributeId the id of the attribute.
+     */
+    void removeAttribute(Long productId, Long attributeId);
+
+    /**
+     * Moves a product with its attributes to a category.
+     * When called inside a transaction the index is changed only after the transaction commits.
+     *
+     * @param productId the id of a product.
+     * @param categoryId the id of the category.
+     */
+    void putProduct(Long productId, Long categoryId);
+
+}
@@ -0,0 +1,427 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Andrei Sidorov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.a2.estore.service;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import dev.a2.estore.dao.AttributeDao;
+import dev.a2.estore.dao.ProductDao;
+import dev.a2.estore.model.Attribute;
+import dev.a2.estore.util.TransactionCallbacks;
+import org.apache.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * This class provides implementation for AttributeFacetIndex interface.
+ * For every category the index keeps the attributes of its products and, for every attribute,
+ * the number of products per value, so the product filter is built without querying a database.
+ * In addition, the products of every category, attribute and attribute value are kept as bitmaps
+ * of products' ids, so filtering by attributes is a number of bitmap intersections.
+ *
+ * @author Andrei Sidorov
+ */
+@Service
+public class AttributeFacetIndexImpl implements AttributeFacetIndex {
+
+    /**
+     * Initializes logger for this class.
+     */
+    private static final Logger logger = Logger.getLogger(AttributeFacetIndex.class);
+
+    /**
+     * Injects AttributeDao.
+     */
+    @Autowired
+    private AttributeDao attributeDao;
+
+    /**
+     * Injects ProductDao.
+     */
+    @Autowired
+    private ProductDao productDao;
+
+    /**
+     * The ids of categories mapped by products' ids.
+     */
+    private Map<Long, Long> productCategories = new HashMap<>();
+
+    /**
+     * The values of products' attributes mapped by products' ids and attributes' ids.
+     */
+    private Map<Long, Map<Long, String>> productValues = new HashMap<>();
+
+    /**
+     * The names of attributes mapped by their ids.
+     */
+    private Map<Long, String> attributeNames = new HashMap<>();
+
+    /**
+     * The ids of attributes mapped by their names.
+     */
+    private Map<String, Long> attributeIds = new HashMap<>();
+
+    /**
+     * The facets mapped by categories' ids and attributes' ids.
+     */
+    private Map<Long, Map<Long, Facet>> facets = new HashMap<>();
+
+    /**
+     * The bitmaps of products mapped by categories' ids.
+     */
+    private Map<Long, BitSet> categoryProducts = new HashMap<>();
+
+    /**
+     * The bitmaps of products that have an attribute mapped by attributes' ids.
+     */
+    private Map<Long, BitSet> attributeProducts = new HashMap<>();
+
+    /**
+     * The bitmaps of products mapped by attributes' ids and attributes' values.
+     */
+    private Map<Long, Map<String, BitSet>> valueProducts = new HashMap<>();
+
+    /**
+     * Guards the state of the index.
+     */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Shows whether the index has been built.
+     */
+    private volatile boolean ready;
+
+    @EventListener(ContextRefreshedEvent.class)
+    @Transactional(readOnly = true)
+    @Override
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            productCategories = new HashMap<>();
+            productValues = new HashMap<>();
+            attributeNames = new HashMap<>();
+            attributeIds = new HashMap<>();
+            facets = new HashMap<>();
+            categoryProducts = new HashMap<>();
+            attributeProducts = new HashMap<>();
+            valueProducts = new HashMap<>();
+
+            for (Object[] row : productDao.getProductNames()) {
+                productCategories.put((Long) row[0], (Long) row[2]);
+                bits(categoryProducts, (Long) row[2]).set(bit((Long) row[0]));
+            }
+            for (Object[] row : attributeDao.getProductAttributeValues()) {
+                name((Long) row[1], (String) row[2]);
+                put((Long) row[0], (Long) row[1], (String) row[3]);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        ready = true;
+        logger.info("Attribute facet index has been built with " + attributeNames.size() + " attributes");
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Override
+    public Set<Attribute> getAttributes(final Collection<Long> categoriesIds) {
+        Map<Long, Attribute> attributes = new HashMap<>();
+
+        lock.readLock().lock();
+        try {
+            for (Long categoryId : categoriesIds) {
+                Map<Long, Facet> categoryFacets = facets.get(categoryId);
+                if (categoryFacets == null) {
+                    continue;
+                }
+                categoryFacets.forEach((attributeId, facet) -> {
+                    Attribute attribute = attributes.computeIfAbsent(attributeId, id -> {
+                        Attribute newAttribute = new Attribute();
+                        newAttribute.setId(id);
+                        newAttribute.setName(attributeNames.get(id));
+                        newAttribute.setValues(new HashSet<>());
+                        newAttribute.setValueCounts(new TreeMap<>());
+                        return newAttribute;
+                    });
+                    facet.values.forEach((value, count) -> {
+                        attribute.getValues().add(value);
+                        attribute.getValueCounts().merge(value, count, Integer::sum);
+                    });
+                });
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return new HashSet<>(attributes.values());
+    }
+
+    @Override
+    public List<Long> filter(final Map<String, String> criteria,
+                             final Collection<Long> categoriesIds,
+                             final Collection<Long> productsIds) {
+        BitSet result = new BitSet();
+
+        lock.readLock().lock();
+        try {
+            // Only products with attributes can pass the filter.
+            attributeProducts.values().forEach(result::or);
+
+            if (categoriesIds != null) {
+                BitSet categoriesBits = new BitSet();
+                for (Long categoryId : categoriesIds) {
+                    categoriesBits.or(categoryProducts.getOrDefault(categoryId, new BitSet()));
+                }
+                result.and(categoriesBits);
+            }
+
+            if (productsIds != null) {
+                BitSet productsBits = new BitSet();
+                productsIds.forEach(productId -> productsBits.set(bit(productId)));
+                result.and(productsBits);
+            }
+
+            // Removes the products that have an attribute with a value other than the chosen one.
+            for (Map.Entry<String, String> criterion : criteria.entrySet()) {
+                Long attributeId = attributeIds.get(criterion.getKey());
+                if (criterion.getValue().equals("All") || attributeId == null) {
+                    continue;
+                }
+                BitSet mismatched = (BitSet) attributeProducts.getOrDefault(attributeId, new BitSet()).clone();
+                BitSet matched = valueProducts.getOrDefault(attributeId, Collections.emptyMap())
+                        .get(criterion.getValue());
+                if (matched != null) {
+                    mismatched.andNot(matched);
+                }
+                result.andNot(mismatched);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Long> ids = new ArrayList<>(result.cardinality());
+        for (int i = result.nextSetBit(0); i >= 0; i = result.nextSetBit(i + 1)) {
+            ids.add((long) i);
+        }
+        return ids;
+    }
+
+    @Override
+    public void putAttribute(final Long productId, final Attribute attribute, final String value) {
+        final Long attributeId = attribute.getId();
+        final String attributeName = attribute.getName();
+        afterCommit(() -> {
+            name(attributeId, attributeName);
+            put(productId, attributeId, value);
+        });
+    }
+
+    @Override
+    public void removeAttribute(final Long productId, final Long attributeId) {
+        afterCommit(() -> {
+            Map<Long, String> values = productValues.get(productId);
+            if (values != null && values.containsKey(attributeId)) {
+                String value = values.remove(attributeId);
+                count(productCategories.get(productId), attributeId, value, -1);
+                bits(attributeProducts, attributeId).clear(bit(productId));
+                if (value != null) {
+                    valueBits(attributeId, value).clear(bit(productId));
+                }
+            }
+        });
+    }
+
+    @Override
+    public void putProduct(final Long productId, final Long categoryId) {
+        afterCommit(() -> {
+            boolean isIndexed = productCategories.containsKey(productId);
+            Long oldCategoryId = productCategories.put(productId, categoryId);
+            if (isIndexed && Objects.equals(oldCategoryId, categoryId)) {
+                return;
+            }
+            if (isIndexed) {
+                bits(categoryProducts, oldCategoryId).clear(bit(productId));
+            }
+            bits(categoryProducts, categoryId).set(bit(productId));
+
+            Map<Long, String> values = productValues.get(productId);
+            if (values == null) {
+                return;
+            }
+            values.forEach((attributeId, value) -> {
+                count(oldCategoryId, attributeId, value, -1);
+                count(categoryId, attributeId, value, 1);
+            });
+        });
+    }
+
+    /**
+     * Changes the index under the write lock once the current transaction commits,
+     * or immediately if there is no transaction.
+     *
+     * @param action the change of the index.
+     */
+    private void afterCommit(final Runnable action) {
+        Runnable lockedAction = () -> {
+            lock.writeLock().lock();
+            try {
+                action.run();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        };
+
+        TransactionCallbacks.afterCommit(lockedAction);
+    }
+
+    /**
+     * Sets the value of a product attribute and updates the facets.
+     * Must be called under the write lock.
+     *
+     * @param productId the id of a product.
+     * @param attributeId the id of an attribute.
+     * @param value the value of the attribute.
+     */
+    private void put(final Long productId, final Long attributeId, final String value) {
+        Long categoryId = productCategories.get(productId);
+        Map<Long, String> values = productValues.computeIfAbsent(productId, id -> new HashMap<>());
+        if (values.containsKey(attributeId)) {
+            String oldValue = values.get(attributeId);
+            count(categoryId, attributeId, oldValue, -1);
+            if (oldValue != null) {
+                valueBits(attributeId, oldValue).clear(bit(productId));
+            }
+        }
+        values.put(attributeId, value);
+        count(categoryId, attributeId, value, 1);
+        bits(attributeProducts, attributeId).set(bit(productId));
+        if (value != null) {
+            valueBits(attributeId, value).set(bit(productId));
+        }
+    }
+
+    /**
+     * Remembers the name of an attribute.
+     * Must be called under the write lock.
+     *
+     * @param attributeId the id of an attribute.
+     * @param attributeName the name of the attribute.
+     */
+    private void name(final Long attributeId, final String attributeName) {
+        attributeNames.put(attributeId, attributeName);
+        attributeIds.put(attributeName, attributeId);
+    }
+
+    /**
+     * Finds a bitmap by its key and creates it if it does not exist.
+     *
+     * @param bitmaps the bitmaps.
+     * @param key the key of a bitmap.
+     * @return the bitmap.
+     */
+    private static BitSet bits(final Map<Long, BitSet> bitmaps, final Long key) {
+        return bitmaps.computeIfAbsent(key, id -> new BitSet());
+    }
+
+    /**
+     * Finds the bitmap of products with an attribute value and creates it if it does not exist.
+     *
+     * @param attributeId the id of an attribute.
+     * @param value the value of the attribute.
+     * @return the bitmap.
+     */
+    private BitSet valueBits(final Long attributeId, final String value) {
+        return valueProducts.computeIfAbsent(attributeId, id -> new HashMap<>())
+                .computeIfAbsent(value, key -> new BitSet());
+    }
+
+    /**
+     * Converts the id of a product to the index of its bit. Products' ids are dense
+     * database identities, so they fit into an int and keep bitmaps small.
+     *
+     * @param productId the id of a product.
+     * @return the index of the bit.
+     */
+    private static int bit(final Long productId) {
+        return Math.toIntExact(productId);
+    }
+
+    /**
+     * Adds a product with an attribute value to a facet or removes it from the facet.
+     * Must be called under the write lock.
+     *
+     * @param categoryId the id of the category of a product.
+     * @param attributeId the id of an attribute.
+     * @param value the value of the attribute.
+     * @param delta 1 to add a product, -1 to remove it.
+     */
+    private void count(final Long categoryId, final Long attributeId, final String value, final int delta) {
+        Map<Long, Facet> categoryFacets = facets.computeIfAbsent(categoryId, id -> new HashMap<>());
+        Facet facet = categoryFacets.computeIfAbsent(attributeId, id -> new Facet());
+        facet.products += delta;
+        if (value != null) {
+            facet.values.merge(value, delta, Integer::sum);
+            facet.values.remove(value, 0);
+        }
+        if (facet.products <= 0) {
+            categoryFacets.remove(attributeId);
+        }
+    }
+
+    /**
+     * The values of an attribute among products of a category.
+     */
+    private static final class Facet {
+
+        /**
+         * The number of products that have an attribute.
+         */
+        private int products;
+
+        /**
+         * The number of products mapped by values of an attribute.
+         */
+        private final Map<String, Integer> values = new HashMap<>();
+    }
+
+}
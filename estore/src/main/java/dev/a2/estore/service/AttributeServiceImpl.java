@@ -75,6 +75,12 @@ public class AttributeServiceImpl implements AttributeService {
     @Autowired
     private CategoryService categoryService;
 
+    /**
+     * Injects AttributeFacetIndex.
+     */
+    @Autowired
+    private AttributeFacetIndex attributeFacetIndex;
+
     @Override
     public void save(final AttributeDto attributeDto) {
         Attribute newAttribute = attributeDao.findByName(attributeDto.getName());
@@ -97,6 +103,7 @@ public class AttributeServiceImpl implements AttributeService {
 
         if (!isPresent) {
             attributeDao.save(new ProductAttribute(product, newAttribute));
+            attributeFacetIndex.putAttribute(product.getId(), newAttribute, null);
         }
     }
 
@@ -112,12 +119,17 @@ public class AttributeServiceImpl implements AttributeService {
             String value = attributes.get(productAttribute.getPk().getAttribute().getName());
             productAttribute.setValue(value);
             attributeDao.update(productAttribute);
+            attributeFacetIndex.putAttribute(productId, productAttribute.getPk().getAttribute(), value);
         });
     }
 
     @Transactional(readOnly = true)
     @Override
     public Set<Attribute> getAttributesWithValues(final Long categoryId) {
+        if (attributeFacetIndex.isReady()) {
+            return attributeFacetIndex.getAttributes(categoryService.getLeafCategoriesIds(categoryId));
+        }
+
         Category category = categoryDao.findById(categoryId);
         Set<Attribute> attributes = new HashSet<>();
 
@@ -0,0 +1,87 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Andrei Sidorov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.a2.estore.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * This class provides implementation for CacheService interface.
+ * The counts are collected only if 'hibernate.generate_statistics' is enabled.
+ *
+ * @author Andrei Sidorov
+ */
+@Service
+public class CacheServiceImpl implements CacheService {
+
+    /**
+     * Injects bean SessionFactory.
+     */
+    @Autowired
+    private SessionFactory sessionFactory;
+
+    @Override
+    public Map<String, Map<String, Long>> getStatistics() {
+        Statistics statistics = sessionFactory.getStatistics();
+        Map<String, Map<String, Long>> result = new TreeMap<>();
+
+        for (String regionName : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics region = statistics.getCacheRegionStatistics(regionName);
+            if (region == null) {
+                continue;
+            }
+            result.put(regionName, getCounts(region.getHitCount(), region.getMissCount(), region.getPutCount()));
+            result.get(regionName).put("size", region.getElementCountInMemory());
+        }
+        result.put("queries", getCounts(statistics.getQueryCacheHitCount(),
+                statistics.getQueryCacheMissCount(), statistics.getQueryCachePutCount()));
+        return result;
+    }
+
+    /**
+     * Puts the counts of a region into a map.
+     *
+     * @param hits the number of entries found in the cache.
+     * @param misses the number of entries not found in the cache.
+     * @param puts the number of entries put into the cache.
+     * @return the counts mapped by their names.
+     */
+    private static Map<String, Long> getCounts(final long hits, final long misses, final long puts) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        counts.put("hits", hits);
+        counts.put("misses", misses);
+        counts.put("puts", puts);
+        return counts;
+    }
+
+}
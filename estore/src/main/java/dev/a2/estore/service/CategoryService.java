@@ -88,4 +88,13 @@ public interface CategoryService {
      */
     List<Long> getSubCategoriesIds(List<Category> categories);
 
+    /**
+     * Finds the ids of the categories of type 'category' under a category in the category tree.
+     * Builds the tree first if it has not been built yet.
+     *
+     * @param categoryId the id of a folder or a category.
+     * @return the ids of all categories under a folder or the id itself for a category.
+     */
+    List<Long> getLeafCategoriesIds(Long categoryId);
+
 }
@@ -30,6 +30,7 @@ import dev.a2.estore.dto.CategoryDto;
 import dev.a2.estore.exception.CategoryDeleteException;
 import dev.a2.estore.model.Product;
 import dev.a2.estore.model.Category;
+import dev.a2.estore.util.TransactionCallbacks;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -52,6 +53,12 @@ public class CategoryServiceImpl implements CategoryService {
     @Autowired
     private CategoryDao categoryDao;
 
+    /**
+     * Injects CategoryTree.
+     */
+    @Autowired
+    private CategoryTree categoryTree;
+
     /**
      * Injects ProductDao.
      */
@@ -70,6 +77,7 @@ public class CategoryServiceImpl implements CategoryService {
         }
         newCategory.setParentCategory(parentCategory);
         categoryDao.save(newCategory);
+        refreshAfterCommit();
     }
 
     @Override
@@ -93,7 +101,7 @@ public class CategoryServiceImpl implements CategoryService {
         List<Product> products = null;
 
         if (category.getType().equals("folder")) {
-            List<Long> categoriesIds = getSubCategoriesIds(category.getSubCategories());
+            List<Long> categoriesIds = getLeafCategoriesIds(categoryId);
             if (!categoriesIds.isEmpty()) {
                 products = productDao.getProductsByCategoriesIds(categoriesIds);
             } else {
@@ -107,6 +115,7 @@ public class CategoryServiceImpl implements CategoryService {
             throw new CategoryDeleteException("Category cannot be deleted while it has products.");
         }
         categoryDao.delete(category);
+        refreshAfterCommit();
     }
 
     @Override
@@ -114,6 +123,7 @@ public class CategoryServiceImpl implements CategoryService {
         Category category = categoryDao.findById(categoryId);
         category.setName(newName);
         categoryDao.update(category);
+        refreshAfterCommit();
     }
 
     @Override
@@ -132,4 +142,27 @@ public class CategoryServiceImpl implements CategoryService {
         return result;
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    public List<Long> getLeafCategoriesIds(final Long categoryId) {
+        if (!categoryTree.isReady()) {
+            // e.g. a request has come before the application context has been refreshed
+            categoryTree.rebuild();
+        }
+        return categoryTree.getLeafIds(categoryId);
+    }
+
+    /**
+     * Evicts cached categories and rebuilds the category tree once the current transaction commits,
+     * so that a concurrent reader cannot put the old state back into the cache before the commit.
+     */
+    private void refreshAfterCommit() {
+        Runnable refresh = () -> {
+            categoryDao.evictCache();
+            categoryTree.rebuild();
+        };
+
+        TransactionCallbacks.afterCommit(refresh);
+    }
+
 }
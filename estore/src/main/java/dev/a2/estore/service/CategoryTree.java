@@ -0,0 +1,65 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Andrei Sidorov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.a2.estore.service;
+
+import java.util.List;
+
+/**
+ * This interface provides methods to look up the category tree without loading category entities.
+ *
+ * @author Andrei Sidorov
+ */
+public interface CategoryTree {
+
+    /**
+     * Rebuilds the tree from the categories stored in a database and replaces the current one at once.
+     */
+    void rebuild();
+
+    /**
+     * Checks whether the tree has been built and can answer lookups.
+     *
+     * @return true if the tree is ready.
+     */
+    boolean isReady();
+
+    /**
+     * Returns the number of times the tree has been built.
+     *
+     * @return the version of the tree.
+     */
+    long getVersion();
+
+    /**
+     * Finds the ids of the categories of type 'category' in a subtree.
+     *
+     * @param categoryId the id of a folder or a category.
+     * @return the ids of all categories under a folder, the id itself for a category
+     * or an empty list if there is no such category.
+     */
+    List<Long> getLeafIds(Long categoryId);
+
+}
@@ -0,0 +1,171 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Andrei Sidorov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.a2.estore.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import dev.a2.estore.dao.CategoryDao;
+import org.apache.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * This class provides implementation for CategoryTree interface.
+ * The tree is an immutable snapshot where every category is mapped to the ids of the leaf categories
+ * under it, so a lookup is a single map access. Category writes are rare, so instead of being
+ * updated in place the snapshot is rebuilt from one query and swapped, and readers never see
+ * a partly updated tree.
+ *
+ * @author Andrei Sidorov
+ */
+@Service
+public class CategoryTreeImpl implements CategoryTree {
+
+    /**
+     * Initializes logger for this class.
+     */
+    private static final Logger logger = Logger.getLogger(CategoryTree.class);
+
+    /**
+     * Injects CategoryDao.
+     */
+    @Autowired
+    private CategoryDao categoryDao;
+
+    /**
+     * The current snapshot of the tree, null until the tree is built.
+     */
+    private volatile Snapshot snapshot;
+
+    @EventListener(ContextRefreshedEvent.class)
+    @Transactional(readOnly = true, propagation = Propagation.REQUIRES_NEW)
+    @Override
+    public synchronized void rebuild() {
+        // Runs in its own transaction, since it is also called after a category write has been committed.
+        Map<Long, String> types = new HashMap<>();
+        Map<Long, List<Long>> children = new TreeMap<>();
+        for (Object[] row : categoryDao.getCategoryTree()) {
+            Long categoryId = (Long) row[0];
+            types.put(categoryId, (String) row[1]);
+            if (row[2] != null) {
+                children.computeIfAbsent((Long) row[2], id -> new ArrayList<>()).add(categoryId);
+            }
+        }
+        children.values().forEach(Collections::sort);
+
+        Map<Long, List<Long>> leafIds = new HashMap<>();
+        for (Long categoryId : types.keySet()) {
+            collectLeafIds(categoryId, types, children, leafIds);
+        }
+
+        long version = snapshot == null ? 1 : snapshot.version + 1;
+        snapshot = new Snapshot(version, Collections.unmodifiableMap(leafIds));
+        logger.info("Category tree version " + version + " has been built of " + types.size() + " categories");
+    }
+
+    @Override
+    public boolean isReady() {
+        return snapshot != null;
+    }
+
+    @Override
+    public long getVersion() {
+        Snapshot current = snapshot;
+        return current == null ? 0 : current.version;
+    }
+
+    @Override
+    public List<Long> getLeafIds(final Long categoryId) {
+        return snapshot.leafIds.getOrDefault(categoryId, Collections.emptyList());
+    }
+
+    /**
+     * Finds the leaf ids of a category, reusing the ids already found for its sub-categories.
+     *
+     * @param categoryId the id of the category.
+     * @param types the types of categories mapped by their ids.
+     * @param children the ids of sub-categories mapped by the ids of their parents.
+     * @param leafIds the leaf ids found so far mapped by the ids of categories.
+     * @return the unmodifiable list of leaf ids.
+     */
+    private static List<Long> collectLeafIds(final Long categoryId,
+                                             final Map<Long, String> types,
+                                             final Map<Long, List<Long>> children,
+                                             final Map<Long, List<Long>> leafIds) {
+        List<Long> result = leafIds.get(categoryId);
+        if (result != null) {
+            return result;
+        }
+        if ("category".equals(types.get(categoryId))) {
+            result = Collections.singletonList(categoryId);
+        } else {
+            List<Long> ids = new ArrayList<>();
+            for (Long childId : children.getOrDefault(categoryId, Collections.emptyList())) {
+                ids.addAll(collectLeafIds(childId, types, children, leafIds));
+            }
+            result = Collections.unmodifiableList(ids);
+        }
+        leafIds.put(categoryId, result);
+        return result;
+    }
+
+    /**
+     * An immutable state of the tree.
+     */
+    private static final class Snapshot {
+
+        /**
+         * The number of the build that made this snapshot.
+         */
+        private final long version;
+
+        /**
+         * The ids of leaf categories mapped by the ids of categories they belong to.
+         */
+        private final Map<Long, List<Long>> leafIds;
+
+        /**
+         * Constructor.
+         *
+         * @param version the number of the build that made the snapshot.
+         * @param leafIds the ids of leaf categories mapped by the ids of categories they belong to.
+         */
+        private Snapshot(final long version, final Map<Long, List<Long>> leafIds) {
+            this.version = version;
+            this.leafIds = leafIds;
+        }
+    }
+
+}
@@ -0,0 +1,76 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Andrei Sidorov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package dev.a2.estore.service;
+
+import java.util.List;
+
+import dev.a2.estore.model.Order;
+import dev.a2.estore.model.User;
+
+/**
+ * This interface provides an in-memory ranking of the clients with the largest sums of orders.
+ *
+ * @author Andrei Sidorov
+ */
+public interface ClientRanking {
+
+    /**
+     * Rebuilds the ranking from the sums of orders stored in a database.
+     */
+    void rebuild();
+
+    /**
+     * Checks whether the ranking has been built and can answer requests.
+     *
+     * @return true if the ranking is ready.
+     */
+    boolean isReady();
+
+    /**
+     * Adds an order to the sum of orders of its user.
+     * When called inside a transaction the order is added only after the transaction commits.
+     *
+     * @param order the saved order.
+     */
+    void recordOrder(Order order);
+
+    /**
+     * Refreshes the name of a ranked client.
+     * When called inside a transaction the ranking is changed only after the transaction commits.
+     *
+     * @param user the changed user.
+     */
+    void refresh(User user);
+
+    /**
+     * Finds the top clients. The returned users are copies that keep
+     * only the id, the first name, the last name and the sum of orders.
+     *
+     * @param maxLength the maximum length of the list.
+     * @return the list of users in the descending order of the sums of orders.
+     */
+    List<User> getTopClients(int maxLength);
+
+}
@@ -0,0 +1,206 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Andrei Sidorov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package dev.a2.estore.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import dev.a2.estore.dao.OrderDao;
+import dev.a2.estore.model.Order;
+import dev.a2.estore.model.User;
+import dev.a2.estore.util.BoundedRanking;
+import dev.a2.estore.util.TransactionCallbacks;
+import org.apache.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * This class provides implementation for ClientRanking interface.
+ * Clients are ranked by the sums of their orders in a bounded ranking sized by the maximum length
+ * of the top-clients list. Orders are never deleted, so the sums only grow.
+ * Every rebuild starts a new generation. An order takes the generation just before its transaction commits
+ * and is skipped if a rebuild has started since then, because the rebuild has read its sum from the database.
+ *
+ * @author Andrei Sidorov
+ */
+@Service
+public class ClientRankingImpl implements ClientRanking {
+
+    /**
+     * Initializes logger for this class.
+     */
+    private static final Logger logger = Logger.getLogger(ClientRanking.class);
+
+    /**
+     * Injects OrderDao.
+     */
+    @Autowired
+    private OrderDao orderDao;
+
+    /**
+     * The maximum number of clients in the ranking.
+     */
+    @Value("${top.clients.max.length}")
+    private int capacity;
+
+    /**
+     * The copies of users ranked by the sums of their orders.
+     */
+    private final BoundedRanking<Long, BigDecimal, User> ranking = new BoundedRanking<>(() -> capacity);
+
+    /**
+     * Serializes changes of the ranking and rebuilds. Readers do not take it.
+     */
+    private final Object rankLock = new Object();
+
+    /**
+     * The number of rebuilds that have started.
+     */
+    private volatile long generation;
+
+    /**
+     * Shows whether the ranking has been built.
+     */
+    private volatile boolean ready;
+
+    @EventListener(ContextRefreshedEvent.class)
+    @Transactional(readOnly = true)
+    @Override
+    public void rebuild() {
+        List<Object[]> rows;
+
+        // Orders wait for the rebuild, so the ones committed after the sums are read are added afterwards.
+        synchronized (rankLock) {
+            generation++;
+            rows = orderDao.getOrdersSums(Integer.MAX_VALUE);
+            ranking.clear();
+            for (Object[] row : rows) {
+                User snapshot = new User();
+                snapshot.setId((Long) row[0]);
+                snapshot.setFirstName((String) row[1]);
+                snapshot.setLastName((String) row[2]);
+                ranking.add(snapshot.getId(), (BigDecimal) row[3], BigDecimal::add, snapshot);
+            }
+        }
+        ready = true;
+        logger.info("Client ranking has been built from " + rows.size() + " buying clients");
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Override
+    public void recordOrder(final Order order) {
+        BigDecimal amount = order.getTotalPurchasingPrice();
+        if (order.getUser() == null || amount == null || amount.signum() == 0) {
+            return;
+        }
+        User snapshot = snapshot(order.getUser());
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            add(snapshot, amount, generation);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+            /**
+             * The generation of the ranking when the order commits.
+             */
+            private long orderGeneration;
+
+            @Override
+            public void beforeCommit(final boolean readOnly) {
+                orderGeneration = generation;
+            }
+
+            @Override
+            public void afterCommit() {
+                add(snapshot, amount, orderGeneration);
+            }
+        });
+    }
+
+    @Override
+    public void refresh(final User user) {
+        User snapshot = snapshot(user);
+        TransactionCallbacks.afterCommit(() -> ranking.refresh(snapshot.getId(), snapshot));
+    }
+
+    @Override
+    public List<User> getTopClients(final int maxLength) {
+        List<User> users = new ArrayList<>();
+        for (BoundedRanking.Entry<User, BigDecimal> entry : ranking.getTop()) {
+            if (users.size() >= maxLength) {
+                break;
+            }
+            if (entry.getScore().signum() <= 0) {
+                continue;
+            }
+            User user = snapshot(entry.getSnapshot());
+            user.setOrdersSum(entry.getScore());
+            users.add(user);
+        }
+        return users;
+    }
+
+    /**
+     * Adds an order to the sum of a user unless a rebuild has read it from the database.
+     *
+     * @param snapshot the copy of a user.
+     * @param amount the amount of an order.
+     * @param orderGeneration the generation of the ranking when the order committed.
+     */
+    private void add(final User snapshot, final BigDecimal amount, final long orderGeneration) {
+        synchronized (rankLock) {
+            if (orderGeneration == generation) {
+                ranking.add(snapshot.getId(), amount, BigDecimal::add, snapshot);
+            }
+        }
+    }
+
+    /**
+     * Copies the fields of a user that the top-clients list needs.
+     *
+     * @param user the user.
+     * @return the copy of the user.
+     */
+    private static User snapshot(final User user) {
+        User snapshot = new User();
+        snapshot.setId(user.getId());
+        snapshot.setFirstName(user.getFirstName());
+        snapshot.setLastName(user.getLastName());
+        return snapshot;
+    }
+
+}
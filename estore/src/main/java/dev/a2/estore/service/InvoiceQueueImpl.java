@@ -0,0 +1,239 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Andrei Sidorov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.a2.estore.service;
+
+import java.io.File;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import dev.a2.estore.model.CompanyInfo;
+import dev.a2.estore.model.Order;
+import dev.a2.estore.util.TransactionCallbacks;
+import org.apache.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+
+/**
+ * This class provides implementation for InvoiceQueue interface.
+ * Invoices are created by a fixed pool of daemon workers and handed off to EmailService.
+ * A failed attempt is retried after a delay that grows with every attempt. The number of pending invoices
+ * is bounded: when the queue is full, the first attempt runs in the caller thread, so invoices are never dropped
+ * and a checkout burst slows down instead of exhausting memory. On shutdown the queue stops taking new work
+ * and waits for the pending invoices, including their retries, to be sent.
+ *
+ * @author Andrei Sidorov
+ */
+@Service
+public class InvoiceQueueImpl implements InvoiceQueue {
+
+    /**
+     * Initializes logger for this class.
+     */
+    private static final Logger logger = Logger.getLogger(InvoiceQueue.class);
+
+    /**
+     * Injects PdfService.
+     */
+    @Autowired
+    private PdfService pdfService;
+
+    /**
+     * Injects EmailService.
+     */
+    @Autowired
+    private EmailService emailService;
+
+    /**
+     * Injects CompanyInfo.
+     */
+    @Autowired
+    private CompanyInfo companyInfo;
+
+    /**
+     * The number of attempts to create and send an invoice.
+     */
+    @Value("${invoice.max.attempts}")
+    private int maxAttempts;
+
+    /**
+     * The delay before the second attempt in milliseconds. Every next attempt waits one delay longer.
+     */
+    @Value("${invoice.retry.delay.ms}")
+    private long retryDelayMillis;
+
+    /**
+     * The time in seconds the shutdown waits for pending invoices.
+     */
+    @Value("${invoice.shutdown.timeout.seconds}")
+    private long shutdownTimeoutSeconds;
+
+    /**
+     * The maximum number of invoices that are queued or being created.
+     */
+    private final int queueCapacity;
+
+    /**
+     * The executor that creates invoices.
+     */
+    private final ScheduledThreadPoolExecutor executor;
+
+    /**
+     * The number of invoices that are queued, being created or waiting for a retry.
+     */
+    private final AtomicInteger pendingInvoices = new AtomicInteger();
+
+    /**
+     * Creates the queue with a fixed pool of daemon workers.
+     *
+     * @param workers the number of invoices created at the same time.
+     * @param queueCapacity the maximum number of pending invoices.
+     */
+    @Autowired
+    public InvoiceQueueImpl(final @Value("${invoice.workers}") int workers,
+                            final @Value("${invoice.queue.capacity}") int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ScheduledThreadPoolExecutor(workers, runnable -> {
+            Thread thread = new Thread(runnable, "invoice-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void enqueue(final Order order, final String email) {
+        TransactionCallbacks.afterCommit(() -> submit(order, email));
+    }
+
+    @Override
+    public int getPendingInvoices() {
+        return pendingInvoices.get();
+    }
+
+    /**
+     * Submits the first attempt of an invoice to the workers, or runs it in the caller thread if the queue is full.
+     *
+     * @param order the saved order.
+     * @param email the email the invoice is sent to.
+     */
+    private void submit(final Order order, final String email) {
+        if (pendingInvoices.incrementAndGet() > queueCapacity) {
+            pendingInvoices.decrementAndGet();
+            logger.warn("The invoice queue is full, the invoice of order " + order.getId()
+                    + " is created in the caller thread.");
+            attempt(order, email, 1);
+            return;
+        }
+        schedule(order, email, 1, 0);
+    }
+
+    /**
+     * Schedules an attempt that has already been counted as pending.
+     *
+     * @param order the saved order.
+     * @param email the email the invoice is sent to.
+     * @param attempt the number of the attempt starting from 1.
+     * @param delayMillis the delay before the attempt in milliseconds.
+     */
+    private void schedule(final Order order, final String email, final int attempt, final long delayMillis) {
+        try {
+            executor.schedule(() -> {
+                try {
+                    attempt(order, email, attempt);
+                } finally {
+                    pendingInvoices.decrementAndGet();
+                }
+            }, delayMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // the queue is shutting down, so the attempt runs in this thread instead of being dropped
+            try {
+                Thread.sleep(delayMillis);
+                attempt(order, email, attempt);
+            } catch (InterruptedException interruptedException) {
+                Thread.currentThread().interrupt();
+                logger.error("The invoice of order " + order.getId() + " has not been sent before the shutdown");
+            } finally {
+                pendingInvoices.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Creates an invoice and hands it off to EmailService. A failed attempt is retried
+     * until the number of attempts runs out.
+     *
+     * @param order the saved order.
+     * @param email the email the invoice is sent to.
+     * @param attempt the number of the attempt starting from 1.
+     */
+    private void attempt(final Order order, final String email, final int attempt) {
+        try {
+            File invoicePdfFile = pdfService.createInvoice(order);
+            String subject = "Invoice from " + companyInfo.getName() + " INV" + order.getId();
+            emailService.sendInvoice(email, subject, invoicePdfFile);
+            logger.info("The invoice of order " + order.getId() + " has been sent.");
+        } catch (Exception e) {
+            if (attempt < maxAttempts) {
+                logger.warn("Attempt " + attempt + " to send the invoice of order " + order.getId()
+                        + " has failed, retrying", e);
+                pendingInvoices.incrementAndGet();
+                schedule(order, email, attempt + 1, retryDelayMillis * attempt);
+            } else {
+                logger.error("The invoice of order " + order.getId() + " has not been sent after "
+                        + attempt + " attempts", e);
+            }
+        }
+    }
+
+    /**
+     * Stops taking new invoices and waits until the pending ones are sent or the shutdown timeout runs out.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(shutdownTimeoutSeconds, TimeUnit.SECONDS)) {
+                logger.error("Invoice queue has not been drained in " + shutdownTimeoutSeconds
+                        + " seconds, " + pendingInvoices.get() + " invoices have not been sent.");
+                executor.shutdownNow();
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.error("Invoice queue has been interrupted, " + pendingInvoices.get()
+                    + " invoices have not been sent.");
+            executor.shutdownNow();
+            return;
+        }
+        logger.info("Invoice queue has been stopped with no pending invoices.");
+    }
+
+}
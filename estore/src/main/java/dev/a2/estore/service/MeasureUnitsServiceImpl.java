@@ -29,6 +29,7 @@ import dev.a2.estore.dao.ProductDao;
 import dev.a2.estore.exception.MeasureUnitsDeleteException;
 import dev.a2.estore.model.MeasureUnits;
 import dev.a2.estore.model.Product;
+import dev.a2.estore.util.TransactionCallbacks;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -61,6 +62,7 @@ public class MeasureUnitsServiceImpl implements MeasureUnitsService {
         MeasureUnits newMeasureUnits = new MeasureUnits();
         newMeasureUnits.setName(measureUnitsName);
         measureUnitsDao.save(newMeasureUnits);
+        evictCacheAfterCommit();
     }
 
     @Override
@@ -83,6 +85,7 @@ public class MeasureUnitsServiceImpl implements MeasureUnitsService {
                     "while there is a product that uses them ");
         }
         measureUnitsDao.delete(measureUnits);
+        evictCacheAfterCommit();
     }
 
     @Override
@@ -90,6 +93,15 @@ public class MeasureUnitsServiceImpl implements MeasureUnitsService {
         MeasureUnits measureUnits = measureUnitsDao.findById(measureUnitsId);
         measureUnits.setName(newName);
         measureUnitsDao.update(measureUnits);
+        evictCacheAfterCommit();
+    }
+
+    /**
+     * Evicts cached measure units once the current transaction commits,
+     * so that a concurrent reader cannot put the old state back into the cache before the commit.
+     */
+    private void evictCacheAfterCommit() {
+        TransactionCallbacks.afterCommit(measureUnitsDao::evictCache);
     }
 
 }
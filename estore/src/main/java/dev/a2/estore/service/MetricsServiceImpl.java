@@ -0,0 +1,217 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Andrei Sidorov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.a2.estore.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import dev.a2.estore.dao.QueryMonitor;
+import dev.a2.estore.dao.QueryStatistics;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * This class provides implementation for MetricsService interface.
+ * Query metrics come from QueryMonitor, Hibernate metrics are collected only if
+ * 'hibernate.generate_statistics' is enabled.
+ *
+ * @author Andrei Sidorov
+ */
+@Service
+public class MetricsServiceImpl implements MetricsService {
+
+    /**
+     * The prefix of the names of the exported metrics.
+     */
+    private static final String PREFIX = "estore_";
+
+    /**
+     * Injects bean QueryMonitor.
+     */
+    @Autowired
+    private QueryMonitor queryMonitor;
+
+    /**
+     * Injects bean SessionFactory.
+     */
+    @Autowired
+    private SessionFactory sessionFactory;
+
+    /**
+     * Injects bean CacheService.
+     */
+    @Autowired
+    private CacheService cacheService;
+
+    @Override
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> queries = new TreeMap<>();
+        queryMonitor.getStatistics().forEach((queryName, query) -> {
+            Map<String, Object> metrics = new LinkedHashMap<>();
+            metrics.put("count", query.getCount());
+            metrics.put("rows", query.getRows());
+            metrics.put("slow", query.getSlowCount());
+            metrics.put("p50Ms", query.getPercentile(0.5));
+            metrics.put("p99Ms", query.getPercentile(0.99));
+            metrics.put("maxMs", query.getMaxMillis());
+            metrics.put("totalMs", query.getTotalMillis());
+            queries.put(queryName, metrics);
+        });
+
+        Statistics statistics = sessionFactory.getStatistics();
+        Map<String, Object> hibernate = new LinkedHashMap<>();
+        hibernate.put("queryExecutions", statistics.getQueryExecutionCount());
+        hibernate.put("queryExecutionMaxMs", statistics.getQueryExecutionMaxTime());
+        hibernate.put("slowestQuery", statistics.getQueryExecutionMaxTimeQueryString());
+        hibernate.put("preparedStatements", statistics.getPrepareStatementCount());
+        hibernate.put("entityLoads", statistics.getEntityLoadCount());
+        hibernate.put("entityFetches", statistics.getEntityFetchCount());
+        hibernate.put("collectionFetches", statistics.getCollectionFetchCount());
+        hibernate.put("transactions", statistics.getTransactionCount());
+
+        Map<String, Object> cache = new TreeMap<>();
+        cacheService.getStatistics().forEach((regionName, counts) -> {
+            Map<String, Object> region = new LinkedHashMap<>(counts);
+            region.put("hitRatio", getHitRatio(counts));
+            cache.put(regionName, region);
+        });
+
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("queries", queries);
+        metrics.put("hibernate", hibernate);
+        metrics.put("cache", cache);
+        return metrics;
+    }
+
+    @Override
+    public String getPrometheusMetrics() {
+        StringBuilder text = new StringBuilder();
+        Map<String, QueryStatistics> queries = new TreeMap<>(queryMonitor.getStatistics());
+        long[] bounds = QueryStatistics.getBucketBounds();
+
+        writeType(text, "dao_query_seconds", "histogram");
+        queries.forEach((queryName, query) -> {
+            String label = "query=\"" + escape(queryName) + "\"";
+            long[] counts = query.getBucketCounts();
+            long cumulative = 0;
+            for (int i = 0; i < bounds.length; i++) {
+                cumulative += counts[i];
+                writeSample(text, "dao_query_seconds_bucket", label + ",le=\"" + bounds[i] / 1000.0 + "\"",
+                        cumulative);
+            }
+            cumulative += counts[bounds.length];
+            writeSample(text, "dao_query_seconds_bucket", label + ",le=\"+Inf\"", cumulative);
+            writeSample(text, "dao_query_seconds_sum", label, query.getTotalMillis() / 1000.0);
+            writeSample(text, "dao_query_seconds_count", label, cumulative);
+        });
+        writeType(text, "dao_query_rows_total", "counter");
+        queries.forEach((queryName, query) ->
+                writeSample(text, "dao_query_rows_total", "query=\"" + escape(queryName) + "\"", query.getRows()));
+        writeType(text, "dao_query_slow_total", "counter");
+        queries.forEach((queryName, query) ->
+                writeSample(text, "dao_query_slow_total", "query=\"" + escape(queryName) + "\"",
+                        query.getSlowCount()));
+
+        Statistics statistics = sessionFactory.getStatistics();
+        writeCounter(text, "hibernate_query_executions_total", statistics.getQueryExecutionCount());
+        writeCounter(text, "hibernate_prepared_statements_total", statistics.getPrepareStatementCount());
+        writeCounter(text, "hibernate_entity_loads_total", statistics.getEntityLoadCount());
+        writeCounter(text, "hibernate_entity_fetches_total", statistics.getEntityFetchCount());
+        writeCounter(text, "hibernate_collection_fetches_total", statistics.getCollectionFetchCount());
+        writeCounter(text, "hibernate_transactions_total", statistics.getTransactionCount());
+
+        Map<String, Map<String, Long>> cache = cacheService.getStatistics();
+        for (String counter : new String[] {"hits", "misses", "puts"}) {
+            writeType(text, "cache_" + counter + "_total", "counter");
+            cache.forEach((regionName, counts) ->
+                    writeSample(text, "cache_" + counter + "_total", "region=\"" + escape(regionName) + "\"",
+                            counts.getOrDefault(counter, 0L)));
+        }
+        return text.toString();
+    }
+
+    /**
+     * Calculates the share of lookups that were found in a cache region.
+     *
+     * @param counts the hit and miss counts of the region.
+     * @return the hit ratio from 0 to 1.
+     */
+    private static double getHitRatio(final Map<String, Long> counts) {
+        long hits = counts.getOrDefault("hits", 0L);
+        long lookups = hits + counts.getOrDefault("misses", 0L);
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    /**
+     * Writes the type line of a metric.
+     *
+     * @param text the text to write to.
+     * @param name the name of the metric without the prefix.
+     * @param type the Prometheus type of the metric.
+     */
+    private static void writeType(final StringBuilder text, final String name, final String type) {
+        text.append("# TYPE ").append(PREFIX).append(name).append(' ').append(type).append('\n');
+    }
+
+    /**
+     * Writes a counter without labels.
+     *
+     * @param text the text to write to.
+     * @param name the name of the metric without the prefix.
+     * @param value the value of the counter.
+     */
+    private static void writeCounter(final StringBuilder text, final String name, final long value) {
+        writeType(text, name, "counter");
+        text.append(PREFIX).append(name).append(' ').append(value).append('\n');
+    }
+
+    /**
+     * Writes a sample of a metric with labels.
+     *
+     * @param text the text to write to.
+     * @param name the name of the metric without the prefix.
+     * @param labels the labels of the sample.
+     * @param value the value of the sample.
+     */
+    private static void writeSample(final StringBuilder text, final String name, final String labels,
+                                    final Number value) {
+        text.append(PREFIX).append(name).append('{').append(labels).append("} ").append(value).append('\n');
+    }
+
+    /**
+     * Escapes a label value as required by the Prometheus text format.
+     *
+     * @param value the label value.
+     * @return the escaped value.
+     */
+    private static String escape(final String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+}
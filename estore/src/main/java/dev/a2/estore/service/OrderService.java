@@ -24,12 +24,15 @@
 
 package dev.a2.estore.service;
 
+import dev.a2.estore.dto.OrderPageDto;
 import dev.a2.estore.dto.OrderStatusDto;
 import dev.a2.estore.dto.RevenuePeriodDto;
 import dev.a2.estore.dto.SearchOrdersDto;
 import dev.a2.estore.model.Order;
 import dev.a2.estore.model.OrderProduct;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.YearMonth;
@@ -51,12 +54,23 @@ public interface OrderService {
     void save(Order order);
 
     /**
-     * Finds orders by criteria.
+     * Completes the reserve of an order, sells the reserved products and saves the order in one transaction,
+     * so the reserve is only gone once the order is stored. If any step fails, the reserve stays
+     * and is released when its time runs out.
      *
-     * @param searchOrdersDto the dto that contains search criteria.
-     * @return the list of orders.
+     * @param order the order that needs to be saved.
+     * @param reservationId the id of the reserve of the order products.
+     * @return true if the order has been saved, false if the reserve is not live any more.
+     */
+    boolean checkout(Order order, String reservationId);
+
+    /**
+     * Finds a page of orders by criteria.
+     *
+     * @param searchOrdersDto the dto that contains search criteria, sorting and the page number.
+     * @return the page of orders.
      */
-    List<Order> findOrdersByCriteria(SearchOrdersDto searchOrdersDto);
+    OrderPageDto findOrdersByCriteria(SearchOrdersDto searchOrdersDto);
 
     /**
      * Finds an order by its id.
@@ -74,6 +88,16 @@ public interface OrderService {
      */
     List<OrderProduct> getOrderProducts(Long orderId);
 
+    /**
+     * Writes the products of an order as a JSON array to a stream while reading them from a database
+     * row by row. Each element holds the id, name, image URL, price, quantity, units and amount of a product.
+     *
+     * @param orderId the id of an order.
+     * @param outputStream the stream the JSON is written to.
+     * @throws IOException if the JSON cannot be written.
+     */
+    void writeOrderProducts(Long orderId, OutputStream outputStream) throws IOException;
+
     /**
      * Finds orders by a user id.
      *
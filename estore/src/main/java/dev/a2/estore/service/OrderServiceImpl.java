@@ -24,27 +24,31 @@
 
 package dev.a2.estore.service;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import dev.a2.estore.dao.DailyRevenueDao;
 import dev.a2.estore.dao.OrderDao;
+import dev.a2.estore.dto.OrderPageDto;
 import dev.a2.estore.dto.OrderStatusDto;
-import dev.a2.estore.dto.OrdersColumn;
 import dev.a2.estore.dto.RevenuePeriodDto;
 import dev.a2.estore.dto.SearchOrdersDto;
-import dev.a2.estore.dto.SortDirection;
 import dev.a2.estore.exception.TimePeriodException;
+import dev.a2.estore.model.DailyRevenue;
 import dev.a2.estore.model.Order;
 import dev.a2.estore.model.OrderProduct;
+import org.hibernate.ScrollableResults;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.time.LocalTime;
 import java.time.YearMonth;
-import java.util.Collections;
-import java.util.Comparator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -57,12 +61,59 @@ import java.util.Map;
 @Transactional
 public class OrderServiceImpl implements OrderService {
 
+    /**
+     * Creates JSON generators that leave the target stream open.
+     */
+    private static final JsonFactory jsonFactory = new JsonFactory().disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
     /**
      * Injects OrderDao.
      */
     @Autowired
     private OrderDao orderDao;
 
+    /**
+     * Injects DailyRevenueDao.
+     */
+    @Autowired
+    private DailyRevenueDao dailyRevenueDao;
+
+    /**
+     * Injects RevenueRollupService.
+     */
+    @Autowired
+    private RevenueRollupService revenueRollupService;
+
+    /**
+     * Injects ClientRanking.
+     */
+    @Autowired
+    private ClientRanking clientRanking;
+
+    /**
+     * Injects ReservationService.
+     */
+    @Autowired
+    private ReservationService reservationService;
+
+    /**
+     * Injects ProductService.
+     */
+    @Autowired
+    private ProductService productService;
+
+    /**
+     * The number of rows fetched from a database at a time when a response is streamed.
+     */
+    @Value("${stream.fetch.size}")
+    private int streamFetchSize;
+
+    /**
+     * The number of orders in a page of found orders.
+     */
+    @Value("${orders.page.size}")
+    private int ordersPageSize;
+
     @Override
     public void save(final Order order) {
         order.setTotalSellingPrice(order.calculateOrderPrice());
@@ -75,43 +126,29 @@ public class OrderServiceImpl implements OrderService {
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
         order.setTotalPurchasingPrice(totalPurchasingPrice.setScale(2, BigDecimal.ROUND_HALF_EVEN));
         orderDao.save(order);
+        revenueRollupService.addOrder(order);
+        clientRanking.recordOrder(order);
     }
 
     @Override
-    public List<Order> findOrdersByCriteria(final SearchOrdersDto searchOrdersDto) {
-        List<Order> orders = orderDao.findOrdersByCriteria(searchOrdersDto);
-        OrdersColumn column = searchOrdersDto.getSortBy();
-        SortDirection sortDirection = searchOrdersDto.getSortDirection();
-
-        if (column == OrdersColumn.ID && sortDirection == SortDirection.ASC) {
-            orders.sort(Comparator.comparing(Order::getId));
-        }
-
-        if (column == OrdersColumn.DATE && sortDirection == SortDirection.ASC) {
-                orders.sort(Comparator.comparing(Order::getId));
-            orders.sort(Comparator.comparing(Order::getCreationDateTime));
-        }
-
-        if (column == OrdersColumn.DATE && sortDirection == SortDirection.DESC) {
-            orders.sort(Comparator.comparing(Order::getCreationDateTime, Collections.reverseOrder()));
-        }
-
-        if (column == OrdersColumn.EMAIL && sortDirection == SortDirection.ASC) {
-            orders.sort(Comparator.comparing(o -> o.getUser().getEmail()));
-        }
-
-        if (column == OrdersColumn.EMAIL && sortDirection == SortDirection.DESC) {
-            orders.sort(Comparator.comparing(o -> o.getUser().getEmail(), Collections.reverseOrder()));
-        }
-
-        if (column == OrdersColumn.PRICE && sortDirection == SortDirection.ASC) {
-            orders.sort(Comparator.comparing(Order::getTotalSellingPrice));
+    public boolean checkout(final Order order, final String reservationId) {
+        if (!reservationService.complete(reservationId)) {
+            return false;
         }
+        productService.buyProducts(order.getOrderProducts());
+        save(order);
+        return true;
+    }
 
-        if (column == OrdersColumn.PRICE && sortDirection == SortDirection.DESC) {
-            orders.sort(Comparator.comparing(Order::getTotalSellingPrice, Collections.reverseOrder()));
+    @Override
+    public OrderPageDto findOrdersByCriteria(final SearchOrdersDto searchOrdersDto) {
+        // one extra order tells whether there is a next page
+        List<Order> orders = orderDao.findOrdersByCriteria(searchOrdersDto, ordersPageSize, ordersPageSize + 1);
+        boolean hasNextPage = orders.size() > ordersPageSize;
+        if (hasNextPage) {
+            orders = orders.subList(0, ordersPageSize);
         }
-        return orders;
+        return new OrderPageDto(orders, searchOrdersDto.getPage(), hasNextPage);
     }
 
     @Override
@@ -124,6 +161,31 @@ public class OrderServiceImpl implements OrderService {
         return orderDao.getOrderProducts(orderId);
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    public void writeOrderProducts(final Long orderId, final OutputStream outputStream) throws IOException {
+        try (JsonGenerator generator = jsonFactory.createGenerator(outputStream);
+             ScrollableResults rows = orderDao.scrollOrderProductRows(orderId, streamFetchSize)) {
+            generator.writeStartArray();
+            while (rows.next()) {
+                Object[] row = rows.get();
+                BigDecimal amount = ((BigDecimal) row[3])
+                        .multiply(new BigDecimal((Integer) row[5]))
+                        .setScale(2, RoundingMode.HALF_EVEN);
+                generator.writeStartObject();
+                generator.writeStringField("id", row[0].toString());
+                generator.writeStringField("name", (String) row[1]);
+                generator.writeStringField("imageUrl", (String) row[2]);
+                generator.writeStringField("price", row[4].toString());
+                generator.writeStringField("quantity", row[5].toString());
+                generator.writeStringField("units", (String) row[6]);
+                generator.writeStringField("amount", amount.toString());
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+        }
+    }
+
     @Override
     public List<Order> getAllUserOrders(final Long userId) {
         return orderDao.getAllUserOrders(userId);
@@ -145,40 +207,15 @@ public class OrderServiceImpl implements OrderService {
             throw new TimePeriodException();
         }
 
-        YearMonth start = YearMonth.from(periodDto.getStart());
-        YearMonth end = YearMonth.from(periodDto.getEnd());
-        LocalDateTime startDateTime = periodDto.getStart().atStartOfDay();
-        LocalDateTime endDateTime = periodDto.getEnd().atTime(LocalTime.MAX);
-        List<Order> orders = orderDao.getOrdersByTimePeroid(startDateTime, endDateTime);
         Map<YearMonth, BigDecimal> result = new LinkedHashMap<>();
-        BigDecimal monthlyRevenue = new BigDecimal(0);
-
-        int i = 0;
-        while (!end.equals(start)) {
-            YearMonth orderMonth = null;
-
-            if (i < orders.size()) {
-                orderMonth = YearMonth.from(orders.get(i).getCreationDateTime());
-            }
-
-            if (orderMonth != null && orderMonth.equals(end)) {
-                monthlyRevenue = monthlyRevenue.add(orders.get(i).getTotalSellingPrice()
-                        .subtract(orders.get(i).getTotalPurchasingPrice()));
-                i++;
-
-            } else if (orderMonth != null && orderMonth.isAfter(end)) {
-                i++;
-
-            } else {
-                result.put(end, monthlyRevenue);
-                monthlyRevenue = new BigDecimal(0);
-                end = end.minusMonths(1);
-            }
-
+        YearMonth start = YearMonth.from(startDate);
+        for (YearMonth month = YearMonth.from(endDate); !month.isBefore(start); month = month.minusMonths(1)) {
+            result.put(month, BigDecimal.ZERO);
+        }
+        for (DailyRevenue dailyRevenue : dailyRevenueDao.findByPeriod(startDate, endDate)) {
+            result.merge(YearMonth.from(dailyRevenue.getRevenueDate()), dailyRevenue.calculateProfit(), BigDecimal::add);
         }
-        result.put(end, monthlyRevenue);
         return result;
-
     }
 
     @Override
@@ -197,36 +234,21 @@ public class OrderServiceImpl implements OrderService {
         if (!endDate.getDayOfWeek().equals(DayOfWeek.SUNDAY)) {
             endDate = endDate.plusDays(7 - (long) endDate.getDayOfWeek().getValue());
         }
-        LocalDateTime startDateTime = startDate.atStartOfDay();
-        LocalDateTime endDateTime = endDate.atTime(LocalTime.MAX);
-        List<Order> orders = orderDao.getOrdersByTimePeroid(startDateTime, endDateTime);
-        Map<LocalDate, BigDecimal> result = new LinkedHashMap<>();
-        BigDecimal weeklyRevenue = new BigDecimal(0);
 
-        int i = 0;
-        while (!endDate.equals(startDate) && startDate.isBefore(endDate))   {
-            LocalDate orderDate = null;
-            LocalDate previousMonday = endDate.minusDays(7);
-
-            if (i < orders.size()) {
-                orderDate = LocalDate.from(orders.get(i).getCreationDateTime());
-            }
+        // weeks are keyed by their sundays, the last key is the week before the period
+        Map<LocalDate, BigDecimal> result = new LinkedHashMap<>();
+        LocalDate sunday = endDate;
+        while (sunday.isAfter(startDate)) {
+            result.put(sunday, BigDecimal.ZERO);
+            sunday = sunday.minusDays(7);
+        }
+        result.put(sunday, BigDecimal.ZERO);
 
-            if (orderDate != null
-                    && (orderDate.equals(endDate) || (orderDate.isBefore(endDate) && orderDate.isAfter(previousMonday)))) {
-
-                weeklyRevenue = weeklyRevenue.add(orders.get(i).getTotalSellingPrice()
-                        .subtract(orders.get(i).getTotalPurchasingPrice()));
-                i++;
-            } else if (orderDate != null && orderDate.isAfter(endDate)) {
-                i++;
-            } else {
-                result.put(endDate, weeklyRevenue);
-                weeklyRevenue = new BigDecimal(0);
-                endDate = endDate.minusDays(7);
-            }
+        for (DailyRevenue dailyRevenue : dailyRevenueDao.findByPeriod(startDate, endDate)) {
+            LocalDate revenueDate = dailyRevenue.getRevenueDate();
+            LocalDate weekEnd = revenueDate.plusDays(7 - (long) revenueDate.getDayOfWeek().getValue());
+            result.merge(weekEnd, dailyRevenue.calculateProfit(), BigDecimal::add);
         }
-        result.put(endDate, weeklyRevenue);
         return result;
     }
 
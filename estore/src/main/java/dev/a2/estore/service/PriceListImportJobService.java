@@ -0,0 +1,75 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Andrei Sidorov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.a2.estore.service;
+
+import java.io.IOException;
+import java.util.List;
+
+import dev.a2.estore.dto.PriceListImportJobDto;
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * This interface provides methods to import price lists in the background.
+ * Jobs are run by a bounded pool of workers and are kept in memory of the application node they were submitted to.
+ *
+ * @author Andrei Sidorov
+ */
+public interface PriceListImportJobService {
+
+    /**
+     * Stores an uploaded price list and submits a job that imports it.
+     *
+     * @param priceList the uploaded price list.
+     * @return the job.
+     * @throws IOException if the price list cannot be stored.
+     * @throws dev.a2.estore.exception.PriceListImportException if the queue of jobs is full.
+     */
+    PriceListImportJobDto submit(MultipartFile priceList) throws IOException;
+
+    /**
+     * Finds a job.
+     *
+     * @param jobId the id of the job.
+     * @return the progress of the job or null if the job is not found.
+     */
+    PriceListImportJobDto getJob(String jobId);
+
+    /**
+     * Finds all kept jobs.
+     *
+     * @return the list of jobs ordered by submit time.
+     */
+    List<PriceListImportJobDto> getJobs();
+
+    /**
+     * Cancels a job. A queued job does not start, a running job stops before its next chunk of rows.
+     *
+     * @param jobId the id of the job.
+     * @return true if the job was queued or running.
+     */
+    boolean cancel(String jobId);
+
+}
@@ -0,0 +1,401 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Andrei Sidorov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.a2.estore.service;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import dev.a2.estore.dto.PriceListImportJobDto;
+import dev.a2.estore.dto.PriceListImportResultDto;
+import dev.a2.estore.dto.PriceListImportStatus;
+import dev.a2.estore.exception.PriceListImportException;
+import org.apache.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.annotation.PreDestroy;
+
+/**
+ * This class provides implementation for PriceListImportJobService interface.
+ * An uploaded price list is copied to a temporary file, because the upload is removed once the request ends,
+ * and the job is queued to a fixed pool of daemon workers with a bounded queue.
+ * A job is claimed by switching its status from queued, so a cancel and the start of the job
+ * never both take effect.
+ *
+ * @author Andrei Sidorov
+ */
+@Service
+public class PriceListImportJobServiceImpl implements PriceListImportJobService {
+
+    /**
+     * Initializes logger for this class.
+     */
+    private static final Logger logger = Logger.getLogger(PriceListImportJobService.class);
+
+    /**
+     * Injects PriceListImportService.
+     */
+    @Autowired
+    private PriceListImportService priceListImportService;
+
+    /**
+     * The maximum number of finished jobs kept in memory.
+     */
+    @Value("${price.list.import.jobs.kept}")
+    private int keptJobs;
+
+    /**
+     * The executor that runs imports.
+     */
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * The jobs mapped by their ids in the order they were submitted.
+     */
+    private final Map<String, Job> jobs = new LinkedHashMap<>();
+
+    /**
+     * Creates the service with a fixed pool of daemon workers.
+     *
+     * @param workers the number of imports that run at the same time.
+     * @param queueCapacity the number of jobs that can wait for a worker.
+     */
+    @Autowired
+    public PriceListImportJobServiceImpl(final @Value("${price.list.import.workers}") int workers,
+                                         final @Value("${price.list.import.queue.capacity}") int queueCapacity) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "price-list-import-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @Override
+    public PriceListImportJobDto submit(final MultipartFile priceList) throws IOException {
+        File file = File.createTempFile("price-list-", ".csv");
+        try {
+            priceList.transferTo(file);
+        } catch (IOException e) {
+            deleteFile(file);
+            throw e;
+        }
+
+        Job job = new Job(UUID.randomUUID().toString(), priceList.getOriginalFilename(), file);
+        synchronized (jobs) {
+            try {
+                executor.execute(() -> run(job));
+            } catch (RejectedExecutionException e) {
+                deleteFile(file);
+                throw new PriceListImportException("Too many price lists are being imported, try again later.");
+            }
+            jobs.put(job.id, job);
+            removeFinishedJobs();
+        }
+        logger.info("Price-list import job '" + job.id + "' has been submitted for " + job.fileName);
+        return job.toDto();
+    }
+
+    @Override
+    public PriceListImportJobDto getJob(final String jobId) {
+        Job job;
+        synchronized (jobs) {
+            job = jobs.get(jobId);
+        }
+        return job == null ? null : job.toDto();
+    }
+
+    @Override
+    public List<PriceListImportJobDto> getJobs() {
+        List<Job> snapshot;
+        synchronized (jobs) {
+            snapshot = new ArrayList<>(jobs.values());
+        }
+        List<PriceListImportJobDto> result = new ArrayList<>();
+        snapshot.forEach(job -> result.add(job.toDto()));
+        return result;
+    }
+
+    @Override
+    public boolean cancel(final String jobId) {
+        Job job;
+        synchronized (jobs) {
+            job = jobs.get(jobId);
+        }
+        if (job == null) {
+            return false;
+        }
+        if (job.status.compareAndSet(PriceListImportStatus.QUEUED, PriceListImportStatus.CANCELLED)) {
+            // The queued task finds the job claimed and returns at once.
+            job.finishedAt = System.currentTimeMillis();
+            deleteFile(job.file);
+            logger.info("Queued price-list import job '" + jobId + "' has been cancelled.");
+            return true;
+        }
+        if (job.status.get() == PriceListImportStatus.RUNNING) {
+            job.cancelled = true;
+            logger.info("Running price-list import job '" + jobId + "' is being cancelled.");
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Imports the price list of a job unless the job has been cancelled before it started.
+     *
+     * @param job the job.
+     */
+    private void run(final Job job) {
+        if (!job.status.compareAndSet(PriceListImportStatus.QUEUED, PriceListImportStatus.RUNNING)) {
+            return;
+        }
+        job.startedAt = System.currentTimeMillis();
+        PriceListImportStatus status;
+        try (InputStream inputStream = new FileInputStream(job.file)) {
+            PriceListImportResultDto result = priceListImportService.importPriceList(inputStream, job);
+            job.onChunkProcessed(result);
+            status = job.cancelled ? PriceListImportStatus.CANCELLED : PriceListImportStatus.COMPLETED;
+        } catch (IOException | RuntimeException e) {
+            logger.error("Price-list import job '" + job.id + "' has failed", e);
+            job.error = e.getMessage();
+            status = PriceListImportStatus.FAILED;
+        } finally {
+            deleteFile(job.file);
+        }
+        job.finishedAt = System.currentTimeMillis();
+        job.status.set(status);
+        logger.info("Price-list import job '" + job.id + "' has ended: " + job.toDto());
+    }
+
+    /**
+     * Removes the oldest finished jobs so that no more than the configured number of them is kept.
+     * Must be called under the lock of the jobs.
+     */
+    private void removeFinishedJobs() {
+        int finished = 0;
+        for (Job job : jobs.values()) {
+            if (job.isFinished()) {
+                finished++;
+            }
+        }
+        Iterator<Job> iterator = jobs.values().iterator();
+        while (finished > keptJobs && iterator.hasNext()) {
+            if (iterator.next().isFinished()) {
+                iterator.remove();
+                finished--;
+            }
+        }
+    }
+
+    /**
+     * Deletes the temporary file of a price list.
+     *
+     * @param file the file.
+     */
+    private static void deleteFile(final File file) {
+        if (file.exists() && !file.delete()) {
+            logger.warn("Temporary price-list file " + file + " could not be deleted.");
+        }
+    }
+
+    /**
+     * Stops the workers. Running imports stop with the chunk they are saving.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        logger.info("Price-list import workers have been stopped.");
+    }
+
+    /**
+     * A price-list import job. Its progress is written by the worker that runs it and read by requests.
+     */
+    private static final class Job implements PriceListImportListener {
+
+        /**
+         * The id of a job.
+         */
+        private final String id;
+
+        /**
+         * The name of the uploaded file.
+         */
+        private final String fileName;
+
+        /**
+         * The temporary copy of the uploaded file.
+         */
+        private final File file;
+
+        /**
+         * The time a job was submitted.
+         */
+        private final long submittedAt = System.currentTimeMillis();
+
+        /**
+         * The status of a job.
+         */
+        private final AtomicReference<PriceListImportStatus> status =
+                new AtomicReference<>(PriceListImportStatus.QUEUED);
+
+        /**
+         * Whether a running job needs to stop.
+         */
+        private volatile boolean cancelled;
+
+        /**
+         * The time a job started.
+         */
+        private volatile long startedAt;
+
+        /**
+         * The time a job finished.
+         */
+        private volatile long finishedAt;
+
+        /**
+         * The number of created products.
+         */
+        private volatile long created;
+
+        /**
+         * The number of updated products.
+         */
+        private volatile long updated;
+
+        /**
+         * The number of products whose rows have not changed.
+         */
+        private volatile long unchanged;
+
+        /**
+         * The number of updated products whose purchasing price has changed.
+         */
+        private volatile long pricesChanged;
+
+        /**
+         * The number of rows that have not been imported.
+         */
+        private volatile long failed;
+
+        /**
+         * The errors of failed rows.
+         */
+        private volatile List<String> errors = Collections.emptyList();
+
+        /**
+         * The reason a job has failed.
+         */
+        private volatile String error;
+
+        /**
+         * Constructor.
+         *
+         * @param id the id of a job.
+         * @param fileName the name of the uploaded file.
+         * @param file the temporary copy of the uploaded file.
+         */
+        private Job(final String id, final String fileName, final File file) {
+            this.id = id;
+            this.fileName = fileName;
+            this.file = file;
+        }
+
+        @Override
+        public void onChunkProcessed(final PriceListImportResultDto result) {
+            created = result.getCreated();
+            updated = result.getUpdated();
+            unchanged = result.getUnchanged();
+            pricesChanged = result.getPricesChanged();
+            failed = result.getFailed();
+            if (result.getErrors().size() != errors.size()) {
+                errors = Collections.unmodifiableList(new ArrayList<>(result.getErrors()));
+            }
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        /**
+         * Checks whether a job has ended.
+         *
+         * @return true if a job is completed, cancelled or failed.
+         */
+        private boolean isFinished() {
+            PriceListImportStatus currentStatus = status.get();
+            return currentStatus != PriceListImportStatus.QUEUED && currentStatus != PriceListImportStatus.RUNNING;
+        }
+
+        /**
+         * Creates a snapshot of a job.
+         *
+         * @return the dto of a job.
+         */
+        private PriceListImportJobDto toDto() {
+            PriceListImportJobDto jobDto = new PriceListImportJobDto();
+            jobDto.setId(id);
+            jobDto.setFileName(fileName);
+            jobDto.setStatus(status.get());
+            jobDto.setSubmittedAt(submittedAt);
+            jobDto.setStartedAt(startedAt);
+            jobDto.setFinishedAt(finishedAt);
+            jobDto.setCreated(created);
+            jobDto.setUpdated(updated);
+            jobDto.setUnchanged(unchanged);
+            jobDto.setPricesChanged(pricesChanged);
+            jobDto.setFailed(failed);
+            jobDto.setRowsProcessed(created + updated + unchanged + failed);
+            jobDto.setErrors(errors);
+            jobDto.setError(error);
+            if (startedAt > 0) {
+                long end = finishedAt > 0 ? finishedAt : System.currentTimeMillis();
+                jobDto.setRowsPerSecond(jobDto.getRowsProcessed() * 1000.0 / Math.max(end - startedAt, 1));
+            }
+            return jobDto;
+        }
+    }
+
+}
@@ -0,0 +1,54 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Andrei Sidorov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.a2.estore.service;
+
+import dev.a2.estore.dto.PriceListImportResultDto;
+
+/**
+ * This interface provides methods to follow the progress of a price-list import and to stop it.
+ * The methods are called by the thread that runs the import.
+ *
+ * @author Andrei Sidorov
+ */
+public interface PriceListImportListener {
+
+    /**
+     * Receives the result of an import after a chunk of rows has been processed.
+     * The result keeps changing until the import ends, so its values need to be copied.
+     *
+     * @param result the result of the rows processed so far.
+     */
+    void onChunkProcessed(PriceListImportResultDto result);
+
+    /**
+     * Checks whether an import needs to stop. It is checked before every chunk,
+     * the chunks saved before remain saved.
+     *
+     * @return true if the import needs to stop.
+     */
+    boolean isCancelled();
+
+}
@@ -0,0 +1,64 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Andrei Sidorov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.a2.estore.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import dev.a2.estore.dto.PriceListImportResultDto;
+
+/**
+ * This interface provides methods to import products from price lists.
+ *
+ * @author Andrei Sidorov
+ */
+public interface PriceListImportService {
+
+    /**
+     * Imports products from a price list in the csv format. Rows are read, validated and saved in chunks,
+     * each chunk in its own transaction, so the memory used does not depend on the size of a price list.
+     * A row without an id creates a product and a row with an id updates the product.
+     * Invalid rows are reported in the result and do not stop the import.
+     *
+     * @param inputStream the stream of a price list.
+     * @return the result of the import.
+     * @throws IOException if the price list cannot be read.
+     */
+    PriceListImportResultDto importPriceList(InputStream inputStream) throws IOException;
+
+    /**
+     * Imports products from a price list like importPriceList(InputStream) and reports the progress
+     * to a listener after every chunk. The import stops before the next chunk once the listener is cancelled.
+     *
+     * @param inputStream the stream of a price list.
+     * @param listener the listener of the import progress.
+     * @return the result of the rows processed before the import ended or stopped.
+     * @throws IOException if the price list cannot be read.
+     */
+    PriceListImportResultDto importPriceList(InputStream inputStream, PriceListImportListener listener)
+            throws IOException;
+
+}
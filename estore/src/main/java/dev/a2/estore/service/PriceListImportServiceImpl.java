@@ -0,0 +1,564 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Andrei Sidorov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.a2.estore.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import com.opencsv.CSVReader;
+import dev.a2.estore.dao.ProductDao;
+import dev.a2.estore.dto.PriceListImportResultDto;
+import dev.a2.estore.dto.ProductDto;
+import dev.a2.estore.exception.PriceListImportException;
+import dev.a2.estore.model.Category;
+import dev.a2.estore.model.MeasureUnits;
+import dev.a2.estore.model.Price;
+import dev.a2.estore.model.Product;
+import org.apache.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validation;
+import javax.validation.Validator;
+
+/**
+ * This class provides implementation for PriceListImportService interface.
+ * A price list is imported in stages: rows are read in chunks, parsed and validated in parallel,
+ * their categories and measure units are resolved from maps loaded once per import,
+ * and every chunk is written by JDBC batches in its own transaction. Rows of existing products
+ * that equal the stored products are not written at all.
+ *
+ * @author Andrei Sidorov
+ */
+@Service
+public class PriceListImportServiceImpl implements PriceListImportService {
+
+    /**
+     * Initializes logger for this class.
+     */
+    private static final Logger logger = Logger.getLogger(PriceListImportService.class);
+
+    /**
+     * Validates imported rows. The validator is thread-safe and expensive to build, so it is built once.
+     */
+    private static final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    /* The names of price-list columns. */
+    private static final String ID = "ID";
+    private static final String NAME = "Name";
+    private static final String PURCHASING_PRICE = "Purchasing price";
+    private static final String SELLING_PRICE = "Selling price";
+    private static final String WEIGHT = "Weight";
+    private static final String HEIGHT = "Height";
+    private static final String WIDTH = "Width";
+    private static final String DEPTH = "Depth";
+    private static final String QUANTITY_IN_STOCK = "Quantity in stock";
+    private static final String IMAGE_URL = "Image url";
+    private static final String MEASURE_UNITS_ID = "Measure units id";
+    private static final String CATEGORY_ID = "Category id";
+
+    /**
+     * The columns a price list must have.
+     */
+    private static final String[] REQUIRED_COLUMNS = {NAME, PURCHASING_PRICE, SELLING_PRICE, WEIGHT, HEIGHT, WIDTH,
+                                                      DEPTH, QUANTITY_IN_STOCK, MEASURE_UNITS_ID, CATEGORY_ID};
+
+    /**
+     * Injects ProductDao.
+     */
+    @Autowired
+    private ProductDao productDao;
+
+    /**
+     * Injects CategoryService.
+     */
+    @Autowired
+    private CategoryService categoryService;
+
+    /**
+     * Injects MeasureUnitsService.
+     */
+    @Autowired
+    private MeasureUnitsService measureUnitsService;
+
+    /**
+     * Injects ProductSearchIndex.
+     */
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    /**
+     * Injects AttributeFacetIndex.
+     */
+    @Autowired
+    private AttributeFacetIndex attributeFacetIndex;
+
+    /**
+     * Injects SalesRanking.
+     */
+    @Autowired
+    private SalesRanking salesRanking;
+
+    /**
+     * Injects PlatformTransactionManager.
+     */
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * The number of rows imported in one transaction.
+     */
+    @Value("${price.list.import.chunk.size}")
+    private int chunkSize;
+
+    /**
+     * The maximum number of row errors kept in an import result.
+     */
+    @Value("${price.list.import.max.errors}")
+    private int maxErrors;
+
+    /**
+     * The listener of imports that are not followed.
+     */
+    private static final PriceListImportListener NO_LISTENER = new PriceListImportListener() {
+        @Override
+        public void onChunkProcessed(final PriceListImportResultDto result) {
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return false;
+        }
+    };
+
+    @Override
+    public PriceListImportResultDto importPriceList(final InputStream inputStream) throws IOException {
+        return importPriceList(inputStream, NO_LISTENER);
+    }
+
+    @Override
+    public PriceListImportResultDto importPriceList(final InputStream inputStream,
+                                                    final PriceListImportListener listener) throws IOException {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        Map<Long, Category> categories = new HashMap<>();
+        Map<Long, MeasureUnits> measureUnits = new HashMap<>();
+        transactionTemplate.execute(status -> {
+            categoryService.getAllCategories().forEach(category -> categories.put(category.getId(), category));
+            measureUnitsService.getAllMeasureUnits().forEach(units -> measureUnits.put(units.getId(), units));
+            return null;
+        });
+
+        PriceListImportResultDto result = new PriceListImportResultDto();
+        try (CSVReader reader = new CSVReader(new BufferedReader(
+                new InputStreamReader(inputStream, StandardCharsets.UTF_8)))) {
+            Map<String, Integer> columns = readHeader(reader.readNext());
+            List<Row> chunk = new ArrayList<>(chunkSize);
+            int rowNumber = 0;
+            String[] values;
+            while (!listener.isCancelled() && (values = reader.readNext()) != null) {
+                rowNumber++;
+                if (values.length == 1 && values[0].trim().isEmpty()) {
+                    continue;
+                }
+                chunk.add(new Row(rowNumber, values));
+                if (chunk.size() == chunkSize) {
+                    importChunk(chunk, columns, categories, measureUnits, transactionTemplate, result);
+                    chunk.clear();
+                    listener.onChunkProcessed(result);
+                }
+            }
+            if (!chunk.isEmpty() && !listener.isCancelled()) {
+                importChunk(chunk, columns, categories, measureUnits, transactionTemplate, result);
+                listener.onChunkProcessed(result);
+            }
+        }
+        if (listener.isCancelled()) {
+            logger.info("A price list import has been cancelled: " + result);
+        } else {
+            logger.info("A price list has been imported: " + result);
+        }
+        return result;
+    }
+
+    /**
+     * Maps the names of price-list columns to their positions.
+     *
+     * @param header the header of a price list.
+     * @return the positions of columns mapped by their names.
+     * @throws PriceListImportException if the price list is empty, a required column is missing or repeated.
+     */
+    private static Map<String, Integer> readHeader(final String[] header) {
+        if (header == null) {
+            throw new PriceListImportException("The price list is empty.");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.length; i++) {
+            if (columns.put(header[i].trim(), i) != null) {
+                throw new PriceListImportException("The price list has column '" + header[i].trim() + "' twice.");
+            }
+        }
+        for (String column : REQUIRED_COLUMNS) {
+            if (!columns.containsKey(column)) {
+                throw new PriceListImportException("The price list has no column '" + column + "'.");
+            }
+        }
+        return columns;
+    }
+
+    /**
+     * Imports a chunk of rows. Rows are parsed, validated and resolved outside of a transaction,
+     * then all valid rows are saved in one transaction. If the transaction fails,
+     * the rows of the chunk are reported as failed and the import goes on.
+     *
+     * @param rows the rows of a chunk.
+     * @param columns the positions of columns mapped by their names.
+     * @param categories the categories mapped by their ids.
+     * @param measureUnits the measure units mapped by their ids.
+     * @param transactionTemplate the template of chunk transactions.
+     * @param result the result of the import the chunk is added to.
+     */
+    private void importChunk(final List<Row> rows,
+                             final Map<String, Integer> columns,
+                             final Map<Long, Category> categories,
+                             final Map<Long, MeasureUnits> measureUnits,
+                             final TransactionTemplate transactionTemplate,
+                             final PriceListImportResultDto result) {
+        // Parsing and validation do not touch the database, so the rows are processed in parallel.
+        rows.parallelStream().forEach(row -> parse(row, columns));
+
+        List<Row> validRows = new ArrayList<>();
+        for (Row row : rows) {
+            if (row.error != null) {
+                continue;
+            }
+            if (!categories.containsKey(row.productDto.getCategoryId())) {
+                row.error = "Category " + row.productDto.getCategoryId() + " is not found.";
+            } else if (!measureUnits.containsKey(row.productDto.getMeasureUnitsId())) {
+                row.error = "Measure units " + row.productDto.getMeasureUnitsId() + " are not found.";
+            } else {
+                validRows.add(row);
+            }
+        }
+
+        if (!validRows.isEmpty()) {
+            try {
+                transactionTemplate.execute(status -> {
+                    saveRows(validRows, categories, measureUnits);
+                    return null;
+                });
+            } catch (RuntimeException e) {
+                logger.error("Rows " + rows.get(0).number + "-" + rows.get(rows.size() - 1).number
+                        + " of a price list have not been saved", e);
+                validRows.forEach(row -> row.error = "The row has not been saved.");
+            }
+        }
+
+        for (Row row : rows) {
+            if (row.error != null) {
+                result.setFailed(result.getFailed() + 1);
+                if (result.getErrors().size() < maxErrors) {
+                    result.getErrors().add("Row " + row.number + ": " + row.error);
+                }
+            } else if (row.productDto.getId() == null) {
+                result.setCreated(result.getCreated() + 1);
+            } else if (row.unchanged) {
+                result.setUnchanged(result.getUnchanged() + 1);
+            } else {
+                result.setUpdated(result.getUpdated() + 1);
+                if (row.priceChanged) {
+                    result.setPricesChanged(result.getPricesChanged() + 1);
+                }
+            }
+        }
+    }
+
+    /**
+     * Saves valid rows of a chunk: new products are inserted and existing products are updated
+     * in JDBC batches. An existing product is updated only if its row differs from the stored product,
+     * and a purchasing price is added to it only if the price has changed.
+     *
+     * @param rows the valid rows of a chunk.
+     * @param categories the categories mapped by their ids.
+     * @param measureUnits the measure units mapped by their ids.
+     */
+    private void saveRows(final List<Row> rows,
+                          final Map<Long, Category> categories,
+                          final Map<Long, MeasureUnits> measureUnits) {
+        List<Long> productsIds = rows.stream()
+                .map(row -> row.productDto.getId())
+                .filter(id -> id != null)
+                .collect(Collectors.toList());
+        Map<Long, Object[]> states = new HashMap<>();
+        if (!productsIds.isEmpty()) {
+            productDao.getPriceListState(productsIds).forEach(state -> states.put((Long) state[0], state));
+        }
+
+        List<Product> newProducts = new ArrayList<>();
+        List<Product> updatedProducts = new ArrayList<>();
+        for (Row row : rows) {
+            ProductDto productDto = row.productDto;
+            Product product = toProduct(productDto, categories.get(productDto.getCategoryId()),
+                    measureUnits.get(productDto.getMeasureUnitsId()));
+            BigDecimal purchasingPrice = productDto.getPurchasingPrice().setScale(2, RoundingMode.HALF_EVEN);
+            if (productDto.getId() == null) {
+                product.getPurchasingPrices().add(createPrice(purchasingPrice));
+                newProducts.add(product);
+                continue;
+            }
+            Object[] state = states.get(productDto.getId());
+            if (state == null) {
+                row.error = "Product " + productDto.getId() + " is not found.";
+                continue;
+            }
+            if (product.getImageUrl() == null) {
+                product.setImageUrl((String) state[2]);
+            }
+            row.priceChanged = purchasingPrice.compareTo((BigDecimal) state[1]) != 0;
+            if (!row.priceChanged && isStored(product, state)) {
+                row.unchanged = true;
+                continue;
+            }
+            if (row.priceChanged) {
+                product.getPurchasingPrices().add(createPrice(purchasingPrice));
+            }
+            updatedProducts.add(product);
+        }
+
+        if (!newProducts.isEmpty()) {
+            productDao.insertProducts(newProducts);
+        }
+        if (!updatedProducts.isEmpty()) {
+            productDao.updateProducts(updatedProducts);
+        }
+        for (Product product : newProducts) {
+            productSearchIndex.index(product);
+            attributeFacetIndex.putProduct(product.getId(), product.getCategory().getId());
+        }
+        for (Product product : updatedProducts) {
+            productSearchIndex.index(product);
+            attributeFacetIndex.putProduct(product.getId(), product.getCategory().getId());
+            salesRanking.refresh(product);
+        }
+    }
+
+    /**
+     * Checks whether the price-list fields of a product equal the stored ones, except the purchasing price.
+     *
+     * @param product the product of a row.
+     * @param state the stored state of the product as returned by ProductDao.getPriceListState.
+     * @return true if the product has not changed.
+     */
+    private static boolean isStored(final Product product, final Object[] state) {
+        return Objects.equals(product.getImageUrl(), state[2])
+                && Objects.equals(product.getName(), state[3])
+                && state[4] != null && product.getSellingPrice().compareTo((BigDecimal) state[4]) == 0
+                && Objects.equals(product.getWeight(), state[5])
+                && Objects.equals(product.getHeight(), state[6])
+                && Objects.equals(product.getWidth(), state[7])
+                && Objects.equals(product.getDepth(), state[8])
+                && Objects.equals(product.getQuantityInStock(), state[9])
+                && Objects.equals(product.getMeasureUnits().getId(), state[10])
+                && Objects.equals(product.getCategory().getId(), state[11]);
+    }
+
+    /**
+     * Parses and validates a row. The product dto is set to the row if the row is valid,
+     * otherwise the error is set.
+     *
+     * @param row the row.
+     * @param columns the positions of columns mapped by their names.
+     */
+    private static void parse(final Row row, final Map<String, Integer> columns) {
+        if (row.values.length != columns.size()) {
+            row.error = "The row has " + row.values.length + " values instead of " + columns.size() + ".";
+            return;
+        }
+        ProductDto productDto = new ProductDto();
+        try {
+            productDto.setId(convert(row, columns, ID, Long::valueOf));
+            productDto.setName(convert(row, columns, NAME, Function.identity()));
+            productDto.setPurchasingPrice(convert(row, columns, PURCHASING_PRICE, BigDecimal::new));
+            productDto.setSellingPrice(convert(row, columns, SELLING_PRICE, BigDecimal::new));
+            productDto.setWeight(convert(row, columns, WEIGHT, Double::valueOf));
+            productDto.setHeight(convert(row, columns, HEIGHT, Double::valueOf));
+            productDto.setWidth(convert(row, columns, WIDTH, Double::valueOf));
+            productDto.setDepth(convert(row, columns, DEPTH, Double::valueOf));
+            productDto.setInStock(convert(row, columns, QUANTITY_IN_STOCK, Integer::valueOf));
+            productDto.setImageUrl(convert(row, columns, IMAGE_URL, Function.identity()));
+            productDto.setMeasureUnitsId(convert(row, columns, MEASURE_UNITS_ID, Long::valueOf));
+            productDto.setCategoryId(convert(row, columns, CATEGORY_ID, Long::valueOf));
+        } catch (IllegalArgumentException e) {
+            row.error = e.getMessage();
+            return;
+        }
+
+        Set<ConstraintViolation<ProductDto>> violations = validator.validate(productDto);
+        if (violations.isEmpty()) {
+            row.productDto = productDto;
+        } else {
+            row.error = violations.stream()
+                    .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", ")) + ".";
+        }
+    }
+
+    /**
+     * Converts the value of a column. An empty value or a missing optional column is converted to null.
+     *
+     * @param row the row.
+     * @param columns the positions of columns mapped by their names.
+     * @param column the name of the column.
+     * @param converter the converter of a trimmed value.
+     * @param <T> the type of the converted value.
+     * @return the converted value.
+     * @throws IllegalArgumentException if the value cannot be converted.
+     */
+    private static <T> T convert(final Row row,
+                                 final Map<String, Integer> columns,
+                                 final String column,
+                                 final Function<String, T> converter) {
+        Integer index = columns.get(column);
+        if (index == null) {
+            return null;
+        }
+        String value = row.values[index].trim();
+        if (value.isEmpty()) {
+            return null;
+        }
+        try {
+            return converter.apply(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("The value of '" + column + "' is not a number.");
+        }
+    }
+
+    /**
+     * Creates a product from a row. The product is not attached to a session.
+     *
+     * @param productDto the product dto of a row.
+     * @param category the category of the product.
+     * @param measureUnits the measure units of the product.
+     * @return the product.
+     */
+    private static Product toProduct(final ProductDto productDto,
+                                     final Category category,
+                                     final MeasureUnits measureUnits) {
+        Product product = new Product();
+        product.setId(productDto.getId());
+        product.setName(productDto.getName());
+        product.setPurchasingPrices(new ArrayList<>());
+        product.setSellingPrice(productDto.getSellingPrice().setScale(2, RoundingMode.HALF_EVEN));
+        product.setCategory(category);
+        product.setMeasureUnits(measureUnits);
+        product.setWeight(productDto.getWeight());
+        product.setHeight(productDto.getHeight());
+        product.setWidth(productDto.getWidth());
+        product.setDepth(productDto.getDepth());
+        product.setQuantityInStock(productDto.getInStock());
+        product.setImageUrl(productDto.getImageUrl());
+        return product;
+    }
+
+    /**
+     * Creates a purchasing price dated today.
+     *
+     * @param value the value of the price.
+     * @return the price.
+     */
+    private static Price createPrice(final BigDecimal value) {
+        Price price = new Price();
+        price.setCreationDate(LocalDate.now());
+        price.setPrice(value);
+        return price;
+    }
+
+    /**
+     * A row of a price list with the result of its parsing.
+     */
+    private static final class Row {
+
+        /**
+         * The number of a row starting from 1 after the header.
+         */
+        private final int number;
+
+        /**
+         * The values of a row.
+         */
+        private final String[] values;
+
+        /**
+         * The product dto of a valid row.
+         */
+        private ProductDto productDto;
+
+        /**
+         * The error of an invalid row.
+         */
+        private String error;
+
+        /**
+         * Whether the row of an existing product equals the stored product.
+         */
+        private boolean unchanged;
+
+        /**
+         * Whether the purchasing price of an existing product has changed.
+         */
+        private boolean priceChanged;
+
+        /**
+         * Constructor.
+         *
+         * @param number the number of a row.
+         * @param values the values of a row.
+         */
+        private Row(final int number, final String[] values) {
+            this.number = number;
+            this.values = values;
+        }
+    }
+
+}
@@ -0,0 +1,70 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Andrei Sidorov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.a2.estore.service;
+
+import java.util.Collection;
+import java.util.List;
+
+import dev.a2.estore.model.Product;
+
+/**
+ * This interface provides an in-memory index of product names
+ * that answers substring searches without scanning the products table.
+ *
+ * @author Andrei Sidorov
+ */
+public interface ProductSearchIndex {
+
+    /**
+     * Rebuilds the index from the products stored in a database.
+     */
+    void rebuild();
+
+    /**
+     * Checks whether the index has been built and can answer searches.
+     *
+     * @return true if the index is ready.
+     */
+    boolean isReady();
+
+    /**
+     * Adds a product to the index or refreshes its entry if the product is already indexed.
+     * When called inside a transaction the index is changed only after the transaction commits.
+     *
+     * @param product the product that needs to be indexed.
+     */
+    void index(Product product);
+
+    /**
+     * Finds the ids of products whose names contain the input.
+     *
+     * @param input a partial or a full name of a product.
+     * @param categoriesIds the ids of categories to search in, or null to search in all categories.
+     * @return the list of products' ids.
+     */
+    List<Long> search(String input, Collection<Long> categoriesIds);
+
+}
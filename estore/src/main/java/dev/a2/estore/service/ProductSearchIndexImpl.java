@@ -0,0 +1,262 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Andrei Sidorov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.a2.estore.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import dev.a2.estore.dao.ProductDao;
+import dev.a2.estore.model.Product;
+import dev.a2.estore.util.TransactionCallbacks;
+import org.apache.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * This class provides implementation for ProductSearchIndex interface.
+ * Product names are split into trigrams and every trigram points to the ids of products
+ * whose names contain it. A search intersects the sets of the input's trigrams and
+ * verifies the remaining candidates against their names, so only the matching ids
+ * are left for Hibernate to fetch.
+ *
+ * @author Andrei Sidorov
+ */
+@Service
+public class ProductSearchIndexImpl implements ProductSearchIndex {
+
+    /**
+     * Initializes logger for this class.
+     */
+    private static final Logger logger = Logger.getLogger(ProductSearchIndex.class);
+
+    /**
+     * The length of the n-grams the index is built of.
+     */
+    private static final int GRAM_LENGTH = 3;
+
+    /**
+     * Injects ProductDao.
+     */
+    @Autowired
+    private ProductDao productDao;
+
+    /**
+     * The ids of products mapped by the trigrams of their names.
+     */
+    private Map<String, Set<Long>> postings = new HashMap<>();
+
+    /**
+     * The indexed entries mapped by products' ids.
+     */
+    private Map<Long, Entry> entries = new HashMap<>();
+
+    /**
+     * Guards the postings and the entries.
+     */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Shows whether the index has been built.
+     */
+    private volatile boolean ready;
+
+    @EventListener(ContextRefreshedEvent.class)
+    @Transactional(readOnly = true)
+    @Override
+    public void rebuild() {
+        Map<String, Set<Long>> newPostings = new HashMap<>();
+        Map<Long, Entry> newEntries = new HashMap<>();
+
+        for (Object[] row : productDao.getProductNames()) {
+            Entry entry = new Entry(normalize((String) row[1]), (Long) row[2]);
+            Long productId = (Long) row[0];
+            newEntries.put(productId, entry);
+            for (String gram : grams(entry.name)) {
+                newPostings.computeIfAbsent(gram, key -> new HashSet<>()).add(productId);
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            postings = newPostings;
+            entries = newEntries;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        ready = true;
+        logger.info("Product search index has been built with " + newEntries.size() + " products");
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Override
+    public void index(final Product product) {
+        final Long productId = product.getId();
+        final Entry entry = new Entry(normalize(product.getName()),
+                product.getCategory() == null ? null : product.getCategory().getId());
+
+        TransactionCallbacks.afterCommit(() -> put(productId, entry));
+    }
+
+    @Override
+    public List<Long> search(final String input, final Collection<Long> categoriesIds) {
+        String query = normalize(input);
+        List<Long> result = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            Collection<Long> candidates = query.length() < GRAM_LENGTH ? entries.keySet() : intersect(grams(query));
+            for (Long productId : candidates) {
+                Entry entry = entries.get(productId);
+                if (entry.name.contains(query)
+                        && (categoriesIds == null || categoriesIds.contains(entry.categoryId))) {
+                    result.add(productId);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    /**
+     * Replaces the entry of a product and its postings.
+     *
+     * @param productId the id of a product.
+     * @param entry the new entry of the product.
+     */
+    private void put(final Long productId, final Entry entry) {
+        lock.writeLock().lock();
+        try {
+            Entry oldEntry = entries.put(productId, entry);
+            if (oldEntry != null) {
+                for (String gram : grams(oldEntry.name)) {
+                    Set<Long> ids = postings.get(gram);
+                    ids.remove(productId);
+                    if (ids.isEmpty()) {
+                        postings.remove(gram);
+                    }
+                }
+            }
+            for (String gram : grams(entry.name)) {
+                postings.computeIfAbsent(gram, key -> new HashSet<>()).add(productId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Intersects the postings of the trigrams starting from the smallest one.
+     *
+     * @param grams the trigrams of a search input.
+     * @return the ids of products that contain all the trigrams.
+     */
+    private Collection<Long> intersect(final Set<String> grams) {
+        List<Set<Long>> sets = new ArrayList<>();
+        for (String gram : grams) {
+            Set<Long> ids = postings.get(gram);
+            if (ids == null) {
+                return Collections.emptyList();
+            }
+            sets.add(ids);
+        }
+        sets.sort((s1, s2) -> Integer.compare(s1.size(), s2.size()));
+
+        Set<Long> result = new HashSet<>(sets.get(0));
+        for (int i = 1; i < sets.size() && !result.isEmpty(); i++) {
+            result.retainAll(sets.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * Splits a text into distinct trigrams.
+     *
+     * @param text the normalized text.
+     * @return the set of trigrams.
+     */
+    private static Set<String> grams(final String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    /**
+     * Brings a text to the form in which it is indexed.
+     *
+     * @param text the text.
+     * @return the text in lower case without leading and trailing spaces.
+     */
+    private static String normalize(final String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * An indexed product name together with the category of the product.
+     */
+    private static final class Entry {
+
+        /**
+         * The normalized name of a product.
+         */
+        private final String name;
+
+        /**
+         * The id of the category of a product.
+         */
+        private final Long categoryId;
+
+        /**
+         * Constructor.
+         *
+         * @param name the normalized name of a product.
+         * @param categoryId the id of the category of a product.
+         */
+        private Entry(final String name, final Long categoryId) {
+            this.name = name;
+            this.categoryId = categoryId;
+        }
+    }
+
+}
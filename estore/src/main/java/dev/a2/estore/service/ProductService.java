@@ -1,13 +1,13 @@
 package dev.a2.estore.service;
 
-import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Map;
 
 import dev.a2.estore.dto.ImageDto;
-import dev.a2.estore.dto.PriceListDto;
 import dev.a2.estore.dto.ProductDto;
+import dev.a2.estore.dto.ProductPageDto;
 import dev.a2.estore.model.OrderProduct;
 import dev.a2.estore.model.Product;
 
@@ -49,18 +49,24 @@ public interface ProductService {
     List<Product> getProductsByCategory(Long categoryId);
 
     /**
-     * Reserves products. Implemenation must be sycnhronized to prevent the concurrent execution.
+     * Finds one page of products ordered by the quantity in stock and the id.
      *
-     * @param orderProducts the list of order-product entities that need to be reserved.
+     * @param categoryId the id of the category or null for all products.
+     * @param cursor the cursor returned with the previous page or null for the first page.
+     * @param size the maximum number of products in the page.
+     * @return the page of products with the cursor of the next page.
      */
-    void reserveProducts(List<OrderProduct> orderProducts);
+    ProductPageDto getProductsPage(Long categoryId, String cursor, int size);
 
     /**
-     * Unreserves products. Implemenation must be sycnhronized to prevent the concurrent execution.
+     * Writes products as a JSON array to a stream while reading them from a database row by row,
+     * so the memory used does not depend on the number of products.
      *
-     * @param orderProducts the list of order-product entities that need to be unreserved.
+     * @param categoryId the id of the category or null for all products.
+     * @param outputStream the stream the JSON is written to.
+     * @throws IOException if the JSON cannot be written.
      */
-    void unreserveProducts(List<OrderProduct> orderProducts);
+    void writeProducts(Long categoryId, OutputStream outputStream) throws IOException;
 
     /**
      * Buys products.
@@ -87,7 +93,8 @@ public interface ProductService {
 
     /**
      * Finds products by search criteria such as a partial name, a category id (categories ids)
-     * and attribute values.
+     * and attribute values. When the search indexes are ready, at most the maximum number of search results
+     * is returned, the products with the largest quantities in stock first.
      *
      * @param criteria the map with all criteria.
      * @return the list of products.
@@ -103,23 +110,13 @@ public interface ProductService {
     List<Product> getTopSellingProducts(int maxLength);
 
     /**
-     * Creates a price-list file from the current database.
+     * Writes the price list as CSV to a stream while reading products from a database row by row,
+     * so the memory used does not depend on the number of products. The stream is flushed but not closed.
      *
-     * @param fileName the name of a price-list file
-     * @throws IOException the IOException.
-     * @return the price-list file.
+     * @param outputStream the stream the price list is written to.
+     * @throws IOException if the price list cannot be written.
      */
-    File createPriceListFile(String fileName) throws IOException;
-
-    /**
-     * Processes an uploaded price-list file by updating exiting entities
-     * and creating new ones if no id is provided.
-     *
-     * @param priceListDto the dto with a price-list file.
-     * @throws IOException the IOException.
-     */
-    void processPriceListFile(PriceListDto priceListDto) throws IOException;
-
+    void writePriceList(OutputStream outputStream) throws IOException;
 
     /**
      * Deletes product-attribute entity.
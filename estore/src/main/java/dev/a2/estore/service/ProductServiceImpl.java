@@ -1,42 +1,39 @@
 package dev.a2.estore.service;
 
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileOutputStream;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.Reader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.*;
 import java.util.stream.Collectors;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.opencsv.CSVWriter;
-import com.opencsv.bean.CsvToBean;
-import com.opencsv.bean.CsvToBeanBuilder;
 import dev.a2.estore.dao.ProductDao;
 import dev.a2.estore.dto.ImageDto;
-import dev.a2.estore.dto.PriceListDto;
+import dev.a2.estore.dto.ProductCursor;
 import dev.a2.estore.dto.ProductDto;
-import dev.a2.estore.exception.PriceListImportException;
-import dev.a2.estore.exception.ProductReserveException;
-import dev.a2.estore.model.Category;
+import dev.a2.estore.dto.ProductPageDto;
 import dev.a2.estore.model.OrderProduct;
 import dev.a2.estore.model.Price;
 import dev.a2.estore.model.Product;
 import dev.a2.estore.model.ProductAttribute;
 import org.apache.log4j.Logger;
+import org.hibernate.ScrollableResults;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
-import javax.validation.ConstraintViolation;
-import javax.validation.Validation;
-import javax.validation.Validator;
-
 /**
  * This class provides implementation for ProductService interface.
  *
@@ -50,6 +47,27 @@ public class ProductServiceImpl implements ProductService {
      */
     private static final Logger logger = Logger.getLogger(ProductService.class);
 
+    /**
+     * The header of a price-list file, the columns follow ProductDao.scrollPriceListRows.
+     */
+    private static final String[] PRICE_LIST_HEADER = {"ID",
+                                                        "Name",
+                                                        "Purchasing price",
+                                                        "Selling price",
+                                                        "Weight",
+                                                        "Height",
+                                                        "Width",
+                                                        "Depth",
+                                                        "Quantity in stock",
+                                                        "Image url",
+                                                        "Measure units id",
+                                                        "Category id"};
+
+    /**
+     * Creates JSON generators that leave the target stream open.
+     */
+    private static final JsonFactory jsonFactory = new JsonFactory().disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
     /**
      * Injects ProductDao.
      */
@@ -68,12 +86,48 @@ public class ProductServiceImpl implements ProductService {
     @Autowired
     private MeasureUnitsService measureUnitsService;
 
+    /**
+     * Injects ProductSearchIndex.
+     */
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    /**
+     * Injects AttributeFacetIndex.
+     */
+    @Autowired
+    private AttributeFacetIndex attributeFacetIndex;
+
+    /**
+     * Injects SalesRanking.
+     */
+    @Autowired
+    private SalesRanking salesRanking;
+
+    /**
+     * Injects SaleCountService.
+     */
+    @Autowired
+    private SaleCountService saleCountService;
+
     /**
      * Path to a folder for storing uploaded product images.
      */
     @Value("${files.upload.folder}")
     private String filesFolder;
 
+    /**
+     * The number of rows fetched from a database at a time when a response is streamed.
+     */
+    @Value("${stream.fetch.size}")
+    private int streamFetchSize;
+
+    /**
+     * The maximum number of products a search returns.
+     */
+    @Value("${search.max.results}")
+    private int searchMaxResults;
+
     @Transactional
     @Override
     public Product findById(final Long productId) {
@@ -104,6 +158,8 @@ public class ProductServiceImpl implements ProductService {
         newProduct.setSaleCount(0L);
         newProduct.setImageUrl(productDto.getImageUrl());
         productDao.save(newProduct);
+        productSearchIndex.index(newProduct);
+        attributeFacetIndex.putProduct(newProduct.getId(), productDto.getCategoryId());
     }
 
     @Transactional
@@ -115,50 +171,112 @@ public class ProductServiceImpl implements ProductService {
     @Transactional
     @Override
     public List<Product> getProductsByCategory(final Long categoryId) {
-        Category category = categoryService.findById(categoryId);
-        List<Product> products = null;
+        List<Long> categoriesIds = categoryService.getLeafCategoriesIds(categoryId);
+        if (categoriesIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return productDao.getProductsByCategoriesIds(categoriesIds);
+    }
 
-        if (category.getType().equals("folder")) {
-            List<Long> subCategoriesIds = categoryService.getSubCategoriesIds(category.getSubCategories());
-            products = productDao.getProductsByCategoriesIds(subCategoriesIds);
-        } else {
-            products = productDao.getProductsByCategoryId(categoryId);
+    @Transactional(readOnly = true)
+    @Override
+    public ProductPageDto getProductsPage(final Long categoryId, final String cursor, final int size) {
+        List<Long> categoriesIds = null;
+        if (categoryId != null) {
+            categoriesIds = categoryService.getLeafCategoriesIds(categoryId);
+            if (categoriesIds.isEmpty()) {
+                return new ProductPageDto(new ArrayList<>(), null);
+            }
         }
-        return products;
+        ProductCursor after = cursor == null || cursor.isEmpty() ? null : ProductCursor.decode(cursor);
+
+        // one extra row tells whether there is a next page
+        List<Product> products = productDao.getProductsPage(categoriesIds, after, size + 1);
+        String nextCursor = null;
+        if (products.size() > size) {
+            products = new ArrayList<>(products.subList(0, size));
+            nextCursor = ProductCursor.of(products.get(size - 1)).encode();
+        }
+        return new ProductPageDto(products, nextCursor);
     }
 
+    @Transactional(readOnly = true)
     @Override
-    public void reserveProducts(final List<OrderProduct> orderProducts) {
-        for (int i = 0; i < orderProducts.size(); i++) {
-            OrderProduct orderProduct = orderProducts.get(i);
-            try {
-                productDao.reserveProductWithLocking(orderProduct.getProduct().getId(), orderProduct.getQuantity());
-            } catch (ProductReserveException e) {
-                for (int j = i - 1; j >= 0; j--) {
-                    orderProduct = orderProducts.get(j);
-                    productDao.unreserveProductWithLocking(orderProduct.getProduct().getId(), orderProduct.getQuantity());
+    public void writeProducts(final Long categoryId, final OutputStream outputStream) throws IOException {
+        List<Long> categoriesIds = categoryId == null ? null : categoryService.getLeafCategoriesIds(categoryId);
+        int count = 0;
+        try (JsonGenerator generator = jsonFactory.createGenerator(outputStream)) {
+            generator.writeStartArray();
+            if (categoriesIds == null || !categoriesIds.isEmpty()) {
+                try (ScrollableResults rows = productDao.scrollProductRows(categoriesIds, streamFetchSize)) {
+                    while (rows.next()) {
+                        writeProduct(generator, rows.get());
+                        count++;
+                    }
                 }
-                throw e;
             }
+            generator.writeEndArray();
         }
+        logger.info(count + " products have been streamed.");
     }
 
-    @Override
-    public void unreserveProducts(final List<OrderProduct> orderProducts) {
+    /**
+     * Writes a product row as a JSON object with the same fields as a serialized product entity
+     * except the recent purchasing price.
+     *
+     * @param generator the JSON generator.
+     * @param row the product row returned by ProductDao.scrollProductRows.
+     * @throws IOException if the JSON cannot be written.
+     */
+    private void writeProduct(final JsonGenerator generator, final Object[] row) throws IOException {
+        generator.writeStartObject();
+        generator.writeObjectField("id", row[0]);
+        generator.writeObjectField("name", row[1]);
+        generator.writeObjectField("sellingPrice", row[2]);
+        generator.writeObjectField("weight", row[3]);
+        generator.writeObjectField("height", row[4]);
+        generator.writeObjectField("width", row[5]);
+        generator.writeObjectField("depth", row[6]);
+        generator.writeObjectField("quantityInStock", row[7]);
+        generator.writeObjectField("quantityReserved", row[8]);
+        generator.writeObjectField("imageUrl", row[9]);
+        generator.writeObjectField("saleCount", row[10]);
+        if (row[11] == null) {
+            generator.writeNullField("measureUnits");
+        } else {
+            generator.writeObjectFieldStart("measureUnits");
+            generator.writeObjectField("id", row[11]);
+            generator.writeObjectField("name", row[12]);
+            generator.writeEndObject();
+        }
+        generator.writeEndObject();
+    }
+
+    /**
+     * Sums up quantities of products in an order.
+     *
+     * @param orderProducts the list of order-product entities.
+     * @return the quantities mapped by products' ids in the ascending order of ids.
+     */
+    private static Map<Long, Integer> getQuantities(final List<OrderProduct> orderProducts) {
+        Map<Long, Integer> quantities = new TreeMap<>();
         for (OrderProduct orderProduct : orderProducts) {
-            productDao.unreserveProductWithLocking(orderProduct.getProduct().getId(), orderProduct.getQuantity());
+            quantities.merge(orderProduct.getProduct().getId(), orderProduct.getQuantity(), Integer::sum);
         }
+        return quantities;
     }
 
     @Transactional
     @Override
     public void buyProducts(final List<OrderProduct> orderProducts) {
+        // Products of an order are detached copies, updating them would overwrite concurrent reservations.
+        productDao.sellReservedProducts(getQuantities(orderProducts));
         for (OrderProduct orderProduct : orderProducts) {
             Product product = orderProduct.getProduct();
             Integer reservedQuantity = product.getQuantityReserved();
             product.setQuantityReserved(reservedQuantity - orderProduct.getQuantity());
-            product.setSaleCount(product.getSaleCount() + 1);
-            productDao.update(product);
+            saleCountService.increment(product.getId());
+            salesRanking.recordSale(product);
         }
     }
 
@@ -188,6 +306,9 @@ public class ProductServiceImpl implements ProductService {
             product.setImageUrl(productDto.getImageUrl());
         }
         productDao.update(product);
+        productSearchIndex.index(product);
+        attributeFacetIndex.putProduct(product.getId(), productDto.getCategoryId());
+        salesRanking.refresh(product);
     }
 
     @Transactional
@@ -204,6 +325,7 @@ public class ProductServiceImpl implements ProductService {
             return;
         }
         productDao.update(product);
+        salesRanking.refresh(product);
     }
 
     @Transactional
@@ -215,25 +337,32 @@ public class ProductServiceImpl implements ProductService {
         List<Product> products = null;
 
         if (categoryIdString.matches("^\\.*\\d+\\.*$")) {
-            Long categoryId = Long.parseLong(categoryIdString);
-            Category category = categoryService.findById(categoryId);
-
-            if (category.getType().equals("folder")) {
-                categoriesIds = categoryService.getSubCategoriesIds(category.getSubCategories());
-            } else {
-                categoriesIds = new ArrayList<>();
-                categoriesIds.add(category.getId());
-            }
+            categoriesIds = categoryService.getLeafCategoriesIds(Long.parseLong(categoryIdString));
         }
 
-        if (categoriesIds == null) {
+        // The indexes find the matching ids, the database is only asked to fetch them.
+        List<Long> productsIds = null;
+        if (!input.isEmpty() && productSearchIndex.isReady()) {
+            productsIds = productSearchIndex.search(input, categoriesIds);
+        }
+        // Without the ids of the search index the facet index would drop the input, so products found
+        // by name are filtered by attributes below instead.
+        boolean isFilteredByAttributes = false;
+        if (searchCriteria.size() > 0 && attributeFacetIndex.isReady() && (input.isEmpty() || productsIds != null)) {
+            productsIds = attributeFacetIndex.filter(searchCriteria, categoriesIds, productsIds);
+            isFilteredByAttributes = true;
+        }
+
+        if (productsIds != null) {
+            products = productsIds.isEmpty() ? new ArrayList<>() : productDao.findByIds(limitSearchResults(productsIds));
+        } else if (categoriesIds == null) {
             products = productDao.findByPartialName(input);
         } else {
             products = productDao.findByPartialNameAndCategoriesIds(input, categoriesIds);
         }
 
         // Applies the filter by attributes.
-        if (searchCriteria.size() > 0) {
+        if (searchCriteria.size() > 0 && !isFilteredByAttributes) {
             products = products.stream().filter(product -> {
                 boolean result = true;
 
@@ -259,9 +388,32 @@ public class ProductServiceImpl implements ProductService {
         return products;
     }
 
+    /**
+     * Keeps the ids of the products with the largest quantities in stock if more products match a search
+     * than a search returns, so only the returned products are loaded.
+     *
+     * @param productsIds the ids of matching products.
+     * @return the ids of at most the maximum number of search results.
+     */
+    private List<Long> limitSearchResults(final List<Long> productsIds) {
+        if (productsIds.size() <= searchMaxResults) {
+            return productsIds;
+        }
+        return productDao.getStocks(productsIds)
+                .stream()
+                .sorted(Comparator.comparing((Object[] stock) -> (Integer) stock[1],
+                        Comparator.nullsFirst(Comparator.<Integer>naturalOrder())).reversed())
+                .limit(searchMaxResults)
+                .map(stock -> (Long) stock[0])
+                .collect(Collectors.toList());
+    }
+
     @Transactional
     @Override
     public List<Product> getTopSellingProducts(final int maxLength) {
+        if (salesRanking.isReady()) {
+            return salesRanking.getTopProducts(maxLength);
+        }
         List<Product> products = productDao.getAllProducts();
         products.sort((p1, p2) -> p2.getSaleCount().compareTo(p1.getSaleCount()));
 
@@ -272,82 +424,34 @@ public class ProductServiceImpl implements ProductService {
         return products;
     }
 
-    @Transactional
-    @Override
-    public File createPriceListFile(final String fileName) throws IOException {
-        File priceList = new File(fileName);
-        FileWriter outputfile = new FileWriter(priceList);
-        CSVWriter writer = new CSVWriter(outputfile);
-        String[] header = {"ID",
-                           "Name",
-                           "Purchasing price",
-                           "Selling price",
-                           "Weight",
-                           "Height",
-                           "Width",
-                           "Depth",
-                           "Quantity in stock",
-                           "Image url",
-                           "Measure units id",
-                           "Category id"};
-        writer.writeNext(header);
-
-        List<Product> products = getAllProducts();
-        products.sort(Comparator.comparing(Product::getId));
-        products.forEach(product -> {
-            String[] row = {product.getId().toString(),
-                            product.getName(),
-                            product.getRecentPurchasingPrice().toString(),
-                            product.getSellingPrice().toString(),
-                            product.getWeight().toString(),
-                            product.getHeight().toString(),
-                            product.getWidth().toString(),
-                            product.getDepth().toString(),
-                            product.getQuantityInStock().toString(),
-                            product.getImageUrl(),
-                            product.getMeasureUnits().getId().toString(),
-                            product.getCategory().getId().toString()};
-                writer.writeNext(row);
-        });
-        writer.close();
-        return priceList;
-    }
-
-    @Transactional
+    @Transactional(readOnly = true)
     @Override
-    public void processPriceListFile(final PriceListDto priceListDto) throws IOException {
-        try (Reader reader = new InputStreamReader(priceListDto.getPriceList().getInputStream())) {
-            CsvToBean<ProductDto> csvToBean = new CsvToBeanBuilder(reader)
-                    .withType(ProductDto.class)
-                    .withIgnoreLeadingWhiteSpace(true)
-                    .build();
-            Iterator<ProductDto> productDtoIterator = csvToBean.iterator();
-            Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
-
-            int rowCounter = 0;
-            while (productDtoIterator.hasNext()) {
-                rowCounter++;
-                ProductDto productDto = productDtoIterator.next();
-                Set<ConstraintViolation<ProductDto>> violations = validator.validate(productDto);
-                if (violations.isEmpty()) {
-                    if (productDto.getId() == null) {
-                        save(productDto);
-                    } else {
-                        Product product = findById(productDto.getId());
-                        update(product, productDto);
-                    }
-                } else {
-                    throw new PriceListImportException("Invalid data at row: " + rowCounter);
-
+    public void writePriceList(final OutputStream outputStream) throws IOException {
+        Writer streamWriter = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        CSVWriter writer = new CSVWriter(streamWriter);
+        writer.writeNext(PRICE_LIST_HEADER);
+        int count = 0;
+        try (ScrollableResults rows = productDao.scrollPriceListRows(streamFetchSize)) {
+            while (rows.next()) {
+                Object[] row = rows.get();
+                String[] line = new String[row.length];
+                for (int i = 0; i < row.length; i++) {
+                    line[i] = row[i] == null ? null : row[i].toString();
                 }
+                writer.writeNext(line);
+                count++;
             }
         }
+        // The writer is flushed but not closed, the stream belongs to the caller.
+        writer.flush();
+        logger.info(count + " products have been written to a price list.");
     }
 
     @Transactional
     @Override
     public void deleteProductAttribute(final Long productId, final Long attributeId) {
         productDao.deleteProductAttribute(productId, attributeId);
+        attributeFacetIndex.removeAttribute(productId, attributeId);
     }
 
 }
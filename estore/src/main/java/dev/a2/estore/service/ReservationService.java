@@ -0,0 +1,89 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Andrei Sidorov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.a2.estore.service;
+
+import java.util.List;
+
+import dev.a2.estore.model.OrderProduct;
+
+/**
+ * This interface provides methods to keep the reserves of carts in a database.
+ * A stored reserve is the source of truth for reserved products: whoever removes it is responsible
+ * for the products, either by selling them or by returning them to stock.
+ *
+ * @author Andrei Sidorov
+ */
+public interface ReservationService {
+
+    /**
+     * Reserves products and stores the reserve.
+     *
+     * @param orderProducts the list of order-product entities that need to be reserved.
+     * @param reserveSeconds the reserve time in seconds.
+     * @return the id of the reserve.
+     */
+    String reserve(List<OrderProduct> orderProducts, long reserveSeconds);
+
+    /**
+     * Returns the products of a reserve to stock and removes the reserve.
+     * Does nothing if the reserve has already been released or completed.
+     *
+     * @param reservationId the id of the reserve.
+     * @return true if the products have been returned to stock by this call.
+     */
+    boolean release(String reservationId);
+
+    /**
+     * Removes a reserve without returning its products to stock, so that they can be sold.
+     *
+     * @param reservationId the id of the reserve.
+     * @return true if the reserve was live and has been completed by this call.
+     */
+    boolean complete(String reservationId);
+
+    /**
+     * Checks that a reserve exists and its time has not run out yet.
+     *
+     * @param reservationId the id of the reserve.
+     * @return true if the reserve is live.
+     */
+    boolean isLive(String reservationId);
+
+    /**
+     * Releases the reserves that ran out in batches.
+     *
+     * @return the number of released reserves.
+     */
+    int releaseExpired();
+
+    /**
+     * Counts the reserves that have not run out yet.
+     *
+     * @return the number of live reserves.
+     */
+    long countLive();
+
+}
@@ -0,0 +1,188 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Andrei Sidorov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.a2.estore.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import dev.a2.estore.dao.ProductDao;
+import dev.a2.estore.dao.ReservationDao;
+import dev.a2.estore.model.OrderProduct;
+import dev.a2.estore.model.Reservation;
+import org.apache.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * This class provides implementation for ReservationService interface.
+ * Reserves are claimed by locking and deleting their rows, so a release on expiry,
+ * a release from a cart and a checkout of the same reserve never take effect twice,
+ * no matter which application node runs them. Expired reserves are swept on a schedule
+ * and every batch returns its products to stock with one update per product.
+ *
+ * @author Andrei Sidorov
+ */
+@Service
+public class ReservationServiceImpl implements ReservationService {
+
+    /**
+     * Initializes logger for this class.
+     */
+    private static final Logger logger = Logger.getLogger(ReservationService.class);
+
+    /**
+     * Injects ReservationDao.
+     */
+    @Autowired
+    private ReservationDao reservationDao;
+
+    /**
+     * Injects ProductDao.
+     */
+    @Autowired
+    private ProductDao productDao;
+
+    /**
+     * Injects PlatformTransactionManager.
+     */
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * The maximum number of expired reserves released in one transaction.
+     * Specified in 'application.properties'.
+     */
+    @Value("${reservation.sweep.batch.size}")
+    private int sweepBatchSize;
+
+    @Transactional
+    @Override
+    public String reserve(final List<OrderProduct> orderProducts, final long reserveSeconds) {
+        Map<Long, Integer> quantities = new TreeMap<>();
+        for (OrderProduct orderProduct : orderProducts) {
+            quantities.merge(orderProduct.getProduct().getId(), orderProduct.getQuantity(), Integer::sum);
+        }
+        productDao.reserveProducts(quantities);
+
+        Reservation reservation = new Reservation();
+        reservation.setId(UUID.randomUUID().toString());
+        reservation.setExpiresAt(LocalDateTime.now().plusSeconds(reserveSeconds));
+        reservation.setQuantities(quantities);
+        reservationDao.save(reservation);
+        return reservation.getId();
+    }
+
+    @Transactional
+    @Override
+    public boolean release(final String reservationId) {
+        if (reservationId == null) {
+            return false;
+        }
+        Reservation reservation = reservationDao.findByIdForUpdate(reservationId);
+        if (reservation == null) {
+            return false;
+        }
+        productDao.unreserveProducts(new TreeMap<>(reservation.getQuantities()));
+        reservationDao.delete(reservation);
+        return true;
+    }
+
+    @Transactional
+    @Override
+    public boolean complete(final String reservationId) {
+        if (reservationId == null) {
+            return false;
+        }
+        Reservation reservation = reservationDao.findByIdForUpdate(reservationId);
+        if (reservation == null || !reservation.getExpiresAt().isAfter(LocalDateTime.now())) {
+            return false;
+        }
+        reservationDao.delete(reservation);
+        return true;
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public boolean isLive(final String reservationId) {
+        if (reservationId == null) {
+            return false;
+        }
+        Reservation reservation = reservationDao.findById(reservationId);
+        return reservation != null && reservation.getExpiresAt().isAfter(LocalDateTime.now());
+    }
+
+    @Scheduled(fixedDelayString = "${reservation.sweep.delay}")
+    @Override
+    public int releaseExpired() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        int released = 0;
+        int batchSize;
+        do {
+            try {
+                batchSize = transactionTemplate.execute(status -> {
+                    List<Reservation> reservations = reservationDao.findExpiredForUpdate(LocalDateTime.now(),
+                            sweepBatchSize);
+
+                    // Sorted by id, so the sweepers of several nodes lock product rows in the same order.
+                    Map<Long, Integer> quantities = new TreeMap<>();
+                    for (Reservation reservation : reservations) {
+                        reservation.getQuantities().forEach((productId, quantity) ->
+                                quantities.merge(productId, quantity, Integer::sum));
+                        reservationDao.delete(reservation);
+                    }
+                    if (!quantities.isEmpty()) {
+                        productDao.unreserveProducts(quantities);
+                    }
+                    return reservations.size();
+                });
+            } catch (RuntimeException e) {
+                logger.error("Expired reservations release has failed, it will be retried", e);
+                break;
+            }
+            released += batchSize;
+        } while (batchSize == sweepBatchSize);
+
+        if (released > 0) {
+            logger.info(released + " expired reservations have been released");
+        }
+        return released;
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public long countLive() {
+        return reservationDao.countLive(LocalDateTime.now());
+    }
+
+}
@@ -0,0 +1,71 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Andrei Sidorov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.a2.estore.service;
+
+/**
+ * This interface provides methods to track the expiry of product reserves.
+ * Reserves of all sessions share the same timer, so the number of threads does not grow with the number of carts.
+ * The timer only releases reserves of this application node on time, stored reserves
+ * are the source of truth and are swept by ReservationService as well.
+ *
+ * @author Andrei Sidorov
+ */
+public interface ReservationTimer {
+
+    /**
+     * Starts the timer of a reserve.
+     *
+     * @param reservationId the id of the reserve.
+     * @param onExpiry the task that releases the reserve when the time runs out.
+     * @param delaySeconds the reserve time in seconds.
+     */
+    void start(String reservationId, Runnable onExpiry, long delaySeconds);
+
+    /**
+     * Stops the timer of a reserve. Only one of this method and the expiry task can claim a reserve,
+     * so the caller that gets true is the one responsible for the reserved products.
+     *
+     * @param reservationId the id of the reserve.
+     * @return true if the reserve was claimed before it expired.
+     */
+    boolean cancel(String reservationId);
+
+    /**
+     * Checks that the time of a reserve has not run out yet.
+     *
+     * @param reservationId the id of the reserve.
+     * @return true if the reserve is still live.
+     */
+    boolean isLive(String reservationId);
+
+    /**
+     * Calculates the number of live reserves.
+     *
+     * @return the number of live reserves.
+     */
+    int getLiveReservations();
+
+}
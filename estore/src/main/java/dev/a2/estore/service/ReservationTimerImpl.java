@@ -0,0 +1,132 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Andrei Sidorov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.a2.estore.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.log4j.Logger;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+
+/**
+ * This class provides implementation for ReservationTimer interface.
+ * All reserves are scheduled on one single-threaded executor that drops cancelled tasks from its queue,
+ * so carts that are checked out or emptied do not stay in memory until their time would have run out.
+ * A reserve is claimed by removing it from the map of live reserves, which makes the release
+ * on expiry and the cancel on checkout mutually exclusive.
+ *
+ * @author Andrei Sidorov
+ */
+@Service
+public class ReservationTimerImpl implements ReservationTimer {
+
+    /**
+     * Initializes logger for this class.
+     */
+    private static final Logger logger = Logger.getLogger(ReservationTimer.class);
+
+    /**
+     * The executor that runs the expiry tasks of all reserves.
+     */
+    private final ScheduledThreadPoolExecutor executor;
+
+    /**
+     * The expiry tasks of live reserves mapped by reserves' ids.
+     */
+    private final Map<String, ScheduledFuture<?>> timers = new ConcurrentHashMap<>();
+
+    /**
+     * Creates the timer with one daemon thread.
+     */
+    public ReservationTimerImpl() {
+        executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "reservation-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.setRemoveOnCancelPolicy(true);
+    }
+
+    @Override
+    public void start(final String reservationId, final Runnable onExpiry, final long delaySeconds) {
+        Runnable expire = () -> {
+            ScheduledFuture<?> timer;
+            synchronized (timers) {
+                timer = timers.remove(reservationId);
+            }
+            if (timer != null) {
+                try {
+                    onExpiry.run();
+                } catch (RuntimeException e) {
+                    logger.error("Reserve '" + reservationId + "' could not be released", e);
+                }
+            }
+        };
+
+        // The expiry task waits on the same lock, so it cannot run before the reserve is registered.
+        synchronized (timers) {
+            timers.put(reservationId, executor.schedule(expire, delaySeconds, TimeUnit.SECONDS));
+        }
+    }
+
+    @Override
+    public boolean cancel(final String reservationId) {
+        if (reservationId == null) {
+            return false;
+        }
+        ScheduledFuture<?> timer = timers.remove(reservationId);
+        if (timer == null) {
+            return false;
+        }
+        timer.cancel(false);
+        return true;
+    }
+
+    @Override
+    public boolean isLive(final String reservationId) {
+        return reservationId != null && timers.containsKey(reservationId);
+    }
+
+    @Override
+    public int getLiveReservations() {
+        return timers.size();
+    }
+
+    /**
+     * Stops the timer. Reserves that are still live are left to be released by their sessions.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        logger.info("Reservation timer has been stopped with " + timers.size() + " live reserves.");
+    }
+
+}
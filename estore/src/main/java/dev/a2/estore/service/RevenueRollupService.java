@@ -0,0 +1,60 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Andrei Sidorov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package dev.a2.estore.service;
+
+import dev.a2.estore.model.Order;
+
+/**
+ * This interface provides methods to maintain the daily revenue rollup the revenue reports are made from.
+ *
+ * @author Andrei Sidorov
+ */
+public interface RevenueRollupService {
+
+    /**
+     * Stores the sums of an order as pending in the transaction that saves the order.
+     * The sums are added to the daily revenue of the day the order was created on by the next flush.
+     *
+     * @param order the saved order.
+     */
+    void addOrder(Order order);
+
+    /**
+     * Adds the pending sums of orders to the stored daily revenues and deletes them.
+     */
+    void flush();
+
+    /**
+     * Creates the rows of today and tomorrow if they do not exist yet, so orders only update existing rows.
+     */
+    void prepareDays();
+
+    /**
+     * Fills the rollup from the stored orders if it is empty, e.g. on the first start after an upgrade,
+     * and drops the pending sums the orders include. Then prepares the rows of today and tomorrow.
+     */
+    void initialize();
+
+}
@@ -0,0 +1,192 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Andrei Sidorov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package dev.a2.estore.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import dev.a2.estore.dao.DailyRevenueDao;
+import dev.a2.estore.model.DailyRevenue;
+import dev.a2.estore.model.Order;
+import dev.a2.estore.model.PendingRevenue;
+import org.apache.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+
+/**
+ * This class provides implementation for RevenueRollupService interface.
+ * An order writes its sums to a row of its own in the transaction of the order, and the rows are added
+ * to the daily revenues of their days on a schedule, so checkouts never hold the lock of the row of today.
+ * Since the rows are stored, the revenue of a committed order survives a crash and is added by the next
+ * flush after a restart. The revenue reports lag behind the orders by up to one flush delay.
+ * Rows are created a day ahead, which keeps concurrent flushes from racing to insert the same row.
+ *
+ * @author Andrei Sidorov
+ */
+@Service
+public class RevenueRollupServiceImpl implements RevenueRollupService {
+
+    /**
+     * Initializes logger for this class.
+     */
+    private static final Logger logger = Logger.getLogger(RevenueRollupService.class);
+
+    /**
+     * The maximum number of orders added to daily revenues by one transaction.
+     */
+    private static final int FLUSH_BATCH_SIZE = 1000;
+
+    /**
+     * Injects DailyRevenueDao.
+     */
+    @Autowired
+    private DailyRevenueDao dailyRevenueDao;
+
+    /**
+     * Injects PlatformTransactionManager.
+     */
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Override
+    public void addOrder(final Order order) {
+        LocalDate revenueDate = order.getCreationDateTime() == null
+                ? LocalDate.now()
+                : order.getCreationDateTime().toLocalDate();
+        BigDecimal revenue = order.getTotalSellingPrice() == null ? BigDecimal.ZERO : order.getTotalSellingPrice();
+        BigDecimal cost = order.getTotalPurchasingPrice() == null ? BigDecimal.ZERO : order.getTotalPurchasingPrice();
+        dailyRevenueDao.savePending(new PendingRevenue(order.getId(), revenueDate, revenue, cost));
+    }
+
+    @Scheduled(fixedDelayString = "${revenue.rollup.flush.delay}")
+    @Override
+    public synchronized void flush() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        int flushed;
+        do {
+            try {
+                flushed = transactionTemplate.execute(status -> flushBatch());
+            } catch (RuntimeException e) {
+                // the orders stay pending and are added by the next flush
+                logger.error("Daily revenues flush has failed", e);
+                return;
+            }
+        } while (flushed == FLUSH_BATCH_SIZE);
+    }
+
+    /**
+     * Adds the sums of orders to the daily revenues before the application shuts down.
+     */
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    @Scheduled(cron = "${revenue.rollup.cron}")
+    @Override
+    public void prepareDays() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        LocalDate today = LocalDate.now();
+        for (LocalDate revenueDate : new LocalDate[] {today, today.plusDays(1)}) {
+            try {
+                transactionTemplate.execute(status -> {
+                    if (dailyRevenueDao.findByDate(revenueDate) == null) {
+                        dailyRevenueDao.save(new DailyRevenue(revenueDate, BigDecimal.ZERO, BigDecimal.ZERO, 0));
+                    }
+                    return null;
+                });
+            } catch (RuntimeException e) {
+                // another node or context has created the row in the meantime
+                logger.info("The daily revenue of '" + revenueDate + "' has not been created: " + e.getMessage());
+            }
+        }
+    }
+
+    @EventListener(ContextRefreshedEvent.class)
+    @Override
+    public void initialize() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.execute(status -> {
+            if (dailyRevenueDao.count() == 0) {
+                List<DailyRevenue> dailyRevenues = dailyRevenueDao.sumOrdersByDay();
+                dailyRevenues.forEach(dailyRevenueDao::save);
+                // the pending orders have been summed with the rest
+                dailyRevenueDao.deleteAllPending();
+                logger.info("The daily revenues of " + dailyRevenues.size() + " days have been filled from orders");
+            }
+            return null;
+        });
+        prepareDays();
+    }
+
+    /**
+     * Adds the oldest pending orders to the daily revenues of their days and deletes them.
+     *
+     * @return the number of the added orders.
+     */
+    private int flushBatch() {
+        List<PendingRevenue> pendingRevenues = dailyRevenueDao.findPendingForUpdate(FLUSH_BATCH_SIZE);
+        if (pendingRevenues.isEmpty()) {
+            return 0;
+        }
+
+        // Sorted by day, so concurrent flushes lock the rows of days in the same order.
+        Map<LocalDate, DailyRevenue> sums = new TreeMap<>();
+        List<Long> ordersIds = new ArrayList<>();
+        for (PendingRevenue pendingRevenue : pendingRevenues) {
+            ordersIds.add(pendingRevenue.getOrderId());
+            sums.merge(pendingRevenue.getRevenueDate(),
+                    new DailyRevenue(pendingRevenue.getRevenueDate(), pendingRevenue.getRevenue(),
+                            pendingRevenue.getCost(), 1),
+                    (oldSum, newSum) -> new DailyRevenue(oldSum.getRevenueDate(),
+                            oldSum.getRevenue().add(newSum.getRevenue()),
+                            oldSum.getCost().add(newSum.getCost()),
+                            oldSum.getOrderCount() + newSum.getOrderCount()));
+        }
+
+        for (DailyRevenue sum : sums.values()) {
+            if (dailyRevenueDao.addToDay(sum.getRevenueDate(), sum.getRevenue(),
+                    sum.getCost(), sum.getOrderCount()) == 0) {
+                // the row has not been prepared, e.g. the orders are the first ones after a restart at midnight
+                dailyRevenueDao.save(sum);
+            }
+        }
+        dailyRevenueDao.deletePending(ordersIds);
+        logger.info(ordersIds.size() + " orders have been added to the daily revenues of " + sums.size() + " days");
+        return ordersIds.size();
+    }
+
+}
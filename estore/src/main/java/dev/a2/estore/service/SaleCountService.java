@@ -0,0 +1,56 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Andrei Sidorov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.a2.estore.service;
+
+/**
+ * This interface provides methods to count product sales. Sales are accumulated in memory
+ * and written to a database in batches.
+ *
+ * @author Andrei Sidorov
+ */
+public interface SaleCountService {
+
+    /**
+     * Counts a sale of a product.
+     * When called inside a transaction the sale is counted only after the transaction commits.
+     *
+     * @param productId the id of the sold product.
+     */
+    void increment(Long productId);
+
+    /**
+     * Writes the accumulated sale counts to a database.
+     */
+    void flush();
+
+    /**
+     * Calculates the number of sales that have not been written to a database yet.
+     *
+     * @return the number of pending sales.
+     */
+    long getPendingDeltas();
+
+}
@@ -0,0 +1,140 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Andrei Sidorov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.a2.estore.service;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import dev.a2.estore.dao.ProductDao;
+import dev.a2.estore.util.TransactionCallbacks;
+import org.apache.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+
+/**
+ * This class provides implementation for SaleCountService interface.
+ * Every product has its own counter, so concurrent buyers of different products never contend
+ * and buyers of the same product only contend on an atomic counter instead of a table row.
+ * The counters are drained on a schedule and written by one batch of updates that add the deltas
+ * to the stored sale counts. Deltas of a failed flush are returned to the counters
+ * and the counters are flushed once more when the application shuts down.
+ *
+ * @author Andrei Sidorov
+ */
+@Service
+public class SaleCountServiceImpl implements SaleCountService {
+
+    /**
+     * Initializes logger for this class.
+     */
+    private static final Logger logger = Logger.getLogger(SaleCountService.class);
+
+    /**
+     * Injects ProductDao.
+     */
+    @Autowired
+    private ProductDao productDao;
+
+    /**
+     * Injects PlatformTransactionManager.
+     */
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * The sale counters mapped by products' ids.
+     */
+    private final Map<Long, AtomicLong> deltas = new ConcurrentHashMap<>();
+
+    /**
+     * The number of sales that have not been written yet, including the ones being flushed.
+     */
+    private final AtomicLong pendingDeltas = new AtomicLong();
+
+    @Override
+    public void increment(final Long productId) {
+        Runnable action = () -> {
+            deltas.computeIfAbsent(productId, id -> new AtomicLong()).incrementAndGet();
+            pendingDeltas.incrementAndGet();
+        };
+
+        TransactionCallbacks.afterCommit(action);
+    }
+
+    @Scheduled(fixedDelayString = "${sale.count.flush.delay}")
+    @Override
+    public synchronized void flush() {
+        // Sorted by id, so concurrent flushes of both contexts lock rows in the same order.
+        Map<Long, Long> batch = new TreeMap<>();
+        deltas.forEach((productId, counter) -> {
+            long delta = counter.getAndSet(0);
+            if (delta != 0) {
+                batch.put(productId, delta);
+            }
+        });
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        long total = batch.values().stream().mapToLong(Long::longValue).sum();
+        try {
+            new TransactionTemplate(transactionManager).execute(status -> {
+                productDao.addSaleCounts(batch);
+                return null;
+            });
+            pendingDeltas.addAndGet(-total);
+            logger.info("Sale counts of " + batch.size() + " products have been flushed");
+        } catch (RuntimeException e) {
+            batch.forEach((productId, delta) ->
+                    deltas.computeIfAbsent(productId, id -> new AtomicLong()).addAndGet(delta));
+            logger.error("Sale counts flush has failed, " + total + " sales will be retried", e);
+        }
+    }
+
+    /**
+     * Writes the accumulated sale counts before the application shuts down.
+     */
+    @PreDestroy
+    public void shutdown() {
+        flush();
+        if (pendingDeltas.get() > 0) {
+            logger.error(pendingDeltas.get() + " sales have not been written on shutdown: " + deltas);
+        }
+    }
+
+    @Override
+    public long getPendingDeltas() {
+        return pendingDeltas.get();
+    }
+
+}
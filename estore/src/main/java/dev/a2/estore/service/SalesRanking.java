@@ -0,0 +1,76 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Andrei Sidorov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.a2.estore.service;
+
+import java.util.List;
+
+import dev.a2.estore.model.Product;
+
+/**
+ * This interface provides an in-memory ranking of the top-selling products.
+ *
+ * @author Andrei Sidorov
+ */
+public interface SalesRanking {
+
+    /**
+     * Rebuilds the ranking from the sale counts stored in a database.
+     */
+    void rebuild();
+
+    /**
+     * Checks whether the ranking has been built and can answer requests.
+     *
+     * @return true if the ranking is ready.
+     */
+    boolean isReady();
+
+    /**
+     * Counts a sale of a product.
+     * When called inside a transaction the sale is counted only after the transaction commits.
+     *
+     * @param product the sold product.
+     */
+    void recordSale(Product product);
+
+    /**
+     * Refreshes the name, the image and the price of a ranked product.
+     * When called inside a transaction the ranking is changed only after the transaction commits.
+     *
+     * @param product the changed product.
+     */
+    void refresh(Product product);
+
+    /**
+     * Finds the top-selling products. The returned products are copies that keep
+     * only the id, the name, the image url, the selling price and the sale count.
+     *
+     * @param maxLength the maximum length of the list.
+     * @return the list of products in the descending order of sale counts.
+     */
+    List<Product> getTopProducts(int maxLength);
+
+}
@@ -0,0 +1,157 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Andrei Sidorov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.a2.estore.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import dev.a2.estore.dao.ProductDao;
+import dev.a2.estore.model.Product;
+import dev.a2.estore.util.BoundedRanking;
+import dev.a2.estore.util.TransactionCallbacks;
+import org.apache.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * This class provides implementation for SalesRanking interface.
+ * Products are ranked by their sale counts in a bounded ranking sized by the maximum length
+ * of the top-selling-products list.
+ *
+ * @author Andrei Sidorov
+ */
+@Service
+public class SalesRankingImpl implements SalesRanking {
+
+    /**
+     * Initializes logger for this class.
+     */
+    private static final Logger logger = Logger.getLogger(SalesRanking.class);
+
+    /**
+     * Injects ProductDao.
+     */
+    @Autowired
+    private ProductDao productDao;
+
+    /**
+     * The maximum number of products in the ranking.
+     */
+    @Value("${top.products.max.length}")
+    private int capacity;
+
+    /**
+     * The copies of products ranked by their sale counts.
+     */
+    private final BoundedRanking<Long, Long, Product> ranking = new BoundedRanking<>(() -> capacity);
+
+    /**
+     * Serializes changes of the ranking. Readers do not take it.
+     */
+    private final Object rankLock = new Object();
+
+    /**
+     * Shows whether the ranking has been built.
+     */
+    private volatile boolean ready;
+
+    @EventListener(ContextRefreshedEvent.class)
+    @Transactional(readOnly = true)
+    @Override
+    public void rebuild() {
+        List<Object[]> rows = productDao.getSaleCounts();
+
+        synchronized (rankLock) {
+            ranking.clear();
+            for (Object[] row : rows) {
+                Product snapshot = new Product();
+                snapshot.setId((Long) row[0]);
+                snapshot.setName((String) row[1]);
+                snapshot.setImageUrl((String) row[2]);
+                snapshot.setSellingPrice((BigDecimal) row[3]);
+                ranking.add(snapshot.getId(), (Long) row[4], Long::sum, snapshot);
+            }
+        }
+        ready = true;
+        logger.info("Sales ranking has been built from " + rows.size() + " sold products");
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Override
+    public void recordSale(final Product product) {
+        Product snapshot = snapshot(product);
+        TransactionCallbacks.afterCommit(() -> {
+            synchronized (rankLock) {
+                ranking.add(snapshot.getId(), 1L, Long::sum, snapshot);
+            }
+        });
+    }
+
+    @Override
+    public void refresh(final Product product) {
+        Product snapshot = snapshot(product);
+        TransactionCallbacks.afterCommit(() -> ranking.refresh(snapshot.getId(), snapshot));
+    }
+
+    @Override
+    public List<Product> getTopProducts(final int maxLength) {
+        List<Product> products = new ArrayList<>();
+        for (BoundedRanking.Entry<Product, Long> entry : ranking.getTop()) {
+            if (products.size() >= maxLength) {
+                break;
+            }
+            Product product = snapshot(entry.getSnapshot());
+            product.setSaleCount(entry.getScore());
+            products.add(product);
+        }
+        return products;
+    }
+
+    /**
+     * Copies the fields of a product that the top-selling-products list needs.
+     *
+     * @param product the product.
+     * @return the copy of the product.
+     */
+    private static Product snapshot(final Product product) {
+        Product snapshot = new Product();
+        snapshot.setId(product.getId());
+        snapshot.setName(product.getName());
+        snapshot.setImageUrl(product.getImageUrl());
+        snapshot.setSellingPrice(product.getSellingPrice());
+        return snapshot;
+    }
+
+}
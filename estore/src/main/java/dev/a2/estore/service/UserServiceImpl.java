@@ -8,6 +8,7 @@ import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+import dev.a2.estore.dao.OrderDao;
 import dev.a2.estore.dao.RoleDao;
 import dev.a2.estore.dto.SearchUsersDto;
 import dev.a2.estore.dto.UserAddressDto;
@@ -15,13 +16,13 @@ import dev.a2.estore.dto.UserDetailsDto;
 import dev.a2.estore.dto.UserSignupDto;
 import dev.a2.estore.model.Address;
 import dev.a2.estore.model.Country;
-import dev.a2.estore.model.Order;
 import dev.a2.estore.model.Role;
 import dev.a2.estore.model.User;
 import dev.a2.estore.dao.UserDao;
 
 import org.apache.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -63,10 +64,22 @@ public class UserServiceImpl implements UserService {
     private RoleDao roleDao;
 
     /**
-     * Injects OrderService.
+     * Injects OrderDao.
      */
     @Autowired
-    private OrderService orderService;
+    private OrderDao orderDao;
+
+    /**
+     * Injects ClientRanking.
+     */
+    @Autowired
+    private ClientRanking clientRanking;
+
+    /**
+     * The maximum number of clients in the top-clients list.
+     */
+    @Value("${top.clients.max.length}")
+    private int topClientsLength;
 
     /**
      * Injects CountryService.
@@ -162,27 +175,27 @@ public class UserServiceImpl implements UserService {
         user.setLastName(userDetailsDto.getLastName());
         user.setDateOfBirth(userDetailsDto.getDateOfBirth());
         userDao.update(user);
+        clientRanking.refresh(user);
     }
 
     @Override
     public List<User> getTopTenClients() {
-        List<User> users = userDao.getAllUsers();
-        users.forEach(user -> {
-            BigDecimal sum = orderService
-                    .getAllUserOrders(user.getId())
-                    .stream()
-                    .map(Order::getTotalPurchasingPrice)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-            user.setOrdersSum(sum);
-        });
-
-        users.sort((u1, u2) -> u2.getOrdersSum().compareTo(u1.getOrdersSum()));
-
-        if (users.size() > 10) {
-            users.subList(10, users.size()).clear();
+        if (clientRanking.isReady()) {
+            return clientRanking.getTopClients(topClientsLength);
+        }
+        List<User> users = new ArrayList<>();
+        for (Object[] row : orderDao.getOrdersSums(topClientsLength)) {
+            BigDecimal ordersSum = (BigDecimal) row[3];
+            if (ordersSum == null || ordersSum.signum() <= 0) {
+                continue;
+            }
+            User user = new User();
+            user.setId((Long) row[0]);
+            user.setFirstName((String) row[1]);
+            user.setLastName((String) row[2]);
+            user.setOrdersSum(ordersSum);
+            users.add(user);
         }
-
-        users.removeIf(user -> user.getOrdersSum().compareTo(new BigDecimal(0)) <= 0);
         return users;
     }
 
@@ -0,0 +1,231 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Andrei Sidorov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.a2.estore.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.BinaryOperator;
+import java.util.function.IntSupplier;
+
+/**
+ * This class ranks items by scores that only grow. The scores of all items are kept in memory
+ * while only the top items are kept in a sorted set bounded by the capacity of the ranking.
+ * Since scores only grow, an item can enter the top only through its own score,
+ * so every change takes O(log K) and the ranking stays exact.
+ * Changes must be serialized by the owner of a ranking. Readers need no lock.
+ *
+ * @param <K> the type of the keys of items.
+ * @param <S> the type of the scores.
+ * @param <V> the type of the copies of the ranked items.
+ * @author Andrei Sidorov
+ */
+public final class BoundedRanking<K extends Comparable<K>, S extends Comparable<S>, V> {
+
+    /**
+     * Provides the maximum number of items in the top.
+     */
+    private final IntSupplier capacity;
+
+    /**
+     * The scores of all items mapped by their keys.
+     */
+    private final Map<K, S> scores = new ConcurrentHashMap<>();
+
+    /**
+     * The copies of the ranked items mapped by their keys.
+     */
+    private final Map<K, V> snapshots = new ConcurrentHashMap<>();
+
+    /**
+     * The ranked items in the descending order of scores.
+     */
+    private final NavigableSet<Rank<K, S>> top = new ConcurrentSkipListSet<>();
+
+    /**
+     * Constructor.
+     *
+     * @param capacity provides the maximum number of items in the top, read on every change.
+     */
+    public BoundedRanking(final IntSupplier capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Removes all items.
+     */
+    public void clear() {
+        scores.clear();
+        snapshots.clear();
+        top.clear();
+    }
+
+    /**
+     * Adds to the score of an item and moves the item in the top. The item gets the added score
+     * if it has no score yet.
+     *
+     * @param key the key of an item.
+     * @param score the added score, must not be negative.
+     * @param sum sums two scores.
+     * @param snapshot the copy of the item shown in the top.
+     */
+    public void add(final K key, final S score, final BinaryOperator<S> sum, final V snapshot) {
+        S oldScore = scores.get(key);
+        S newScore = oldScore == null ? score : sum.apply(oldScore, score);
+        scores.put(key, newScore);
+        if (oldScore != null) {
+            top.remove(new Rank<>(key, oldScore));
+        }
+
+        Rank<K, S> rank = new Rank<>(key, newScore);
+        if (top.size() >= capacity.getAsInt() && rank.compareTo(top.last()) > 0) {
+            return;
+        }
+        snapshots.put(key, snapshot);
+        top.add(rank);
+        if (top.size() > capacity.getAsInt()) {
+            snapshots.remove(top.pollLast().key);
+        }
+    }
+
+    /**
+     * Replaces the copy of an item if the item is in the top.
+     *
+     * @param key the key of an item.
+     * @param snapshot the new copy of the item.
+     */
+    public void refresh(final K key, final V snapshot) {
+        snapshots.computeIfPresent(key, (oldKey, oldSnapshot) -> snapshot);
+    }
+
+    /**
+     * Returns the items of the top with their scores in the descending order of scores.
+     *
+     * @return the list of ranked items.
+     */
+    public List<Entry<V, S>> getTop() {
+        List<Entry<V, S>> entries = new ArrayList<>();
+        for (Rank<K, S> rank : top) {
+            V snapshot = snapshots.get(rank.key);
+            if (snapshot != null) {
+                entries.add(new Entry<>(snapshot, rank.score));
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * A ranked item with its score.
+     *
+     * @param <V> the type of the copy of the item.
+     * @param <S> the type of the score.
+     */
+    public static final class Entry<V, S> {
+
+        /**
+         * The copy of an item.
+         */
+        private final V snapshot;
+
+        /**
+         * The score of an item.
+         */
+        private final S score;
+
+        /**
+         * Constructor.
+         *
+         * @param snapshot the copy of an item.
+         * @param score the score of the item.
+         */
+        private Entry(final V snapshot, final S score) {
+            this.snapshot = snapshot;
+            this.score = score;
+        }
+
+        public V getSnapshot() {
+            return snapshot;
+        }
+
+        public S getScore() {
+            return score;
+        }
+    }
+
+    /**
+     * The position of an item in the ranking.
+     *
+     * @param <K> the type of the key of the item.
+     * @param <S> the type of the score.
+     */
+    private static final class Rank<K extends Comparable<K>, S extends Comparable<S>>
+            implements Comparable<Rank<K, S>> {
+
+        /**
+         * The key of an item.
+         */
+        private final K key;
+
+        /**
+         * The score of an item.
+         */
+        private final S score;
+
+        /**
+         * Constructor.
+         *
+         * @param key the key of an item.
+         * @param score the score of the item.
+         */
+        private Rank(final K key, final S score) {
+            this.key = key;
+            this.score = score;
+        }
+
+        @Override
+        public int compareTo(final Rank<K, S> other) {
+            int result = other.score.compareTo(score);
+            return result != 0 ? result : key.compareTo(other.key);
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Rank<?, ?> rank = (Rank<?, ?>) o;
+            return key.equals(rank.key) && score.equals(rank.score);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * key.hashCode() + score.hashCode();
+        }
+    }
+
+}
@@ -25,6 +25,8 @@
 
 let isFilterApplied = false;
 let maxResults = 12;
+let listingUrl = null;
+let nextCursor = null;
 
 function toggleCategory(thisButton) {
     // caculating necessary height based on number of elements
@@ -85,6 +87,7 @@ async function findProducts() {
     } catch (error) {
         console.error(error.message);
     }
+    nextCursor = null;
     displayProductsPartly(products, 1, maxResults);
     displayResultNavBar(products, 1,  1, maxResults);
 }
@@ -94,8 +97,7 @@ async function getProducts() {
 
     let products;
     try {
-        const response = await fetch('/products');
-        products = await response.json();
+        products = await fetchProductsPage('/products');
     } catch (error) {
         console.error(error.message);
     }
@@ -121,8 +123,40 @@ function displayResultNavBar(products, index, start, maxResults) {
         li.appendChild(indexButton);
         resultNavBar.appendChild(li);
     }
-    const nextButton = document.createElement("button");
+    if (nextCursor !== null && start + 5 > Math.ceil(products.length / maxResults)) {
+        const li = document.createElement('li');
+        const nextButton = document.createElement("button");
+        nextButton.addEventListener('click', () => {
+            loadMoreProducts(products);
+        });
+        nextButton.innerText = "More";
+        li.appendChild(nextButton);
+        resultNavBar.appendChild(li);
+    }
+}
+
+async function fetchProductsPage(url) {
+    listingUrl = url;
+    const response = await fetch(url);
+    const page = await response.json();
+    nextCursor = page.nextCursor;
+    return page.products;
+}
 
+async function loadMoreProducts(products) {
+    const separator = listingUrl.includes('?') ? '&' : '?';
+    let page;
+    try {
+        const response = await fetch(listingUrl + separator + 'cursor=' + encodeURIComponent(nextCursor));
+        page = await response.json();
+    } catch (error) {
+        console.error(error.message);
+        return;
+    }
+    const firstNewIndex = Math.ceil(products.length / maxResults) + 1;
+    products.push(...page.products);
+    nextCursor = page.nextCursor;
+    displayProductsPartly(products, firstNewIndex);
 }
 
 async function getProductsByCategory(categoryId, categoryType, thisLink) {
@@ -134,8 +168,7 @@ async function getProductsByCategory(categoryId, categoryType, thisLink) {
 
     let products;
     try {
-        const response = await fetch('/products/category?id=' + categoryId);
-        products = await response.json();
+        products = await fetchProductsPage('/products/category?id=' + categoryId);
     } catch (error) {
         console.error(error.message);
     }
@@ -275,7 +308,8 @@ function displayAttributeFilter(attributes) {
         attribute.values.forEach(value => {
             const option = document.createElement('option');
             option.setAttribute('value', value);
-            option.innerText = value;
+            const count = attribute.valueCounts ? attribute.valueCounts[value] : undefined;
+            option.innerText = count === undefined ? value : `${value} (${count})`;
             select.appendChild(option);
         });
         li.appendChild(label);
@@ -0,0 +1,81 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Andrei Sidorov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+'use strict';
+
+const importJob = document.getElementById("import-job");
+
+if (importJob !== null) {
+    const jobId = importJob.dataset.jobId;
+    const cancelButton = document.getElementById("import-job-cancel");
+    cancelButton.addEventListener("click", () => cancelImport(jobId));
+    showImportProgress(jobId);
+}
+
+async function showImportProgress(jobId) {
+    let job;
+    try {
+        const response = await fetch(`/product/price-list/imports/${jobId}`);
+        job = await response.json();
+    } catch (error) {
+        console.error(error);
+        return;
+    }
+    renderImportJob(job);
+
+    if (job.status === "QUEUED" || job.status === "RUNNING") {
+        setTimeout(() => showImportProgress(jobId), 1000);
+    }
+}
+
+async function cancelImport(jobId) {
+    try {
+        const response = await fetch(`/product/price-list/imports/${jobId}`, {method: 'DELETE'});
+        renderImportJob(await response.json());
+    } catch (error) {
+        console.error(error);
+    }
+}
+
+function renderImportJob(job) {
+    const status = document.getElementById("import-job-status");
+    status.innerText = `${job.status}: ${job.rowsProcessed} rows processed, ${job.created} created, `
+        + `${job.updated} updated (${job.pricesChanged} with a new price), ${job.unchanged} unchanged, `
+        + `${job.failed} failed (${Math.round(job.rowsPerSecond)} rows/s).`;
+    if (job.error) {
+        status.innerText += ` ${job.error}`;
+    }
+
+    const finished = job.status !== "QUEUED" && job.status !== "RUNNING";
+    document.getElementById("import-job-cancel").hidden = finished;
+
+    const errors = document.getElementById("errors");
+    while (errors.firstChild) {
+        errors.removeChild(errors.firstChild);
+    }
+    job.errors.forEach(rowError => {
+        const item = document.createElement("li");
+        item.innerText = rowError;
+        errors.appendChild(item);
+    });
+}
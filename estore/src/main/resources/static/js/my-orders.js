@@ -29,6 +29,15 @@ function sortBy(column, direction) {
     document.getElementById('findButton').click();
 }
 
+function resetPage() {
+    document.getElementById('page').value = 1;
+}
+
+function goToPage(page) {
+    document.getElementById('page').value = page;
+    document.getElementById('findButton').form.submit();
+}
+
 function validate(input) {
     let isValid, message;
     const inputValue = input.value.trim();
@@ -35,6 +35,13 @@
 <main id="import-price-list-main">
     <c:if test="${not empty message}"><div id="message">${message}</div></c:if>
     <c:if test="${not empty error}"><div id="error">${error}</div></c:if>
+    <c:if test="${not empty jobId}">
+        <div id="import-job" data-job-id="<c:out value="${jobId}"/>">
+            <p id="import-job-status"></p>
+            <button id="import-job-cancel" type="button">Cancel import</button>
+            <ul id="errors"></ul>
+        </div>
+    </c:if>
     <h1>Import price list</h1>
     <form:form action="/product/price-list/import"
                method="post"
@@ -52,5 +59,7 @@
 </main>
 <%@ include file="partials/footer.jsp" %>
 
+<script src="/resources/js/import-price-list.js"></script>
+
 </body>
 </html>
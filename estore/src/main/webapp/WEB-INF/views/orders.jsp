@@ -111,7 +111,8 @@
             <td>
                 <form:input type="hidden" path="sortBy" />
                 <form:input type="hidden" path="sortDirection" />
-                <form:button id="findButton">Find</form:button>
+                <form:input type="hidden" path="page" />
+                <form:button id="findButton" onclick="resetPage()">Find</form:button>
             </td>
         </tr>
         </form:form>
@@ -204,6 +205,16 @@
             </tr>
         </c:forEach>
     </table>
+
+    <!-- Page navigation -->
+    <div id="orders-navbar">
+        <c:if test="${searchOrdersDto.page > 1}">
+            <button onclick="goToPage(${searchOrdersDto.page - 1})">Previous</button>
+        </c:if>
+        <c:if test="${hasNextPage}">
+            <button onclick="goToPage(${searchOrdersDto.page + 1})">Next</button>
+        </c:if>
+    </div>
 </main>
 <%@ include file="partials/footer.jsp" %>
 
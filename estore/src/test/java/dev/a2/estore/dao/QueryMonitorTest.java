@@ -0,0 +1,111 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Andrei Sidorov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.a2.estore.dao;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Testing QueryMonitor")
+class QueryMonitorTest {
+
+    private QueryMonitor queryMonitor;
+
+    @BeforeEach
+    void createMonitor() {
+        queryMonitor = new QueryMonitor();
+        ReflectionTestUtils.setField(queryMonitor, "slowQueryMillis", 500L);
+    }
+
+    @Nested
+    @DisplayName("Testing record method")
+    class recordTest {
+        @DisplayName("when queries are recorded then their executions and rows are accumulated by query name")
+        @Test
+        void recordTest1() {
+            // run
+            queryMonitor.record("OrderDao.findById", TimeUnit.MILLISECONDS.toNanos(3), 1, false);
+            queryMonitor.record("OrderDao.findById", TimeUnit.MILLISECONDS.toNanos(4), 0, false);
+            queryMonitor.record("ProductDao.getAllProducts", TimeUnit.MILLISECONDS.toNanos(20), 100, false);
+
+            // assert
+            QueryStatistics statistics = queryMonitor.getStatistics().get("OrderDao.findById");
+            assertEquals(2, queryMonitor.getStatistics().size());
+            assertEquals(2, statistics.getCount());
+            assertEquals(1, statistics.getRows());
+            assertEquals(0, statistics.getSlowCount());
+        }
+
+        @DisplayName("when a query takes longer than the threshold then it is counted as slow")
+        @Test
+        void recordTest2() {
+            // run
+            queryMonitor.record("OrderDao.getAllOrders", TimeUnit.MILLISECONDS.toNanos(700), 5000, false);
+
+            // assert
+            assertEquals(1, queryMonitor.getStatistics().get("OrderDao.getAllOrders").getSlowCount());
+        }
+    }
+
+    @Nested
+    @DisplayName("Testing getPercentile method")
+    class getPercentileTest {
+        @DisplayName("when executions are recorded then percentiles are the bounds of their latency buckets")
+        @Test
+        void getPercentileTest1() {
+            // given
+            QueryStatistics statistics = new QueryStatistics();
+            for (int i = 0; i < 99; i++) {
+                statistics.record(TimeUnit.MILLISECONDS.toNanos(3), 1, false);
+            }
+            statistics.record(TimeUnit.MILLISECONDS.toNanos(300), 1, false);
+
+            // run
+            double p50 = statistics.getPercentile(0.5);
+            double p100 = statistics.getPercentile(1.0);
+
+            // assert
+            assertEquals(5, p50);
+            assertEquals(500, p100);
+            assertTrue(statistics.getMaxMillis() >= 300);
+        }
+
+        @DisplayName("when nothing is recorded then percentiles are zero")
+        @Test
+        void getPercentileTest2() {
+            // assert
+            assertEquals(0, new QueryStatistics().getPercentile(0.99));
+        }
+    }
+
+}
@@ -0,0 +1,181 @@
+package dev.a2.estore.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import dev.a2.estore.dao.AttributeDao;
+import dev.a2.estore.dao.ProductDao;
+import dev.a2.estore.model.Attribute;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import static org.mockito.Mockito.when;
+
+@DisplayName("Testing AttributeFacetIndex")
+@ExtendWith(MockitoExtension.class)
+class AttributeFacetIndexTest {
+
+    @Mock
+    private AttributeDao attributeDao;
+
+    @Mock
+    private ProductDao productDao;
+
+    @InjectMocks
+    private AttributeFacetIndex attributeFacetIndex = new AttributeFacetIndexImpl();
+
+    @BeforeEach
+    void buildIndex() {
+        List<Object[]> products = new ArrayList<>();
+        products.add(new Object[] {1L, "Phone 1", 2L});
+        products.add(new Object[] {2L, "Phone 2", 2L});
+        products.add(new Object[] {3L, "Laptop", 3L});
+        when(productDao.getProductNames()).thenReturn(products);
+
+        List<Object[]> values = new ArrayList<>();
+        values.add(new Object[] {1L, 10L, "Color", "Black"});
+        values.add(new Object[] {2L, 10L, "Color", "Black"});
+        values.add(new Object[] {3L, 10L, "Color", "White"});
+        values.add(new Object[] {3L, 11L, "Memory", null});
+        when(attributeDao.getProductAttributeValues()).thenReturn(values);
+
+        attributeFacetIndex.rebuild();
+    }
+
+    private Attribute find(final Set<Attribute> attributes, final String name) {
+        return attributes.stream().filter(attribute -> attribute.getName().equals(name)).findFirst().orElse(null);
+    }
+
+    @Nested
+    @DisplayName("Testing getAttributes method")
+    class getAttributesTest {
+        @DisplayName("when a category is given then values of its products are counted")
+        @Test
+        void getAttributesTest1() {
+            // run
+            Set<Attribute> result = attributeFacetIndex.getAttributes(Collections.singletonList(2L));
+
+            // assert
+            assertEquals(1, result.size());
+            assertEquals(Integer.valueOf(2), find(result, "Color").getValueCounts().get("Black"));
+        }
+
+        @DisplayName("when several categories are given then their values are merged")
+        @Test
+        void getAttributesTest2() {
+            // run
+            Set<Attribute> result = attributeFacetIndex.getAttributes(Arrays.asList(2L, 3L));
+
+            // assert
+            assertEquals(2, result.size());
+            assertEquals(2, find(result, "Color").getValues().size());
+            assertTrue(find(result, "Memory").getValues().isEmpty());
+        }
+    }
+
+    @Nested
+    @DisplayName("Testing filter method")
+    class filterTest {
+        @DisplayName("when a value is chosen then only products with this value are returned")
+        @Test
+        void filterTest1() {
+            // given
+            Map<String, String> criteria = new HashMap<>();
+            criteria.put("Color", "Black");
+
+            // run
+            List<Long> result = attributeFacetIndex.filter(criteria, null, null);
+
+            // assert
+            assertEquals(Arrays.asList(1L, 2L), result);
+        }
+
+        @DisplayName("when the value 'All' is chosen then products of categories with attributes are returned")
+        @Test
+        void filterTest2() {
+            // given
+            Map<String, String> criteria = new HashMap<>();
+            criteria.put("Color", "All");
+
+            // run
+            List<Long> result = attributeFacetIndex.filter(criteria, Collections.singletonList(3L), null);
+
+            // assert
+            assertEquals(Collections.singletonList(3L), result);
+        }
+
+        @DisplayName("when products' ids are given then only these products are filtered")
+        @Test
+        void filterTest3() {
+            // given
+            Map<String, String> criteria = new HashMap<>();
+            criteria.put("Color", "Black");
+
+            // run
+            List<Long> result = attributeFacetIndex.filter(criteria, null, Arrays.asList(2L, 3L));
+
+            // assert
+            assertEquals(Collections.singletonList(2L), result);
+        }
+    }
+
+    @Nested
+    @DisplayName("Testing index changes")
+    class changesTest {
+        @DisplayName("when a value is changed then counts of the old and the new values are updated")
+        @Test
+        void changesTest1() {
+            // given
+            Attribute attribute = new Attribute();
+            attribute.setId(10L);
+            attribute.setName("Color");
+
+            // run
+            attributeFacetIndex.putAttribute(1L, attribute, "Red");
+
+            // assert
+            Attribute color = find(attributeFacetIndex.getAttributes(Collections.singletonList(2L)), "Color");
+            assertEquals(Integer.valueOf(1), color.getValueCounts().get("Black"));
+            assertEquals(Integer.valueOf(1), color.getValueCounts().get("Red"));
+        }
+
+        @DisplayName("when a product is moved to another category then its values are moved too")
+        @Test
+        void changesTest2() {
+            // run
+            attributeFacetIndex.putProduct(3L, 2L);
+
+            // assert
+            assertTrue(attributeFacetIndex.getAttributes(Collections.singletonList(3L)).isEmpty());
+            Attribute color = find(attributeFacetIndex.getAttributes(Collections.singletonList(2L)), "Color");
+            assertEquals(Integer.valueOf(1), color.getValueCounts().get("White"));
+        }
+
+        @DisplayName("when the last product loses an attribute then the attribute is not returned")
+        @Test
+        void changesTest3() {
+            // run
+            attributeFacetIndex.removeAttribute(3L, 11L);
+
+            // assert
+            assertNull(find(attributeFacetIndex.getAttributes(Collections.singletonList(3L)), "Memory"));
+        }
+    }
+
+}
@@ -1,7 +1,9 @@
 package dev.a2.estore.service;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -42,6 +44,12 @@ class AttributeServiceTest {
     @Mock
     private ProductDao productDao;
 
+    @Mock
+    private AttributeFacetIndex attributeFacetIndex;
+
+    @Mock
+    private CategoryService categoryService;
+
     @InjectMocks
     private AttributeService attributeService = new AttributeServiceImpl();
 
@@ -182,6 +190,26 @@ class AttributeServiceTest {
             assertEquals("Attribute name", attributes.iterator().next().getName());
 
         }
+
+        @DisplayName("when the facet index is ready " +
+                "then attributes are taken from the index without querying products")
+        @Test
+        void getAttributesWithValuesTest2() {
+            // given
+            when(categoryService.getLeafCategoriesIds(1L)).thenReturn(Collections.singletonList(1L));
+
+            Set<Attribute> attributes = new HashSet<>();
+            attributes.add(new Attribute());
+            when(attributeFacetIndex.isReady()).thenReturn(true);
+            when(attributeFacetIndex.getAttributes(Collections.singletonList(1L))).thenReturn(attributes);
+
+            // run
+            Set<Attribute> result = attributeService.getAttributesWithValues(1L);
+
+            // assert
+            assertEquals(attributes, result);
+            verifyZeroInteractions(productDao, categoryDao);
+        }
     }
 
     @Nested
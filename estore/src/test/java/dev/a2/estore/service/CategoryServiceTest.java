@@ -28,8 +28,10 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
 @DisplayName("Testing CategoryService")
@@ -42,6 +44,9 @@ class CategoryServiceTest {
     @Mock
     private ProductDao productDao;
 
+    @Mock
+    private CategoryTree categoryTree;
+
     @InjectMocks
     private CategoryService categoryService = new CategoryServiceImpl();
 
@@ -60,6 +65,7 @@ class CategoryServiceTest {
 
             // assert
             verify(categoryDao, times(1)).save(any(Category.class));
+            verify(categoryDao, times(1)).evictCache();
         }
     }
 
@@ -168,16 +174,39 @@ class CategoryServiceTest {
             Category category = new Category();
             category.setId(1L);
             category.setType("folder");
-            List<Category> subCategories = new ArrayList<>();
-            category.setSubCategories(subCategories);
 
             when(categoryDao.findById(1L)).thenReturn(category);
-            List<Long> categoriesIds = new ArrayList<>();
+            when(categoryTree.isReady()).thenReturn(true);
+            when(categoryTree.getLeafIds(1L)).thenReturn(Collections.emptyList());
+
             // run
             categoryService.deleteCategory(1L);
 
             // assert
-            verify(productDao, times(0)).getProductsByCategoriesIds(categoriesIds);
+            verify(productDao, never()).getProductsByCategoriesIds(any());
+            verify(categoryDao, times(1)).delete(category);
+        }
+
+        @DisplayName("when a category is a folder whose sub-categories have products " +
+                "then exception CategoryDeleteException gets thrown")
+        @Test
+        void deleteCategoryTest4() {
+            // given
+            Category category = new Category();
+            category.setId(1L);
+            category.setType("folder");
+
+            when(categoryDao.findById(1L)).thenReturn(category);
+            when(categoryTree.isReady()).thenReturn(true);
+            when(categoryTree.getLeafIds(1L)).thenReturn(Arrays.asList(2L, 3L));
+            when(productDao.getProductsByCategoriesIds(Arrays.asList(2L, 3L)))
+                    .thenReturn(Collections.singletonList(new Product()));
+
+            // run and assert
+            assertThrows(CategoryDeleteException.class, () -> {
+                categoryService.deleteCategory(1L);
+            });
+            verify(categoryDao, never()).delete(category);
         }
     }
 
@@ -197,6 +226,7 @@ class CategoryServiceTest {
 
             // assert
             assertEquals("newName", category.getName());
+            verify(categoryDao, times(1)).evictCache();
             verify(categoryDao, times(1)).update(category);
         }
     }
@@ -255,6 +285,41 @@ class CategoryServiceTest {
             assertTrue(result.containsAll(Arrays.asList(2L, 3L, 5L, 6L)));
         }
     }
-}
 
+    @Nested
+    @DisplayName("Testing getLeafCategoriesIds method")
+    class getLeafCategoriesIdsTest {
+        @DisplayName("when the category tree is ready " +
+                "then ids are taken from the tree without loading categories")
+        @Test
+        void getLeafCategoriesIdsTest1() {
+            // given
+            when(categoryTree.isReady()).thenReturn(true);
+            when(categoryTree.getLeafIds(1L)).thenReturn(Arrays.asList(2L, 3L));
+
+            // run
+            List<Long> result = categoryService.getLeafCategoriesIds(1L);
+
+            // assert
+            assertEquals(Arrays.asList(2L, 3L), result);
+            verifyZeroInteractions(categoryDao);
+        }
+
+        @DisplayName("when the category tree is not ready " +
+                "then the tree is built and ids are taken from it")
+        @Test
+        void getLeafCategoriesIdsTest2() {
+            // given
+            when(categoryTree.isReady()).thenReturn(false);
+            when(categoryTree.getLeafIds(1L)).thenReturn(Collections.singletonList(1L));
+
+            // run
+            List<Long> result = categoryService.getLeafCategoriesIds(1L);
 
+            // assert
+            assertEquals(Collections.singletonList(1L), result);
+            verify(categoryTree, times(1)).rebuild();
+            verifyZeroInteractions(categoryDao);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package dev.a2.estore.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import dev.a2.estore.dao.CategoryDao;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import static org.mockito.Mockito.when;
+
+@DisplayName("Testing CategoryTree")
+@ExtendWith(MockitoExtension.class)
+class CategoryTreeTest {
+
+    @Mock
+    private CategoryDao categoryDao;
+
+    @InjectMocks
+    private CategoryTree categoryTree = new CategoryTreeImpl();
+
+    private List<Object[]> rows;
+
+    @BeforeEach
+    void buildTree() {
+        // 1 folder: 2 category, 3 folder: 5 category, 6 category; 4 empty folder
+        rows = new ArrayList<>();
+        rows.add(new Object[] {1L, "folder", null});
+        rows.add(new Object[] {2L, "category", 1L});
+        rows.add(new Object[] {3L, "folder", 1L});
+        rows.add(new Object[] {4L, "folder", null});
+        rows.add(new Object[] {6L, "category", 3L});
+        rows.add(new Object[] {5L, "category", 3L});
+        when(categoryDao.getCategoryTree()).thenReturn(rows);
+
+        categoryTree.rebuild();
+    }
+
+    @Nested
+    @DisplayName("Testing getLeafIds method")
+    class getLeafIdsTest {
+        @DisplayName("when a folder has nested folders then categories of all levels are returned in order of ids")
+        @Test
+        void getLeafIdsTest1() {
+            // assert
+            assertEquals(Arrays.asList(2L, 5L, 6L), categoryTree.getLeafIds(1L));
+        }
+
+        @DisplayName("when the id belongs to a category then the id itself is returned")
+        @Test
+        void getLeafIdsTest2() {
+            // assert
+            assertEquals(Collections.singletonList(2L), categoryTree.getLeafIds(2L));
+        }
+
+        @DisplayName("when a folder is empty or the id is unknown then an empty list is returned")
+        @Test
+        void getLeafIdsTest3() {
+            // assert
+            assertTrue(categoryTree.getLeafIds(4L).isEmpty());
+            assertTrue(categoryTree.getLeafIds(100L).isEmpty());
+        }
+    }
+
+    @Nested
+    @DisplayName("Testing rebuild method")
+    class rebuildTest {
+        @DisplayName("when a category is added then the new snapshot contains it and the version grows")
+        @Test
+        void rebuildTest1() {
+            // given
+            rows.add(new Object[] {7L, "category", 4L});
+
+            // run
+            categoryTree.rebuild();
+
+            // assert
+            assertEquals(2, categoryTree.getVersion());
+            assertEquals(Collections.singletonList(7L), categoryTree.getLeafIds(4L));
+        }
+    }
+
+}
@@ -0,0 +1,174 @@
+package dev.a2.estore.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import dev.a2.estore.dao.OrderDao;
+import dev.a2.estore.model.Order;
+import dev.a2.estore.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import static org.mockito.Mockito.when;
+
+@DisplayName("Testing ClientRanking")
+@ExtendWith(MockitoExtension.class)
+class ClientRankingTest {
+
+    @Mock
+    private OrderDao orderDao;
+
+    @InjectMocks
+    private ClientRanking clientRanking = new ClientRankingImpl();
+
+    @BeforeEach
+    void buildRanking() {
+        ReflectionTestUtils.setField(clientRanking, "capacity", 2);
+
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[] {1L, "First", "Client", new BigDecimal("50.00")});
+        rows.add(new Object[] {2L, "Second", "Client", new BigDecimal("30.00")});
+        rows.add(new Object[] {3L, "Third", "Client", new BigDecimal("20.00")});
+        when(orderDao.getOrdersSums(Integer.MAX_VALUE)).thenReturn(rows);
+
+        clientRanking.rebuild();
+    }
+
+    private Order order(final Long userId, final String amount) {
+        User user = new User();
+        user.setId(userId);
+        user.setFirstName("Client " + userId);
+        Order order = new Order();
+        order.setUser(user);
+        order.setTotalPurchasingPrice(new BigDecimal(amount));
+        return order;
+    }
+
+    @Nested
+    @DisplayName("Testing getTopClients method")
+    class getTopClientsTest {
+        @DisplayName("when the ranking is built then it is limited by its capacity")
+        @Test
+        void getTopClientsTest1() {
+            // run
+            List<User> result = clientRanking.getTopClients(10);
+
+            // assert
+            assertEquals(2, result.size());
+            assertEquals(Long.valueOf(1L), result.get(0).getId());
+            assertEquals(new BigDecimal("50.00"), result.get(0).getOrdersSum());
+            assertEquals(Long.valueOf(2L), result.get(1).getId());
+        }
+    }
+
+    @Nested
+    @DisplayName("Testing recordOrder method")
+    class recordOrderTest {
+        @DisplayName("when a client outside the top makes a big enough order then the client enters the top")
+        @Test
+        void recordOrderTest1() {
+            // run
+            clientRanking.recordOrder(order(3L, "40.00"));
+
+            // assert
+            List<User> result = clientRanking.getTopClients(10);
+            assertEquals(2, result.size());
+            assertEquals(Long.valueOf(3L), result.get(0).getId());
+            assertEquals(new BigDecimal("60.00"), result.get(0).getOrdersSum());
+            assertEquals(Long.valueOf(1L), result.get(1).getId());
+        }
+
+        @DisplayName("when a new client makes a small order then the top is not changed")
+        @Test
+        void recordOrderTest2() {
+            // run
+            clientRanking.recordOrder(order(4L, "10.00"));
+
+            // assert
+            List<User> result = clientRanking.getTopClients(10);
+            assertEquals(Long.valueOf(1L), result.get(0).getId());
+            assertEquals(Long.valueOf(2L), result.get(1).getId());
+        }
+
+        @DisplayName("when a rebuild starts after the order commits then the order is not added twice")
+        @Test
+        void recordOrderTest3() {
+            // given
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                clientRanking.recordOrder(order(3L, "40.00"));
+                List<TransactionSynchronization> synchronizations =
+                        TransactionSynchronizationManager.getSynchronizations();
+                synchronizations.forEach(synchronization -> synchronization.beforeCommit(false));
+
+                // run
+                clientRanking.rebuild();
+                synchronizations.forEach(TransactionSynchronization::afterCommit);
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+
+            // assert
+            List<User> result = clientRanking.getTopClients(10);
+            assertEquals(Long.valueOf(1L), result.get(0).getId());
+            assertEquals(Long.valueOf(2L), result.get(1).getId());
+        }
+
+        @DisplayName("when the order commits after a rebuild then the order is added")
+        @Test
+        void recordOrderTest4() {
+            // given
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                clientRanking.recordOrder(order(3L, "40.00"));
+                List<TransactionSynchronization> synchronizations =
+                        TransactionSynchronizationManager.getSynchronizations();
+
+                // run
+                clientRanking.rebuild();
+                synchronizations.forEach(synchronization -> synchronization.beforeCommit(false));
+                synchronizations.forEach(TransactionSynchronization::afterCommit);
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+
+            // assert
+            List<User> result = clientRanking.getTopClients(10);
+            assertEquals(Long.valueOf(3L), result.get(0).getId());
+            assertEquals(new BigDecimal("60.00"), result.get(0).getOrdersSum());
+        }
+    }
+
+    @Nested
+    @DisplayName("Testing refresh method")
+    class refreshTest {
+        @DisplayName("when a ranked client changes the name then the top shows the new name")
+        @Test
+        void refreshTest1() {
+            // given
+            User user = new User();
+            user.setId(1L);
+            user.setFirstName("Renamed");
+
+            // run
+            clientRanking.refresh(user);
+
+            // assert
+            assertEquals("Renamed", clientRanking.getTopClients(10).get(0).getFirstName());
+        }
+    }
+
+}
@@ -0,0 +1,224 @@
+package dev.a2.estore.service;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import dev.a2.estore.model.CompanyInfo;
+import dev.a2.estore.model.Order;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("Testing InvoiceQueue")
+@ExtendWith(MockitoExtension.class)
+class InvoiceQueueTest {
+
+    @Mock
+    private PdfService pdfService;
+
+    @Mock
+    private EmailService emailService;
+
+    @Mock
+    private CompanyInfo companyInfo;
+
+    @InjectMocks
+    private InvoiceQueueImpl invoiceQueue = new InvoiceQueueImpl(1, 1);
+
+    private final Order order = new Order();
+
+    private final File invoicePdfFile = new File("invoice.pdf");
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(invoiceQueue, "maxAttempts", 3);
+        ReflectionTestUtils.setField(invoiceQueue, "retryDelayMillis", 1L);
+        ReflectionTestUtils.setField(invoiceQueue, "shutdownTimeoutSeconds", 5L);
+        order.setId(1L);
+    }
+
+    @AfterEach
+    void shutdown() {
+        invoiceQueue.shutdown();
+    }
+
+    private void awaitNoPendingInvoices() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (invoiceQueue.getPendingInvoices() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    @Nested
+    @DisplayName("Testing enqueue method")
+    class enqueueTest {
+        @DisplayName("when an invoice is enqueued then it is created and sent in the background")
+        @Test
+        void enqueueTest1() throws Exception {
+            // given
+            List<String> threads = new CopyOnWriteArrayList<>();
+            when(pdfService.createInvoice(order)).thenAnswer(invocation -> {
+                threads.add(Thread.currentThread().getName());
+                return invoicePdfFile;
+            });
+
+            // run
+            invoiceQueue.enqueue(order, "user@mail.dev");
+
+            // assert
+            verify(emailService, timeout(5000)).sendInvoice(eq("user@mail.dev"), anyString(), eq(invoicePdfFile));
+            assertEquals("invoice-1", threads.get(0));
+        }
+
+        @DisplayName("when creating an invoice fails then it is retried")
+        @Test
+        void enqueueTest2() throws Exception {
+            // given
+            when(pdfService.createInvoice(order)).thenThrow(new IOException()).thenReturn(invoicePdfFile);
+
+            // run
+            invoiceQueue.enqueue(order, "user@mail.dev");
+
+            // assert
+            verify(emailService, timeout(5000)).sendInvoice(eq("user@mail.dev"), anyString(), eq(invoicePdfFile));
+            verify(pdfService, times(2)).createInvoice(order);
+        }
+
+        @DisplayName("when all attempts fail then the invoice is not sent")
+        @Test
+        void enqueueTest3() throws Exception {
+            // given
+            when(pdfService.createInvoice(order)).thenThrow(new IOException());
+
+            // run
+            invoiceQueue.enqueue(order, "user@mail.dev");
+
+            // assert
+            verify(pdfService, timeout(5000).times(3)).createInvoice(order);
+            awaitNoPendingInvoices();
+            assertEquals(0, invoiceQueue.getPendingInvoices());
+            verify(emailService, never()).sendInvoice(anyString(), anyString(), any(File.class));
+        }
+
+        @DisplayName("when a transaction is active then the invoice is queued after it commits")
+        @Test
+        void enqueueTest4() throws Exception {
+            // given
+            when(pdfService.createInvoice(order)).thenReturn(invoicePdfFile);
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                // run
+                invoiceQueue.enqueue(order, "user@mail.dev");
+
+                // assert
+                assertEquals(0, invoiceQueue.getPendingInvoices());
+                TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+            verify(emailService, timeout(5000)).sendInvoice(eq("user@mail.dev"), anyString(), eq(invoicePdfFile));
+        }
+
+        @DisplayName("when the queue is full then the invoice is created in the caller thread")
+        @Test
+        void enqueueTest5() throws Exception {
+            // given
+            CountDownLatch release = new CountDownLatch(1);
+            List<String> threads = new CopyOnWriteArrayList<>();
+            when(pdfService.createInvoice(order)).thenAnswer(invocation -> {
+                String thread = Thread.currentThread().getName();
+                threads.add(thread);
+                if (thread.startsWith("invoice-")) {
+                    release.await(5, TimeUnit.SECONDS);
+                }
+                return invoicePdfFile;
+            });
+            invoiceQueue.enqueue(order, "user@mail.dev");
+
+            // run
+            try {
+                invoiceQueue.enqueue(order, "user@mail.dev");
+            } finally {
+                release.countDown();
+            }
+
+            // assert
+            verify(emailService, timeout(5000).times(2))
+                    .sendInvoice(eq("user@mail.dev"), anyString(), eq(invoicePdfFile));
+            assertTrue(threads.contains(Thread.currentThread().getName()));
+        }
+    }
+
+    @Nested
+    @DisplayName("Testing shutdown method")
+    class shutdownTest {
+        @DisplayName("when an invoice is being created on shutdown then it is sent before the queue stops")
+        @Test
+        void shutdownTest1() throws Exception {
+            // given
+            CountDownLatch started = new CountDownLatch(1);
+            when(pdfService.createInvoice(order)).thenAnswer(invocation -> {
+                started.countDown();
+                Thread.sleep(200);
+                return invoicePdfFile;
+            });
+            invoiceQueue.enqueue(order, "user@mail.dev");
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            // run
+            invoiceQueue.shutdown();
+
+            // assert
+            verify(emailService, times(1)).sendInvoice(eq("user@mail.dev"), anyString(), eq(invoicePdfFile));
+            assertEquals(0, invoiceQueue.getPendingInvoices());
+        }
+
+        @DisplayName("when an attempt fails on shutdown then it is retried before the queue stops")
+        @Test
+        void shutdownTest2() throws Exception {
+            // given
+            CountDownLatch started = new CountDownLatch(1);
+            when(pdfService.createInvoice(order)).thenAnswer(invocation -> {
+                started.countDown();
+                Thread.sleep(200);
+                throw new IOException();
+            }).thenReturn(invoicePdfFile);
+            invoiceQueue.enqueue(order, "user@mail.dev");
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            // run
+            invoiceQueue.shutdown();
+
+            // assert
+            verify(pdfService, times(2)).createInvoice(order);
+            verify(emailService, times(1)).sendInvoice(eq("user@mail.dev"), anyString(), eq(invoicePdfFile));
+            assertEquals(0, invoiceQueue.getPendingInvoices());
+        }
+    }
+}
@@ -38,6 +38,7 @@ class MeasureUnitsServiceTest {
 
             // assert
             verify(measureUnitsDao, times(1)).save(any(MeasureUnits.class));
+            verify(measureUnitsDao, times(1)).evictCache();
         }
     }
 
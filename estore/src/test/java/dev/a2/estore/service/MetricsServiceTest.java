@@ -0,0 +1,112 @@
+package dev.a2.estore.service;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import dev.a2.estore.dao.QueryMonitor;
+import dev.a2.estore.dao.QueryStatistics;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import static org.mockito.Mockito.when;
+
+@DisplayName("Testing MetricsService")
+@ExtendWith(MockitoExtension.class)
+class MetricsServiceTest {
+
+    @Mock
+    private QueryMonitor queryMonitor;
+
+    @Mock
+    private SessionFactory sessionFactory;
+
+    @Mock
+    private Statistics statistics;
+
+    @Mock
+    private CacheService cacheService;
+
+    @InjectMocks
+    private MetricsService metricsService = new MetricsServiceImpl();
+
+    @BeforeEach
+    void stubSources() {
+        QueryStatistics query = new QueryStatistics();
+        query.record(TimeUnit.MILLISECONDS.toNanos(3), 10, false);
+        query.record(TimeUnit.MILLISECONDS.toNanos(700), 20, true);
+        Map<String, QueryStatistics> queries = new HashMap<>();
+        queries.put("OrderDao.findById", query);
+        when(queryMonitor.getStatistics()).thenReturn(queries);
+
+        when(sessionFactory.getStatistics()).thenReturn(statistics);
+        when(statistics.getQueryExecutionCount()).thenReturn(7L);
+
+        Map<String, Long> counts = new LinkedHashMap<>();
+        counts.put("hits", 3L);
+        counts.put("misses", 1L);
+        counts.put("puts", 1L);
+        Map<String, Map<String, Long>> cache = new HashMap<>();
+        cache.put("dev.a2.estore.model.Category", counts);
+        when(cacheService.getStatistics()).thenReturn(cache);
+    }
+
+    @Nested
+    @DisplayName("Testing getMetrics method")
+    class getMetricsTest {
+        @SuppressWarnings("unchecked")
+        @DisplayName("when metrics are collected then queries have percentiles and cache regions have hit ratios")
+        @Test
+        void getMetricsTest1() {
+            // run
+            Map<String, Object> result = metricsService.getMetrics();
+
+            // assert
+            Map<String, Object> query = (Map<String, Object>)
+                    ((Map<String, Object>) result.get("queries")).get("OrderDao.findById");
+            assertEquals(2L, query.get("count"));
+            assertEquals(30L, query.get("rows"));
+            assertEquals(1L, query.get("slow"));
+            assertEquals(5.0, query.get("p50Ms"));
+            assertEquals(1000.0, query.get("p99Ms"));
+            assertEquals(7L, ((Map<String, Object>) result.get("hibernate")).get("queryExecutions"));
+            Map<String, Object> region = (Map<String, Object>)
+                    ((Map<String, Object>) result.get("cache")).get("dev.a2.estore.model.Category");
+            assertEquals(0.75, region.get("hitRatio"));
+        }
+    }
+
+    @Nested
+    @DisplayName("Testing getPrometheusMetrics method")
+    class getPrometheusMetricsTest {
+        @DisplayName("when metrics are exported then the text has cumulative histogram buckets and counters")
+        @Test
+        void getPrometheusMetricsTest1() {
+            // run
+            String result = metricsService.getPrometheusMetrics();
+
+            // assert
+            assertTrue(result.contains("# TYPE estore_dao_query_seconds histogram\n"));
+            assertTrue(result.contains("estore_dao_query_seconds_bucket{query=\"OrderDao.findById\",le=\"0.005\"} 1\n"));
+            assertTrue(result.contains("estore_dao_query_seconds_bucket{query=\"OrderDao.findById\",le=\"+Inf\"} 2\n"));
+            assertTrue(result.contains("estore_dao_query_seconds_count{query=\"OrderDao.findById\"} 2\n"));
+            assertTrue(result.contains("estore_dao_query_rows_total{query=\"OrderDao.findById\"} 30\n"));
+            assertTrue(result.contains("estore_hibernate_query_executions_total 7\n"));
+            assertTrue(result.contains("estore_cache_hits_total{region=\"dev.a2.estore.model.Category\"} 3\n"));
+        }
+    }
+
+}
@@ -1,11 +1,14 @@
 package dev.a2.estore.service;
 
+import dev.a2.estore.dao.DailyRevenueDao;
 import dev.a2.estore.dao.OrderDao;
+import dev.a2.estore.dto.OrderPageDto;
 import dev.a2.estore.dto.OrderStatusDto;
 import dev.a2.estore.dto.RevenuePeriodDto;
 import dev.a2.estore.dto.SearchOrdersDto;
 import dev.a2.estore.exception.TimePeriodException;
 import dev.a2.estore.model.*;
+import org.hibernate.ScrollableResults;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -14,19 +17,26 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.time.YearMonth;
 import java.util.ArrayList;
 import java.util.List;
@@ -39,6 +49,21 @@ class OrderServiceTest {
     @Mock
     private OrderDao orderDao;
 
+    @Mock
+    private DailyRevenueDao dailyRevenueDao;
+
+    @Mock
+    private RevenueRollupService revenueRollupService;
+
+    @Mock
+    private ClientRanking clientRanking;
+
+    @Mock
+    private ReservationService reservationService;
+
+    @Mock
+    private ProductService productService;
+
     @InjectMocks
     private OrderService orderService = new OrderServiceImpl();
 
@@ -100,6 +125,44 @@ class OrderServiceTest {
             assertEquals(new BigDecimal(8.04).setScale(2, RoundingMode.HALF_EVEN),
                     order.getTotalSellingPrice());
             verify(orderDao, times(1)).save(any(Order.class));
+            verify(revenueRollupService, times(1)).addOrder(order);
+            verify(clientRanking, times(1)).recordOrder(order);
+        }
+    }
+
+    @Nested
+    @DisplayName("Testing checkout method")
+    class checkoutTest {
+        @DisplayName("when the reserve is live then the products are sold and the order is saved")
+        @Test
+        void checkoutTest1() {
+            // given
+            Order order = new Order();
+            when(reservationService.complete("reservation")).thenReturn(true);
+
+            // run
+            boolean result = orderService.checkout(order, "reservation");
+
+            // assert
+            assertTrue(result);
+            verify(productService, times(1)).buyProducts(order.getOrderProducts());
+            verify(orderDao, times(1)).save(order);
+        }
+
+        @DisplayName("when the reserve is not live then nothing is sold or saved")
+        @Test
+        void checkoutTest2() {
+            // given
+            Order order = new Order();
+            when(reservationService.complete("reservation")).thenReturn(false);
+
+            // run
+            boolean result = orderService.checkout(order, "reservation");
+
+            // assert
+            assertFalse(result);
+            verify(productService, never()).buyProducts(any());
+            verify(orderDao, never()).save(any(Order.class));
         }
     }
 
@@ -117,7 +180,49 @@ class OrderServiceTest {
             orderService.findOrdersByCriteria(searchOrdersDto);
 
             //assert
-            verify(orderDao, times(1)).findOrdersByCriteria(searchOrdersDto);
+            verify(orderDao, times(1)).findOrdersByCriteria(eq(searchOrdersDto), anyInt(), anyInt());
+        }
+
+        @DisplayName("when the dao returns more orders than the page size " +
+                "then the page is trimmed and marked as having a next page")
+        @Test
+        void getAllOrdersTest2() {
+            // given
+            ReflectionTestUtils.setField(orderService, "ordersPageSize", 2);
+            SearchOrdersDto searchOrdersDto = new SearchOrdersDto();
+            searchOrdersDto.setPage(3);
+            List<Order> orders = new ArrayList<>();
+            orders.add(new Order());
+            orders.add(new Order());
+            orders.add(new Order());
+            when(orderDao.findOrdersByCriteria(searchOrdersDto, 2, 3)).thenReturn(orders);
+
+            // run
+            OrderPageDto page = orderService.findOrdersByCriteria(searchOrdersDto);
+
+            //assert
+            assertEquals(2, page.getOrders().size());
+            assertEquals(3, page.getPage());
+            assertTrue(page.isHasNextPage());
+        }
+
+        @DisplayName("when the dao returns no more orders than the page size " +
+                "then the page has no next page")
+        @Test
+        void getAllOrdersTest3() {
+            // given
+            ReflectionTestUtils.setField(orderService, "ordersPageSize", 2);
+            SearchOrdersDto searchOrdersDto = new SearchOrdersDto();
+            List<Order> orders = new ArrayList<>();
+            orders.add(new Order());
+            when(orderDao.findOrdersByCriteria(searchOrdersDto, 2, 3)).thenReturn(orders);
+
+            // run
+            OrderPageDto page = orderService.findOrdersByCriteria(searchOrdersDto);
+
+            //assert
+            assertEquals(1, page.getOrders().size());
+            assertFalse(page.isHasNextPage());
         }
     }
 
@@ -157,6 +262,32 @@ class OrderServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("Testing writeOrderProducts method")
+    class writeOrderProductsTest {
+        @DisplayName("when an order has products " +
+                "then they are written as a JSON array of string properties and the cursor gets closed")
+        @Test
+        void writeOrderProductsTest1() throws Exception {
+            // given
+            ScrollableResults rows = mock(ScrollableResults.class);
+            when(rows.next()).thenReturn(true, false);
+            when(rows.get()).thenReturn(new Object[] {5L, "Phone", "/img/5.jpg", new BigDecimal("2.50"),
+                    new BigDecimal("2.00"), 3, "pcs"});
+            when(orderDao.scrollOrderProductRows(eq(1L), anyInt())).thenReturn(rows);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+            // run
+            orderService.writeOrderProducts(1L, out);
+
+            // assert
+            assertEquals("[{\"id\":\"5\",\"name\":\"Phone\",\"imageUrl\":\"/img/5.jpg\",\"price\":\"2.00\"," +
+                            "\"quantity\":\"3\",\"units\":\"pcs\",\"amount\":\"7.50\"}]",
+                    out.toString("UTF-8"));
+            verify(rows, times(1)).close();
+        }
+    }
+
     @Nested
     @DisplayName("Testing updateOrderStatus method")
     class updateOrderStatusTest {
@@ -190,55 +321,15 @@ class OrderServiceTest {
         @Test
         void getMonthlyRevenuesTest1() {
             // given
-            Price price = new Price();
-            price.setPrice(new BigDecimal(1));
-            List<Price> prices = new ArrayList<>();
-            prices.add(price);
-
-            // order product 1
-            Product product1 = new Product();
-            product1.setPurchasingPrices(prices);
-            product1.setSellingPrice(new BigDecimal(2));
-
-            OrderProductPK orderProductPK1 = new OrderProductPK();
-            orderProductPK1.setProduct(product1);
-
-            OrderProduct orderProduct1 = new OrderProduct();
-            orderProduct1.setPk(orderProductPK1);
-            orderProduct1.setQuantity(2);
-
-            // order product 2
-            Product product2 = new Product();
-            product2.setPurchasingPrices(prices);
-            product2.setSellingPrice(new BigDecimal(2));
-
-            OrderProductPK orderProductPK2 = new OrderProductPK();
-            orderProductPK2.setProduct(product2);
-
-            OrderProduct orderProduct2 = new OrderProduct();
-            orderProduct2.setPk(orderProductPK2);
-            orderProduct2.setQuantity(2);
-
-            List<OrderProduct> orderProducts = new ArrayList<>();
-            orderProducts.add(orderProduct1);
-            orderProducts.add(orderProduct2);
-
-            Order order = new Order();
-            order.setOrderProducts(orderProducts);
-            order.setCreationDateTime(LocalDateTime.now());
-            order.setTotalPurchasingPrice(new BigDecimal(20));
-            order.setTotalSellingPrice(new BigDecimal(25));
-
-            List<Order> orders = new ArrayList<>();
-            orders.add(order);
+            List<DailyRevenue> dailyRevenues = new ArrayList<>();
+            dailyRevenues.add(new DailyRevenue(LocalDate.now(), new BigDecimal(25), new BigDecimal(20), 1));
 
             RevenuePeriodDto revenuePeriodDto = new RevenuePeriodDto();
             revenuePeriodDto.setStart(LocalDate.parse("2019-01-01"));
             revenuePeriodDto.setEnd(LocalDate.now());
             revenuePeriodDto.setInterval("month");
 
-            when(orderDao.getOrdersByTimePeroid(any(LocalDateTime.class), any(LocalDateTime.class)))
-                    .thenReturn(orders);
+            when(dailyRevenueDao.findByPeriod(any(LocalDate.class), any(LocalDate.class))).thenReturn(dailyRevenues);
 
             // run
             Map<YearMonth, BigDecimal> result = orderService.getMonthlyRevenues(revenuePeriodDto);
@@ -275,55 +366,15 @@ class OrderServiceTest {
         @Test
         void getMonthlyRevenuesTest2() {
             // given
-            Price price = new Price();
-            price.setPrice(new BigDecimal(1));
-            List<Price> prices = new ArrayList<>();
-            prices.add(price);
-
-            // order product 1
-            Product product1 = new Product();
-            product1.setPurchasingPrices(prices);
-            product1.setSellingPrice(new BigDecimal(2));
-
-            OrderProductPK orderProductPK1 = new OrderProductPK();
-            orderProductPK1.setProduct(product1);
-
-            OrderProduct orderProduct1 = new OrderProduct();
-            orderProduct1.setPk(orderProductPK1);
-            orderProduct1.setQuantity(2);
-
-            // order product 2
-            Product product2 = new Product();
-            product2.setPurchasingPrices(prices);
-            product1.setSellingPrice(new BigDecimal(2));
-
-            OrderProductPK orderProductPK2 = new OrderProductPK();
-            orderProductPK2.setProduct(product2);
-
-            OrderProduct orderProduct2 = new OrderProduct();
-            orderProduct2.setPk(orderProductPK2);
-            orderProduct2.setQuantity(2);
-
-            List<OrderProduct> orderProducts = new ArrayList<>();
-            orderProducts.add(orderProduct1);
-            orderProducts.add(orderProduct2);
-
-            Order order = new Order();
-            order.setOrderProducts(orderProducts);
-            order.setCreationDateTime(LocalDateTime.now());
-            order.setTotalPurchasingPrice(new BigDecimal(20));
-            order.setTotalSellingPrice(new BigDecimal(25));
-
-            List<Order> orders = new ArrayList<>();
-            orders.add(order);
+            List<DailyRevenue> dailyRevenues = new ArrayList<>();
+            dailyRevenues.add(new DailyRevenue(LocalDate.now(), new BigDecimal(25), new BigDecimal(20), 1));
 
             RevenuePeriodDto revenuePeriodDto = new RevenuePeriodDto();
             revenuePeriodDto.setStart(LocalDate.parse("2019-01-01"));
             revenuePeriodDto.setEnd(LocalDate.now());
             revenuePeriodDto.setInterval("month");
 
-            when(orderDao.getOrdersByTimePeroid(any(LocalDateTime.class), any(LocalDateTime.class)))
-                    .thenReturn(orders);
+            when(dailyRevenueDao.findByPeriod(any(LocalDate.class), any(LocalDate.class))).thenReturn(dailyRevenues);
 
             // run
             Map<LocalDate, BigDecimal> result = orderService.getWeeklyRevenues(revenuePeriodDto);
@@ -0,0 +1,206 @@
+package dev.a2.estore.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import dev.a2.estore.dto.PriceListImportJobDto;
+import dev.a2.estore.dto.PriceListImportResultDto;
+import dev.a2.estore.dto.PriceListImportStatus;
+import dev.a2.estore.exception.PriceListImportException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("Testing PriceListImportJobService")
+@ExtendWith(MockitoExtension.class)
+class PriceListImportJobServiceTest {
+
+    @Mock
+    private PriceListImportService priceListImportService;
+
+    @InjectMocks
+    private PriceListImportJobServiceImpl priceListImportJobService = new PriceListImportJobServiceImpl(1, 1);
+
+    @BeforeEach
+    void setKeptJobs() {
+        ReflectionTestUtils.setField(priceListImportJobService, "keptJobs", 10);
+    }
+
+    @AfterEach
+    void shutdown() {
+        priceListImportJobService.shutdown();
+    }
+
+    private static MockMultipartFile createPriceList() {
+        return new MockMultipartFile("priceList", "price-list.csv", "application/vnd.ms-excel",
+                "\"ID\",\"Name\"\n".getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static PriceListImportResultDto createResult(final long created, final long failed) {
+        PriceListImportResultDto result = new PriceListImportResultDto();
+        result.setCreated(created);
+        result.setFailed(failed);
+        return result;
+    }
+
+    private PriceListImportJobDto awaitStatus(final String jobId, final PriceListImportStatus status)
+            throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        PriceListImportJobDto job = priceListImportJobService.getJob(jobId);
+        while (job.getStatus() != status && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            job = priceListImportJobService.getJob(jobId);
+        }
+        return job;
+    }
+
+    @Nested
+    @DisplayName("Testing submit method")
+    class submitTest {
+        @DisplayName("when a price list is submitted then it is imported in the background")
+        @Test
+        void submitTest1() throws IOException, InterruptedException {
+            // given
+            when(priceListImportService.importPriceList(any(InputStream.class), any(PriceListImportListener.class)))
+                    .thenReturn(createResult(2, 1));
+
+            // run
+            PriceListImportJobDto submitted = priceListImportJobService.submit(createPriceList());
+
+            // assert
+            assertEquals("price-list.csv", submitted.getFileName());
+            PriceListImportJobDto job = awaitStatus(submitted.getId(), PriceListImportStatus.COMPLETED);
+            assertEquals(PriceListImportStatus.COMPLETED, job.getStatus());
+            assertEquals(3, job.getRowsProcessed());
+            assertEquals(2, job.getCreated());
+            assertEquals(1, job.getFailed());
+            assertTrue(job.getFinishedAt() >= job.getStartedAt());
+        }
+
+        @DisplayName("when an import fails then the job is failed with the error")
+        @Test
+        void submitTest2() throws IOException, InterruptedException {
+            // given
+            when(priceListImportService.importPriceList(any(InputStream.class), any(PriceListImportListener.class)))
+                    .thenThrow(new PriceListImportException("The price list is empty."));
+
+            // run
+            PriceListImportJobDto submitted = priceListImportJobService.submit(createPriceList());
+
+            // assert
+            PriceListImportJobDto job = awaitStatus(submitted.getId(), PriceListImportStatus.FAILED);
+            assertEquals(PriceListImportStatus.FAILED, job.getStatus());
+            assertEquals("The price list is empty.", job.getError());
+        }
+
+        @DisplayName("when the worker is busy and the queue is full then exception PriceListImportException is thrown")
+        @Test
+        void submitTest3() throws IOException {
+            // given
+            CountDownLatch release = new CountDownLatch(1);
+            when(priceListImportService.importPriceList(any(InputStream.class), any(PriceListImportListener.class)))
+                    .thenAnswer(invocation -> {
+                        release.await(5, TimeUnit.SECONDS);
+                        return createResult(0, 0);
+                    });
+            priceListImportJobService.submit(createPriceList());
+            priceListImportJobService.submit(createPriceList());
+
+            // run and assert
+            try {
+                assertThrows(PriceListImportException.class,
+                        () -> priceListImportJobService.submit(createPriceList()));
+            } finally {
+                release.countDown();
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Testing cancel method")
+    class cancelTest {
+        @DisplayName("when a queued job is cancelled then it never runs")
+        @Test
+        void cancelTest1() throws IOException, InterruptedException {
+            // given
+            CountDownLatch release = new CountDownLatch(1);
+            when(priceListImportService.importPriceList(any(InputStream.class), any(PriceListImportListener.class)))
+                    .thenAnswer(invocation -> {
+                        release.await(5, TimeUnit.SECONDS);
+                        return createResult(1, 0);
+                    });
+            PriceListImportJobDto running = priceListImportJobService.submit(createPriceList());
+            PriceListImportJobDto queued = priceListImportJobService.submit(createPriceList());
+
+            // run
+            boolean result = priceListImportJobService.cancel(queued.getId());
+            release.countDown();
+
+            // assert
+            assertTrue(result);
+            assertEquals(PriceListImportStatus.CANCELLED, priceListImportJobService.getJob(queued.getId()).getStatus());
+            awaitStatus(running.getId(), PriceListImportStatus.COMPLETED);
+            verify(priceListImportService, times(1))
+                    .importPriceList(any(InputStream.class), any(PriceListImportListener.class));
+        }
+
+        @DisplayName("when a running job is cancelled then the import is asked to stop")
+        @Test
+        void cancelTest2() throws IOException, InterruptedException {
+            // given
+            CountDownLatch started = new CountDownLatch(1);
+            when(priceListImportService.importPriceList(any(InputStream.class), any(PriceListImportListener.class)))
+                    .thenAnswer(invocation -> {
+                        PriceListImportListener listener = invocation.getArgument(1);
+                        started.countDown();
+                        long deadline = System.currentTimeMillis() + 5000;
+                        while (!listener.isCancelled() && System.currentTimeMillis() < deadline) {
+                            Thread.sleep(10);
+                        }
+                        return createResult(1, 0);
+                    });
+            PriceListImportJobDto submitted = priceListImportJobService.submit(createPriceList());
+            started.await(5, TimeUnit.SECONDS);
+
+            // run
+            boolean result = priceListImportJobService.cancel(submitted.getId());
+
+            // assert
+            assertTrue(result);
+            PriceListImportJobDto job = awaitStatus(submitted.getId(), PriceListImportStatus.CANCELLED);
+            assertEquals(PriceListImportStatus.CANCELLED, job.getStatus());
+            assertEquals(1, job.getCreated());
+        }
+
+        @DisplayName("when a job is not found then false is returned")
+        @Test
+        void cancelTest3() {
+            // run and assert
+            assertFalse(priceListImportJobService.cancel("unknown"));
+            assertNull(priceListImportJobService.getJob("unknown"));
+        }
+    }
+}
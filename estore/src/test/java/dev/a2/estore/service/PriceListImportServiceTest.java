@@ -0,0 +1,349 @@
+package dev.a2.estore.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import dev.a2.estore.dao.ProductDao;
+import dev.a2.estore.dto.PriceListImportResultDto;
+import dev.a2.estore.exception.PriceListImportException;
+import dev.a2.estore.model.Category;
+import dev.a2.estore.model.MeasureUnits;
+import dev.a2.estore.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("Testing PriceListImportService")
+@ExtendWith(MockitoExtension.class)
+class PriceListImportServiceTest {
+
+    private static final String HEADER = "\"ID\",\"Name\",\"Purchasing price\",\"Selling price\",\"Weight\","
+            + "\"Height\",\"Width\",\"Depth\",\"Quantity in stock\",\"Image url\",\"Measure units id\",\"Category id\"";
+
+    @Mock
+    private ProductDao productDao;
+
+    @Mock
+    private CategoryService categoryService;
+
+    @Mock
+    private MeasureUnitsService measureUnitsService;
+
+    @Mock
+    private ProductSearchIndex productSearchIndex;
+
+    @Mock
+    private AttributeFacetIndex attributeFacetIndex;
+
+    @Mock
+    private SalesRanking salesRanking;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private PriceListImportService priceListImportService = new PriceListImportServiceImpl();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(priceListImportService, "chunkSize", 2);
+        ReflectionTestUtils.setField(priceListImportService, "maxErrors", 10);
+
+        Category category = new Category();
+        category.setId(1L);
+        when(categoryService.getAllCategories()).thenReturn(Collections.singletonList(category));
+
+        MeasureUnits measureUnits = new MeasureUnits();
+        measureUnits.setId(1L);
+        when(measureUnitsService.getAllMeasureUnits()).thenReturn(Collections.singletonList(measureUnits));
+    }
+
+    private static InputStream createPriceList(final String... rows) {
+        String priceList = HEADER + "\n" + String.join("\n", rows) + "\n";
+        return new ByteArrayInputStream(priceList.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Object[] createState(final String purchasingPrice, final String imageUrl, final String name) {
+        return new Object[]{1L, new BigDecimal(purchasingPrice), imageUrl, name, new BigDecimal("2.00"),
+                1.0, 1.0, 1.0, 1.0, 10, 1L, 1L};
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArgumentCaptor<List<Product>> createProductsCaptor() {
+        return ArgumentCaptor.forClass(List.class);
+    }
+
+    @Nested
+    @DisplayName("Testing importPriceList method")
+    class importPriceListTest {
+        @DisplayName("when a row has no id then a product is inserted with its purchasing price")
+        @Test
+        void importPriceListTest1() throws IOException {
+            // given
+            InputStream priceList = createPriceList("\"\",\"Bolt\",\"1.5\",\"2\",\"1\",\"1\",\"1\",\"1\",\"10\",\"\",\"1\",\"1\"");
+            ArgumentCaptor<List<Product>> captor = createProductsCaptor();
+
+            // run
+            PriceListImportResultDto result = priceListImportService.importPriceList(priceList);
+
+            // assert
+            verify(productDao).insertProducts(captor.capture());
+            Product product = captor.getValue().get(0);
+            assertEquals("Bolt", product.getName());
+            assertEquals(new BigDecimal("1.50"), product.getRecentPurchasingPrice());
+            assertEquals(new BigDecimal("2.00"), product.getSellingPrice());
+            assertEquals(1L, (long) product.getCategory().getId());
+            assertEquals(1, result.getCreated());
+            assertEquals(0, result.getFailed());
+            verify(productDao, never()).updateProducts(anyList());
+            verify(productSearchIndex).index(product);
+        }
+
+        @DisplayName("when a row has an id and a new purchasing price then the product is updated with the price")
+        @Test
+        void importPriceListTest2() throws IOException {
+            // given
+            InputStream priceList = createPriceList("\"1\",\"Bolt\",\"1.5\",\"2\",\"1\",\"1\",\"1\",\"1\",\"10\",\"\",\"1\",\"1\"");
+            when(productDao.getPriceListState(anyList())).thenReturn(Collections.singletonList(
+                    createState("1.00", "/resources/img/bolt.png", "Bolt")));
+            ArgumentCaptor<List<Product>> captor = createProductsCaptor();
+
+            // run
+            PriceListImportResultDto result = priceListImportService.importPriceList(priceList);
+
+            // assert
+            verify(productDao).updateProducts(captor.capture());
+            Product product = captor.getValue().get(0);
+            assertEquals(1L, (long) product.getId());
+            assertEquals(1, product.getPurchasingPrices().size());
+            assertEquals("/resources/img/bolt.png", product.getImageUrl());
+            assertEquals(1, result.getUpdated());
+            assertEquals(1, result.getPricesChanged());
+            verify(productDao, never()).insertProducts(anyList());
+            verify(salesRanking).refresh(product);
+        }
+
+        @DisplayName("when a row has an id, a new name and the same purchasing price then no price is added")
+        @Test
+        void importPriceListTest3() throws IOException {
+            // given
+            InputStream priceList = createPriceList("\"1\",\"Bolt\",\"1.5\",\"2\",\"1\",\"1\",\"1\",\"1\",\"10\",\"\",\"1\",\"1\"");
+            when(productDao.getPriceListState(anyList())).thenReturn(Collections.singletonList(
+                    createState("1.50", null, "Screw")));
+            ArgumentCaptor<List<Product>> captor = createProductsCaptor();
+
+            // run
+            PriceListImportResultDto result = priceListImportService.importPriceList(priceList);
+
+            // assert
+            verify(productDao).updateProducts(captor.capture());
+            assertTrue(captor.getValue().get(0).getPurchasingPrices().isEmpty());
+            assertEquals(1, result.getUpdated());
+            assertEquals(0, result.getPricesChanged());
+        }
+
+        @DisplayName("when one of the values is invalid then the row is reported and nothing is saved")
+        @Test
+        void importPriceListTest4() throws IOException {
+            // given
+            InputStream priceList = createPriceList("\"1\",\"Bolt\",\"1.5\",\"2\",\"\",\"1\",\"1\",\"1\",\"10\",\"\",\"1\",\"1\"");
+
+            // run
+            PriceListImportResultDto result = priceListImportService.importPriceList(priceList);
+
+            // assert
+            assertEquals(1, result.getFailed());
+            assertTrue(result.getErrors().get(0).startsWith("Row 1: weight"));
+            verify(productDao, never()).getPriceListState(anyList());
+            verify(productDao, never()).updateProducts(anyList());
+        }
+
+        @DisplayName("when one of the values is missing then the row is reported and nothing is saved")
+        @Test
+        void importPriceListTest5() throws IOException {
+            // given
+            InputStream priceList = createPriceList("\"1\",\"Bolt\",\"1.5\",\"2\",\"1\",\"1\",\"1\",\"10\",\"\",\"1\",\"1\"");
+
+            // run
+            PriceListImportResultDto result = priceListImportService.importPriceList(priceList);
+
+            // assert
+            assertEquals(1, result.getFailed());
+            assertEquals("Row 1: The row has 11 values instead of 12.", result.getErrors().get(0));
+            verify(productDao, never()).updateProducts(anyList());
+        }
+
+        @DisplayName("when a value is not a number then the row is reported")
+        @Test
+        void importPriceListTest6() throws IOException {
+            // given
+            InputStream priceList = createPriceList("\"\",\"Bolt\",\"abc\",\"2\",\"1\",\"1\",\"1\",\"1\",\"10\",\"\",\"1\",\"1\"");
+
+            // run
+            PriceListImportResultDto result = priceListImportService.importPriceList(priceList);
+
+            // assert
+            assertEquals("Row 1: The value of 'Purchasing price' is not a number.", result.getErrors().get(0));
+            verify(productDao, never()).insertProducts(anyList());
+        }
+
+        @DisplayName("when a category does not exist then the row is reported and valid rows are saved")
+        @Test
+        void importPriceListTest7() throws IOException {
+            // given
+            InputStream priceList = createPriceList(
+                    "\"\",\"Bolt\",\"1.5\",\"2\",\"1\",\"1\",\"1\",\"1\",\"10\",\"\",\"1\",\"2\"",
+                    "\"\",\"Nut\",\"0.5\",\"1\",\"1\",\"1\",\"1\",\"1\",\"10\",\"\",\"1\",\"1\"");
+
+            // run
+            PriceListImportResultDto result = priceListImportService.importPriceList(priceList);
+
+            // assert
+            assertEquals(1, result.getCreated());
+            assertEquals(1, result.getFailed());
+            assertEquals("Row 1: Category 2 is not found.", result.getErrors().get(0));
+        }
+
+        @DisplayName("when a product with the id does not exist then the row is reported")
+        @Test
+        void importPriceListTest8() throws IOException {
+            // given
+            InputStream priceList = createPriceList("\"5\",\"Bolt\",\"1.5\",\"2\",\"1\",\"1\",\"1\",\"1\",\"10\",\"\",\"1\",\"1\"");
+            when(productDao.getPriceListState(anyList())).thenReturn(Collections.emptyList());
+
+            // run
+            PriceListImportResultDto result = priceListImportService.importPriceList(priceList);
+
+            // assert
+            assertEquals(1, result.getFailed());
+            assertEquals("Row 1: Product 5 is not found.", result.getErrors().get(0));
+            verify(productDao, never()).updateProducts(anyList());
+        }
+
+        @DisplayName("when there are more rows than the chunk size then rows are saved in several chunks")
+        @Test
+        void importPriceListTest9() throws IOException {
+            // given
+            InputStream priceList = createPriceList(
+                    "\"\",\"Bolt\",\"1.5\",\"2\",\"1\",\"1\",\"1\",\"1\",\"10\",\"\",\"1\",\"1\"",
+                    "\"\",\"Nut\",\"0.5\",\"1\",\"1\",\"1\",\"1\",\"1\",\"10\",\"\",\"1\",\"1\"",
+                    "\"\",\"Washer\",\"0.1\",\"0.2\",\"1\",\"1\",\"1\",\"1\",\"10\",\"\",\"1\",\"1\"");
+
+            // run
+            PriceListImportResultDto result = priceListImportService.importPriceList(priceList);
+
+            // assert
+            assertEquals(3, result.getCreated());
+            verify(productDao, times(2)).insertProducts(anyList());
+        }
+
+        @DisplayName("when a chunk cannot be saved then its rows are reported and the next chunk is saved")
+        @Test
+        void importPriceListTest10() throws IOException {
+            // given
+            InputStream priceList = createPriceList(
+                    "\"\",\"Bolt\",\"1.5\",\"2\",\"1\",\"1\",\"1\",\"1\",\"10\",\"\",\"1\",\"1\"",
+                    "\"\",\"Nut\",\"0.5\",\"1\",\"1\",\"1\",\"1\",\"1\",\"10\",\"\",\"1\",\"1\"",
+                    "\"\",\"Washer\",\"0.1\",\"0.2\",\"1\",\"1\",\"1\",\"1\",\"10\",\"\",\"1\",\"1\"");
+            doThrow(new RuntimeException()).doNothing().when(productDao).insertProducts(anyList());
+
+            // run
+            PriceListImportResultDto result = priceListImportService.importPriceList(priceList);
+
+            // assert
+            assertEquals(1, result.getCreated());
+            assertEquals(2, result.getFailed());
+            assertEquals("Row 2: The row has not been saved.", result.getErrors().get(1));
+            verify(transactionManager).rollback(any());
+        }
+
+        @DisplayName("when the listener is cancelled after a chunk then the next chunks are not imported")
+        @Test
+        void importPriceListTest12() throws IOException {
+            // given
+            InputStream priceList = createPriceList(
+                    "\"\",\"Bolt\",\"1.5\",\"2\",\"1\",\"1\",\"1\",\"1\",\"10\",\"\",\"1\",\"1\"",
+                    "\"\",\"Nut\",\"0.5\",\"1\",\"1\",\"1\",\"1\",\"1\",\"10\",\"\",\"1\",\"1\"",
+                    "\"\",\"Washer\",\"0.1\",\"0.2\",\"1\",\"1\",\"1\",\"1\",\"10\",\"\",\"1\",\"1\"");
+            List<Long> progress = new ArrayList<>();
+            PriceListImportListener listener = new PriceListImportListener() {
+                @Override
+                public void onChunkProcessed(final PriceListImportResultDto result) {
+                    progress.add(result.getCreated());
+                }
+
+                @Override
+                public boolean isCancelled() {
+                    return !progress.isEmpty();
+                }
+            };
+
+            // run
+            PriceListImportResultDto result = priceListImportService.importPriceList(priceList, listener);
+
+            // assert
+            assertEquals(2, result.getCreated());
+            assertEquals(Collections.singletonList(2L), progress);
+            verify(productDao, times(1)).insertProducts(anyList());
+        }
+
+        @DisplayName("when a required column is missing then exception PriceListImportException is thrown")
+        @Test
+        void importPriceListTest11() {
+            // given
+            InputStream priceList = new ByteArrayInputStream("\"ID\",\"Name\"\n\"\",\"Bolt\"\n"
+                    .getBytes(StandardCharsets.UTF_8));
+
+            // run and assert
+            assertThrows(PriceListImportException.class, () -> priceListImportService.importPriceList(priceList));
+            verify(productDao, never()).insertProducts(anyList());
+        }
+
+        @DisplayName("when a row equals the stored product then the product is not written")
+        @Test
+        void importPriceListTest13() throws IOException {
+            // given
+            InputStream priceList = createPriceList("\"1\",\"Bolt\",\"1.5\",\"2\",\"1\",\"1\",\"1\",\"1\",\"10\",\"\",\"1\",\"1\"");
+            when(productDao.getPriceListState(anyList())).thenReturn(Collections.singletonList(
+                    createState("1.50", "/resources/img/bolt.png", "Bolt")));
+
+            // run
+            PriceListImportResultDto result = priceListImportService.importPriceList(priceList);
+
+            // assert
+            assertEquals(1, result.getUnchanged());
+            assertEquals(0, result.getUpdated());
+            verify(productDao, never()).updateProducts(anyList());
+            verify(productSearchIndex, never()).index(any(Product.class));
+            verify(salesRanking, never()).refresh(any(Product.class));
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package dev.a2.estore.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import dev.a2.estore.dao.ProductDao;
+import dev.a2.estore.model.Category;
+import dev.a2.estore.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import static org.mockito.Mockito.when;
+
+@DisplayName("Testing ProductSearchIndex")
+@ExtendWith(MockitoExtension.class)
+class ProductSearchIndexTest {
+
+    @Mock
+    private ProductDao productDao;
+
+    @InjectMocks
+    private ProductSearchIndex productSearchIndex = new ProductSearchIndexImpl();
+
+    @BeforeEach
+    void buildIndex() {
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[] {1L, "Apple iPhone XS", 2L});
+        rows.add(new Object[] {2L, "Samsung Galaxy S10", 2L});
+        rows.add(new Object[] {3L, "Apple MacBook Pro", 3L});
+        when(productDao.getProductNames()).thenReturn(rows);
+        productSearchIndex.rebuild();
+    }
+
+    @Nested
+    @DisplayName("Testing search method")
+    class searchTest {
+        @DisplayName("when the input is a part of product names then ids of these products are returned")
+        @Test
+        void searchTest1() {
+            // run
+            List<Long> result = productSearchIndex.search("APPLE", null);
+
+            // assert
+            assertTrue(productSearchIndex.isReady());
+            assertEquals(2, result.size());
+            assertTrue(result.containsAll(Arrays.asList(1L, 3L)));
+        }
+
+        @DisplayName("when the input is shorter than a trigram then product names are scanned")
+        @Test
+        void searchTest2() {
+            // run
+            List<Long> result = productSearchIndex.search("S1", null);
+
+            // assert
+            assertEquals(Collections.singletonList(2L), result);
+        }
+
+        @DisplayName("when categories are given then only products of these categories are returned")
+        @Test
+        void searchTest3() {
+            // run
+            List<Long> result = productSearchIndex.search("apple", Collections.singletonList(3L));
+
+            // assert
+            assertEquals(Collections.singletonList(3L), result);
+        }
+
+        @DisplayName("when all trigrams of the input are present but not in a row then nothing is returned")
+        @Test
+        void searchTest4() {
+            // run
+            List<Long> result = productSearchIndex.search("galaxy apple", null);
+
+            // assert
+            assertTrue(result.isEmpty());
+        }
+    }
+
+    @Nested
+    @DisplayName("Testing index method")
+    class indexTest {
+        @DisplayName("when a product is renamed then it is found only by its new name")
+        @Test
+        void indexTest1() {
+            // given
+            Category category = new Category();
+            category.setId(2L);
+            Product product = new Product();
+            product.setId(2L);
+            product.setName("Samsung Note 10");
+            product.setCategory(category);
+
+            // run
+            productSearchIndex.index(product);
+
+            // assert
+            assertFalse(productSearchIndex.search("galaxy", null).contains(2L));
+            assertEquals(Collections.singletonList(2L), productSearchIndex.search("note", null));
+        }
+
+        @DisplayName("when a new product is indexed then it is found")
+        @Test
+        void indexTest2() {
+            // given
+            Product product = new Product();
+            product.setId(4L);
+            product.setName("Apple Watch");
+
+            // run
+            productSearchIndex.index(product);
+
+            // assert
+            assertEquals(3, productSearchIndex.search("apple", null).size());
+        }
+    }
+
+}
@@ -1,23 +1,21 @@
 package dev.a2.estore.service;
 
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileWriter;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.util.*;
 
-import com.opencsv.CSVWriter;
 import dev.a2.estore.dao.ProductDao;
 import dev.a2.estore.dao.UserDao;
 import dev.a2.estore.dto.*;
 
-import dev.a2.estore.exception.PriceListImportException;
-import dev.a2.estore.exception.ProductReserveException;
+import dev.a2.estore.exception.InvalidCursorException;
 import dev.a2.estore.model.*;
-import org.apache.commons.io.IOUtils;
+import org.hibernate.ScrollableResults;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -26,6 +24,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -36,11 +35,9 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
-import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.web.multipart.MultipartFile;
 
 @DisplayName("Testing ProductService")
 @ExtendWith(MockitoExtension.class)
@@ -61,9 +58,26 @@ class ProductServiceTest {
     @Mock
     private JmsService jmsService;
 
+    @Mock
+    private ProductSearchIndex productSearchIndex;
+
+    @Mock
+    private AttributeFacetIndex attributeFacetIndex;
+
+    @Mock
+    private SalesRanking salesRanking;
+
+    @Mock
+    private SaleCountService saleCountService;
+
     @InjectMocks
     private ProductService productService = new ProductServiceImpl();
 
+    @BeforeEach
+    void setSearchMaxResults() {
+        ReflectionTestUtils.setField(productService, "searchMaxResults", 2);
+    }
+
     @Nested
     @DisplayName("Testing findById method")
     class findByIdTest {
@@ -161,15 +175,13 @@ class ProductServiceTest {
         @Test
         void getProductsByCategoryTest1() {
             // given
-            Category category = new Category();
-            category.setType("folder");
-            when(categoryService.findById(1L)).thenReturn(category);
+            when(categoryService.getLeafCategoriesIds(1L)).thenReturn(Arrays.asList(2L, 3L));
 
             // run
             productService.getProductsByCategory(1L);
 
             // assert
-            verify(productDao, times(1)).getProductsByCategoriesIds(new ArrayList<>());
+            verify(productDao, times(1)).getProductsByCategoriesIds(Arrays.asList(2L, 3L));
         }
 
         @DisplayName("when a category has type category " +
@@ -177,126 +189,112 @@ class ProductServiceTest {
         @Test
         void getProductsByCategoryTest2() {
             // given
-            Category category = new Category();
-            category.setType("category");
-            when(categoryService.findById(1L)).thenReturn(category);
+            when(categoryService.getLeafCategoriesIds(1L)).thenReturn(Collections.singletonList(1L));
 
             // run
             productService.getProductsByCategory(1L);
 
             // assert
-            verify(productDao, times(1)).getProductsByCategoryId(1L);
+            verify(productDao, times(1)).getProductsByCategoriesIds(Collections.singletonList(1L));
         }
 
-    }
-
-    @Nested
-    @DisplayName("Testing reserveProducts method")
-    class reserveProductsTest {
-        @DisplayName("when an available quantity for each product is equal or greater than required " +
-                "then all products get reserved")
+        @DisplayName("when a folder has no categories " +
+                "then no products are returned without querying a database")
         @Test
-        void reserveProductTest1() {
+        void getProductsByCategoryTest3() {
             // given
-            Product product1 = new Product();
-            product1.setId(1L);
-
-            Product product2 = new Product();
-            product2.setId(2L);
-
-            List<OrderProduct> orderProducts = new ArrayList<>();
-
-            OrderProduct orderProduct1 = mock(OrderProduct.class);
-            when(orderProduct1.getProduct()).thenReturn(product1);
-            when(orderProduct1.getQuantity()).thenReturn(1);
-
-            OrderProduct orderProduct2 = mock(OrderProduct.class);
-            when(orderProduct2.getProduct()).thenReturn(product2);
-            when(orderProduct2.getQuantity()).thenReturn(1);
-            orderProducts.add(orderProduct1);
-            orderProducts.add(orderProduct2);
+            when(categoryService.getLeafCategoriesIds(1L)).thenReturn(Collections.emptyList());
 
             // run
-            productService.reserveProducts(orderProducts);
+            List<Product> products = productService.getProductsByCategory(1L);
 
             // assert
-            verify(productDao, times(2)).reserveProductWithLocking(anyLong(), anyInt());
-            verify(productDao, times(0)).unreserveProductWithLocking(anyLong(), anyInt());
+            assertTrue(products.isEmpty());
+            verifyZeroInteractions(productDao);
         }
 
-        @DisplayName("when an available quantity for one of the products is less than required " +
-                "then none of the products get reserved")
+    }
+
+    @Nested
+    @DisplayName("Testing getProductsPage method")
+    class getProductsPageTest {
+        @DisplayName("when there are more products than the page size " +
+                "then the page is trimmed and the cursor of its last product is returned")
         @Test
-        void reserveProductTest2() {
+        void getProductsPageTest1() {
             // given
             Product product1 = new Product();
             product1.setId(1L);
-
+            product1.setQuantityInStock(10);
             Product product2 = new Product();
             product2.setId(2L);
+            product2.setQuantityInStock(5);
+            Product product3 = new Product();
+            product3.setId(3L);
+            product3.setQuantityInStock(5);
+            when(productDao.getProductsPage(null, null, 3)).thenReturn(Arrays.asList(product1, product2, product3));
 
-            List<OrderProduct> orderProducts = new ArrayList<>();
-
-            OrderProductPK orderProductPK1 = new OrderProductPK();
-            orderProductPK1.setProduct(product1);
-
-            OrderProduct orderProduct1 = new OrderProduct();
-            orderProduct1.setPk(orderProductPK1);
-            orderProduct1.setQuantity(10);
+            // run
+            ProductPageDto page = productService.getProductsPage(null, null, 2);
 
-            OrderProductPK orderProductPK2 = new OrderProductPK();
-            orderProductPK2.setProduct(product2);
+            // assert
+            assertEquals(Arrays.asList(product1, product2), page.getProducts());
+            ProductCursor cursor = ProductCursor.decode(page.getNextCursor());
+            assertEquals(Integer.valueOf(5), cursor.getQuantityInStock());
+            assertEquals(2L, cursor.getId());
+        }
 
-            OrderProduct orderProduct2 = new OrderProduct();
-            orderProduct2.setPk(orderProductPK2);
-            orderProduct2.setQuantity(10);
+        @DisplayName("when the last page is requested " +
+                "then the page is returned without a cursor")
+        @Test
+        void getProductsPageTest2() {
+            // given
+            Product product = new Product();
+            product.setId(3L);
+            product.setQuantityInStock(5);
+            when(categoryService.getLeafCategoriesIds(1L)).thenReturn(Collections.singletonList(2L));
+            when(productDao.getProductsPage(eq(Collections.singletonList(2L)), any(ProductCursor.class), eq(3)))
+                    .thenReturn(Collections.singletonList(product));
 
-            orderProducts.add(orderProduct1);
-            orderProducts.add(orderProduct2);
+            // run
+            ProductPageDto page = productService.getProductsPage(1L, new ProductCursor(5, 2L).encode(), 2);
 
-            doNothing().when(productDao).reserveProductWithLocking(1L, 10);
-            doThrow(new ProductReserveException()).when(productDao).reserveProductWithLocking(2L, 10);
+            // assert
+            assertEquals(Collections.singletonList(product), page.getProducts());
+            assertNull(page.getNextCursor());
+        }
 
-            // run and assert
-            assertThrows(ProductReserveException.class, () -> {
-                productService.reserveProducts(orderProducts);
-            });
-            verify(productDao, times(2)).reserveProductWithLocking(anyLong(), anyInt());
-            verify(productDao, times(1)).unreserveProductWithLocking(anyLong(), anyInt());
+        @DisplayName("when a cursor is malformed " +
+                "then InvalidCursorException is thrown")
+        @Test
+        void getProductsPageTest3() {
+            assertThrows(InvalidCursorException.class, () -> productService.getProductsPage(null, "%%%", 2));
+            verifyZeroInteractions(productDao);
         }
-    }
 
-    @Nested
-    @DisplayName("Testing unreserveProduct method")
-    class unreserveProductTest {
-        @DisplayName("when this method is called then products get unreserved")
+        @DisplayName("when the last product of a page has no quantity in stock " +
+                "then the cursor keeps the unknown quantity")
         @Test
-        void unreserveProductTest1() {
+        void getProductsPageTest4() {
             // given
             Product product1 = new Product();
             product1.setId(1L);
-
+            product1.setQuantityInStock(10);
             Product product2 = new Product();
             product2.setId(2L);
-
-            List<OrderProduct> orderProducts = new ArrayList<>();
-
-            OrderProduct orderProduct1 = mock(OrderProduct.class);
-            when(orderProduct1.getProduct()).thenReturn(product1);
-            when(orderProduct1.getQuantity()).thenReturn(1);
-
-            OrderProduct orderProduct2 = mock(OrderProduct.class);
-            when(orderProduct2.getProduct()).thenReturn(product2);
-            when(orderProduct2.getQuantity()).thenReturn(1);
-            orderProducts.add(orderProduct1);
-            orderProducts.add(orderProduct2);
+            Product product3 = new Product();
+            product3.setId(3L);
+            when(productDao.getProductsPage(null, null, 3)).thenReturn(Arrays.asList(product1, product2, product3));
 
             // run
-            productService.unreserveProducts(orderProducts);
+            ProductPageDto page = productService.getProductsPage(null, null, 2);
 
             // assert
-            verify(productDao, times(2)).unreserveProductWithLocking(anyLong(), anyInt());
+            ProductCursor cursor = ProductCursor.decode(page.getNextCursor());
+            assertNull(cursor.getQuantityInStock());
+            assertEquals(2L, cursor.getId());
         }
+
     }
 
     @Nested
@@ -333,12 +331,16 @@ class ProductServiceTest {
             productService.buyProducts(orderProducts);
 
             // assert
+            Map<Long, Integer> quantities = new HashMap<>();
+            quantities.put(1L, 1);
+            quantities.put(2L, 1);
+
             assertEquals(0, product1.getQuantityReserved());
-            assertEquals(1, product1.getSaleCount());
             assertEquals(0, product2.getQuantityReserved());
-            assertEquals(1, product2.getSaleCount());
-            verify(productDao, times(1)).update(product1);
-            verify(productDao, times(1)).update(product2);
+            verify(productDao, times(1)).sellReservedProducts(quantities);
+            verify(productDao, never()).update(any(Product.class));
+            verify(saleCountService, times(1)).increment(1L);
+            verify(saleCountService, times(1)).increment(2L);
         }
 
     }
@@ -465,13 +467,9 @@ class ProductServiceTest {
             searchCriteria.put("input", "test");
             searchCriteria.put("categoryId", "1");
 
-            Category category = new Category();
-            category.setId(1L);
-            category.setType("category");
-            when(categoryService.findById(1L)).thenReturn(category);
-
             List<Long> categoriesIds = new ArrayList<>();
             categoriesIds.add(1L);
+            when(categoryService.getLeafCategoriesIds(1L)).thenReturn(categoriesIds);
 
             // run
             productService.findByCriteria(searchCriteria);
@@ -490,13 +488,8 @@ class ProductServiceTest {
             searchCriteria.put("input", "test");
             searchCriteria.put("categoryId", "1");
 
-            Category category = new Category();
-            category.setType("folder");
-
-            List<Category> categories = new ArrayList<>();
             List<Long> categoriesIds = new ArrayList<>();
-
-            when(categoryService.findById(1L)).thenReturn(category);
+            when(categoryService.getLeafCategoriesIds(1L)).thenReturn(categoriesIds);
 
             // run
             productService.findByCriteria(searchCriteria);
@@ -679,6 +672,142 @@ class ProductServiceTest {
             // assert
             assertEquals(2, result.size());
         }
+
+        @DisplayName("when the search index is ready " +
+                "then products are fetched by the ids found in the index")
+        @Test
+        void searchByCriteriaTest8() {
+            // given
+            Map<String, String> searchCriteria = new HashMap<>();
+            searchCriteria.put("input", "test");
+            searchCriteria.put("categoryId", "");
+
+            List<Long> productsIds = new ArrayList<>();
+            productsIds.add(1L);
+            List<Product> products = new ArrayList<>();
+            products.add(new Product());
+            when(productSearchIndex.isReady()).thenReturn(true);
+            when(productSearchIndex.search("test", null)).thenReturn(productsIds);
+            when(productDao.findByIds(productsIds)).thenReturn(products);
+
+            // run
+            List<Product> result = productService.findByCriteria(searchCriteria);
+
+            // assert
+            assertEquals(products, result);
+            verify(productDao, never()).findByPartialName(anyString());
+        }
+
+        @DisplayName("when the search index finds nothing " +
+                "then the database is not queried")
+        @Test
+        void searchByCriteriaTest9() {
+            // given
+            Map<String, String> searchCriteria = new HashMap<>();
+            searchCriteria.put("input", "test");
+            searchCriteria.put("categoryId", "");
+
+            when(productSearchIndex.isReady()).thenReturn(true);
+            when(productSearchIndex.search("test", null)).thenReturn(new ArrayList<>());
+
+            // run
+            List<Product> result = productService.findByCriteria(searchCriteria);
+
+            // assert
+            assertTrue(result.isEmpty());
+            verifyZeroInteractions(productDao);
+        }
+
+        @DisplayName("when the facet index is ready " +
+                "then products are filtered by attributes in the index and only the rest are fetched")
+        @Test
+        void searchByCriteriaTest10() {
+            // given
+            Map<String, String> searchCriteria = new HashMap<>();
+            searchCriteria.put("input", "");
+            searchCriteria.put("categoryId", "");
+            searchCriteria.put("test", "1");
+
+            List<Long> productsIds = new ArrayList<>();
+            productsIds.add(1L);
+            List<Product> products = new ArrayList<>();
+            products.add(new Product());
+            when(attributeFacetIndex.isReady()).thenReturn(true);
+            when(attributeFacetIndex.filter(searchCriteria, null, null)).thenReturn(productsIds);
+            when(productDao.findByIds(productsIds)).thenReturn(products);
+
+            // run
+            List<Product> result = productService.findByCriteria(searchCriteria);
+
+            // assert
+            assertEquals(products, result);
+            verify(productDao, never()).findByPartialName(anyString());
+        }
+
+        @DisplayName("when more products match than a search returns " +
+                "then only the products with the largest quantities in stock are fetched")
+        @Test
+        void searchByCriteriaTest11() {
+            // given
+            Map<String, String> searchCriteria = new HashMap<>();
+            searchCriteria.put("input", "test");
+            searchCriteria.put("categoryId", "");
+
+            List<Long> productsIds = Arrays.asList(1L, 2L, 3L);
+            List<Object[]> stocks = Arrays.asList(new Object[]{1L, 5}, new Object[]{2L, 20}, new Object[]{3L, 10});
+            List<Product> products = new ArrayList<>();
+            when(productSearchIndex.isReady()).thenReturn(true);
+            when(productSearchIndex.search("test", null)).thenReturn(productsIds);
+            when(productDao.getStocks(productsIds)).thenReturn(stocks);
+            when(productDao.findByIds(Arrays.asList(2L, 3L))).thenReturn(products);
+
+            // run
+            List<Product> result = productService.findByCriteria(searchCriteria);
+
+            // assert
+            assertEquals(products, result);
+        }
+
+        @DisplayName("when the facet index is ready and the search index is not " +
+                "then products are found by name and filtered by attributes")
+        @Test
+        void searchByCriteriaTest12() {
+            // given
+            Attribute attribute = new Attribute();
+            attribute.setName("test");
+
+            ProductAttribute productAttribute = new ProductAttribute();
+            ProductAttributePK productAttributePK = new ProductAttributePK();
+            productAttributePK.setAttribute(attribute);
+            productAttribute.setPk(productAttributePK);
+            productAttribute.setValue("1");
+            List<ProductAttribute> productAttributes = new ArrayList<>();
+            productAttributes.add(productAttribute);
+            Product product = new Product();
+            product.setAttributes(productAttributes);
+
+            Map<String, String> searchCriteria = new HashMap<>();
+            searchCriteria.put("input", "name");
+            searchCriteria.put("categoryId", "");
+            searchCriteria.put("test", "1");
+
+            Product productWithoutAttributes = new Product();
+            productWithoutAttributes.setAttributes(new ArrayList<>());
+
+            List<Product> products = new ArrayList<>();
+            products.add(product);
+            products.add(productWithoutAttributes);
+            when(attributeFacetIndex.isReady()).thenReturn(true);
+            when(productDao.findByPartialName("name")).thenReturn(products);
+
+            // run
+            List<Product> result = productService.findByCriteria(searchCriteria);
+
+            // assert
+            assertEquals(1, result.size());
+            assertEquals(product, result.get(0));
+            verify(attributeFacetIndex, never()).filter(anyMap(), any(), any());
+        }
     }
 
     @Nested
@@ -730,361 +859,86 @@ class ProductServiceTest {
             // assert
             assertEquals(5, result.size());
         }
-    }
 
-    @Nested
-    @DisplayName("Testing createPriceListFile method")
-    class createPriceListFileTest {
-        @DisplayName("when this method is called then a price list file is created")
+        @DisplayName("when the sales ranking is ready then top selling products are taken from it")
         @Test
-        void createPriceListFileTest1() throws IOException {
+        void getTopTestSellingProductsTest3() {
             // given
-            String fileName = "estore-price-list.csv";
+            List<Product> products = new ArrayList<>();
+            products.add(new Product());
+            when(salesRanking.isReady()).thenReturn(true);
+            when(salesRanking.getTopProducts(10)).thenReturn(products);
 
             // run
-            File file = productService.createPriceListFile(fileName);
+            List<Product> result = productService.getTopSellingProducts(10);
 
             // assert
-            assertEquals(fileName, file.getName());
+            assertEquals(products, result);
+            verify(productDao, never()).getAllProducts();
         }
     }
 
     @Nested
-    @DisplayName("Testing processPriceListFile method")
-    class processPriceListFileTest {
-        @DisplayName("when a product has no id then this product gets saved")
+    @DisplayName("Testing writePriceList method")
+    class writePriceListTest {
+        @DisplayName("when products are scrolled then each row is written as a CSV line after the header")
         @Test
-        void processPriceListFileTest1() throws IOException {
+        void writePriceListTest1() throws IOException {
             // given
-            File priceList = new File("estore-price-list.csv");
-            FileWriter outputfile = new FileWriter(priceList);
-            CSVWriter writer = new CSVWriter(outputfile);
-            String[] header = {"ID",
-                    "Name",
-                    "Purchasing price",
-                    "Selling price",
-                    "Weight",
-                    "Height",
-                    "Width",
-                    "Depth",
-                    "Quantity in stock",
-                    "Image url",
-                    "Measure units id",
-                    "Category id"};
-            writer.writeNext(header);
-
-            List<Product> products = new ArrayList<>();
-
-            Price price = new Price();
-            price.setPrice(new BigDecimal(20));
-            price.setCreationDate(LocalDate.now());
-            List<Price> prices = new ArrayList<>();
-            prices.add(price);
-
-            Product product1 = new Product();
-            product1.setName("Product name");
-            product1.setPurchasingPrices(prices);
-            product1.setWeight(1.0);
-            product1.setHeight(1.0);
-            product1.setWidth(1.0);
-            product1.setDepth(1.0);
-            product1.setQuantityInStock(1);
-
-            MeasureUnits measureUnits = new MeasureUnits();
-            measureUnits.setId(1L);
-            product1.setMeasureUnits(measureUnits);
-
-            product1.setSellingPrice(new BigDecimal(30));
-
-            Category category = new Category();
-            category.setId(1L);
-            product1.setCategory(category);
-
-            products.add(product1);
-
-            products.forEach( product -> {
-                String[] row = {"",
-                        product.getName(),
-                        product.getRecentPurchasingPrice().toString(),
-                        product.getSellingPrice().toString(),
-                        product.getWeight().toString(),
-                        product.getHeight().toString(),
-                        product.getWidth().toString(),
-                        product.getDepth().toString(),
-                        product.getQuantityInStock().toString(),
-                        product.getImageUrl(),
-                        product.getMeasureUnits().getId().toString(),
-                        product.getCategory().getId().toString()};
-                writer.writeNext(row);
-            });
-            writer.close();
-
-
-            FileInputStream input = new FileInputStream(priceList);
-            MultipartFile multipartFile = new MockMultipartFile("file",
-                    priceList.getName(), "text/plain", IOUtils.toByteArray(input));
-
-            PriceListDto priceListDto = new PriceListDto();
-            priceListDto.setPriceList(multipartFile);
-
+            ScrollableResults rows = mock(ScrollableResults.class);
+            when(productDao.scrollPriceListRows(anyInt())).thenReturn(rows);
+            when(rows.next()).thenReturn(true, true, false);
+            when(rows.get()).thenReturn(
+                    new Object[]{1L, "Bolt", new BigDecimal("1.50"), new BigDecimal("2.00"), 10, 1, 2, 3, 100,
+                                 "bolt.png", 1L, 5L},
+                    new Object[]{2L, "Nut", new BigDecimal("0.50"), new BigDecimal("0.75"), 5, 1, 1, 1, 0,
+                                 null, 1L, 5L});
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
 
             // run
-            productService.processPriceListFile(priceListDto);
+            productService.writePriceList(outputStream);
 
             // assert
-            verify(productDao, times(1)).save(any(Product.class));
-
-
+            String[] lines = outputStream.toString("UTF-8").split("\n");
+            assertEquals(3, lines.length);
+            assertTrue(lines[0].startsWith("\"ID\",\"Name\",\"Purchasing price\""));
+            assertEquals("\"1\",\"Bolt\",\"1.50\",\"2.00\",\"10\",\"1\",\"2\",\"3\",\"100\",\"bolt.png\",\"1\",\"5\"",
+                         lines[1]);
+            assertEquals("\"2\",\"Nut\",\"0.50\",\"0.75\",\"5\",\"1\",\"1\",\"1\",\"0\",,\"1\",\"5\"", lines[2]);
+            verify(rows).close();
+            verify(productDao, never()).getAllProducts();
         }
 
-        @DisplayName("when a product has id then this product gets updated")
+        @DisplayName("when there are no products then only the header is written")
         @Test
-        void processPriceListFileTest2() throws IOException {
+        void writePriceListTest2() throws IOException {
             // given
-            File priceList = new File("estore-price-list.csv");
-            FileWriter outputfile = new FileWriter(priceList);
-            CSVWriter writer = new CSVWriter(outputfile);
-            String[] header = {"ID",
-                    "Name",
-                    "Purchasing price",
-                    "Selling price",
-                    "Weight",
-                    "Height",
-                    "Width",
-                    "Depth",
-                    "Quantity in stock",
-                    "Image url",
-                    "Measure units id",
-                    "Category id"};
-            writer.writeNext(header);
-
-            List<Product> products = new ArrayList<>();
-
-            Price price = new Price();
-            price.setPrice(new BigDecimal(20));
-            price.setCreationDate(LocalDate.now());
-            List<Price> prices = new ArrayList<>();
-            prices.add(price);
-
-            Product product1 = new Product();
-            product1.setId(1L);
-            product1.setName("Product name");
-            product1.setPurchasingPrices(prices);
-            product1.setWeight(1.0);
-            product1.setHeight(1.0);
-            product1.setWidth(1.0);
-            product1.setDepth(1.0);
-            product1.setQuantityInStock(1);
-
-            MeasureUnits measureUnits = new MeasureUnits();
-            measureUnits.setId(1L);
-            product1.setMeasureUnits(measureUnits);
-
-            product1.setSellingPrice(new BigDecimal(30));
-
-            Category category = new Category();
-            category.setId(1L);
-            product1.setCategory(category);
-
-            products.add(product1);
-
-            products.forEach( product -> {
-                String[] row = {product.getId().toString(),
-                        product.getName(),
-                        product.getRecentPurchasingPrice().toString(),
-                        product.getSellingPrice().toString(),
-                        product.getWeight().toString(),
-                        product.getHeight().toString(),
-                        product.getWidth().toString(),
-                        product.getDepth().toString(),
-                        product.getQuantityInStock().toString(),
-                        product.getImageUrl(),
-                        product.getMeasureUnits().getId().toString(),
-                        product.getCategory().getId().toString()};
-                writer.writeNext(row);
-            });
-            writer.close();
-
-
-            FileInputStream input = new FileInputStream(priceList);
-            MultipartFile multipartFile = new MockMultipartFile("file",
-                    priceList.getName(), "text/plain", IOUtils.toByteArray(input));
-
-            PriceListDto priceListDto = new PriceListDto();
-            priceListDto.setPriceList(multipartFile);
-
-            when(productDao.findById(anyLong())).thenReturn(product1);
+            ScrollableResults rows = mock(ScrollableResults.class);
+            when(productDao.scrollPriceListRows(anyInt())).thenReturn(rows);
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
 
             // run
-            productService.processPriceListFile(priceListDto);
+            productService.writePriceList(outputStream);
 
             // assert
-            verify(productDao, times(1)).update(any(Product.class));
+            assertEquals(1, outputStream.toString("UTF-8").split("\n").length);
+            verify(rows).close();
         }
 
-        @DisplayName("when one of the values is invalid then exception PriceListException is thrown")
+        @DisplayName("when the price list is written then the stream of the caller is flushed and left open")
         @Test
-        void processPriceListFileTest3() throws IOException {
+        void writePriceListTest3() throws IOException {
             // given
-            File priceList = new File("estore-price-list.csv");
-            FileWriter outputfile = new FileWriter(priceList);
-            CSVWriter writer = new CSVWriter(outputfile);
-            String[] header = {"ID",
-                    "Name",
-                    "Purchasing price",
-                    "Selling price",
-                    "Weight",
-                    "Height",
-                    "Width",
-                    "Depth",
-                    "Quantity in stock",
-                    "Image url",
-                    "Measure units id",
-                    "Category id"};
-            writer.writeNext(header);
-
-            List<Product> products = new ArrayList<>();
+            ScrollableResults rows = mock(ScrollableResults.class);
+            when(productDao.scrollPriceListRows(anyInt())).thenReturn(rows);
+            OutputStream outputStream = mock(OutputStream.class);
 
-            Price price = new Price();
-            price.setPrice(new BigDecimal(20));
-            price.setCreationDate(LocalDate.now());
-            List<Price> prices = new ArrayList<>();
-            prices.add(price);
-
-            Product product1 = new Product();
-            product1.setId(1L);
-            product1.setName("Product name");
-            product1.setPurchasingPrices(prices);
-            product1.setWeight(1.0);
-            product1.setHeight(1.0);
-            product1.setWidth(1.0);
-            product1.setDepth(1.0);
-            product1.setQuantityInStock(1);
-
-            MeasureUnits measureUnits = new MeasureUnits();
-            measureUnits.setId(1L);
-            product1.setMeasureUnits(measureUnits);
-
-            product1.setSellingPrice(new BigDecimal(30));
-
-            Category category = new Category();
-            category.setId(1L);
-            product1.setCategory(category);
-
-            products.add(product1);
-
-            products.forEach( product -> {
-                String[] row = {product.getId().toString(),
-                        product.getName(),
-                        product.getRecentPurchasingPrice().toString(),
-                        product.getSellingPrice().toString(),
-                        "",
-                        product.getHeight().toString(),
-                        product.getWidth().toString(),
-                        product.getDepth().toString(),
-                        product.getQuantityInStock().toString(),
-                        product.getImageUrl(),
-                        product.getMeasureUnits().getId().toString(),
-                        product.getCategory().getId().toString()};
-                writer.writeNext(row);
-            });
-            writer.close();
-
-
-            FileInputStream input = new FileInputStream(priceList);
-            MultipartFile multipartFile = new MockMultipartFile("file",
-                    priceList.getName(), "text/plain", IOUtils.toByteArray(input));
-
-            PriceListDto priceListDto = new PriceListDto();
-            priceListDto.setPriceList(multipartFile);
-
-            // run and assert
-            assertThrows(PriceListImportException.class, () -> {
-                productService.processPriceListFile(priceListDto);
-
-            });
-        }
-
-        @DisplayName("when one of the values is missing then exception PriceListException is thrown")
-        @Test
-        void processPriceListFileTest4() throws IOException {
-            // given
-            File priceList = new File("estore-price-list.csv");
-            FileWriter outputfile = new FileWriter(priceList);
-            CSVWriter writer = new CSVWriter(outputfile);
-            String[] header = {"ID",
-                    "Name",
-                    "Purchasing price",
-                    "Selling price",
-                    "Weight",
-                    "Height",
-                    "Width",
-                    "Depth",
-                    "Quantity in stock",
-                    "Image url",
-                    "Measure units id",
-                    "Category id"};
-            writer.writeNext(header);
-
-            List<Product> products = new ArrayList<>();
-
-            Price price = new Price();
-            price.setPrice(new BigDecimal(20));
-            price.setCreationDate(LocalDate.now());
-            List<Price> prices = new ArrayList<>();
-            prices.add(price);
-
-            Product product1 = new Product();
-            product1.setId(1L);
-            product1.setName("Product name");
-            product1.setPurchasingPrices(prices);
-            product1.setWeight(1.0);
-            product1.setHeight(1.0);
-            product1.setWidth(1.0);
-            product1.setDepth(1.0);
-            product1.setQuantityInStock(1);
-
-            MeasureUnits measureUnits = new MeasureUnits();
-            measureUnits.setId(1L);
-            product1.setMeasureUnits(measureUnits);
-
-            product1.setSellingPrice(new BigDecimal(30));
-
-            Category category = new Category();
-            category.setId(1L);
-            product1.setCategory(category);
-
-            products.add(product1);
+            // run
+            productService.writePriceList(outputStream);
 
-            products.forEach( product -> {
-                String[] row = {product.getId().toString(),
-                        product.getName(),
-                        product.getRecentPurchasingPrice().toString(),
-                        product.getSellingPrice().toString(),
-                        product.getHeight().toString(),
-                        product.getWidth().toString(),
-                        product.getDepth().toString(),
-                        product.getQuantityInStock().toString(),
-                        product.getImageUrl(),
-                        product.getMeasureUnits().getId().toString(),
-                        product.getCategory().getId().toString()};
-                writer.writeNext(row);
-            });
-            writer.close();
-
-
-            FileInputStream input = new FileInputStream(priceList);
-            MultipartFile multipartFile = new MockMultipartFile("file",
-                    priceList.getName(), "text/plain", IOUtils.toByteArray(input));
-
-            PriceListDto priceListDto = new PriceListDto();
-            priceListDto.setPriceList(multipartFile);
-
-            // run and assert
-            assertThrows(RuntimeException.class, () -> {
-                productService.processPriceListFile(priceListDto);
-
-            });
+            // assert
+            verify(outputStream).flush();
+            verify(outputStream, never()).close();
         }
     }
 
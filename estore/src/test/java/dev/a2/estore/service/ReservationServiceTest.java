@@ -0,0 +1,158 @@
+package dev.a2.estore.service;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+
+import dev.a2.estore.dao.ProductDao;
+import dev.a2.estore.dao.ReservationDao;
+import dev.a2.estore.model.Reservation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+@DisplayName("Testing ReservationService")
+@ExtendWith(MockitoExtension.class)
+class ReservationServiceTest {
+
+    @Mock
+    private ReservationDao reservationDao;
+
+    @Mock
+    private ProductDao productDao;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private ReservationService reservationService = new ReservationServiceImpl();
+
+    @BeforeEach
+    void setBatchSize() {
+        ReflectionTestUtils.setField(reservationService, "sweepBatchSize", 2);
+    }
+
+    private static Reservation createReservation(final String id, final long productId, final int quantity) {
+        Reservation reservation = new Reservation();
+        reservation.setId(id);
+        reservation.setExpiresAt(LocalDateTime.now().plusMinutes(10));
+        reservation.getQuantities().put(productId, quantity);
+        return reservation;
+    }
+
+    @Nested
+    @DisplayName("Testing release method")
+    class releaseTest {
+        @DisplayName("when the reserve is stored then its products are unreserved and the reserve is deleted")
+        @Test
+        void releaseTest1() {
+            // given
+            Reservation reservation = createReservation("1", 4L, 2);
+            when(reservationDao.findByIdForUpdate("1")).thenReturn(reservation);
+
+            // run
+            boolean released = reservationService.release("1");
+
+            // assert
+            assertTrue(released);
+            verify(productDao, times(1)).unreserveProducts(Collections.singletonMap(4L, 2));
+            verify(reservationDao, times(1)).delete(reservation);
+        }
+
+        @DisplayName("when the reserve has already been released then products are not unreserved twice")
+        @Test
+        void releaseTest2() {
+            // given
+            when(reservationDao.findByIdForUpdate("1")).thenReturn(null);
+
+            // run
+            boolean released = reservationService.release("1");
+
+            // assert
+            assertFalse(released);
+            verifyZeroInteractions(productDao);
+        }
+    }
+
+    @Nested
+    @DisplayName("Testing complete method")
+    class completeTest {
+        @DisplayName("when the reserve has run out then it is not completed")
+        @Test
+        void completeTest1() {
+            // given
+            Reservation reservation = createReservation("1", 4L, 2);
+            reservation.setExpiresAt(LocalDateTime.now().minusSeconds(1));
+            when(reservationDao.findByIdForUpdate("1")).thenReturn(reservation);
+
+            // run
+            boolean completed = reservationService.complete("1");
+
+            // assert
+            assertFalse(completed);
+            verify(reservationDao, never()).delete(any());
+            verifyZeroInteractions(productDao);
+        }
+    }
+
+    @Nested
+    @DisplayName("Testing releaseExpired method")
+    class releaseExpiredTest {
+        @DisplayName("when reserves have run out then they are released in batches with merged quantities")
+        @Test
+        void releaseExpiredTest1() {
+            // given
+            Reservation reservation1 = createReservation("1", 4L, 1);
+            Reservation reservation2 = createReservation("2", 4L, 2);
+            Reservation reservation3 = createReservation("3", 5L, 1);
+            when(reservationDao.findExpiredForUpdate(any(LocalDateTime.class), eq(2)))
+                    .thenReturn(Arrays.asList(reservation1, reservation2))
+                    .thenReturn(Collections.singletonList(reservation3));
+
+            // run
+            int released = reservationService.releaseExpired();
+
+            // assert
+            assertEquals(3, released);
+            verify(productDao, times(1)).unreserveProducts(Collections.singletonMap(4L, 3));
+            verify(productDao, times(1)).unreserveProducts(Collections.singletonMap(5L, 1));
+            verify(reservationDao, times(3)).delete(any(Reservation.class));
+        }
+
+        @DisplayName("when nothing has run out then products are not touched")
+        @Test
+        void releaseExpiredTest2() {
+            // given
+            when(reservationDao.findExpiredForUpdate(any(LocalDateTime.class), eq(2)))
+                    .thenReturn(Collections.emptyList());
+
+            // run
+            int released = reservationService.releaseExpired();
+
+            // assert
+            assertEquals(0, released);
+            verifyZeroInteractions(productDao);
+        }
+    }
+
+}
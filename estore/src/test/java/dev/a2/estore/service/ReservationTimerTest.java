@@ -0,0 +1,89 @@
+package dev.a2.estore.service;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Testing ReservationTimer")
+class ReservationTimerTest {
+
+    private ReservationTimerImpl reservationTimer = new ReservationTimerImpl();
+
+    @AfterEach
+    void stopTimer() {
+        reservationTimer.shutdown();
+    }
+
+    @Nested
+    @DisplayName("Testing cancel method")
+    class cancelTest {
+        @DisplayName("when a live reserve is cancelled then it is claimed and never released by the timer")
+        @Test
+        void cancelTest1() throws InterruptedException {
+            // given
+            AtomicInteger releases = new AtomicInteger();
+            String reservationId = "1";
+            reservationTimer.start(reservationId, releases::incrementAndGet, 1);
+
+            // run
+            boolean claimed = reservationTimer.cancel(reservationId);
+            TimeUnit.MILLISECONDS.sleep(1500);
+
+            // assert
+            assertTrue(claimed);
+            assertFalse(reservationTimer.isLive(reservationId));
+            assertEquals(0, releases.get());
+            assertEquals(0, reservationTimer.getLiveReservations());
+        }
+
+        @DisplayName("when an expired reserve is cancelled then it is not claimed")
+        @Test
+        void cancelTest2() throws InterruptedException {
+            // given
+            CountDownLatch released = new CountDownLatch(1);
+            String reservationId = "2";
+            reservationTimer.start(reservationId, released::countDown, 0);
+            assertTrue(released.await(5, TimeUnit.SECONDS));
+
+            // run
+            boolean claimed = reservationTimer.cancel(reservationId);
+
+            // assert
+            assertFalse(claimed);
+            assertFalse(reservationTimer.isLive(reservationId));
+        }
+
+        @DisplayName("when the reserve id is null then nothing is claimed")
+        @Test
+        void cancelTest3() {
+            // assert
+            assertFalse(reservationTimer.cancel(null));
+        }
+    }
+
+    @Nested
+    @DisplayName("Testing getLiveReservations method")
+    class getLiveReservationsTest {
+        @DisplayName("when many carts are reserved then all of them are counted as live")
+        @Test
+        void getLiveReservationsTest1() {
+            // run
+            for (int i = 0; i < 1000; i++) {
+                reservationTimer.start(String.valueOf(i), () -> { }, 60);
+            }
+
+            // assert
+            assertEquals(1000, reservationTimer.getLiveReservations());
+        }
+    }
+
+}
@@ -0,0 +1,225 @@
+package dev.a2.estore.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+
+import dev.a2.estore.dao.DailyRevenueDao;
+import dev.a2.estore.model.DailyRevenue;
+import dev.a2.estore.model.Order;
+import dev.a2.estore.model.PendingRevenue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("Testing RevenueRollupService")
+@ExtendWith(MockitoExtension.class)
+class RevenueRollupServiceTest {
+
+    @Mock
+    private DailyRevenueDao dailyRevenueDao;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private RevenueRollupService revenueRollupService = new RevenueRollupServiceImpl();
+
+    private static Order createOrder() {
+        Order order = new Order();
+        order.setId(1L);
+        order.setCreationDateTime(LocalDateTime.of(2019, 5, 17, 23, 59));
+        order.setTotalSellingPrice(new BigDecimal("12.50"));
+        order.setTotalPurchasingPrice(new BigDecimal("7.25"));
+        return order;
+    }
+
+    private static PendingRevenue createPendingRevenue(final Long orderId) {
+        return new PendingRevenue(orderId, LocalDate.of(2019, 5, 17),
+                new BigDecimal("12.50"), new BigDecimal("7.25"));
+    }
+
+    @Nested
+    @DisplayName("Testing addOrder method")
+    class addOrderTest {
+        @DisplayName("when an order is saved " +
+                "then its sums are stored as pending")
+        @Test
+        void addOrderTest1() {
+            // given
+            ArgumentCaptor<PendingRevenue> captor = ArgumentCaptor.forClass(PendingRevenue.class);
+
+            // run
+            revenueRollupService.addOrder(createOrder());
+
+            // assert
+            verify(dailyRevenueDao, times(1)).savePending(captor.capture());
+            assertEquals(Long.valueOf(1L), captor.getValue().getOrderId());
+            assertEquals(LocalDate.of(2019, 5, 17), captor.getValue().getRevenueDate());
+            assertEquals(new BigDecimal("12.50"), captor.getValue().getRevenue());
+            assertEquals(new BigDecimal("7.25"), captor.getValue().getCost());
+            verify(dailyRevenueDao, never()).addToDay(any(LocalDate.class), any(BigDecimal.class),
+                    any(BigDecimal.class), anyLong());
+        }
+    }
+
+    @Nested
+    @DisplayName("Testing flush method")
+    class flushTest {
+        @DisplayName("when the row of the order day exists " +
+                "then the order is added to it by an update and is not pending any more")
+        @Test
+        void flushTest1() {
+            // given
+            LocalDate day = LocalDate.of(2019, 5, 17);
+            when(dailyRevenueDao.findPendingForUpdate(anyInt()))
+                    .thenReturn(Collections.singletonList(createPendingRevenue(1L)));
+            when(dailyRevenueDao.addToDay(day, new BigDecimal("12.50"), new BigDecimal("7.25"), 1))
+                    .thenReturn(1);
+
+            // run
+            revenueRollupService.flush();
+
+            // assert
+            verify(dailyRevenueDao, never()).save(any(DailyRevenue.class));
+            verify(dailyRevenueDao, times(1)).deletePending(Collections.singletonList(1L));
+        }
+
+        @DisplayName("when the row of the order day does not exist " +
+                "then a row with the order is created")
+        @Test
+        void flushTest2() {
+            // given
+            LocalDate day = LocalDate.of(2019, 5, 17);
+            when(dailyRevenueDao.findPendingForUpdate(anyInt()))
+                    .thenReturn(Collections.singletonList(createPendingRevenue(1L)));
+            when(dailyRevenueDao.addToDay(day, new BigDecimal("12.50"), new BigDecimal("7.25"), 1))
+                    .thenReturn(0);
+            ArgumentCaptor<DailyRevenue> captor = ArgumentCaptor.forClass(DailyRevenue.class);
+
+            // run
+            revenueRollupService.flush();
+
+            // assert
+            verify(dailyRevenueDao, times(1)).save(captor.capture());
+            assertEquals(day, captor.getValue().getRevenueDate());
+            assertEquals(new BigDecimal("5.25"), captor.getValue().calculateProfit());
+            assertEquals(1, captor.getValue().getOrderCount());
+        }
+
+        @DisplayName("when several orders of one day are pending " +
+                "then their sum is written by one update")
+        @Test
+        void flushTest3() {
+            // given
+            LocalDate day = LocalDate.of(2019, 5, 17);
+            when(dailyRevenueDao.findPendingForUpdate(anyInt()))
+                    .thenReturn(Arrays.asList(createPendingRevenue(1L), createPendingRevenue(2L)));
+            when(dailyRevenueDao.addToDay(day, new BigDecimal("25.00"), new BigDecimal("14.50"), 2))
+                    .thenReturn(1);
+
+            // run
+            revenueRollupService.flush();
+
+            // assert
+            verify(dailyRevenueDao, times(1)).addToDay(any(LocalDate.class), any(BigDecimal.class),
+                    any(BigDecimal.class), anyLong());
+            verify(dailyRevenueDao, times(1)).deletePending(Arrays.asList(1L, 2L));
+        }
+
+        @DisplayName("when a flush fails " +
+                "then the orders stay pending")
+        @Test
+        void flushTest4() {
+            // given
+            LocalDate day = LocalDate.of(2019, 5, 17);
+            when(dailyRevenueDao.findPendingForUpdate(anyInt()))
+                    .thenReturn(Collections.singletonList(createPendingRevenue(1L)));
+            when(dailyRevenueDao.addToDay(day, new BigDecimal("12.50"), new BigDecimal("7.25"), 1))
+                    .thenThrow(new RuntimeException("Lock wait timeout exceeded"));
+
+            // run
+            revenueRollupService.flush();
+
+            // assert
+            verify(dailyRevenueDao, never()).deletePending(anyList());
+        }
+
+        @DisplayName("when there are no pending orders " +
+                "then nothing is written")
+        @Test
+        void flushTest5() {
+            // given
+            when(dailyRevenueDao.findPendingForUpdate(anyInt())).thenReturn(Collections.emptyList());
+
+            // run
+            revenueRollupService.flush();
+
+            // assert
+            verify(dailyRevenueDao, never()).addToDay(any(LocalDate.class), any(BigDecimal.class),
+                    any(BigDecimal.class), anyLong());
+            verify(dailyRevenueDao, never()).deletePending(anyList());
+        }
+    }
+
+    @Nested
+    @DisplayName("Testing initialize method")
+    class initializeTest {
+        @DisplayName("when the rollup is empty " +
+                "then it is filled from orders and the rows of today and tomorrow are created")
+        @Test
+        void initializeTest1() {
+            // given
+            DailyRevenue past = new DailyRevenue(LocalDate.of(2019, 5, 17), BigDecimal.TEN, BigDecimal.ONE, 2);
+            when(dailyRevenueDao.count()).thenReturn(0L);
+            when(dailyRevenueDao.sumOrdersByDay()).thenReturn(Arrays.asList(past));
+
+            // run
+            revenueRollupService.initialize();
+
+            // assert
+            verify(dailyRevenueDao, times(1)).save(past);
+            verify(dailyRevenueDao, times(1)).deleteAllPending();
+            verify(dailyRevenueDao, times(1)).findByDate(LocalDate.now());
+            verify(dailyRevenueDao, times(1)).findByDate(LocalDate.now().plusDays(1));
+            verify(dailyRevenueDao, times(3)).save(any(DailyRevenue.class));
+        }
+
+        @DisplayName("when the rollup is not empty " +
+                "then orders are not summed again")
+        @Test
+        void initializeTest2() {
+            // given
+            when(dailyRevenueDao.count()).thenReturn(30L);
+            when(dailyRevenueDao.findByDate(any(LocalDate.class))).thenReturn(new DailyRevenue());
+
+            // run
+            revenueRollupService.initialize();
+
+            // assert
+            verify(dailyRevenueDao, never()).sumOrdersByDay();
+            verify(dailyRevenueDao, never()).deleteAllPending();
+            verify(dailyRevenueDao, never()).save(any(DailyRevenue.class));
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package dev.a2.estore.service;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import dev.a2.estore.dao.ProductDao;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+@DisplayName("Testing SaleCountService")
+@ExtendWith(MockitoExtension.class)
+class SaleCountServiceTest {
+
+    @Mock
+    private ProductDao productDao;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private SaleCountService saleCountService = new SaleCountServiceImpl();
+
+    @Nested
+    @DisplayName("Testing flush method")
+    class flushTest {
+        @DisplayName("when sales are counted then they are written in one batch and nothing stays pending")
+        @Test
+        void flushTest1() {
+            // given
+            saleCountService.increment(1L);
+            saleCountService.increment(1L);
+            saleCountService.increment(2L);
+
+            Map<Long, Long> saleCounts = new HashMap<>();
+            saleCounts.put(1L, 2L);
+            saleCounts.put(2L, 1L);
+
+            // run
+            saleCountService.flush();
+
+            // assert
+            verify(productDao, times(1)).addSaleCounts(saleCounts);
+            assertEquals(0, saleCountService.getPendingDeltas());
+        }
+
+        @DisplayName("when there are no sales then the database is not touched")
+        @Test
+        void flushTest2() {
+            // run
+            saleCountService.flush();
+
+            // assert
+            verifyZeroInteractions(productDao);
+        }
+
+        @DisplayName("when a flush fails then the sales stay pending and are written by the next flush")
+        @Test
+        void flushTest3() {
+            // given
+            saleCountService.increment(1L);
+            doThrow(new IllegalStateException()).doNothing().when(productDao).addSaleCounts(any());
+
+            // run
+            saleCountService.flush();
+
+            // assert
+            assertEquals(1, saleCountService.getPendingDeltas());
+            saleCountService.flush();
+            assertEquals(0, saleCountService.getPendingDeltas());
+            verify(productDao, times(2)).addSaleCounts(any());
+        }
+    }
+
+}
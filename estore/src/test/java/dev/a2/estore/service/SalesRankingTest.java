@@ -0,0 +1,117 @@
+package dev.a2.estore.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import dev.a2.estore.dao.ProductDao;
+import dev.a2.estore.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import static org.mockito.Mockito.when;
+
+@DisplayName("Testing SalesRanking")
+@ExtendWith(MockitoExtension.class)
+class SalesRankingTest {
+
+    @Mock
+    private ProductDao productDao;
+
+    @InjectMocks
+    private SalesRanking salesRanking = new SalesRankingImpl();
+
+    @BeforeEach
+    void buildRanking() {
+        ReflectionTestUtils.setField(salesRanking, "capacity", 2);
+
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[] {1L, "Product 1", "/img/1.png", new BigDecimal("1.00"), 5L});
+        rows.add(new Object[] {2L, "Product 2", "/img/2.png", new BigDecimal("2.00"), 3L});
+        rows.add(new Object[] {3L, "Product 3", "/img/3.png", new BigDecimal("3.00"), 3L});
+        when(productDao.getSaleCounts()).thenReturn(rows);
+
+        salesRanking.rebuild();
+    }
+
+    private Product product(final Long id) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName("Product " + id);
+        return product;
+    }
+
+    @Nested
+    @DisplayName("Testing getTopProducts method")
+    class getTopProductsTest {
+        @DisplayName("when the ranking is built then it is limited by its capacity")
+        @Test
+        void getTopProductsTest1() {
+            // run
+            List<Product> result = salesRanking.getTopProducts(10);
+
+            // assert
+            assertEquals(2, result.size());
+            assertEquals(Long.valueOf(1L), result.get(0).getId());
+            assertEquals(Long.valueOf(5L), result.get(0).getSaleCount());
+            assertEquals(Long.valueOf(2L), result.get(1).getId());
+        }
+    }
+
+    @Nested
+    @DisplayName("Testing recordSale method")
+    class recordSaleTest {
+        @DisplayName("when a product outside the top is sold enough times then it enters the top")
+        @Test
+        void recordSaleTest1() {
+            // run
+            salesRanking.recordSale(product(3L));
+
+            // assert
+            List<Product> result = salesRanking.getTopProducts(10);
+            assertEquals(Long.valueOf(3L), result.get(1).getId());
+            assertEquals(Long.valueOf(4L), result.get(1).getSaleCount());
+        }
+
+        @DisplayName("when a new product is sold once then it does not push out products with more sales")
+        @Test
+        void recordSaleTest2() {
+            // run
+            salesRanking.recordSale(product(4L));
+
+            // assert
+            List<Product> result = salesRanking.getTopProducts(10);
+            assertEquals(Long.valueOf(1L), result.get(0).getId());
+            assertEquals(Long.valueOf(2L), result.get(1).getId());
+        }
+    }
+
+    @Nested
+    @DisplayName("Testing refresh method")
+    class refreshTest {
+        @DisplayName("when a ranked product is renamed then the ranking shows the new name")
+        @Test
+        void refreshTest1() {
+            // given
+            Product product = product(1L);
+            product.setName("New name");
+
+            // run
+            salesRanking.refresh(product);
+
+            // assert
+            assertEquals("New name", salesRanking.getTopProducts(1).get(0).getName());
+        }
+    }
+
+}
@@ -6,6 +6,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
+import dev.a2.estore.dao.OrderDao;
 import dev.a2.estore.dao.RoleDao;
 import dev.a2.estore.dao.UserDao;
 import dev.a2.estore.dto.UserAddressDto;
@@ -23,6 +24,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -35,6 +37,7 @@ import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
 import org.springframework.security.core.userdetails.UserDetails;
@@ -50,7 +53,10 @@ class UserServiceTest {
     private BCryptPasswordEncoder passwordEncoder;
 
     @Mock
-    private OrderService orderService;
+    private OrderDao orderDao;
+
+    @Mock
+    private ClientRanking clientRanking;
 
     @Mock
     private CountryService countryService;
@@ -274,6 +280,7 @@ class UserServiceTest {
             // assert
             assertEquals("newFirstname", user.getFirstName());
             verify(userDao, times(1)).update(user);
+            verify(clientRanking, times(1)).refresh(user);
 
         }
     }
@@ -281,39 +288,55 @@ class UserServiceTest {
     @Nested
     @DisplayName("Testing getTopClients method")
     class getTopClientsTest {
-        @DisplayName("when this method is called " +
-                "then the list of top clients is returned, limited to a specified number")
+        @DisplayName("when the client ranking is ready " +
+                "then the top clients are taken from it")
         @Test
         void getTopClientsTest1() {
             // given
-            List<User> users = new ArrayList<>();
-            for (int i = 0; i < 30; i++) {
-                User user = mock(User.class);
-                doNothing().when(user).setOrdersSum(any());
-                when(user.getOrdersSum()).thenReturn(new BigDecimal(20));
-                users.add(user);
-            }
-            when(userDao.getAllUsers()).thenReturn(users);
+            ReflectionTestUtils.setField(userService, "topClientsLength", 10);
+            List<User> clients = new ArrayList<>();
+            clients.add(new User());
+            when(clientRanking.isReady()).thenReturn(true);
+            when(clientRanking.getTopClients(10)).thenReturn(clients);
+
+            // run
+            List<User> result = userService.getTopTenClients();
+
+            // assert
+            assertEquals(clients, result);
+            verifyZeroInteractions(orderDao);
+        }
+
+        @DisplayName("when the client ranking is not ready " +
+                "then the top clients are found by one aggregate query limited to a specified number")
+        @Test
+        void getTopClientsTest2() {
+            // given
+            ReflectionTestUtils.setField(userService, "topClientsLength", 10);
+            List<Object[]> rows = new ArrayList<>();
+            rows.add(new Object[] {1L, "First", "Client", new BigDecimal(30)});
+            rows.add(new Object[] {2L, "Second", "Client", new BigDecimal(20)});
+            when(clientRanking.isReady()).thenReturn(false);
+            when(orderDao.getOrdersSums(10)).thenReturn(rows);
 
             // run
             List<User> result = userService.getTopTenClients();
 
             // assert
-            assertEquals(10, result.size());
+            assertEquals(2, result.size());
+            assertEquals("First", result.get(0).getFirstName());
+            assertEquals(new BigDecimal(30), result.get(0).getOrdersSum());
         }
 
         @DisplayName("when clients have no purchases then those clients are ignored")
         @Test
         void getTopClientsTest3() {
             // given
-            List<User> users = new ArrayList<>();
-            for (int i = 0; i < 5; i++) {
-                User user = mock(User.class);
-                doNothing().when(user).setOrdersSum(any());
-                when(user.getOrdersSum()).thenReturn(new BigDecimal(0));
-                users.add(user);
-            }
-            when(userDao.getAllUsers()).thenReturn(users);
+            ReflectionTestUtils.setField(userService, "topClientsLength", 10);
+            List<Object[]> rows = new ArrayList<>();
+            rows.add(new Object[] {1L, "First", "Client", new BigDecimal(0)});
+            when(clientRanking.isReady()).thenReturn(false);
+            when(orderDao.getOrdersSums(10)).thenReturn(rows);
 
             // run
             List<User> result = userService.getTopTenClients();
@@ -326,7 +349,9 @@ class UserServiceTest {
         @Test
         void getTopClientsTest4() {
             // given
-            when(userDao.getAllUsers()).thenReturn(new ArrayList<>());
+            ReflectionTestUtils.setField(userService, "topClientsLength", 10);
+            when(clientRanking.isReady()).thenReturn(false);
+            when(orderDao.getOrdersSums(10)).thenReturn(new ArrayList<>());
 
             // run
             List<User> result = userService.getTopTenClients();
@@ -0,0 +1,115 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Andrei Sidorov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.a2.estore.test.CacheTests;
+
+import java.util.Collections;
+import java.util.Map;
+
+import dev.a2.estore.model.MeasureUnits;
+import dev.a2.estore.model.OrderProduct;
+import dev.a2.estore.model.Product;
+import dev.a2.estore.service.CacheService;
+import dev.a2.estore.service.MeasureUnitsService;
+import dev.a2.estore.service.ProductService;
+import dev.a2.estore.service.ReservationService;
+import dev.a2.estore.test.config.TestConfig;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.junit.jupiter.web.SpringJUnitWebConfig;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Testing the second-level cache")
+@SpringJUnitWebConfig(TestConfig.class)
+class SecondLevelCacheTest {
+
+    @Autowired
+    private MeasureUnitsService measureUnitsService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private CacheService cacheService;
+
+    private long getHits(final String regionName) {
+        Map<String, Long> counts = cacheService.getStatistics().get(regionName);
+        return counts == null ? 0 : counts.get("hits");
+    }
+
+    @DisplayName("when measure units are read twice then the second read is a cache hit")
+    @Test
+    void measureUnitsCacheHit() {
+        // given
+        Long measureUnitsId = measureUnitsService.getAllMeasureUnits().get(0).getId();
+        long hits = getHits(MeasureUnits.class.getName());
+
+        // run
+        measureUnitsService.findById(measureUnitsId);
+        measureUnitsService.findById(measureUnitsId);
+
+        // assert
+        assertTrue(getHits(MeasureUnits.class.getName()) > hits);
+    }
+
+    @DisplayName("when measure units are renamed then the new name is read from the cache")
+    @Test
+    void measureUnitsEviction() {
+        // given
+        MeasureUnits measureUnits = measureUnitsService.getAllMeasureUnits().get(0);
+        String name = measureUnits.getName();
+
+        // run
+        measureUnitsService.rename(measureUnits.getId(), "renamed");
+
+        // assert
+        assertEquals("renamed", measureUnitsService.findById(measureUnits.getId()).getName());
+        measureUnitsService.rename(measureUnits.getId(), name);
+    }
+
+    @DisplayName("when a product is reserved by a batch update then the cached product shows the new stock")
+    @Test
+    void productEvictionAfterReserve() {
+        // given
+        Product product = productService.findById(1L);
+        int inStock = product.getQuantityInStock();
+
+        // run
+        String reservationId = reservationService.reserve(Collections.singletonList(
+                new OrderProduct(null, product, 1)), 60);
+
+        // assert
+        assertEquals(inStock - 1, (int) productService.findById(1L).getQuantityInStock());
+        reservationService.release(reservationId);
+        assertEquals(inStock, (int) productService.findById(1L).getQuantityInStock());
+    }
+
+}
@@ -39,6 +39,7 @@ import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 
+import static org.hamcrest.Matchers.hasSize;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -124,6 +125,41 @@ class OrderControllerTest {
                 .andExpect(model().hasErrors());
     }
 
+    @DisplayName("when request POST '/orders/find' with page '0' " +
+            "then view orders with errors returns")
+    @Test
+    void findOrdersRequestPage1() throws Exception {
+        this.mockMvc
+                .perform(
+                        post("/orders/find")
+                                .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                                .param("page", "0")
+                )
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(model().hasErrors());
+    }
+
+    @DisplayName("when request POST '/orders/find' with a page after the last one sorted by email " +
+            "then view orders with no orders and no next page returns")
+    @Test
+    void findOrdersRequestPage2() throws Exception {
+        this.mockMvc
+                .perform(
+                        post("/orders/find")
+                                .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                                .param("startDate", "2000-01-01")
+                                .param("sortBy", "EMAIL")
+                                .param("sortDirection", "ASC")
+                                .param("page", "1000")
+                )
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(model().hasNoErrors())
+                .andExpect(model().attribute("orders", hasSize(0)))
+                .andExpect(model().attribute("hasNextPage", false));
+    }
+
     @DisplayName("when request POST '/orders/find' with order id '-1' " +
             "then view orders with errors returns")
     @Test
@@ -52,6 +52,55 @@ class ProductRestControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @DisplayName("when request GET '/products' with a page size smaller than the number of products " +
+            "then a page with the next cursor returns")
+    @Test
+    void getProductsPage1() throws Exception {
+        this.mockMvc.perform(get("/products?size=2"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.products.length()").value(2))
+                .andExpect(jsonPath("$.nextCursor").isNotEmpty());
+    }
+
+    @DisplayName("when request GET '/products' with a malformed cursor " +
+            "then error returns")
+    @Test
+    void getProductsPage2() throws Exception {
+        this.mockMvc.perform(get("/products?cursor=%25%25"))
+                .andDo(print())
+                .andExpect(status().isBadRequest());
+    }
+
+    @DisplayName("when request GET '/products/stream' " +
+            "then all products are streamed as a JSON array")
+    @Test
+    void streamProducts1() throws Exception {
+        this.mockMvc.perform(get("/products/stream"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/json"))
+                .andExpect(jsonPath("$[0].id").exists())
+                .andExpect(jsonPath("$[0].measureUnits.name").exists());
+    }
+
+    @DisplayName("when request GET '/products/stream' with category id '0' " +
+            "then error returns")
+    @Test
+    void streamProducts2() throws Exception {
+        this.mockMvc.perform(get("/products/stream?id=0"))
+                .andDo(print())
+                .andExpect(status().isBadRequest());
+    }
+
+    @DisplayName("when request GET '/products' with page size '0' " +
+            "then error returns")
+    @Test
+    void getProductsPage3() throws Exception {
+        this.mockMvc.perform(get("/products?size=0"))
+                .andDo(print())
+                .andExpect(status().isBadRequest());
+    }
+
     @DisplayName("when request GET '/products/category' with valid category id " +
             "then products filtered by category return")
     @Test
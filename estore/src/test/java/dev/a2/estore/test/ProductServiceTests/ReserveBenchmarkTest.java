@@ -0,0 +1,131 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Andrei Sidorov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.a2.estore.test.ProductServiceTests;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+import dev.a2.estore.dao.ProductDao;
+import dev.a2.estore.model.Product;
+import dev.a2.estore.service.ProductService;
+import dev.a2.estore.test.config.TestConfig;
+import org.apache.log4j.Logger;
+import org.hibernate.LockMode;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.junit.jupiter.web.SpringJUnitWebConfig;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the throughput of reserving a cart product by product with the batched reservation.
+ * Runs only with -Dbenchmark=true.
+ */
+@DisplayName("Benchmark of product reservation")
+@SpringJUnitWebConfig(TestConfig.class)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ReserveBenchmarkTest {
+
+    private static final Logger logger = Logger.getLogger(ReserveBenchmarkTest.class);
+
+    private static final int ITERATIONS = 1000;
+
+    @Autowired
+    private ProductDao productDao;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private SessionFactory sessionFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Map<Long, Integer> cart() {
+        Map<Long, Integer> cart = new TreeMap<>();
+        for (long productId = 1; productId <= 9; productId++) {
+            cart.put(productId, 1);
+        }
+        return cart;
+    }
+
+    // Locks and updates the row of one product in a transaction of its own,
+    // the way products were reserved before the batched reservation.
+    private void reserveWithLocking(final Long productId, final Integer quantity) {
+        new TransactionTemplate(transactionManager).execute(status -> {
+            Product product = sessionFactory.getCurrentSession()
+                    .get(Product.class, productId, LockMode.PESSIMISTIC_WRITE);
+            product.setQuantityInStock(product.getQuantityInStock() - quantity);
+            product.setQuantityReserved(product.getQuantityReserved() + quantity);
+            return null;
+        });
+    }
+
+    private long reserveOneByOne(final Map<Long, Integer> cart) {
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            cart.forEach(this::reserveWithLocking);
+            cart.forEach((productId, quantity) -> reserveWithLocking(productId, -quantity));
+        }
+        return System.nanoTime() - start;
+    }
+
+    private long reserveInBatch(final Map<Long, Integer> cart) {
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            productDao.reserveProducts(cart);
+            productDao.unreserveProducts(cart);
+        }
+        return System.nanoTime() - start;
+    }
+
+    @DisplayName("when a cart is reserved and unreserved many times then both ways are timed")
+    @Test
+    void reserveBenchmark() {
+        Map<Long, Integer> cart = cart();
+        Integer quantityInStock = productService.findById(1L).getQuantityInStock();
+
+        // warm up
+        reserveOneByOne(cart);
+        reserveInBatch(cart);
+
+        long oneByOne = reserveOneByOne(cart);
+        long batch = reserveInBatch(cart);
+
+        logger.info(String.format("Reserved %d carts of %d products: one by one %.1f carts/s, in batch %.1f carts/s",
+                ITERATIONS, cart.size(),
+                ITERATIONS / (oneByOne / 1e9),
+                ITERATIONS / (batch / 1e9)));
+        assertEquals(quantityInStock, productService.findById(1L).getQuantityInStock());
+    }
+
+}
@@ -0,0 +1,128 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2019 Andrei Sidorov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package dev.a2.estore.test.ProductServiceTests;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import dev.a2.estore.dao.ProductDao;
+import dev.a2.estore.dao.ReserveStrategy;
+import dev.a2.estore.model.OrderProduct;
+import dev.a2.estore.model.Product;
+import dev.a2.estore.service.ProductService;
+import dev.a2.estore.service.ReservationService;
+import dev.a2.estore.test.config.TestConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.junit.jupiter.web.SpringJUnitWebConfig;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Testing concurrent product reservation")
+@SpringJUnitWebConfig(TestConfig.class)
+class ReserveContentionTest {
+
+    private static final long PRODUCT_ID = 4L;
+
+    private static final int BUYERS = 20;
+
+    @Autowired
+    private ProductDao productDao;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    private final List<String> reservationsIds = Collections.synchronizedList(new ArrayList<>());
+
+    @AfterEach
+    void restore() {
+        reservationsIds.forEach(reservationService::release);
+        reservationsIds.clear();
+        ReflectionTestUtils.setField(AopTestUtils.getUltimateTargetObject(productDao),
+                "reserveStrategy", ReserveStrategy.PESSIMISTIC);
+    }
+
+    private void reserveConcurrently(final ReserveStrategy strategy) throws InterruptedException {
+        ReflectionTestUtils.setField(AopTestUtils.getUltimateTargetObject(productDao), "reserveStrategy", strategy);
+        Product before = productService.findById(PRODUCT_ID);
+        int inStock = before.getQuantityInStock();
+        int reserved = before.getQuantityReserved();
+
+        ExecutorService executor = Executors.newFixedThreadPool(BUYERS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger successes = new AtomicInteger();
+        for (int i = 0; i < BUYERS; i++) {
+            executor.execute(() -> {
+                Product product = new Product();
+                product.setId(PRODUCT_ID);
+                List<OrderProduct> cart = Collections.singletonList(new OrderProduct(null, product, 1));
+                try {
+                    start.await();
+                    reservationsIds.add(reservationService.reserve(cart, 60));
+                    successes.incrementAndGet();
+                } catch (Exception e) {
+                    // A shortage or a lock timeout, the product is not reserved.
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        Product after = productService.findById(PRODUCT_ID);
+        assertTrue(successes.get() <= inStock, "more products reserved than were in stock");
+        assertTrue(after.getQuantityInStock() >= 0);
+        assertEquals(inStock - successes.get(), (int) after.getQuantityInStock());
+        assertEquals(reserved + successes.get(), (int) after.getQuantityReserved());
+    }
+
+    @DisplayName("when buyers reserve the last items with row locks then the stock is never oversold")
+    @Test
+    void pessimisticReserve() throws InterruptedException {
+        reserveConcurrently(ReserveStrategy.PESSIMISTIC);
+    }
+
+    @DisplayName("when buyers reserve the last items with conditional updates then the stock is never oversold")
+    @Test
+    void conditionalReserve() throws InterruptedException {
+        reserveConcurrently(ReserveStrategy.CONDITIONAL);
+    }
+
+}